@@ -0,0 +1,95 @@
+package edu.univ.erp.bench;
+
+import edu.univ.erp.data.ComponentMarksDao;
+import edu.univ.erp.data.CourseDao;
+import edu.univ.erp.data.EnrollmentDao;
+import edu.univ.erp.data.GradingComponentDao;
+import edu.univ.erp.data.SectionDao;
+import edu.univ.erp.data.SectionWeightDao;
+import edu.univ.erp.data.UnitOfWork;
+import edu.univ.erp.domain.ComponentMark;
+import edu.univ.erp.domain.GradingComponent;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * BenchDatabase - in-memory H2 database (MySQL mode) for the DAO suites.
+ * configure() must run before the first DAO is created, since DataSourceProvider reads its config once;
+ * a -Dconfig.file given to the benchmark JVM is left alone. The schema comes from SchemaMigrator as usual.
+ */
+final class BenchDatabase {
+    static final String[] COMPONENTS = {"Quiz", "Assignment", "Midterm", "Project", "Endsem"};
+
+    private static final long SEED = 42L;
+    private static final int STUDENT_ID_BASE = 100_000;
+    private static final int MARK_CHUNK = 5_000;
+
+    private BenchDatabase() {}
+
+    static synchronized void configure() {
+        if (System.getProperty("config.file") != null) return;
+        Properties p = new Properties();
+        p.setProperty("db.erp.url", "jdbc:h2:mem:erp_bench;DB_CLOSE_DELAY=-1;MODE=MySQL;NON_KEYWORDS=YEAR,VALUE");
+        p.setProperty("db.auth.url", "jdbc:h2:mem:auth_bench;DB_CLOSE_DELAY=-1;MODE=MySQL;NON_KEYWORDS=YEAR,VALUE");
+        // measure the DAOs, not the statement instrumentation
+        p.setProperty("db.metrics.enabled", "false");
+        try {
+            Path file = Files.createTempFile("erp-bench", ".properties");
+            file.toFile().deleteOnExit();
+            try (OutputStream out = Files.newOutputStream(file)) {
+                p.store(out, "generated by BenchDatabase");
+            }
+            System.setProperty("config.file", file.toString());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Create one section with the given number of enrolled students, equal weights over COMPONENTS and a
+     * mark for every (enrollment, component). Marks are random but fixed by SEED.
+     * @return the section id
+     */
+    static int seedSection(int students) {
+        int courseId = new CourseDao().insert("BENCH-" + students, "Benchmark course", 4);
+        int sectionId = new SectionDao().insert(courseId, 1, "Fall", 2025);
+
+        GradingComponentDao componentDao = new GradingComponentDao();
+        if (componentDao.listAll().isEmpty()) {
+            for (String name : COMPONENTS) componentDao.insert(name);
+        }
+        List<GradingComponent> components = componentDao.listAll();
+        SectionWeightDao weightDao = new SectionWeightDao();
+        BigDecimal weight = BigDecimal.valueOf(100 / components.size());
+        for (GradingComponent gc : components) weightDao.upsert(sectionId, gc.getComponentId(), weight);
+
+        EnrollmentDao enrollmentDao = new EnrollmentDao();
+        ComponentMarksDao marksDao = new ComponentMarksDao();
+        Random rnd = new Random(SEED);
+        LocalDate date = LocalDate.of(2025, 8, 1);
+        UnitOfWork.inTransaction(() -> {
+            List<ComponentMark> marks = new ArrayList<>(MARK_CHUNK + components.size());
+            for (int i = 0; i < students; i++) {
+                int enrollmentId = enrollmentDao.insert(STUDENT_ID_BASE + i, sectionId, date);
+                for (GradingComponent gc : components) {
+                    marks.add(new ComponentMark(0, enrollmentId, gc.getComponentId(), BigDecimal.valueOf(rnd.nextInt(10_001), 2)));
+                }
+                if (marks.size() >= MARK_CHUNK) {
+                    marksDao.upsertAll(marks);
+                    marks.clear();
+                }
+            }
+            marksDao.upsertAll(marks);
+        });
+        return sectionId;
+    }
+}
@@ -0,0 +1,86 @@
+package edu.univ.erp.bench;
+
+import edu.univ.erp.data.ComponentMarksDao;
+import edu.univ.erp.data.EnrollmentDao;
+import edu.univ.erp.domain.ComponentMark;
+import edu.univ.erp.domain.Enrollment;
+import edu.univ.erp.service.GradeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ResultSet to domain mapping in the DAOs, over one seeded section of an in-memory H2 database
+ * (see BenchDatabase). Each call is one query plus the mapping of every row it returns.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DaoMappingBenchmark {
+
+    /** Enrolled students; every enrollment has one mark per BenchDatabase.COMPONENTS entry. */
+    @Param({"1000", "10000"})
+    public int students;
+
+    private EnrollmentDao enrollmentDao;
+    private ComponentMarksDao marksDao;
+    private GradeService gradeService;
+    private int sectionId;
+    private int enrollmentId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchDatabase.configure();
+        sectionId = BenchDatabase.seedSection(students);
+        enrollmentDao = new EnrollmentDao();
+        marksDao = new ComponentMarksDao();
+        gradeService = new GradeService();
+        enrollmentId = enrollmentDao.findBySectionId(sectionId).get(students / 2).getEnrollmentId();
+    }
+
+    @Benchmark
+    public List<Enrollment> enrollmentsBySection() {
+        return enrollmentDao.findBySectionId(sectionId);
+    }
+
+    @Benchmark
+    public List<ComponentMark> marksBySection() {
+        return marksDao.findBySection(sectionId);
+    }
+
+    /** The grade frame's joined gradebook query, streamed without building objects. */
+    @Benchmark
+    public int gradebookRows() {
+        int[] rows = {0};
+        marksDao.forEachGradebookRow(sectionId, (e, s, c, m, g) -> rows[0]++);
+        return rows[0];
+    }
+
+    /** Weights and marks of the whole section mapped and totalled (GradeService.computeSection). */
+    @Benchmark
+    public GradeService.SectionTotals computeSection() {
+        return gradeService.computeSection(sectionId);
+    }
+
+    /** One enrollment's total: two queries plus the BigDecimal math measured by GradingBenchmark. */
+    @Benchmark
+    public BigDecimal computeWeightedTotal() {
+        return gradeService.computeWeightedTotal(enrollmentId, sectionId);
+    }
+}
@@ -0,0 +1,104 @@
+package edu.univ.erp.bench;
+
+import edu.univ.erp.util.ExportUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExportUtil CSV and PDF writers over an enrollment-report shaped table, written to a byte-counting sink
+ * so only encoding and layout are measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExportBenchmark {
+    private static final String[] HEADER = {"EnrollmentID", "StudentID", "RollNo", "Course", "Semester", "Grade"};
+    private static final String[] GRADES = {"A", "B", "C", "D", "F", ""};
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    private List<Object[]> data;
+    private List<String[]> table; // header first, as the List overloads expect
+
+    @Setup
+    public void setUp() {
+        Random rnd = new Random(42);
+        data = new ArrayList<>(rows);
+        table = new ArrayList<>(rows + 1);
+        table.add(HEADER);
+        for (int i = 0; i < rows; i++) {
+            int studentId = 100_000 + rnd.nextInt(rows);
+            Object[] row = {i + 1, studentId, "R" + studentId, "CS" + (101 + rnd.nextInt(40)),
+                    rnd.nextBoolean() ? "Fall 2025" : "Spring 2026", GRADES[rnd.nextInt(GRADES.length)]};
+            data.add(row);
+            String[] text = new String[row.length];
+            for (int c = 0; c < row.length; c++) text[c] = row[c].toString();
+            table.add(text);
+        }
+    }
+
+    @Benchmark
+    public long csvFromList() throws IOException {
+        ByteCounter out = new ByteCounter();
+        ExportUtil.writeCsv(out, table);
+        return out.bytes;
+    }
+
+    @Benchmark
+    public long csvStreaming() throws IOException {
+        ByteCounter out = new ByteCounter();
+        ExportUtil.writeCsv(out, HEADER, data.iterator());
+        return out.bytes;
+    }
+
+    @Benchmark
+    public long pdfFromList() throws Exception {
+        ByteCounter out = new ByteCounter();
+        ExportUtil.writePdf(out, "Enrollments", HEADER, table.subList(1, table.size()));
+        return out.bytes;
+    }
+
+    @Benchmark
+    public long pdfStreaming() throws IOException {
+        ByteCounter out = new ByteCounter();
+        ExportUtil.writePdf(out, "Enrollments", HEADER, w -> {
+            for (Object[] row : data) w.write(row);
+        });
+        return out.bytes;
+    }
+
+    /** Discards the output but counts it, so the writers cannot be optimised away. */
+    private static final class ByteCounter extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package edu.univ.erp.bench;
+
+import edu.univ.erp.domain.SectionGradeWeight;
+import edu.univ.erp.service.GradeService;
+import edu.univ.erp.util.GradeScale;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grading arithmetic without a database: GradeService.weightedTotal (the BigDecimal math behind
+ * computeWeightedTotal) and the GradeScale letter mappings used by GradeService and the grade frame.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GradingBenchmark {
+    private static final int SCORES = 1024;
+
+    @Param({"4", "8"})
+    public int components;
+
+    private List<SectionGradeWeight> weights;
+    private Map<Integer, BigDecimal> marks;
+    private double[] percents;
+    private double[] cgpas;
+
+    @Setup
+    public void setUp() {
+        Random rnd = new Random(42);
+        weights = new ArrayList<>(components);
+        marks = new HashMap<>();
+        int left = 100;
+        for (int j = 1; j <= components; j++) {
+            int w = j == components ? left : 100 / components;
+            left -= w;
+            weights.add(new SectionGradeWeight(j, 1, j, BigDecimal.valueOf(w)));
+            marks.put(j, BigDecimal.valueOf(rnd.nextInt(10_001), 2));
+        }
+        percents = new double[SCORES];
+        cgpas = new double[SCORES];
+        for (int i = 0; i < SCORES; i++) {
+            percents[i] = rnd.nextInt(10_001) / 100.0;
+            cgpas[i] = rnd.nextInt(1_001) / 100.0;
+        }
+    }
+
+    @Benchmark
+    public BigDecimal weightedTotal() {
+        return GradeService.weightedTotal(weights, marks);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SCORES)
+    public void letterForPercent(Blackhole bh) {
+        for (double p : percents) bh.consume(GradeScale.letterForPercent(p));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SCORES)
+    public void letterForCgpa(Blackhole bh) {
+        for (double cg : cgpas) bh.consume(GradeScale.letterForCgpa(cg));
+    }
+}
@@ -1,7 +1,9 @@
 package edu.univ.erp;
 
 import edu.univ.erp.auth.AuthService;
+import edu.univ.erp.auth.Session;
 import edu.univ.erp.service.SystemService;
+import edu.univ.erp.remote.Services;
 import net.miginfocom.swing.MigLayout;
 
 import javax.swing.*;
@@ -10,12 +12,12 @@ import java.awt.*;
 /**
  * Login frame with maintenance-mode check.
  *
- * Assumes AuthService#authenticate(String,String) -> Optional<String> role
- * and AuthService#getUserIdByUsername(String) -> Integer
+ * AuthService#login(String,String) returns the Session (or null) from a single auth query;
+ * the Session is passed to the role's main frame.
  */
 public class LoginFrame extends JFrame {
-    private final AuthService authService = new AuthService();
-    private final SystemService systemService = new SystemService();
+    private final AuthService authService = Services.auth();
+    private final SystemService systemService = Services.system();
 
     private final JTextField usernameField;
     private final JPasswordField passwordField;
@@ -68,24 +70,24 @@ public class LoginFrame extends JFrame {
             return;
         }
 
-        String role;
+        Session session;
         try {
-            role = authService.authenticate(username, password);   // returns role OR null
+            session = authService.login(username, password);   // returns Session OR null
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(this, "Login failed: " + ex.getMessage(),
                     "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
 
-        if (role == null) {
+        if (session == null) {
             JOptionPane.showMessageDialog(this, "Invalid username or password",
                     "Login Failed", JOptionPane.ERROR_MESSAGE);
             return;
         }
 
+        String role = session.getRole();
+
         // Check maintenance mode - allow ADMIN always
-        // after successfully got 'role' from authService
-// Check maintenance mode - allow ADMIN always
         boolean maintenanceOn;
         try {
             maintenanceOn = systemService.isMaintenanceMode();
@@ -106,15 +108,15 @@ public class LoginFrame extends JFrame {
 // proceed to role-specific main frame
         SwingUtilities.invokeLater(() -> {
             dispose(); // close login
-            switch (role.toUpperCase()) {
+            switch (role) {
                 case "ADMIN":
-                    new edu.univ.erp.ui.AdminMainFrame(username).setVisible(true);
+                    new edu.univ.erp.ui.AdminMainFrame(session).setVisible(true);
                     break;
                 case "INSTRUCTOR":
-                    new edu.univ.erp.ui.InstructorMainFrame(username).setVisible(true);
+                    new edu.univ.erp.ui.InstructorMainFrame(session).setVisible(true);
                     break;
                 case "STUDENT":
-                    new edu.univ.erp.ui.StudentMainFrame(username).setVisible(true);
+                    new edu.univ.erp.ui.StudentMainFrame(session).setVisible(true);
                     break;
                 default:
                     JOptionPane.showMessageDialog(null, "Unknown role: " + role, "Error", JOptionPane.ERROR_MESSAGE);
@@ -1,6 +1,10 @@
 package edu.univ.erp.auth;
 
 import edu.univ.erp.data.DataSourceProvider;
+import edu.univ.erp.data.InstructorDao;
+import edu.univ.erp.data.StudentDao;
+import edu.univ.erp.domain.Instructor;
+import edu.univ.erp.domain.Student;
 import org.mindrot.jbcrypt.BCrypt;
 
 import javax.sql.DataSource;
@@ -10,32 +14,59 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 
 public class AuthService {
+    private final StudentDao studentDao = new StudentDao();
+    private final InstructorDao instructorDao = new InstructorDao();
+
+    /**
+     * Check the credentials and build the Session: one auth query (id, username, hash, role) plus the
+     * role's profile row. Returns null if the username is unknown or the password does not match.
+     */
+    public Session login(String username, String plainPassword) {
+        Credentials cred = findCredentials(username);
+        if (cred == null || !BCrypt.checkpw(plainPassword, cred.hash)) return null;
+        String role = cred.role == null ? "" : cred.role.toUpperCase();
+        Student student = "STUDENT".equals(role) ? studentDao.findByUserId(cred.userId).orElse(null) : null;
+        Instructor instructor = "INSTRUCTOR".equals(role) ? instructorDao.findByUserId(cred.userId).orElse(null) : null;
+        return new Session(cred.userId, cred.username, role, student, instructor);
+    }
+
     // returns role string if success, otherwise null
     public String authenticate(String username, String plainPassword) {
+        Credentials cred = findCredentials(username);
+        return cred != null && BCrypt.checkpw(plainPassword, cred.hash) ? cred.role : null;
+    }
+
+    private static final class Credentials {
+        final int userId;
+        final String username;
+        final String hash;
+        final String role;
+
+        Credentials(int userId, String username, String hash, String role) {
+            this.userId = userId;
+            this.username = username;
+            this.hash = hash;
+            this.role = role;
+        }
+    }
+
+    private Credentials findCredentials(String username) {
         DataSource ds = DataSourceProvider.authDataSource();
-        String sql = "SELECT password_hash, role FROM users WHERE username = ?";
+        String sql = "SELECT user_id, username, password_hash, role FROM users WHERE username = ?";
         try (Connection c = ds.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setString(1, username);
             try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    String hash = rs.getString("password_hash");
-                    String role = rs.getString("role");
-                    // bcrypt check
-                    if (BCrypt.checkpw(plainPassword, hash)) {
-                        return role;
-                    } else {
-                        return null;
-                    }
-                } else {
-                    return null;
-                }
+                if (!rs.next()) return null;
+                return new Credentials(rs.getInt("user_id"), rs.getString("username"),
+                        rs.getString("password_hash"), rs.getString("role"));
             }
         } catch (SQLException e) {
             throw new RuntimeException("DB error during authentication", e);
         }
     }
 
+    /** Prefer Session.getUserId() after login; this costs a query per call. */
     public Integer getUserIdByUsername(String username) {
         DataSource ds = DataSourceProvider.authDataSource();
         String sql = "SELECT user_id FROM users WHERE username = ?";
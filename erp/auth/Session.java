@@ -0,0 +1,45 @@
+package edu.univ.erp.auth;
+
+import edu.univ.erp.domain.Instructor;
+import edu.univ.erp.domain.Student;
+
+/**
+ * Session - the authenticated user, built once by AuthService.login and handed to the main frames.
+ * Identity (user id, username, role) and the role's profile are plain fields, so frames never go back
+ * to the auth DB to find out who is logged in. The profile is null when the user has none
+ * (admins, or a student/instructor without an ERP record).
+ */
+public final class Session {
+    private final int userId;
+    private final String username;
+    private final String role;
+    private final Student student;
+    private final Instructor instructor;
+    private final long loggedInAtMillis = System.currentTimeMillis();
+
+    /** Built by AuthService.login, or by the remote client from the server's login response. */
+    public Session(int userId, String username, String role, Student student, Instructor instructor) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.student = student;
+        this.instructor = instructor;
+    }
+
+    public int getUserId() { return userId; }
+    public String getUsername() { return username; }
+    /** ADMIN, INSTRUCTOR or STUDENT (upper case). */
+    public String getRole() { return role; }
+    /** Student profile, or null. */
+    public Student getStudent() { return student; }
+    /** Instructor profile, or null. */
+    public Instructor getInstructor() { return instructor; }
+    public long getLoggedInAtMillis() { return loggedInAtMillis; }
+
+    public boolean hasRole(String r) { return role.equalsIgnoreCase(r); }
+
+    @Override
+    public String toString() {
+        return userId + " - " + username + " [" + role + "]";
+    }
+}
@@ -6,10 +6,12 @@ import javax.sql.DataSource;
 import java.math.BigDecimal;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public class ComponentMarksDao {
+    private static final int BATCH_SIZE = 500;
     private final DataSource ds = DataSourceProvider.erpDataSource();
 
     public List<ComponentMark> findByEnrollment(int enrollmentId) {
@@ -25,6 +27,59 @@ public class ComponentMarksDao {
         return out;
     }
 
+    /**
+     * All component marks for every enrollment in a section, in one query.
+     * Enrollments without any marks are still returned as a single row with componentId 0 and null marks,
+     * so callers see the full roster. Rows are ordered by enrollment_id, component_id.
+     */
+    public List<ComponentMark> findBySection(int sectionId) {
+        String sql = "SELECT cm.id, e.enrollment_id, cm.component_id, cm.marks " +
+                "FROM enrollments e " +
+                "LEFT JOIN component_marks cm ON cm.enrollment_id = e.enrollment_id " +
+                "WHERE e.section_id = ? " +
+                "ORDER BY e.enrollment_id, cm.component_id";
+        List<ComponentMark> out = new ArrayList<>();
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, sectionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) out.add(new ComponentMark(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getBigDecimal(4)));
+            }
+        } catch (SQLException e) { throw new RuntimeException(e); }
+        return out;
+    }
+
+    /** Receives one joined row per (enrollment, component mark); see {@link #forEachGradebookRow}. */
+    @FunctionalInterface
+    public interface GradebookRowHandler {
+        /** componentId is 0 and marks NaN for enrollments without marks; grade is null if not published. */
+        void row(int enrollmentId, int studentId, int componentId, double marks, String grade);
+    }
+
+    /**
+     * Stream a section's gradebook (roster, component marks and final grade) from one joined query,
+     * ordered by enrollment_id, component_id, without building per-cell objects.
+     */
+    public void forEachGradebookRow(int sectionId, GradebookRowHandler handler) {
+        String sql = "SELECT e.enrollment_id, e.student_id, cm.component_id, cm.marks, g.grade " +
+                "FROM enrollments e " +
+                "LEFT JOIN component_marks cm ON cm.enrollment_id = e.enrollment_id " +
+                "LEFT JOIN grades g ON g.enrollment_id = e.enrollment_id " +
+                "WHERE e.section_id = ? " +
+                "ORDER BY e.enrollment_id, cm.component_id";
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, sectionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    double marks = rs.getDouble(4);
+                    if (rs.wasNull()) marks = Double.NaN;
+                    handler.row(rs.getInt(1), rs.getInt(2), rs.getInt(3), marks, rs.getString(5));
+                }
+            }
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
     public Optional<ComponentMark> find(int enrollmentId, int componentId) {
         String sql = "SELECT id, enrollment_id, component_id, marks FROM component_marks WHERE enrollment_id = ? AND component_id = ?";
         try (Connection c = ds.getConnection();
@@ -50,4 +105,38 @@ public class ComponentMarksDao {
             ps.executeUpdate();
         } catch (SQLException e) { throw new RuntimeException(e); }
     }
+
+    /**
+     * Batched upsert of many marks on a single connection and transaction.
+     * Statements are flushed every BATCH_SIZE rows; with rewriteBatchedStatements the driver sends each
+     * flush as one multi-row INSERT. Either all rows are written or none.
+     */
+    public int upsertAll(Collection<ComponentMark> marks) {
+        if (marks == null || marks.isEmpty()) return 0;
+        String sql = "INSERT INTO component_marks (enrollment_id, component_id, marks) VALUES (?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE marks = VALUES(marks)";
+        try (Connection c = ds.getConnection()) {
+            boolean oldAutoCommit = c.getAutoCommit();
+            c.setAutoCommit(false);
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                int pending = 0;
+                for (ComponentMark m : marks) {
+                    ps.setInt(1, m.getEnrollmentId());
+                    ps.setInt(2, m.getComponentId());
+                    if (m.getMarks() == null) ps.setNull(3, Types.DECIMAL);
+                    else ps.setBigDecimal(3, m.getMarks());
+                    ps.addBatch();
+                    if (++pending == BATCH_SIZE) { ps.executeBatch(); pending = 0; }
+                }
+                if (pending > 0) ps.executeBatch();
+                c.commit();
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            } finally {
+                c.setAutoCommit(oldAutoCommit);
+            }
+        } catch (SQLException e) { throw new RuntimeException(e); }
+        return marks.size();
+    }
 }
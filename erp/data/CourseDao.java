@@ -11,7 +11,12 @@ import java.util.Optional;
 public class CourseDao {
     private final DataSource ds = DataSourceProvider.erpDataSource();
 
+    /** All courses; served from ReferenceDataCache after the first call. */
     public List<Course> findAll() {
+        return new ArrayList<>(ReferenceDataCache.courseLists.get(ReferenceDataCache.ALL, k -> List.copyOf(queryAll())));
+    }
+
+    private List<Course> queryAll() {
         String sql = "SELECT course_id, code, title, credits FROM courses";
         List<Course> out = new ArrayList<>();
         try (Connection c = ds.getConnection();
@@ -32,6 +37,10 @@ public class CourseDao {
     }
 
     public Optional<Course> findById(int id) {
+        return Optional.ofNullable(ReferenceDataCache.courseById.get(id, k -> queryById(k).orElse(null)));
+    }
+
+    private Optional<Course> queryById(int id) {
         String sql = "SELECT course_id, code, title, credits FROM courses WHERE course_id = ?";
         try (Connection c = ds.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
@@ -58,6 +67,7 @@ public class CourseDao {
             ps.setString(2, title);
             ps.setInt(3, credits);
             ps.executeUpdate();
+            UnitOfWork.afterCommit(ds, ReferenceDataCache::invalidateCourses);
             try (ResultSet keys = ps.getGeneratedKeys()) {
                 if (keys.next()) return keys.getInt(1);
             }
@@ -76,6 +86,7 @@ public class CourseDao {
             ps.setInt(3, credits);
             ps.setInt(4, courseId);
             ps.executeUpdate();
+            UnitOfWork.afterCommit(ds, ReferenceDataCache::invalidateCourses);
         } catch (SQLException e) { throw new RuntimeException(e); }
     }
 
@@ -85,6 +96,7 @@ public class CourseDao {
              PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setInt(1, courseId);
             ps.executeUpdate();
+            UnitOfWork.afterCommit(ds, ReferenceDataCache::invalidateCourses);
         } catch (SQLException e) { throw new RuntimeException(e); }
     }
 }
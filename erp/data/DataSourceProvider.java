@@ -6,6 +6,7 @@ import com.zaxxer.hikari.HikariDataSource;
 import javax.sql.DataSource;
 import java.io.FileInputStream;
 import java.io.InputStream;
+import java.lang.reflect.Proxy;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Properties;
@@ -16,6 +17,12 @@ import java.util.Properties;
  *  - System property "config.file" (absolute path)
  *  - file "application.properties" at working dir
  *  - classpath resource "/application.properties"
+ * Pools are wrapped by InstrumentedDataSource; see DbMetrics for pool and statement metrics
+ * (db.metrics.enabled=false turns this off).
+ * Each pool is migrated by SchemaMigrator on first use (db.migrate.enabled=false turns this off).
+ * The returned DataSources are ScopedDataSources, so DAOs join an active UnitOfWork.
+ * When server.url is set the process is a desktop client of an ErpServer (see edu.univ.erp.remote.Services):
+ * no pools are created and any attempt to get a connection fails with an IllegalStateException.
  * Environment variables override properties if present:
  *  - DB_ERP_URL, DB_ERP_USER, DB_ERP_PASS
  *  - DB_AUTH_URL, DB_AUTH_USER, DB_AUTH_PASS
@@ -106,16 +113,56 @@ public final class DataSourceProvider {
         if (v != null && !v.isEmpty()) p.setProperty(propKey, v);
     }
 
+    /** Raw configuration value (application.properties / env overrides), or def if missing. */
+    public static String getProperty(String key, String def) {
+        return props.getProperty(key, def);
+    }
+
+    /** The ErpServer this process is a client of (server.url), or null when it talks to the databases itself. */
+    public static String serverUrl() {
+        String url = props.getProperty("server.url");
+        return url == null || url.isBlank() ? null : url.trim();
+    }
+
+    public static boolean isRemoteClient() {
+        return serverUrl() != null;
+    }
+
     public static synchronized DataSource erpDataSource() {
-        if (erpDs == null) erpDs = createDs("db.erp.url", "db.erp.user", "db.erp.password");
+        if (erpDs == null && isRemoteClient()) erpDs = remoteOnly("ERP");
+        if (erpDs == null) {
+            DataSource ds = createDs("db.erp.url", "db.erp.user", "db.erp.password");
+            SchemaMigrator.migrate(ds, SchemaMigrator.ERP);
+            erpDs = ds;
+        }
         return erpDs;
     }
 
     public static synchronized DataSource authDataSource() {
-        if (authDs == null) authDs = createDs("db.auth.url", "db.auth.user", "db.auth.password");
+        if (authDs == null && isRemoteClient()) authDs = remoteOnly("auth");
+        if (authDs == null) {
+            DataSource ds = createDs("db.auth.url", "db.auth.user", "db.auth.password");
+            SchemaMigrator.migrate(ds, SchemaMigrator.AUTH);
+            authDs = ds;
+        }
         return authDs;
     }
 
+    /** Stand-in DataSource for a remote client: DAOs can be constructed, but using one fails loudly. */
+    private static DataSource remoteOnly(String name) {
+        String message = "Direct " + name + " database access is disabled: this client uses the ERP server at " + serverUrl();
+        DataSource none = (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                (proxy, m, args) -> {
+                    switch (m.getName()) {
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "equals": return proxy == args[0];
+                        case "toString": return name + " DataSource (remote client)";
+                        default: throw new IllegalStateException(message);
+                    }
+                });
+        return new ScopedDataSource(none);
+    }
+
     private static DataSource createDs(String urlKey, String userKey, String passKey) {
         String url = props.getProperty(urlKey);
         String user = props.getProperty(userKey);
@@ -129,7 +176,16 @@ public final class DataSourceProvider {
         if (maxPool != null) cfg.setMaximumPoolSize(Integer.parseInt(maxPool));
         // optional: connection test query for MySQL
         cfg.setConnectionTestQuery("SELECT 1");
-        cfg.setPoolName("erp-pool-" + Math.abs(url.hashCode()));
-        return new HikariDataSource(cfg);
+        // let MySQL Connector/J collapse addBatch()/executeBatch() into multi-row statements
+        cfg.addDataSourceProperty("rewriteBatchedStatements", "true");
+        cfg.setPoolName((urlKey.startsWith("db.auth") ? "auth" : "erp") + "-pool-" + Math.abs(url.hashCode()));
+        // warn (with stack trace) about connections held longer than this; 0 disables
+        cfg.setLeakDetectionThreshold(Long.parseLong(props.getProperty("db.pool.leakDetectionMillis", "60000")));
+        if (!Boolean.parseBoolean(props.getProperty("db.metrics.enabled", "true"))) {
+            return new ScopedDataSource(new HikariDataSource(cfg));
+        }
+        // pool gauges/wait times and per-statement latency, readable through DbMetrics
+        cfg.setMetricsTrackerFactory(DbMetrics.trackerFactory());
+        return new ScopedDataSource(new InstrumentedDataSource(new HikariDataSource(cfg), cfg.getPoolName()));
     }
 }
@@ -0,0 +1,285 @@
+package edu.univ.erp.data;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Pattern;
+
+/**
+ * DbMetrics - in-process metrics for the JDBC layer.
+ *  - per pool: active/idle/total/waiting connections, connection wait time, timeouts (fed by HikariCP)
+ *  - per DAO method and SQL statement: execution count and latency histogram (p50/p95/p99/max)
+ *    (fed by InstrumentedDataSource)
+ *  - statements slower than db.slowQueryMillis (default 500) are logged to stderr with their caller
+ */
+public final class DbMetrics {
+
+    static final long SLOW_QUERY_NANOS =
+            Long.parseLong(DataSourceProvider.getProperty("db.slowQueryMillis", "500")) * 1_000_000L;
+
+    // "IN (?, ?, ?)" lists of any length share one entry
+    private static final Pattern PARAM_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+    private static final int MAX_SQL_KEY = 300;
+
+    private static final Map<String, PoolTracker> pools = new ConcurrentHashMap<>();
+    private static final Map<String, StatementTracker> statements = new ConcurrentHashMap<>();
+
+    private DbMetrics() {}
+
+    /* ---------------- Public API ---------------- */
+
+    /** Current state of every pool, by pool name. */
+    public static List<PoolSnapshot> pools() {
+        List<PoolSnapshot> out = new ArrayList<>();
+        for (PoolTracker t : pools.values()) out.add(t.snapshot());
+        out.sort(Comparator.comparing(PoolSnapshot::getPoolName));
+        return out;
+    }
+
+    /** Per-statement stats, most total time first. */
+    public static List<StatementSnapshot> statements() {
+        List<StatementSnapshot> out = new ArrayList<>();
+        for (StatementTracker t : statements.values()) out.add(t.snapshot());
+        out.sort(Comparator.comparingDouble(StatementSnapshot::getTotalMillis).reversed());
+        return out;
+    }
+
+    /** Clear statement and wait-time histograms (pool gauges are live and not affected). */
+    public static void reset() {
+        statements.clear();
+        for (PoolTracker t : pools.values()) t.reset();
+    }
+
+    /** Human-readable summary, top {@code limit} statements by total time. */
+    public static String report(int limit) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Connection pools\n");
+        sb.append("----------------\n");
+        for (PoolSnapshot p : pools()) {
+            sb.append(String.format("%s: active=%d idle=%d total=%d/%d waiting=%d | wait p50=%.2fms p95=%.2fms p99=%.2fms | timeouts=%d%n",
+                    p.getPoolName(), p.getActive(), p.getIdle(), p.getTotal(), p.getMax(), p.getWaiting(),
+                    p.getWaitP50Millis(), p.getWaitP95Millis(), p.getWaitP99Millis(), p.getTimeouts()));
+        }
+        sb.append("\nStatements (by total time)\n");
+        sb.append("--------------------------\n");
+        int n = 0;
+        for (StatementSnapshot s : statements()) {
+            if (n++ >= limit) break;
+            sb.append(String.format("%-40s n=%-7d total=%.1fms p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms%n    %s%n",
+                    s.getCaller(), s.getCount(), s.getTotalMillis(), s.getP50Millis(), s.getP95Millis(),
+                    s.getP99Millis(), s.getMaxMillis(), s.getSql()));
+        }
+        return sb.toString();
+    }
+
+    /* ---------------- Recording (package-private) ---------------- */
+
+    static MetricsTrackerFactory trackerFactory() {
+        return (poolName, poolStats) -> pools.computeIfAbsent(poolName, n -> new PoolTracker(n, poolStats));
+    }
+
+    static void recordStatement(String pool, String sql, long nanos) {
+        String text = normalize(sql);
+        String caller = callerOf();
+        StatementTracker t = statements.computeIfAbsent(caller + '|' + text, k -> new StatementTracker(text, caller));
+        t.latency.record(nanos);
+        if (nanos >= SLOW_QUERY_NANOS) {
+            System.err.println(String.format("[SLOW] %.1f ms on %s from %s: %s",
+                    nanos / 1_000_000.0, pool, caller, text));
+        }
+    }
+
+    private static String normalize(String sql) {
+        if (sql == null) return "(batch)";
+        String s = PARAM_LIST.matcher(sql.trim().replaceAll("\\s+", " ")).replaceAll("?...");
+        return s.length() > MAX_SQL_KEY ? s.substring(0, MAX_SQL_KEY) + "..." : s;
+    }
+
+    /** First application frame outside the instrumentation, e.g. "EnrollmentDao.findById". */
+    private static String callerOf() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith("edu.univ.erp.")
+                        && !f.getClassName().startsWith(DbMetrics.class.getName())
+                        && !f.getClassName().startsWith(InstrumentedDataSource.class.getName()))
+                .findFirst()
+                .map(f -> f.getClassName().substring(f.getClassName().lastIndexOf('.') + 1) + "." + f.getMethodName())
+                .orElse("?"));
+    }
+
+    /* ---------------- Histogram ---------------- */
+
+    /**
+     * Lock-free log-linear latency histogram: 4 buckets per power of two of microseconds,
+     * so percentiles are accurate to roughly 20%.
+     */
+    public static final class LatencyHistogram {
+        private static final int SUB = 4;
+        private static final int BUCKETS = 40 * SUB;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        public void record(long nanos) {
+            long micros = Math.max(0, nanos / 1000);
+            buckets.incrementAndGet(bucketOf(micros));
+            count.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        public long getCount() { return count.get(); }
+        public double getTotalMillis() { return totalNanos.get() / 1_000_000.0; }
+        public double getMaxMillis() { return maxNanos.get() / 1_000_000.0; }
+
+        /** Upper bound of the bucket holding the p-th percentile (0 < p <= 1), in milliseconds. */
+        public double percentileMillis(double p) {
+            long n = count.get();
+            if (n == 0) return 0;
+            long target = (long) Math.ceil(p * n);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= target) return Math.min(upperBoundMicros(i) / 1000.0, getMaxMillis());
+            }
+            return getMaxMillis();
+        }
+
+        private static int bucketOf(long micros) {
+            if (micros < SUB) return (int) micros;
+            int msb = 63 - Long.numberOfLeadingZeros(micros);
+            int sub = (int) ((micros >>> (msb - 2)) & (SUB - 1));
+            return Math.min((msb - 1) * SUB + sub, BUCKETS - 1);
+        }
+
+        private static long upperBoundMicros(int idx) {
+            if (idx < SUB) return idx;
+            int msb = idx / SUB + 1;
+            int sub = idx % SUB;
+            return ((SUB + sub + 1L) << (msb - 2)) - 1;
+        }
+    }
+
+    /* ---------------- Trackers ---------------- */
+
+    private static final class PoolTracker implements IMetricsTracker {
+        private final String poolName;
+        private final PoolStats stats;
+        private volatile LatencyHistogram wait = new LatencyHistogram();
+        private final AtomicLong timeouts = new AtomicLong();
+
+        PoolTracker(String poolName, PoolStats stats) {
+            this.poolName = poolName;
+            this.stats = stats;
+        }
+
+        @Override public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) { wait.record(elapsedAcquiredNanos); }
+        @Override public void recordConnectionTimeout() { timeouts.incrementAndGet(); }
+        @Override public void close() { pools.remove(poolName, this); }
+
+        void reset() {
+            wait = new LatencyHistogram();
+            timeouts.set(0);
+        }
+
+        PoolSnapshot snapshot() {
+            LatencyHistogram w = wait;
+            return new PoolSnapshot(poolName, stats.getActiveConnections(), stats.getIdleConnections(),
+                    stats.getTotalConnections(), stats.getMaxConnections(), stats.getPendingThreads(),
+                    w.getCount(), w.percentileMillis(0.50), w.percentileMillis(0.95), w.percentileMillis(0.99),
+                    timeouts.get());
+        }
+    }
+
+    private static final class StatementTracker {
+        private final String sql;
+        private final String caller;
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        StatementTracker(String sql, String caller) {
+            this.sql = sql;
+            this.caller = caller;
+        }
+
+        StatementSnapshot snapshot() {
+            return new StatementSnapshot(sql, caller, latency.getCount(), latency.getTotalMillis(),
+                    latency.percentileMillis(0.50), latency.percentileMillis(0.95),
+                    latency.percentileMillis(0.99), latency.getMaxMillis());
+        }
+    }
+
+    /* ---------------- Snapshots ---------------- */
+
+    public static final class PoolSnapshot {
+        private final String poolName;
+        private final int active, idle, total, max, waiting;
+        private final long acquisitions;
+        private final double waitP50Millis, waitP95Millis, waitP99Millis;
+        private final long timeouts;
+
+        PoolSnapshot(String poolName, int active, int idle, int total, int max, int waiting, long acquisitions,
+                     double waitP50Millis, double waitP95Millis, double waitP99Millis, long timeouts) {
+            this.poolName = poolName;
+            this.active = active;
+            this.idle = idle;
+            this.total = total;
+            this.max = max;
+            this.waiting = waiting;
+            this.acquisitions = acquisitions;
+            this.waitP50Millis = waitP50Millis;
+            this.waitP95Millis = waitP95Millis;
+            this.waitP99Millis = waitP99Millis;
+            this.timeouts = timeouts;
+        }
+
+        public String getPoolName() { return poolName; }
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public int getTotal() { return total; }
+        public int getMax() { return max; }
+        public int getWaiting() { return waiting; }
+        public long getAcquisitions() { return acquisitions; }
+        public double getWaitP50Millis() { return waitP50Millis; }
+        public double getWaitP95Millis() { return waitP95Millis; }
+        public double getWaitP99Millis() { return waitP99Millis; }
+        public long getTimeouts() { return timeouts; }
+    }
+
+    public static final class StatementSnapshot {
+        private final String sql;
+        private final String caller;
+        private final long count;
+        private final double totalMillis, p50Millis, p95Millis, p99Millis, maxMillis;
+
+        StatementSnapshot(String sql, String caller, long count, double totalMillis,
+                          double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+            this.sql = sql;
+            this.caller = caller;
+            this.count = count;
+            this.totalMillis = totalMillis;
+            this.p50Millis = p50Millis;
+            this.p95Millis = p95Millis;
+            this.p99Millis = p99Millis;
+            this.maxMillis = maxMillis;
+        }
+
+        public String getSql() { return sql; }
+        /** DAO/service method that issued this statement. */
+        public String getCaller() { return caller; }
+        public long getCount() { return count; }
+        public double getTotalMillis() { return totalMillis; }
+        public double getP50Millis() { return p50Millis; }
+        public double getP95Millis() { return p95Millis; }
+        public double getP99Millis() { return p99Millis; }
+        public double getMaxMillis() { return maxMillis; }
+    }
+}
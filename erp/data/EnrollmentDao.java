@@ -7,10 +7,30 @@ import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
 
 public class EnrollmentDao {
     private final DataSource ds = DataSourceProvider.erpDataSource();
 
+    public Optional<Enrollment> findById(int enrollmentId) {
+        String sql = "SELECT enrollment_id, student_id, section_id, enrollment_date FROM enrollments WHERE enrollment_id = ?";
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, enrollmentId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(new Enrollment(
+                            rs.getInt("enrollment_id"),
+                            rs.getInt("student_id"),
+                            rs.getInt("section_id"),
+                            rs.getDate("enrollment_date")
+                    ));
+                }
+            }
+        } catch (SQLException e) { throw new RuntimeException(e); }
+        return Optional.empty();
+    }
+
     public List<Enrollment> findByStudentId(int studentId) {
         String sql = "SELECT enrollment_id, student_id, section_id, enrollment_date FROM enrollments WHERE student_id = ?";
         List<Enrollment> out = new ArrayList<>();
@@ -89,6 +109,32 @@ public class EnrollmentDao {
         } catch (SQLException e) { throw new RuntimeException(e); }
     }
 
+    /**
+     * Insert an enrollment unless the student already has one in the section; returns the new id, or empty
+     * for a duplicate. Relies on the unique (student_id, section_id) index instead of a lookup first, so two
+     * concurrent requests for the same pair cannot both succeed.
+     */
+    public OptionalInt insertIfAbsent(int studentId, int sectionId, java.time.LocalDate enrollmentDate) {
+        String sql = "INSERT INTO enrollments (student_id, section_id, enrollment_date) VALUES (?, ?, ?)";
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setInt(1, studentId);
+            ps.setInt(2, sectionId);
+            ps.setDate(3, java.sql.Date.valueOf(enrollmentDate));
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (keys.next()) return OptionalInt.of(keys.getInt(1));
+            }
+            throw new RuntimeException("Insert succeeded but no key returned");
+        } catch (SQLIntegrityConstraintViolationException dup) {
+            return OptionalInt.empty();
+        } catch (SQLException e) {
+            // drivers that do not map integrity violations to the subclass still report SQLState class 23
+            if (e.getSQLState() != null && e.getSQLState().startsWith("23")) return OptionalInt.empty();
+            throw new RuntimeException(e);
+        }
+    }
+
     public void deleteById(int enrollmentId) {
         String sql = "DELETE FROM enrollments WHERE enrollment_id = ?";
         try (Connection c = ds.getConnection();
@@ -98,6 +144,16 @@ public class EnrollmentDao {
         } catch (SQLException e) { throw new RuntimeException(e); }
     }
 
+    /** Remove all enrollments of a section (the caller fixes the seat counter); returns rows deleted. */
+    public int deleteBySectionId(int sectionId) {
+        String sql = "DELETE FROM enrollments WHERE section_id = ?";
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, sectionId);
+            return ps.executeUpdate();
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
     public int countBySectionId(int sectionId) {
         String sql = "SELECT COUNT(*) AS cnt FROM enrollments WHERE section_id = ?";
         try (Connection c = ds.getConnection();
@@ -4,13 +4,19 @@ import edu.univ.erp.domain.Grade;
 
 import javax.sql.DataSource;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Grade DAO - basic find / upsert / delete for grades table.
  * Assumes table `grades (grade_id INT AUTO_INCREMENT PK, enrollment_id INT, grade VARCHAR(5))`
  */
 public class GradeDao {
+    private static final int BATCH_SIZE = 500;
     private final DataSource ds = DataSourceProvider.erpDataSource();
 
     public Optional<Grade> findByEnrollmentId(int enrollmentId) {
@@ -33,8 +39,13 @@ public class GradeDao {
     /**
      * Upsert grade by enrollment id: update if exists, otherwise insert.
      * Returns true if a row was created/updated successfully.
+     * The lookup and the write share one connection and commit together (see UnitOfWork).
      */
     public boolean upsertByEnrollmentId(int enrollmentId, String grade) {
+        return UnitOfWork.inTransaction(ds, () -> upsertInScope(enrollmentId, grade));
+    }
+
+    private boolean upsertInScope(int enrollmentId, String grade) {
         // Normalize grade string
         String gradeVal = grade == null ? null : grade.trim();
         // check existing
@@ -75,6 +86,77 @@ public class GradeDao {
         }
     }
 
+    /**
+     * Batched version of upsertByEnrollmentId for many enrollments (enrollmentId -> grade).
+     * Same semantics per entry (blank grade deletes, otherwise update or insert) but runs on one
+     * connection and one transaction: per chunk, one SELECT to find existing rows, then batched
+     * UPDATE / INSERT / DELETE statements. Returns the number of entries written.
+     */
+    public int upsertGrades(Map<Integer, String> grades) {
+        if (grades == null || grades.isEmpty()) return 0;
+        List<Map.Entry<Integer, String>> entries = new ArrayList<>(grades.entrySet());
+        int written = 0;
+        try (Connection c = ds.getConnection()) {
+            boolean oldAutoCommit = c.getAutoCommit();
+            c.setAutoCommit(false);
+            try (PreparedStatement upd = c.prepareStatement("UPDATE grades SET grade = ? WHERE enrollment_id = ?");
+                 PreparedStatement ins = c.prepareStatement("INSERT INTO grades (enrollment_id, grade) VALUES (?, ?)");
+                 PreparedStatement del = c.prepareStatement("DELETE FROM grades WHERE enrollment_id = ?")) {
+                for (int from = 0; from < entries.size(); from += BATCH_SIZE) {
+                    List<Map.Entry<Integer, String>> chunk = entries.subList(from, Math.min(from + BATCH_SIZE, entries.size()));
+                    Set<Integer> existing = findExistingEnrollmentIds(c, chunk);
+                    for (Map.Entry<Integer, String> en : chunk) {
+                        int enrollmentId = en.getKey();
+                        String gradeVal = en.getValue() == null ? null : en.getValue().trim();
+                        boolean blank = gradeVal == null || gradeVal.isEmpty();
+                        if (existing.contains(enrollmentId)) {
+                            if (blank) {
+                                del.setInt(1, enrollmentId);
+                                del.addBatch();
+                            } else {
+                                upd.setString(1, gradeVal);
+                                upd.setInt(2, enrollmentId);
+                                upd.addBatch();
+                            }
+                            written++;
+                        } else if (!blank) {
+                            ins.setInt(1, enrollmentId);
+                            ins.setString(2, gradeVal);
+                            ins.addBatch();
+                            written++;
+                        }
+                    }
+                    upd.executeBatch();
+                    ins.executeBatch();
+                    del.executeBatch();
+                }
+                c.commit();
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            } finally {
+                c.setAutoCommit(oldAutoCommit);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        return written;
+    }
+
+    private Set<Integer> findExistingEnrollmentIds(Connection c, List<Map.Entry<Integer, String>> chunk) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT enrollment_id FROM grades WHERE enrollment_id IN (");
+        for (int i = 0; i < chunk.size(); i++) sql.append(i == 0 ? "?" : ", ?");
+        sql.append(")");
+        Set<Integer> out = new HashSet<>();
+        try (PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            for (int i = 0; i < chunk.size(); i++) ps.setInt(i + 1, chunk.get(i).getKey());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) out.add(rs.getInt(1));
+            }
+        }
+        return out;
+    }
+
     public void deleteByEnrollmentId(int enrollmentId) {
         String sql = "DELETE FROM grades WHERE enrollment_id = ?";
         try (Connection c = ds.getConnection();
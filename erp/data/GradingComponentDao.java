@@ -12,26 +12,21 @@ public class GradingComponentDao {
     private final DataSource ds = DataSourceProvider.erpDataSource();
 
     /**
-     * Returns all grading components.
+     * Returns all grading components, served from ReferenceDataCache after the first call.
      * Defensive version: if the table does not exist, returns empty list instead of crashing.
      */
     public List<GradingComponent> listAll() {
-        String sql = "SELECT component_id, name FROM grading_components ORDER BY component_id";
-        List<GradingComponent> out = new ArrayList<>();
-        try (Connection c = ds.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    out.add(new GradingComponent(rs.getInt(1), rs.getString(2)));
-                }
-            }
-
-        } catch (SQLException e) {
-            System.err.println("[WARN] GradingComponentDao.listAll(): " + e.getMessage());
+        List<GradingComponent> cached;
+        try {
+            cached = ReferenceDataCache.componentLists.get(ReferenceDataCache.ALL, k -> List.copyOf(queryAll()));
+        } catch (RuntimeException e) {
+            System.err.println("[WARN] GradingComponentDao.listAll(): " + messageOf(e));
             // Returning an empty list avoids UI crash when DB table missing or misnamed
             return new ArrayList<>();
         }
+        // GradingComponent is mutable, so callers get their own copies
+        List<GradingComponent> out = new ArrayList<>(cached.size());
+        for (GradingComponent gc : cached) out.add(copyOf(gc));
         return out;
     }
 
@@ -39,25 +34,50 @@ public class GradingComponentDao {
      * Defensive findById — if table missing, return Optional.empty().
      */
     public Optional<GradingComponent> findById(int id) {
+        try {
+            return Optional.ofNullable(ReferenceDataCache.componentById.get(id, k -> queryById(k).orElse(null)))
+                    .map(GradingComponentDao::copyOf);
+        } catch (RuntimeException e) {
+            System.err.println("[WARN] GradingComponentDao.findById(): " + messageOf(e));
+            return Optional.empty();
+        }
+    }
+
+    private List<GradingComponent> queryAll() {
+        String sql = "SELECT component_id, name FROM grading_components ORDER BY component_id";
+        List<GradingComponent> out = new ArrayList<>();
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                out.add(new GradingComponent(rs.getInt(1), rs.getString(2)));
+            }
+        } catch (SQLException e) { throw new RuntimeException(e); }
+        return out;
+    }
+
+    private Optional<GradingComponent> queryById(int id) {
         String sql = "SELECT component_id, name FROM grading_components WHERE component_id = ?";
         try (Connection c = ds.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
-
             ps.setInt(1, id);
-
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
                     return Optional.of(new GradingComponent(rs.getInt(1), rs.getString(2)));
                 }
             }
-
-        } catch (SQLException e) {
-            System.err.println("[WARN] GradingComponentDao.findById(): " + e.getMessage());
-            return Optional.empty();
-        }
+        } catch (SQLException e) { throw new RuntimeException(e); }
         return Optional.empty();
     }
 
+    private static GradingComponent copyOf(GradingComponent gc) {
+        return new GradingComponent(gc.getComponentId(), gc.getName());
+    }
+
+    private static String messageOf(RuntimeException e) {
+        return e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+    }
+
     /**
      * Safe insert — logs the error but does not crash UI.
      */
@@ -68,6 +88,7 @@ public class GradingComponentDao {
 
             ps.setString(1, name);
             ps.executeUpdate();
+            UnitOfWork.afterCommit(ds, ReferenceDataCache::invalidateComponents);
 
         } catch (SQLException e) {
             System.err.println("[WARN] GradingComponentDao.insert(): " + e.getMessage());
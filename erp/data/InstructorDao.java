@@ -0,0 +1,29 @@
+package edu.univ.erp.data;
+
+import edu.univ.erp.domain.Instructor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Optional;
+
+public class InstructorDao {
+    private final DataSource ds = DataSourceProvider.erpDataSource();
+
+    public Optional<Instructor> findByUserId(int userId) {
+        String sql = "SELECT user_id, department FROM instructors WHERE user_id = ?";
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(new Instructor(rs.getInt("user_id"), rs.getString("department")));
+                }
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Error loading instructor", e);
+        }
+        return Optional.empty();
+    }
+}
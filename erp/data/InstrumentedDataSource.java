@@ -0,0 +1,120 @@
+package edu.univ.erp.data;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.logging.Logger;
+
+/**
+ * DataSource wrapper that times every statement execution and reports it to DbMetrics.
+ * Connections and statements are JDK proxies, so DAOs are unchanged; unwrap() still reaches the pool.
+ */
+final class InstrumentedDataSource implements DataSource {
+    private final DataSource delegate;
+    private final String poolName;
+
+    InstrumentedDataSource(DataSource delegate, String poolName) {
+        this.delegate = delegate;
+        this.poolName = poolName;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(delegate.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(delegate.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection c) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(c));
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) { this.target = target; }
+
+        @Override
+        public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            Object result = call(target, m, args);
+            String name = m.getName();
+            if (result instanceof CallableStatement && name.equals("prepareCall")) {
+                return wrapStatement(CallableStatement.class, (Statement) result, (String) args[0]);
+            }
+            if (result instanceof PreparedStatement && name.equals("prepareStatement")) {
+                return wrapStatement(PreparedStatement.class, (Statement) result, (String) args[0]);
+            }
+            if (result instanceof Statement && name.equals("createStatement")) {
+                return wrapStatement(Statement.class, (Statement) result, null);
+            }
+            return result;
+        }
+    }
+
+    private Object wrapStatement(Class<? extends Statement> type, Statement st, String sql) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new StatementHandler(st, sql));
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String sql;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            if (!m.getName().startsWith("execute")) return call(target, m, args);
+            // plain Statement.execute*(sql) carries its SQL as the first argument
+            String text = sql != null ? sql : (args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null);
+            long start = System.nanoTime();
+            try {
+                return call(target, m, args);
+            } finally {
+                DbMetrics.recordStatement(poolName, text, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private static Object call(Object target, Method m, Object[] args) throws Throwable {
+        try {
+            return m.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /* ---------------- plain delegation ---------------- */
+
+    @Override public PrintWriter getLogWriter() throws SQLException { return delegate.getLogWriter(); }
+    @Override public void setLogWriter(PrintWriter out) throws SQLException { delegate.setLogWriter(out); }
+    @Override public void setLoginTimeout(int seconds) throws SQLException { delegate.setLoginTimeout(seconds); }
+    @Override public int getLoginTimeout() throws SQLException { return delegate.getLoginTimeout(); }
+    @Override public Logger getParentLogger() throws SQLFeatureNotSupportedException { return delegate.getParentLogger(); }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(delegate)) return iface.cast(delegate);
+        return delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(delegate) || delegate.isWrapperFor(iface);
+    }
+}
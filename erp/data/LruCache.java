@@ -0,0 +1,110 @@
+package edu.univ.erp.data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * LruCache - small size-bounded map with least-recently-used eviction and hit/miss counters.
+ * Entries older than the time-to-live are reloaded, so changes made by other processes show up
+ * within that time even though invalidate()/clear() only reach this JVM.
+ * Thread-safe; the loader of a read-through get() runs outside the lock, and its result is dropped
+ * if the cache was invalidated while it was loading.
+ */
+public final class LruCache<K, V> {
+    private final String name;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> map;
+
+    private long generation;
+    private long hits, misses, evictions;
+
+    private static final class Entry<V> {
+        final V value;
+        final long loadedAt;
+
+        Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /** A cache without expiry. */
+    public LruCache(String name, int maxEntries) {
+        this(name, maxEntries, 0);
+    }
+
+    /** @param ttlMillis how long a loaded value is served; 0 or less means until evicted or invalidated */
+    public LruCache(String name, int maxEntries, long ttlMillis) {
+        this.name = name;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlNanos = ttlMillis > 0 ? ttlMillis * 1_000_000L : 0;
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() <= LruCache.this.maxEntries) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Cached value for key, or loader's value (which is then cached). Null values are not cached, so a
+     * loader can return null for "not found" and the next lookup asks again.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long gen;
+        synchronized (this) {
+            Entry<V> e = map.get(key);
+            if (e != null && (ttlNanos == 0 || System.nanoTime() - e.loadedAt < ttlNanos)) {
+                hits++;
+                return e.value;
+            }
+            misses++;
+            gen = generation;
+        }
+        long loadedAt = System.nanoTime();
+        V loaded = loader.apply(key);
+        if (loaded != null) {
+            synchronized (this) {
+                if (gen == generation) map.put(key, new Entry<>(loaded, loadedAt));
+            }
+        }
+        return loaded;
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        map.remove(key);
+    }
+
+    public synchronized void clear() {
+        generation++;
+        map.clear();
+    }
+
+    public String getName() { return name; }
+    public int getMaxEntries() { return maxEntries; }
+    public synchronized int size() { return map.size(); }
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getEvictions() { return evictions; }
+
+    /** Hits / lookups, 0 when nothing was looked up yet. */
+    public synchronized double getHitRate() {
+        long n = hits + misses;
+        return n == 0 ? 0 : (double) hits / n;
+    }
+
+    public synchronized void resetStats() {
+        hits = misses = evictions = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s: size=%d/%d hits=%d misses=%d hit-rate=%.1f%% evictions=%d",
+                name, map.size(), maxEntries, hits, misses, getHitRate() * 100, evictions);
+    }
+}
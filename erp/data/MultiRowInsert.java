@@ -0,0 +1,115 @@
+package edu.univ.erp.data;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.function.IntConsumer;
+
+/**
+ * MultiRowInsert - buffers rows and writes them as one {@code INSERT ... VALUES (...), (...), ...} statement
+ * per rowsPerStatement rows, so bulk loads are multi-row on every driver (not only where the driver rewrites
+ * JDBC batches). The full-size statement is prepared once and reused; only the last, shorter one is prepared
+ * separately. With a key sink, generated keys are passed to it in row order.
+ * <p>
+ * The caller owns the connection and its transaction; close() flushes what is left. Not thread-safe.
+ */
+public final class MultiRowInsert implements AutoCloseable {
+    private final Connection c;
+    private final String table;
+    private final String columnList;
+    private final String rowPlaceholders;
+    private final int columns;
+    private final int rowsPerStatement;
+    private final IntConsumer keySink;
+
+    private final Object[] buffer;
+    private int buffered;
+    private PreparedStatement full;
+    private long rowsWritten;
+
+    public MultiRowInsert(Connection c, String table, String[] columns, int rowsPerStatement) {
+        this(c, table, columns, rowsPerStatement, null);
+    }
+
+    public MultiRowInsert(Connection c, String table, String[] columns, int rowsPerStatement, IntConsumer keySink) {
+        if (columns.length == 0) throw new IllegalArgumentException("No columns for " + table);
+        if (rowsPerStatement < 1) throw new IllegalArgumentException("rowsPerStatement must be positive");
+        this.c = c;
+        this.table = table;
+        this.columnList = String.join(", ", columns);
+        this.rowPlaceholders = "(" + "?, ".repeat(columns.length - 1) + "?)";
+        this.columns = columns.length;
+        this.rowsPerStatement = rowsPerStatement;
+        this.keySink = keySink;
+        this.buffer = new Object[rowsPerStatement * columns.length];
+    }
+
+    /** Add one row (one value per column, in column order); writes a statement when the buffer is full. */
+    public void add(Object... values) throws SQLException {
+        if (values.length != columns) {
+            throw new IllegalArgumentException("Expected " + columns + " values for " + table + ", got " + values.length);
+        }
+        System.arraycopy(values, 0, buffer, buffered * columns, columns);
+        if (++buffered == rowsPerStatement) flush();
+    }
+
+    /** Write the buffered rows, if any. */
+    public void flush() throws SQLException {
+        if (buffered == 0) return;
+        if (buffered == rowsPerStatement) {
+            if (full == null) full = prepare(rowsPerStatement);
+            execute(full, buffered);
+        } else {
+            try (PreparedStatement tail = prepare(buffered)) {
+                execute(tail, buffered);
+            }
+        }
+        rowsWritten += buffered;
+        buffered = 0;
+    }
+
+    public long getRowsWritten() { return rowsWritten; }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+        } finally {
+            if (full != null) full.close();
+        }
+    }
+
+    private PreparedStatement prepare(int rows) throws SQLException {
+        StringBuilder sql = new StringBuilder(32 + table.length() + columnList.length() + rows * (rowPlaceholders.length() + 2));
+        sql.append("INSERT INTO ").append(table).append(" (").append(columnList).append(") VALUES ");
+        for (int r = 0; r < rows; r++) {
+            if (r > 0) sql.append(", ");
+            sql.append(rowPlaceholders);
+        }
+        return keySink == null ? c.prepareStatement(sql.toString())
+                : c.prepareStatement(sql.toString(), Statement.RETURN_GENERATED_KEYS);
+    }
+
+    private void execute(PreparedStatement ps, int rows) throws SQLException {
+        int n = rows * columns;
+        for (int i = 0; i < n; i++) {
+            Object v = buffer[i];
+            if (v == null) ps.setNull(i + 1, Types.NULL);
+            else ps.setObject(i + 1, v);
+            buffer[i] = null;
+        }
+        ps.executeUpdate();
+        if (keySink == null) return;
+        int seen = 0;
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            while (keys.next()) {
+                keySink.accept(keys.getInt(1));
+                seen++;
+            }
+        }
+        if (seen != rows) throw new SQLException("Expected " + rows + " generated keys from " + table + ", got " + seen);
+    }
+}
@@ -0,0 +1,98 @@
+package edu.univ.erp.data;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * QueryPlanCheck - EXPLAINs the hot DAO lookups and reports the ones that would scan a whole table
+ * because no index is usable. Run by SchemaMigrator on every startup; parameters are bound to 1.
+ *
+ * MySQL: a plan row for the table with type=ALL and no possible_keys. H2: a tableScan on the table.
+ * Other databases are not checked.
+ */
+final class QueryPlanCheck {
+
+    /** A DAO query and the table it must reach through an index. */
+    static final class HotQuery {
+        final String table;
+        final String sql;
+
+        HotQuery(String table, String sql) {
+            this.table = table;
+            this.sql = sql;
+        }
+    }
+
+    static final List<HotQuery> ERP_QUERIES = List.of(
+            new HotQuery("enrollments", "SELECT enrollment_id, student_id, section_id, enrollment_date FROM enrollments WHERE section_id = ?"),
+            new HotQuery("enrollments", "SELECT enrollment_id, student_id, section_id, enrollment_date FROM enrollments WHERE student_id = ?"),
+            new HotQuery("component_marks", "SELECT id, enrollment_id, component_id, marks FROM component_marks WHERE enrollment_id = ? AND component_id = ?"),
+            new HotQuery("grades", "SELECT grade_id, enrollment_id, grade FROM grades WHERE enrollment_id = ?"),
+            new HotQuery("section_grade_weights", "SELECT id, section_id, component_id, weight FROM section_grade_weights WHERE section_id = ? ORDER BY component_id"),
+            new HotQuery("sections", "SELECT section_id, course_id, instructor_id, semester, year, capacity FROM sections WHERE course_id = ?"),
+            new HotQuery("sections", "SELECT section_id, course_id, instructor_id, semester, year, capacity FROM sections WHERE instructor_id = ?"),
+            new HotQuery("waitlist", "SELECT waitlist_id, student_id, section_id, priority, requested_at FROM waitlist WHERE section_id = ? ORDER BY priority, waitlist_id LIMIT 1")
+    );
+
+    static final List<HotQuery> AUTH_QUERIES = List.of(
+            new HotQuery("users", "SELECT user_id, username, password_hash, role FROM users WHERE username = ?"),
+            new HotQuery("users", "SELECT user_id, username, role FROM users WHERE role = ? ORDER BY user_id")
+    );
+
+    private QueryPlanCheck() {}
+
+    /** Check the module's hot queries according to db.migrate.planCheck (fail, warn or off). */
+    static void run(Connection c, String module) throws SQLException {
+        String mode = DataSourceProvider.getProperty("db.migrate.planCheck", "fail").trim().toLowerCase(Locale.ROOT);
+        if (mode.equals("off")) return;
+        List<String> scans = fullScans(c, SchemaMigrator.ERP.equals(module) ? ERP_QUERIES : AUTH_QUERIES);
+        if (scans.isEmpty()) return;
+        String msg = "Full table scan in hot " + module + " queries (missing index?):\n  " + String.join("\n  ", scans);
+        if (mode.equals("warn")) {
+            System.err.println("[WARN] " + msg);
+            return;
+        }
+        throw new IllegalStateException(msg);
+    }
+
+    /** The queries whose plan scans their table, each as "table: sql". */
+    static List<String> fullScans(Connection c, List<HotQuery> queries) throws SQLException {
+        String product = c.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+        boolean mysql = product.contains("mysql") || product.contains("mariadb");
+        boolean h2 = product.contains("h2");
+        List<String> out = new ArrayList<>();
+        if (!mysql && !h2) return out;
+        for (HotQuery q : queries) {
+            try (PreparedStatement ps = c.prepareStatement("EXPLAIN " + q.sql)) {
+                int params = q.sql.length() - q.sql.replace("?", "").length();
+                for (int i = 1; i <= params; i++) ps.setInt(i, 1);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (mysql ? mysqlScans(rs, q.table) : h2Scans(rs, q.table)) out.add(q.table + ": " + q.sql);
+                }
+            }
+        }
+        return out;
+    }
+
+    private static boolean mysqlScans(ResultSet rs, String table) throws SQLException {
+        while (rs.next()) {
+            // with tiny tables the optimizer may prefer a scan even when an index exists; only flag the
+            // case where there is nothing to use
+            if (table.equalsIgnoreCase(rs.getString("table")) && "ALL".equalsIgnoreCase(rs.getString("type"))
+                    && rs.getString("possible_keys") == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean h2Scans(ResultSet rs, String table) throws SQLException {
+        String marker = ("." + table + ".tableScan").toLowerCase(Locale.ROOT);
+        while (rs.next()) {
+            if (rs.getString(1).toLowerCase(Locale.ROOT).contains(marker)) return true;
+        }
+        return false;
+    }
+}
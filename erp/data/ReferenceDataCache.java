@@ -0,0 +1,78 @@
+package edu.univ.erp.data;
+
+import edu.univ.erp.domain.Course;
+import edu.univ.erp.domain.GradingComponent;
+import edu.univ.erp.domain.Section;
+
+import java.util.List;
+
+/**
+ * ReferenceDataCache - in-process read-through caches for courses, sections and grading components.
+ * This data changes a few times a term but is looked up constantly by the frames and exports.
+ *
+ * CourseDao, SectionDao and GradingComponentDao read through these caches and clear them once their own
+ * writes commit (UnitOfWork.afterCommit); ErpService/AdminErpService also invalidate dependants (e.g. sections of a deleted course).
+ * Each cache holds at most cache.reference.maxEntries entries (default 2000), evicting least recently used.
+ *
+ * Those invalidations only reach this process, so entries also expire after cache.reference.ttlMillis
+ * (default 30s, like sections.cacheMillis): an edit made by another client or the server shows up within
+ * that time. Ids that are not found are not cached.
+ */
+public final class ReferenceDataCache {
+    private static final int MAX_ENTRIES =
+            Integer.parseInt(DataSourceProvider.getProperty("cache.reference.maxEntries", "2000"));
+
+    /** Key of the full-table list in the *Lists caches. */
+    static final String ALL = "all";
+
+    private static final long TTL_MILLIS =
+            Long.parseLong(DataSourceProvider.getProperty("cache.reference.ttlMillis", "30000"));
+
+    static final LruCache<Integer, Course> courseById = new LruCache<>("courses", MAX_ENTRIES, TTL_MILLIS);
+    static final LruCache<String, List<Course>> courseLists = new LruCache<>("course lists", MAX_ENTRIES, TTL_MILLIS);
+    static final LruCache<Integer, Section> sectionById = new LruCache<>("sections", MAX_ENTRIES, TTL_MILLIS);
+    static final LruCache<String, List<Section>> sectionLists = new LruCache<>("section lists", MAX_ENTRIES, TTL_MILLIS);
+    static final LruCache<Integer, GradingComponent> componentById = new LruCache<>("components", MAX_ENTRIES, TTL_MILLIS);
+    static final LruCache<String, List<GradingComponent>> componentLists =
+            new LruCache<>("component lists", MAX_ENTRIES, TTL_MILLIS);
+
+    private ReferenceDataCache() {}
+
+    public static void invalidateCourses() {
+        courseById.clear();
+        courseLists.clear();
+    }
+
+    public static void invalidateSections() {
+        sectionById.clear();
+        sectionLists.clear();
+    }
+
+    public static void invalidateComponents() {
+        componentById.clear();
+        componentLists.clear();
+    }
+
+    public static void invalidateAll() {
+        invalidateCourses();
+        invalidateSections();
+        invalidateComponents();
+    }
+
+    public static List<LruCache<?, ?>> caches() {
+        return List.of(courseById, courseLists, sectionById, sectionLists, componentById, componentLists);
+    }
+
+    public static void resetStats() {
+        for (LruCache<?, ?> c : caches()) c.resetStats();
+    }
+
+    /** One line per cache with size, hits, misses and hit rate. */
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Reference data cache\n");
+        sb.append("--------------------\n");
+        for (LruCache<?, ?> c : caches()) sb.append(c).append('\n');
+        return sb.toString();
+    }
+}
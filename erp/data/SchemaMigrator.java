@@ -0,0 +1,366 @@
+package edu.univ.erp.data;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * SchemaMigrator - versioned schema migrations, run by DataSourceProvider when a pool is first created.
+ *
+ * Each module (erp, auth) has an ordered list of migrations; the versions already applied are recorded
+ * in schema_version (module, version). Tables are created with IF NOT EXISTS, columns and indexes are only
+ * added when missing, so migrating a database that predates this class is safe.
+ *
+ * When schema_version already records the latest version no DDL runs and no lock is taken. Otherwise the
+ * run is serialized across processes with a MySQL named lock (GET_LOCK, waiting up to
+ * db.migrate.lockTimeoutSeconds, default 60); other databases are only serialized within this JVM. The
+ * version is re-read under the lock, so a client that waited finds the work done.
+ *
+ * On every startup, migrated or not, the indexes the DAOs depend on are verified and QueryPlanCheck EXPLAINs
+ * the hot DAO queries, so an index dropped from an up-to-date schema is still caught. Missing indexes or
+ * full table scans fail startup with IllegalStateException (db.migrate.planCheck=warn only logs them, =off
+ * skips the EXPLAIN check; db.migrate.enabled=false skips all).
+ * Deployments can migrate from the server or an admin shell with main() and set db.migrate.enabled=false
+ * on the desktop clients.
+ */
+public final class SchemaMigrator {
+
+    static final String ERP = "erp";
+    static final String AUTH = "auth";
+
+    private static final String VERSION_TABLE = "schema_version";
+
+    private static final Object LOCAL_LOCK = new Object();
+
+    /** One schema step: a DDL statement or an index that must exist. */
+    interface Step {
+        void apply(Connection c) throws SQLException;
+    }
+
+    static final class Migration {
+        final int version;
+        final String description;
+        final List<Step> steps;
+
+        Migration(int version, String description, Step... steps) {
+            this.version = version;
+            this.description = description;
+            this.steps = List.of(steps);
+        }
+    }
+
+    /** Index on (columns); satisfied by any existing index with the same leading columns (same column set if unique). */
+    static final class Index implements Step {
+        final String table;
+        final String name;
+        final boolean unique;
+        final List<String> columns;
+
+        Index(String table, String name, boolean unique, String... columns) {
+            this.table = table;
+            this.name = name;
+            this.unique = unique;
+            this.columns = List.of(columns);
+        }
+
+        @Override
+        public void apply(Connection c) throws SQLException {
+            if (existsIn(c)) return;
+            String ddl = "CREATE " + (unique ? "UNIQUE " : "") + "INDEX " + name + " ON " + table
+                    + " (" + String.join(", ", columns) + ")";
+            try (Statement st = c.createStatement()) {
+                st.execute(ddl);
+            } catch (SQLException e) {
+                if (unique) {
+                    throw new IllegalStateException("Cannot create unique index " + name + " on " + table + columns
+                            + " - remove the duplicate rows first: " + e.getMessage(), e);
+                }
+                throw e;
+            }
+        }
+
+        boolean existsIn(Connection c) throws SQLException {
+            for (Map.Entry<String, List<String>> e : indexesOf(c, table, unique).entrySet()) {
+                List<String> cols = e.getValue();
+                List<String> want = lower(columns);
+                if (unique ? new HashSet<>(cols).equals(new HashSet<>(want))
+                        : cols.size() >= want.size() && cols.subList(0, want.size()).equals(want)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return (unique ? "unique " : "") + table + "(" + String.join(", ", columns) + ")";
+        }
+    }
+
+    /** Column added with ALTER TABLE unless the table already has it. */
+    static final class Column implements Step {
+        final String table;
+        final String name;
+        final String definition;
+
+        Column(String table, String name, String definition) {
+            this.table = table;
+            this.name = name;
+            this.definition = definition;
+        }
+
+        @Override
+        public void apply(Connection c) throws SQLException {
+            DatabaseMetaData md = c.getMetaData();
+            String t = md.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+            String col = md.storesUpperCaseIdentifiers() ? name.toUpperCase(Locale.ROOT) : name;
+            try (ResultSet rs = md.getColumns(c.getCatalog(), c.getSchema(), t, col)) {
+                if (rs.next()) return;
+            }
+            try (Statement st = c.createStatement()) {
+                st.execute("ALTER TABLE " + table + " ADD COLUMN " + name + " " + definition);
+            }
+        }
+    }
+
+    static Step sql(String ddl) {
+        return c -> {
+            try (Statement st = c.createStatement()) {
+                st.execute(ddl);
+            }
+        };
+    }
+
+    /* ---------------- Migrations ---------------- */
+
+    static final List<Migration> ERP_MIGRATIONS = List.of(
+            new Migration(1, "baseline tables",
+                    sql("CREATE TABLE IF NOT EXISTS students (" +
+                            "user_id INT PRIMARY KEY, roll_no VARCHAR(50), program VARCHAR(100), year INT)"),
+                    sql("CREATE TABLE IF NOT EXISTS instructors (" +
+                            "user_id INT PRIMARY KEY, department VARCHAR(100))"),
+                    sql("CREATE TABLE IF NOT EXISTS courses (" +
+                            "course_id INT AUTO_INCREMENT PRIMARY KEY, code VARCHAR(20) NOT NULL, " +
+                            "title VARCHAR(200) NOT NULL, credits INT NOT NULL)"),
+                    sql("CREATE TABLE IF NOT EXISTS sections (" +
+                            "section_id INT AUTO_INCREMENT PRIMARY KEY, course_id INT NOT NULL, instructor_id INT, " +
+                            "semester VARCHAR(20), year INT)"),
+                    sql("CREATE TABLE IF NOT EXISTS enrollments (" +
+                            "enrollment_id INT AUTO_INCREMENT PRIMARY KEY, student_id INT NOT NULL, " +
+                            "section_id INT NOT NULL, enrollment_date DATE)"),
+                    sql("CREATE TABLE IF NOT EXISTS grading_components (" +
+                            "component_id INT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(100) NOT NULL)"),
+                    sql("CREATE TABLE IF NOT EXISTS component_marks (" +
+                            "id INT AUTO_INCREMENT PRIMARY KEY, enrollment_id INT NOT NULL, " +
+                            "component_id INT NOT NULL, marks DECIMAL(6,2))"),
+                    sql("CREATE TABLE IF NOT EXISTS grades (" +
+                            "grade_id INT AUTO_INCREMENT PRIMARY KEY, enrollment_id INT NOT NULL, grade VARCHAR(5))"),
+                    sql("CREATE TABLE IF NOT EXISTS section_grade_weights (" +
+                            "id INT AUTO_INCREMENT PRIMARY KEY, section_id INT NOT NULL, " +
+                            "component_id INT NOT NULL, weight INT NOT NULL)")),
+            new Migration(2, "hot-path indexes",
+                    new Index("enrollments", "idx_enrollments_section", false, "section_id"),
+                    new Index("enrollments", "idx_enrollments_student", false, "student_id"),
+                    // ComponentMarksDao.upsertAll relies on ON DUPLICATE KEY for this pair
+                    new Index("component_marks", "uq_component_marks_enrollment_component", true, "enrollment_id", "component_id"),
+                    new Index("grades", "uq_grades_enrollment", true, "enrollment_id"),
+                    new Index("section_grade_weights", "uq_section_grade_weights", true, "section_id", "component_id"),
+                    new Index("sections", "idx_sections_course", false, "course_id"),
+                    new Index("sections", "idx_sections_instructor", false, "instructor_id")),
+            new Migration(3, "section capacity and seat counters",
+                    new Column("sections", "capacity", "INT NOT NULL DEFAULT 0"),
+                    new Column("sections", "enrolled_count", "INT NOT NULL DEFAULT 0"),
+                    sql(SectionDao.RECONCILE_SEATS_SQL),
+                    // EnrollmentDao.insertIfAbsent relies on this to reject a second enrollment without a read
+                    new Index("enrollments", "uq_enrollments_student_section", true, "student_id", "section_id")),
+            new Migration(4, "section waitlist",
+                    sql("CREATE TABLE IF NOT EXISTS waitlist (" +
+                            "waitlist_id INT AUTO_INCREMENT PRIMARY KEY, student_id INT NOT NULL, " +
+                            "section_id INT NOT NULL, priority INT NOT NULL DEFAULT 0, requested_at TIMESTAMP)"),
+                    new Index("waitlist", "uq_waitlist_student_section", true, "student_id", "section_id"),
+                    // WaitlistDao.findNext reads the head of a section's queue from this index
+                    new Index("waitlist", "idx_waitlist_section_order", false, "section_id", "priority", "waitlist_id"))
+    );
+
+    static final List<Migration> AUTH_MIGRATIONS = List.of(
+            new Migration(1, "baseline tables",
+                    sql("CREATE TABLE IF NOT EXISTS users (" +
+                            "user_id INT AUTO_INCREMENT PRIMARY KEY, username VARCHAR(100) NOT NULL, " +
+                            "password_hash VARCHAR(100), role VARCHAR(20) NOT NULL)")),
+            new Migration(2, "hot-path indexes",
+                    new Index("users", "uq_users_username", true, "username"),
+                    new Index("users", "idx_users_role", false, "role"))
+    );
+
+    private SchemaMigrator() {}
+
+    /** Migrate both databases of the configured deployment (creating the pools migrates them), then exit. */
+    public static void main(String[] args) {
+        DataSourceProvider.erpDataSource();
+        DataSourceProvider.authDataSource();
+        System.out.println("[MIGRATE] erp and auth schemas are current");
+        System.exit(0);
+    }
+
+    /* ---------------- Runner ---------------- */
+
+    /** Apply pending migrations of a module, verify its indexes and check the hot query plans. */
+    static void migrate(DataSource ds, String module) {
+        if (!Boolean.parseBoolean(DataSourceProvider.getProperty("db.migrate.enabled", "true"))) return;
+        List<Migration> migrations = ERP.equals(module) ? ERP_MIGRATIONS : AUTH_MIGRATIONS;
+        int latest = migrations.get(migrations.size() - 1).version;
+        try (Connection c = ds.getConnection()) {
+            if (recordedVersion(c, module) < latest) migrateExclusively(c, module, migrations);
+            verify(c, module, migrations);
+        } catch (SQLException e) {
+            throw new RuntimeException("Schema migration failed for " + module, e);
+        }
+    }
+
+    private static void migrateExclusively(Connection c, String module, List<Migration> migrations) throws SQLException {
+        if (isMySql(c)) {
+            String lock = lockName(c, module);
+            acquireLock(c, lock, module);
+            try {
+                migrateLocked(c, module, migrations);
+            } finally {
+                try (PreparedStatement ps = c.prepareStatement("DO RELEASE_LOCK(?)")) {
+                    ps.setString(1, lock);
+                    ps.execute();
+                }
+            }
+        } else {
+            synchronized (LOCAL_LOCK) {
+                migrateLocked(c, module, migrations);
+            }
+        }
+    }
+
+    private static void migrateLocked(Connection c, String module, List<Migration> migrations) throws SQLException {
+        ensureVersionTable(c);
+        int current = currentVersion(c, module);
+        for (Migration m : migrations) {
+            if (m.version <= current) continue;
+            System.out.println("[MIGRATE] " + module + " v" + m.version + ": " + m.description);
+            for (Step s : m.steps) s.apply(c);
+            recordVersion(c, module, m);
+        }
+    }
+
+    /** Fail if an index the DAOs depend on is missing, then check the hot query plans. */
+    private static void verify(Connection c, String module, List<Migration> migrations) throws SQLException {
+        List<String> missing = missingIndexes(c, migrations);
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Schema check failed for " + module + ", missing indexes: " + missing);
+        }
+        QueryPlanCheck.run(c, module);
+    }
+
+    private static boolean isMySql(Connection c) throws SQLException {
+        String url = c.getMetaData().getURL();
+        return url != null && url.startsWith("jdbc:mysql:");
+    }
+
+    /** Server-wide lock name, per database and module (MySQL allows 64 characters). */
+    private static String lockName(Connection c, String module) throws SQLException {
+        String name = "schema_migrate." + c.getCatalog() + "." + module;
+        return name.length() <= 64 ? name : name.substring(0, 64);
+    }
+
+    private static void acquireLock(Connection c, String lock, String module) throws SQLException {
+        int timeout = Integer.parseInt(DataSourceProvider.getProperty("db.migrate.lockTimeoutSeconds", "60"));
+        try (PreparedStatement ps = c.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            ps.setString(1, lock);
+            ps.setInt(2, timeout);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new IllegalStateException("Timed out after " + timeout + "s waiting for another process to "
+                            + "finish migrating " + module + " (lock " + lock + ")");
+                }
+            }
+        }
+    }
+
+    /** Latest version recorded for the module, 0 if schema_version does not exist yet; runs no DDL. */
+    private static int recordedVersion(Connection c, String module) throws SQLException {
+        DatabaseMetaData md = c.getMetaData();
+        String t = md.storesUpperCaseIdentifiers() ? VERSION_TABLE.toUpperCase(Locale.ROOT) : VERSION_TABLE;
+        try (ResultSet rs = md.getTables(c.getCatalog(), c.getSchema(), t, new String[]{"TABLE"})) {
+            if (!rs.next()) return 0;
+        }
+        return currentVersion(c, module);
+    }
+
+    /** Indexes declared by the migrations that are not present in the database. */
+    static List<String> missingIndexes(Connection c, List<Migration> migrations) throws SQLException {
+        List<String> missing = new ArrayList<>();
+        for (Migration m : migrations) {
+            for (Step s : m.steps) {
+                if (s instanceof Index && !((Index) s).existsIn(c)) missing.add(s.toString());
+            }
+        }
+        return missing;
+    }
+
+    private static void ensureVersionTable(Connection c) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.execute("CREATE TABLE IF NOT EXISTS " + VERSION_TABLE + " (" +
+                    "module VARCHAR(20) NOT NULL, version INT NOT NULL, description VARCHAR(200), " +
+                    "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, PRIMARY KEY (module, version))");
+        }
+    }
+
+    private static int currentVersion(Connection c, String module) throws SQLException {
+        String sql = "SELECT MAX(version) FROM " + VERSION_TABLE + " WHERE module = ?";
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, module);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    private static void recordVersion(Connection c, String module, Migration m) throws SQLException {
+        String sql = "INSERT INTO " + VERSION_TABLE + " (module, version, description) VALUES (?, ?, ?)";
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, module);
+            ps.setInt(2, m.version);
+            ps.setString(3, m.description);
+            ps.executeUpdate();
+        }
+    }
+
+    /** index name -> lower-cased columns in key order, for the table's (unique) indexes. */
+    private static Map<String, List<String>> indexesOf(Connection c, String table, boolean uniqueOnly) throws SQLException {
+        DatabaseMetaData md = c.getMetaData();
+        String t = md.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+        Map<String, String[]> byName = new LinkedHashMap<>();
+        try (ResultSet rs = md.getIndexInfo(c.getCatalog(), c.getSchema(), t, uniqueOnly, true)) {
+            while (rs.next()) {
+                String name = rs.getString("INDEX_NAME");
+                String col = rs.getString("COLUMN_NAME");
+                int pos = rs.getInt("ORDINAL_POSITION");
+                if (name == null || col == null || pos < 1) continue;
+                String[] cols = byName.computeIfAbsent(name, k -> new String[0]);
+                if (cols.length < pos) cols = Arrays.copyOf(cols, pos);
+                cols[pos - 1] = col.toLowerCase(Locale.ROOT);
+                byName.put(name, cols);
+            }
+        }
+        Map<String, List<String>> out = new LinkedHashMap<>();
+        for (Map.Entry<String, String[]> e : byName.entrySet()) out.put(e.getKey(), Arrays.asList(e.getValue()));
+        return out;
+    }
+
+    private static List<String> lower(List<String> cols) {
+        List<String> out = new ArrayList<>(cols.size());
+        for (String s : cols) out.add(s.toLowerCase(Locale.ROOT));
+        return out;
+    }
+}
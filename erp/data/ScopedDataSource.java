@@ -0,0 +1,86 @@
+package edu.univ.erp.data;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.logging.Logger;
+
+/**
+ * DataSource handed out by DataSourceProvider: outside a UnitOfWork it is the pool; inside one it returns
+ * the scope's connection, wrapped so that the DAO's own close()/commit()/setAutoCommit() leave the
+ * scope's transaction alone. In a sharingConnection scope only close() is intercepted.
+ */
+final class ScopedDataSource implements DataSource {
+    private final DataSource delegate;
+
+    ScopedDataSource(DataSource delegate) {
+        this.delegate = delegate;
+    }
+
+    DataSource delegate() { return delegate; }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        UnitOfWork.Scope scope = UnitOfWork.current(this);
+        return scope == null ? delegate.getConnection() : participant(scope);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return delegate.getConnection(username, password);
+    }
+
+    private static Connection participant(UnitOfWork.Scope scope) {
+        Connection target = scope.connection;
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, m, args) -> {
+                    switch (m.getName()) {
+                        case "close":
+                            return null;
+                        case "commit":
+                        case "setAutoCommit":
+                            if (scope.transactional) return null;
+                            break;
+                        case "rollback":
+                            if (scope.transactional && args == null) {
+                                scope.rollbackOnly = true;
+                                return null;
+                            }
+                            break; // rollback(Savepoint) only undoes the DAO's own work
+                        case "getAutoCommit":
+                            if (scope.transactional) return false;
+                            break;
+                        default:
+                            break;
+                    }
+                    try {
+                        return m.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    /* ---------------- plain delegation ---------------- */
+
+    @Override public PrintWriter getLogWriter() throws SQLException { return delegate.getLogWriter(); }
+    @Override public void setLogWriter(PrintWriter out) throws SQLException { delegate.setLogWriter(out); }
+    @Override public void setLoginTimeout(int seconds) throws SQLException { delegate.setLoginTimeout(seconds); }
+    @Override public int getLoginTimeout() throws SQLException { return delegate.getLoginTimeout(); }
+    @Override public Logger getParentLogger() throws SQLFeatureNotSupportedException { return delegate.getParentLogger(); }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(delegate)) return iface.cast(delegate);
+        return delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(delegate) || delegate.isWrapperFor(iface);
+    }
+}
@@ -9,10 +9,20 @@ import java.util.List;
 import java.util.Optional;
 
 public class SectionDao {
+    /** Recomputes sections.enrolled_count from enrollments (the migration backfill and reconcileSeatCounts). */
+    static final String RECONCILE_SEATS_SQL = "UPDATE sections SET enrolled_count = "
+            + "(SELECT COUNT(*) FROM enrollments e WHERE e.section_id = sections.section_id)";
+
     private final DataSource ds = DataSourceProvider.erpDataSource();
 
+    /** Sections taught by an instructor; served from ReferenceDataCache after the first call. */
     public List<Section> findByInstructorId(int instructorId) {
-        String sql = "SELECT section_id, course_id, instructor_id, semester, year FROM sections WHERE instructor_id = ?";
+        return new ArrayList<>(ReferenceDataCache.sectionLists.get("instructor:" + instructorId,
+                k -> List.copyOf(queryByInstructorId(instructorId))));
+    }
+
+    private List<Section> queryByInstructorId(int instructorId) {
+        String sql = "SELECT section_id, course_id, instructor_id, semester, year, capacity FROM sections WHERE instructor_id = ?";
         List<Section> out = new ArrayList<>();
         try (Connection c = ds.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
@@ -24,7 +34,36 @@ public class SectionDao {
                             rs.getInt("course_id"),
                             rs.getInt("instructor_id"),
                             rs.getString("semester"),
-                            rs.getInt("year")
+                            rs.getInt("year"),
+                            rs.getInt("capacity")
+                    ));
+                }
+            }
+        } catch (SQLException e) { throw new RuntimeException(e); }
+        return out;
+    }
+
+    /** Sections of a course; served from ReferenceDataCache after the first call. */
+    public List<Section> findByCourseId(int courseId) {
+        return new ArrayList<>(ReferenceDataCache.sectionLists.get("course:" + courseId,
+                k -> List.copyOf(queryByCourseId(courseId))));
+    }
+
+    private List<Section> queryByCourseId(int courseId) {
+        String sql = "SELECT section_id, course_id, instructor_id, semester, year, capacity FROM sections WHERE course_id = ? ORDER BY section_id";
+        List<Section> out = new ArrayList<>();
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, courseId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    out.add(new Section(
+                            rs.getInt("section_id"),
+                            rs.getInt("course_id"),
+                            rs.getInt("instructor_id"),
+                            rs.getString("semester"),
+                            rs.getInt("year"),
+                            rs.getInt("capacity")
                     ));
                 }
             }
@@ -37,7 +76,7 @@ public class SectionDao {
      * Joins enrollments -> sections and returns Section objects.
      */
     public List<Section> findByStudentId(int studentId) {
-        String sql = "SELECT s.section_id, s.course_id, s.instructor_id, s.semester, s.year " +
+        String sql = "SELECT s.section_id, s.course_id, s.instructor_id, s.semester, s.year, s.capacity " +
                 "FROM sections s " +
                 "JOIN enrollments e ON e.section_id = s.section_id " +
                 "WHERE e.student_id = ?";
@@ -52,7 +91,8 @@ public class SectionDao {
                             rs.getInt("course_id"),
                             rs.getInt("instructor_id"),
                             rs.getString("semester"),
-                            rs.getInt("year")
+                            rs.getInt("year"),
+                            rs.getInt("capacity")
                     ));
                 }
             }
@@ -63,8 +103,13 @@ public class SectionDao {
     }
 
 
+    /** All sections; served from ReferenceDataCache after the first call. */
     public List<Section> findAll() {
-        String sql = "SELECT section_id, course_id, instructor_id, semester, year FROM sections";
+        return new ArrayList<>(ReferenceDataCache.sectionLists.get(ReferenceDataCache.ALL, k -> List.copyOf(queryAll())));
+    }
+
+    private List<Section> queryAll() {
+        String sql = "SELECT section_id, course_id, instructor_id, semester, year, capacity FROM sections";
         List<Section> out = new ArrayList<>();
         try (Connection c = ds.getConnection();
              PreparedStatement ps = c.prepareStatement(sql);
@@ -75,7 +120,8 @@ public class SectionDao {
                         rs.getInt("course_id"),
                         rs.getInt("instructor_id"),
                         rs.getString("semester"),
-                        rs.getInt("year")
+                        rs.getInt("year"),
+                        rs.getInt("capacity")
                 ));
             }
         } catch (SQLException e) { throw new RuntimeException(e); }
@@ -83,7 +129,11 @@ public class SectionDao {
     }
 
     public Optional<Section> findById(int sectionId) {
-        String sql = "SELECT section_id, course_id, instructor_id, semester, year "
+        return Optional.ofNullable(ReferenceDataCache.sectionById.get(sectionId, k -> queryById(k).orElse(null)));
+    }
+
+    private Optional<Section> queryById(int sectionId) {
+        String sql = "SELECT section_id, course_id, instructor_id, semester, year, capacity "
                 + "FROM sections WHERE section_id = ?";
         try (Connection c = ds.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
@@ -95,7 +145,8 @@ public class SectionDao {
                             rs.getInt("course_id"),
                             rs.getInt("instructor_id"),
                             rs.getString("semester"),
-                            rs.getInt("year")
+                            rs.getInt("year"),
+                            rs.getInt("capacity")
                     ));
                 }
             }
@@ -107,14 +158,21 @@ public class SectionDao {
 
 
     public int insert(int courseId, int instructorId, String semester, int year) {
-        String sql = "INSERT INTO sections (course_id, instructor_id, semester, year) VALUES (?, ?, ?, ?)";
+        return insert(courseId, instructorId, semester, year, 0);
+    }
+
+    /** Insert a section with the given seat capacity (0 = unlimited). */
+    public int insert(int courseId, int instructorId, String semester, int year, int capacity) {
+        String sql = "INSERT INTO sections (course_id, instructor_id, semester, year, capacity) VALUES (?, ?, ?, ?, ?)";
         try (Connection c = ds.getConnection();
              PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             ps.setInt(1, courseId);
             ps.setInt(2, instructorId);
             ps.setString(3, semester);
             ps.setInt(4, year);
+            ps.setInt(5, capacity);
             ps.executeUpdate();
+            UnitOfWork.afterCommit(ds, ReferenceDataCache::invalidateSections);
             try (ResultSet keys = ps.getGeneratedKeys()) {
                 if (keys.next()) return keys.getInt(1);
             }
@@ -132,6 +190,59 @@ public class SectionDao {
             ps.setInt(4, year);
             ps.setInt(5, sectionId);
             ps.executeUpdate();
+            UnitOfWork.afterCommit(ds, ReferenceDataCache::invalidateSections);
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
+    /** Update a section including its seat capacity (0 = unlimited). */
+    public void update(int sectionId, int courseId, int instructorId, String semester, int year, int capacity) {
+        String sql = "UPDATE sections SET course_id = ?, instructor_id = ?, semester = ?, year = ?, capacity = ? WHERE section_id = ?";
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, courseId);
+            ps.setInt(2, instructorId);
+            ps.setString(3, semester);
+            ps.setInt(4, year);
+            ps.setInt(5, capacity);
+            ps.setInt(6, sectionId);
+            ps.executeUpdate();
+            UnitOfWork.afterCommit(ds, ReferenceDataCache::invalidateSections);
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
+    /**
+     * Take one seat: a single conditional UPDATE that only succeeds while enrolled_count is below capacity
+     * (or capacity is 0). The row lock it takes serializes concurrent reservations on the same section, so
+     * a section can never be overbooked. Returns false if the section is full or does not exist.
+     */
+    public boolean reserveSeat(int sectionId) {
+        String sql = "UPDATE sections SET enrolled_count = enrolled_count + 1 "
+                + "WHERE section_id = ? AND (capacity = 0 OR enrolled_count < capacity)";
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, sectionId);
+            return ps.executeUpdate() == 1;
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
+    /** Give back one seat (never below zero). */
+    public void releaseSeat(int sectionId) {
+        String sql = "UPDATE sections SET enrolled_count = enrolled_count - 1 WHERE section_id = ? AND enrolled_count > 0";
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, sectionId);
+            ps.executeUpdate();
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
+    /**
+     * Recompute every section's enrolled_count from the enrollments table, for when enrollments were
+     * written outside reserveSeat/releaseSeat (bulk loads, manual fixes). Returns the sections updated.
+     */
+    public int reconcileSeatCounts() {
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(RECONCILE_SEATS_SQL)) {
+            return ps.executeUpdate();
         } catch (SQLException e) { throw new RuntimeException(e); }
     }
 
@@ -141,6 +252,7 @@ public class SectionDao {
              PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setInt(1, sectionId);
             ps.executeUpdate();
+            UnitOfWork.afterCommit(ds, ReferenceDataCache::invalidateSections);
         } catch (SQLException e) { throw new RuntimeException(e); }
     }
 }
@@ -2,20 +2,77 @@ package edu.univ.erp.data;
 
 import javax.sql.DataSource;
 import java.sql.*;
-import java.util.Optional;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * SettingsDao — Handles key-value settings such as maintenance mode.
  * Works with either `system_settings` or legacy `settings` table.
+ *
+ * The table is resolved once per JVM and all settings are kept in an immutable in-memory
+ * snapshot. Reads (findByKey and the typed getters) are served from the snapshot, which is reloaded
+ * once it is older than settings.cacheMillis (default 5000), so other clients' changes (e.g. the
+ * enrollment deadline) show up within that time. Writes go to the DB and then swap in a new snapshot.
+ * findByKeys/reload always read the DB (used by pollers that need to see changes made by other clients).
  */
 public class SettingsDao {
 
+    private static final String UNRESOLVED = "";
+    private static final long MAX_AGE_MILLIS =
+            Long.parseLong(DataSourceProvider.getProperty("settings.cacheMillis", "5000"));
+
+    // resolved settings table name, UNRESOLVED until first use, null if neither table exists
+    private static volatile String resolvedTable = UNRESOLVED;
+    private static final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+
     private final DataSource ds;
 
     public SettingsDao() {
         this.ds = DataSourceProvider.erpDataSource();
     }
 
+    /** ============================================================
+     *  Immutable view of all settings
+     *  ============================================================ */
+    public static final class Snapshot {
+        private final Map<String, String> values;
+        private final long loadedAtMillis;
+
+        Snapshot(Map<String, String> values, long loadedAtMillis) {
+            this.values = Collections.unmodifiableMap(values);
+            this.loadedAtMillis = loadedAtMillis;
+        }
+
+        public String get(String key) { return values.get(key); }
+        public boolean contains(String key) { return values.containsKey(key); }
+        public Map<String, String> asMap() { return values; }
+        /** When all settings were last read from the DB (partial updates keep this time). */
+        public long getLoadedAtMillis() { return loadedAtMillis; }
+
+        /** Reads served from memory since startup (shared across snapshots). */
+        public long getHitCount() { return hits.get(); }
+        /** Times the settings had to be loaded from the DB. */
+        public long getMissCount() { return misses.get(); }
+
+        Snapshot with(String key, String value) {
+            Map<String, String> copy = new HashMap<>(values);
+            copy.put(key, value);
+            return new Snapshot(copy, loadedAtMillis);
+        }
+
+        Snapshot withAll(Map<String, String> changes) {
+            Map<String, String> copy = new HashMap<>(values);
+            copy.putAll(changes);
+            return new Snapshot(copy, loadedAtMillis);
+        }
+    }
+
     /** ============================================================
      *  Helper: check if table exists
      *  ============================================================ */
@@ -35,49 +92,133 @@ public class SettingsDao {
     }
 
     /** ============================================================
-     *  Read a setting (String) from table
+     *  Helper: resolve the settings table once
+     *  ============================================================ */
+    private String table() {
+        String t = resolvedTable;
+        if (t != UNRESOLVED) return t;
+        synchronized (SettingsDao.class) {
+            if (resolvedTable == UNRESOLVED) {
+                resolvedTable = tableExists("system_settings") ? "system_settings" :
+                        tableExists("settings")        ? "settings"        : null;
+            }
+            return resolvedTable;
+        }
+    }
+
+    /** Table used for writes; creates system_settings when neither table exists. */
+    private String tableForWrite() {
+        String table = table();
+        if (table == null) {
+            createSystemSettingsTable();
+            synchronized (SettingsDao.class) {
+                resolvedTable = "system_settings";
+            }
+            table = "system_settings";
+        }
+        return table;
+    }
+
+    /** ============================================================
+     *  Snapshot access
+     *  ============================================================ */
+    public Snapshot snapshot() {
+        Snapshot s = snapshot.get();
+        if (s != null && System.currentTimeMillis() - s.loadedAtMillis <= MAX_AGE_MILLIS) {
+            hits.incrementAndGet();
+            return s;
+        }
+        return reload();
+    }
+
+    /** Load every setting from the DB with one query and swap the snapshot. */
+    public Snapshot reload() {
+        misses.incrementAndGet();
+        Map<String, String> values = new HashMap<>();
+        String table = table();
+        if (table != null) {
+            String sql = "SELECT setting_key, setting_value FROM " + table;
+            try (Connection c = ds.getConnection();
+                 PreparedStatement ps = c.prepareStatement(sql);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) values.put(rs.getString("setting_key"), rs.getString("setting_value"));
+            } catch (SQLException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+        Snapshot s = new Snapshot(values, System.currentTimeMillis());
+        snapshot.set(s);
+        return s;
+    }
+
+    /** ============================================================
+     *  Read a setting (String) from the snapshot
      *  ============================================================ */
     public String findByKey(String key) {
-        String table = tableExists("system_settings") ? "system_settings" :
-                tableExists("settings")        ? "settings"        : null;
+        return snapshot().get(key);
+    }
+
+    /** ============================================================
+     *  Read several settings from the DB in one query (missing keys are absent)
+     *  and fold them into the snapshot
+     *  ============================================================ */
+    public Map<String, String> findByKeys(Collection<String> keys) {
+        Map<String, String> out = new HashMap<>();
+        if (keys == null || keys.isEmpty()) return out;
+        String table = table();
 
-        if (table == null) return null;
+        if (table == null) return out;
 
-        String sql = "SELECT setting_value FROM " + table + " WHERE setting_key = ?";
+        StringBuilder sql = new StringBuilder("SELECT setting_key, setting_value FROM " + table + " WHERE setting_key IN (");
+        for (int i = 0; i < keys.size(); i++) sql.append(i == 0 ? "?" : ", ?");
+        sql.append(")");
         try (Connection c = ds.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setString(1, key);
+             PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            int i = 1;
+            for (String k : keys) ps.setString(i++, k);
             try (ResultSet rs = ps.executeQuery()) {
-                return rs.next() ? rs.getString("setting_value") : null;
+                while (rs.next()) out.put(rs.getString("setting_key"), rs.getString("setting_value"));
             }
         } catch (SQLException ex) {
             throw new RuntimeException(ex);
         }
+        if (snapshot.get() != null) snapshot.updateAndGet(s -> s.withAll(out));
+        return out;
     }
 
     /** ============================================================
-     *  Update setting
+     *  Update setting, inserting it when no row exists (decided by the
+     *  UPDATE count, not the snapshot). If another client inserts the key
+     *  between our UPDATE and INSERT, the duplicate is retried as an UPDATE.
      *  ============================================================ */
     public void updateValue(String key, String value) {
-        String table = tableExists("system_settings") ? "system_settings" :
-                tableExists("settings")        ? "settings"        : null;
+        String table = tableForWrite();
 
-        if (table == null) {
-            createSystemSettingsTable();
-            table = "system_settings";
+        try (Connection c = ds.getConnection()) {
+            if (update(c, table, key, value) == 0) {
+                String sql = "INSERT INTO " + table + " (setting_key, setting_value) VALUES (?, ?)";
+                try (PreparedStatement ps = c.prepareStatement(sql)) {
+                    ps.setString(1, key);
+                    ps.setString(2, value);
+                    ps.executeUpdate();
+                } catch (SQLException ex) {
+                    String state = ex.getSQLState();
+                    if (state == null || !state.startsWith("23")) throw ex;
+                    update(c, table, key, value); // lost the race to another client's insert
+                }
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
         }
+        publish(key, value);
+    }
 
+    private static int update(Connection c, String table, String key, String value) throws SQLException {
         String sql = "UPDATE " + table + " SET setting_value = ? WHERE setting_key = ?";
-        try (Connection c = ds.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setString(1, value);
             ps.setString(2, key);
-            int updated = ps.executeUpdate();
-            if (updated == 0) {
-                insert(key, value);
-            }
-        } catch (SQLException ex) {
-            throw new RuntimeException(ex);
+            return ps.executeUpdate();
         }
     }
 
@@ -85,13 +226,7 @@ public class SettingsDao {
      *  Insert setting
      *  ============================================================ */
     public void insert(String key, String value) {
-        String table = tableExists("system_settings") ? "system_settings" :
-                tableExists("settings")        ? "settings"        : null;
-
-        if (table == null) {
-            createSystemSettingsTable();
-            table = "system_settings";
-        }
+        String table = tableForWrite();
 
         String sql = "INSERT INTO " + table + " (setting_key, setting_value) VALUES (?, ?)";
         try (Connection c = ds.getConnection();
@@ -102,6 +237,12 @@ public class SettingsDao {
         } catch (SQLException ex) {
             throw new RuntimeException(ex);
         }
+        publish(key, value);
+    }
+
+    private void publish(String key, String value) {
+        if (snapshot.get() == null) reload();
+        else snapshot.updateAndGet(s -> s.with(key, value));
     }
 
     /** ============================================================
@@ -124,6 +265,24 @@ public class SettingsDao {
         }
     }
 
+    /** ============================================================
+     *  Typed getters (served from the snapshot)
+     *  ============================================================ */
+    public boolean getBoolean(String key) {
+        String v = findByKey(key);
+        return v != null && (v.equalsIgnoreCase("ON") || v.equalsIgnoreCase("true"));
+    }
+
+    public java.time.LocalDate getDate(String key) {
+        String v = findByKey(key);
+        if (v == null || v.isBlank()) return null;
+        try {
+            return java.time.LocalDate.parse(v);
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+
     /** ============================================================
      *  API expected by MaintenanceService
      *  ============================================================ */
@@ -133,8 +292,7 @@ public class SettingsDao {
     }
 
     public void setSetting(String key, String value) {
-        if (findByKey(key) != null) updateValue(key, value);
-        else insert(key, value);
+        updateValue(key, value);
     }
 
     // ============================================================
@@ -142,13 +300,7 @@ public class SettingsDao {
     // ============================================================
 
     public java.time.LocalDate getEnrollmentDeadline() {
-        String v = findByKey("enrollment_deadline");
-        if (v == null || v.isBlank()) return null;
-        try {
-            return java.time.LocalDate.parse(v);
-        } catch (Exception ex) {
-            return null;
-        }
+        return getDate("enrollment_deadline");
     }
 
     public void setEnrollmentDeadline(java.time.LocalDate date) {
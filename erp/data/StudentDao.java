@@ -6,9 +6,12 @@ import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
 import java.util.Optional;
 
 public class StudentDao {
+    private static final int BATCH_SIZE = 500;
     private final DataSource ds = DataSourceProvider.erpDataSource();
 
     public Optional<Student> findByUserId(int userId) {
@@ -31,4 +34,34 @@ public class StudentDao {
         }
         return Optional.empty();
     }
+
+    /** Insert many student profiles in one transaction with batched statements; all or nothing. */
+    public void insertAll(List<Student> students) {
+        if (students.isEmpty()) return;
+        String sql = "INSERT INTO students (user_id, roll_no, program, year) VALUES (?, ?, ?, ?)";
+        try (Connection c = ds.getConnection()) {
+            boolean oldAutoCommit = c.getAutoCommit();
+            c.setAutoCommit(false);
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                int pending = 0;
+                for (Student st : students) {
+                    ps.setInt(1, st.getUserId());
+                    ps.setString(2, st.getRollNo());
+                    ps.setString(3, st.getProgram());
+                    ps.setInt(4, st.getYear());
+                    ps.addBatch();
+                    if (++pending == BATCH_SIZE) { ps.executeBatch(); pending = 0; }
+                }
+                if (pending > 0) ps.executeBatch();
+                c.commit();
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            } finally {
+                c.setAutoCommit(oldAutoCommit);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error inserting students", e);
+        }
+    }
 }
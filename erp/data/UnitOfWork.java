@@ -0,0 +1,179 @@
+package edu.univ.erp.data;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * UnitOfWork - thread-bound transaction scope that DAOs join transparently.
+ * <p>
+ * While {@code inTransaction(...)} runs, every {@code ds.getConnection()} on that DataSource from the same
+ * thread returns the one connection of the scope (see ScopedDataSource): DAO calls inside share a single
+ * pool checkout and a single transaction that is committed once at the end, or rolled back if the work
+ * throws. Inside a scope, DAO-level close()/commit()/setAutoCommit() are no-ops and rollback() marks the
+ * scope rollback-only. Nested inTransaction calls join the outer scope.
+ * <p>
+ * {@code sharingConnection(...)} is the same sharing for reads: DAO calls share one pool checkout but the
+ * connection stays in auto-commit, so no transaction is opened or committed. An inTransaction call inside
+ * it is rejected rather than silently run without a transaction.
+ * <p>
+ * {@code afterCommit(...)} defers an action (typically a cache invalidation) until the current transaction
+ * has committed, so no other thread can reload the cache from pre-commit data after it ran. Outside a
+ * transaction it runs at once; on rollback it is dropped.
+ * <p>
+ * Only DataSources from DataSourceProvider can be scoped.
+ */
+public final class UnitOfWork {
+
+    private static final ThreadLocal<Map<DataSource, Scope>> scopes = ThreadLocal.withInitial(HashMap::new);
+
+    private UnitOfWork() {}
+
+    /** Run work in a transaction on the ERP database and return its result. */
+    public static <T> T inTransaction(Supplier<T> work) {
+        return inTransaction(DataSourceProvider.erpDataSource(), work);
+    }
+
+    /** Run work in a transaction on the ERP database. */
+    public static void inTransaction(Runnable work) {
+        inTransaction(DataSourceProvider.erpDataSource(), () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /** Run work in a transaction on ds (a DataSourceProvider DataSource); joins an active scope on ds. */
+    public static <T> T inTransaction(DataSource ds, Supplier<T> work) {
+        return run(ds, true, work);
+    }
+
+    /** Run reads on the ERP database on one shared connection, without a transaction. */
+    public static <T> T sharingConnection(Supplier<T> work) {
+        return sharingConnection(DataSourceProvider.erpDataSource(), work);
+    }
+
+    /** Run reads on ds on one shared connection in auto-commit; joins an active scope (of either kind) on ds. */
+    public static <T> T sharingConnection(DataSource ds, Supplier<T> work) {
+        return run(ds, false, work);
+    }
+
+    /** Run action once the current ERP transaction has committed, or now if there is none. */
+    public static void afterCommit(Runnable action) {
+        afterCommit(DataSourceProvider.erpDataSource(), action);
+    }
+
+    /** Run action once the current transaction on ds has committed, or now if there is none; dropped on rollback. */
+    public static void afterCommit(DataSource ds, Runnable action) {
+        Scope scope = current(ds);
+        if (scope != null && scope.transactional) scope.afterCommit.add(action);
+        else action.run();
+    }
+
+    private static <T> T run(DataSource ds, boolean transactional, Supplier<T> work) {
+        if (!(ds instanceof ScopedDataSource)) {
+            throw new IllegalArgumentException("Not a DataSourceProvider DataSource: " + ds);
+        }
+        Map<DataSource, Scope> active = scopes.get();
+        Scope outer = active.get(ds);
+        if (outer != null) {
+            if (transactional && !outer.transactional) {
+                throw new IllegalStateException("inTransaction inside sharingConnection: start the transaction first");
+            }
+            return work.get();
+        }
+
+        Scope scope;
+        try {
+            scope = new Scope(((ScopedDataSource) ds).delegate().getConnection(), transactional);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        active.put(ds, scope);
+        T result;
+        try {
+            result = work.get();
+            scope.complete();
+        } catch (RuntimeException | Error e) {
+            scope.abort(e);
+            throw e;
+        } finally {
+            active.remove(ds);
+            scope.close();
+        }
+        // outside the scope, so an action that starts a transaction of its own gets a fresh one
+        for (Runnable action : scope.afterCommit) action.run();
+        return result;
+    }
+
+    /** True if the current thread is inside a scope on ds. */
+    public static boolean isActive(DataSource ds) {
+        return scopes.get().containsKey(ds);
+    }
+
+    /** The current thread's scope on ds, or null. Used by ScopedDataSource. */
+    static Scope current(DataSource ds) {
+        Map<DataSource, Scope> active = scopes.get();
+        return active.isEmpty() ? null : active.get(ds);
+    }
+
+    static final class Scope {
+        final Connection connection;
+        final boolean transactional;
+        private final boolean oldAutoCommit;
+        final List<Runnable> afterCommit = new ArrayList<>();
+        boolean rollbackOnly;
+
+        Scope(Connection connection, boolean transactional) throws SQLException {
+            this.connection = connection;
+            this.transactional = transactional;
+            this.oldAutoCommit = connection.getAutoCommit();
+            if (!transactional) return;
+            try {
+                connection.setAutoCommit(false);
+            } catch (SQLException e) {
+                connection.close();
+                throw e;
+            }
+        }
+
+        void complete() {
+            if (!transactional) return;
+            try {
+                if (rollbackOnly) {
+                    connection.rollback();
+                    throw new IllegalStateException("Transaction was rolled back by a participating DAO");
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        void abort(Throwable cause) {
+            if (!transactional) return;
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                cause.addSuppressed(e);
+            }
+        }
+
+        void close() {
+            try {
+                connection.setAutoCommit(oldAutoCommit);
+            } catch (SQLException ignore) {
+                // the pool resets auto-commit on return anyway
+            }
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
@@ -5,10 +5,15 @@ import edu.univ.erp.domain.User;
 import javax.sql.DataSource;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public class UserDao {
+    private static final int BATCH_SIZE = 500;
     private final DataSource ds = DataSourceProvider.authDataSource();
 
     public List<User> findAll() {
@@ -31,6 +36,44 @@ public class UserDao {
         return out;
     }
 
+    /**
+     * All users without their password hashes (getPasswordHash() is null), for listings and exports.
+     */
+    public List<User> listSummaries() {
+        String sql = "SELECT user_id, username, role FROM users ORDER BY user_id";
+        List<User> out = new ArrayList<>();
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                out.add(new User(rs.getInt("user_id"), rs.getString("username"), null, rs.getString("role")));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error listing users", e);
+        }
+        return out;
+    }
+
+    /**
+     * Users with the given role (ADMIN, INSTRUCTOR, STUDENT), without password hashes.
+     */
+    public List<User> findByRole(String role) {
+        String sql = "SELECT user_id, username, role FROM users WHERE role = ? ORDER BY user_id";
+        List<User> out = new ArrayList<>();
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, role);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    out.add(new User(rs.getInt("user_id"), rs.getString("username"), null, rs.getString("role")));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error listing users by role", e);
+        }
+        return out;
+    }
+
     public Optional<User> findById(int id) {
         String sql = "SELECT user_id, username, password_hash, role FROM users WHERE user_id = ?";
         try (Connection c = ds.getConnection();
@@ -69,9 +112,87 @@ public class UserDao {
         }
     }
 
+    /**
+     * Insert many users in one transaction with batched statements.
+     * Returns the generated user ids in input order. Either all rows are inserted or none.
+     */
+    public int[] insertAll(List<User> users) {
+        int[] ids = new int[users.size()];
+        if (users.isEmpty()) return ids;
+        String sql = "INSERT INTO users (username, password_hash, role) VALUES (?, ?, ?)";
+        try (Connection c = ds.getConnection()) {
+            boolean oldAutoCommit = c.getAutoCommit();
+            c.setAutoCommit(false);
+            try (PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                int next = 0;
+                for (int from = 0; from < users.size(); from += BATCH_SIZE) {
+                    for (User u : users.subList(from, Math.min(from + BATCH_SIZE, users.size()))) {
+                        ps.setString(1, u.getUsername());
+                        ps.setString(2, u.getPasswordHash());
+                        ps.setString(3, u.getRole());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        while (keys.next() && next < ids.length) ids[next++] = keys.getInt(1);
+                    }
+                }
+                if (next != ids.length) throw new SQLException("Expected " + ids.length + " generated keys, got " + next);
+                c.commit();
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            } finally {
+                c.setAutoCommit(oldAutoCommit);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error inserting users", e);
+        }
+        return ids;
+    }
+
+    /** The subset of usernames that already exist (one IN query per BATCH_SIZE names). */
+    public Set<String> findExistingUsernames(Collection<String> usernames) {
+        Set<String> out = new HashSet<>();
+        List<String> names = new ArrayList<>(usernames);
+        try (Connection c = ds.getConnection()) {
+            for (int from = 0; from < names.size(); from += BATCH_SIZE) {
+                List<String> chunk = names.subList(from, Math.min(from + BATCH_SIZE, names.size()));
+                String sql = "SELECT username FROM users WHERE username IN (" +
+                        String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+                try (PreparedStatement ps = c.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) ps.setString(i + 1, chunk.get(i));
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) out.add(rs.getString(1));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error checking usernames", e);
+        }
+        return out;
+    }
+
+    /** Delete many users in one batched statement (e.g. to undo a failed provisioning chunk). */
+    public void deleteAll(int[] userIds) {
+        if (userIds.length == 0) return;
+        String sql = "DELETE FROM users WHERE user_id = ?";
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            for (int id : userIds) {
+                ps.setInt(1, id);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error deleting users", e);
+        }
+    }
+
+    /** Update username, role and password hash; a null hash keeps the stored password. */
     public void update(User u) {
         if (u.getUserId() == null) throw new IllegalArgumentException("User id is null for update");
-        String sql = "UPDATE users SET username = ?, password_hash = ?, role = ? WHERE user_id = ?";
+        String sql = "UPDATE users SET username = ?, password_hash = COALESCE(?, password_hash), role = ? WHERE user_id = ?";
         try (Connection c = ds.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setString(1, u.getUsername());
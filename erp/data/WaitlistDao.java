@@ -0,0 +1,129 @@
+package edu.univ.erp.data;
+
+import edu.univ.erp.domain.WaitlistEntry;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+/**
+ * Waitlist DAO - one row per student waiting for a seat in a section, served in (priority, waitlist_id) order.
+ * Assumes table `waitlist (waitlist_id INT AUTO_INCREMENT PK, student_id INT, section_id INT, priority INT,
+ * requested_at TIMESTAMP)` with a unique (student_id, section_id) index.
+ */
+public class WaitlistDao {
+    private static final String COLUMNS = "waitlist_id, student_id, section_id, priority, requested_at";
+    private static final String ORDER = " ORDER BY priority, waitlist_id";
+
+    private final DataSource ds = DataSourceProvider.erpDataSource();
+
+    /** Queue a student; returns the new id, or empty if the student is already waiting for the section. */
+    public OptionalInt insertIfAbsent(int studentId, int sectionId, int priority) {
+        String sql = "INSERT INTO waitlist (student_id, section_id, priority, requested_at) VALUES (?, ?, ?, ?)";
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setInt(1, studentId);
+            ps.setInt(2, sectionId);
+            ps.setInt(3, priority);
+            ps.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (keys.next()) return OptionalInt.of(keys.getInt(1));
+            }
+            throw new RuntimeException("Insert succeeded but no key returned");
+        } catch (SQLIntegrityConstraintViolationException dup) {
+            return OptionalInt.empty();
+        } catch (SQLException e) {
+            if (e.getSQLState() != null && e.getSQLState().startsWith("23")) return OptionalInt.empty();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /** The section's queue in service order. */
+    public List<WaitlistEntry> findBySectionId(int sectionId) {
+        String sql = "SELECT " + COLUMNS + " FROM waitlist WHERE section_id = ?" + ORDER;
+        List<WaitlistEntry> out = new ArrayList<>();
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, sectionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) out.add(map(rs));
+            }
+        } catch (SQLException e) { throw new RuntimeException(e); }
+        return out;
+    }
+
+    public List<WaitlistEntry> findByStudentId(int studentId) {
+        String sql = "SELECT " + COLUMNS + " FROM waitlist WHERE student_id = ?" + ORDER;
+        List<WaitlistEntry> out = new ArrayList<>();
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, studentId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) out.add(map(rs));
+            }
+        } catch (SQLException e) { throw new RuntimeException(e); }
+        return out;
+    }
+
+    /**
+     * Head of the section's queue (index range scan, first row only), locked until the caller's transaction
+     * ends. A locking read sees the latest committed rows, not the transaction's REPEATABLE READ snapshot,
+     * so a head removed by a concurrent drop or leave is not returned again.
+     */
+    public Optional<WaitlistEntry> findNext(int sectionId) {
+        String sql = "SELECT " + COLUMNS + " FROM waitlist WHERE section_id = ?" + ORDER + " LIMIT 1 FOR UPDATE";
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, sectionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) return Optional.of(map(rs));
+            }
+        } catch (SQLException e) { throw new RuntimeException(e); }
+        return Optional.empty();
+    }
+
+    /** Returns false if the row was already gone. */
+    public boolean deleteById(int waitlistId) {
+        String sql = "DELETE FROM waitlist WHERE waitlist_id = ?";
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, waitlistId);
+            return ps.executeUpdate() == 1;
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
+    /** Remove a student from a section's queue; returns false if they were not on it. */
+    public boolean delete(int studentId, int sectionId) {
+        String sql = "DELETE FROM waitlist WHERE student_id = ? AND section_id = ?";
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, studentId);
+            ps.setInt(2, sectionId);
+            return ps.executeUpdate() == 1;
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
+    /** Empty a section's queue; returns rows deleted. */
+    public int deleteBySectionId(int sectionId) {
+        String sql = "DELETE FROM waitlist WHERE section_id = ?";
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, sectionId);
+            return ps.executeUpdate();
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
+    private static WaitlistEntry map(ResultSet rs) throws SQLException {
+        return new WaitlistEntry(
+                rs.getInt("waitlist_id"),
+                rs.getInt("student_id"),
+                rs.getInt("section_id"),
+                rs.getInt("priority"),
+                rs.getTimestamp("requested_at")
+        );
+    }
+}
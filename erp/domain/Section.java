@@ -6,13 +6,19 @@ public class Section {
     private final int instructorId;
     private final String semester;
     private final int year;
+    private final int capacity; // seats; 0 = unlimited
 
     public Section(int sectionId, int courseId, int instructorId, String semester, int year) {
+        this(sectionId, courseId, instructorId, semester, year, 0);
+    }
+
+    public Section(int sectionId, int courseId, int instructorId, String semester, int year, int capacity) {
         this.sectionId = sectionId;
         this.courseId = courseId;
         this.instructorId = instructorId;
         this.semester = semester;
         this.year = year;
+        this.capacity = capacity;
     }
 
     public int getSectionId() { return sectionId; }
@@ -20,6 +26,8 @@ public class Section {
     public int getInstructorId() { return instructorId; }
     public String getSemester() { return semester; }
     public int getYear() { return year; }
+    public int getCapacity() { return capacity; }
+    public boolean hasCapacityLimit() { return capacity > 0; }
 
     @Override
     public String toString() {
@@ -0,0 +1,30 @@
+package edu.univ.erp.domain;
+
+import java.sql.Timestamp;
+
+public class WaitlistEntry {
+    private final int waitlistId;
+    private final int studentId;
+    private final int sectionId;
+    private final int priority; // lower is served first; ties go by waitlistId (arrival order)
+    private final Timestamp requestedAt;
+
+    public WaitlistEntry(int waitlistId, int studentId, int sectionId, int priority, Timestamp requestedAt) {
+        this.waitlistId = waitlistId;
+        this.studentId = studentId;
+        this.sectionId = sectionId;
+        this.priority = priority;
+        this.requestedAt = requestedAt;
+    }
+
+    public int getWaitlistId() { return waitlistId; }
+    public int getStudentId() { return studentId; }
+    public int getSectionId() { return sectionId; }
+    public int getPriority() { return priority; }
+    public Timestamp getRequestedAt() { return requestedAt; }
+
+    @Override
+    public String toString() {
+        return "Waitlist " + waitlistId + " student:" + studentId + " section:" + sectionId;
+    }
+}
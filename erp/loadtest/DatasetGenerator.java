@@ -0,0 +1,513 @@
+package edu.univ.erp.loadtest;
+
+import edu.univ.erp.data.DataSourceProvider;
+import edu.univ.erp.data.GradingComponentDao;
+import edu.univ.erp.data.MultiRowInsert;
+import edu.univ.erp.data.UserDao;
+import edu.univ.erp.domain.GradingComponent;
+import edu.univ.erp.util.AccessChecker;
+import edu.univ.erp.util.GradeScale;
+import org.mindrot.jbcrypt.BCrypt;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * DatasetGenerator - fills the configured databases with a synthetic, production-sized dataset: auth users,
+ * instructors, students, courses, sections, grading components, section weights, enrollments, component
+ * marks and published grades.
+ *
+ * Sizes follow from --enrollments (1k to 1M and beyond): about --perStudent enrollments per student, one
+ * section per 35 enrollments, three sections per course and four per instructor. Distributions:
+ *  - students and courses are spread over departments with realistic weights, students over years 1-4
+ *  - sections are spread over eight terms (Spring/Fall 2022-2025); capacities 30-200, mostly 40-60
+ *  - section choice is skewed towards a few popular sections, which fill up to their capacity
+ *  - each section weights 3-5 grading components (Endsem always) in steps of 5 that add up to 100
+ *  - marks follow student ability, section difficulty and noise (clamped to 0..100); about 1.5% are
+ *    missing, and sections of the current term only have their early components marked
+ *  - final grades are published for past terms only, from the weighted total (see GradeScale)
+ * Everything is drawn from one java.util.Random in a fixed order, so a seed always yields the same data
+ * (and, on an empty database, the same ids). Rows are written with MultiRowInsert, --batchRows rows per
+ * INSERT statement, each statement committed on its own.
+ *
+ * Generated users share one BCrypt hash of the password "dataset". Usernames are PREFIX-s0000001 (students)
+ * and PREFIX-i00001 (instructors); a second dataset in the same database needs another --prefix.
+ * Point it at a scratch database with -Dconfig.file; the embedded-db Maven profile provides H2.
+ *
+ * Usage: DatasetGenerator [--enrollments 10000] [--seed 42] [--perStudent 5] [--batchRows 1000]
+ *        [--prefix gen] [--bcryptRounds 10]
+ */
+public class DatasetGenerator {
+    static final String PASSWORD = "dataset";
+
+    /** code, program, department, then course topics. */
+    private static final String[][] DEPARTMENTS = {
+            {"CSE", "B.Tech CSE", "Computer Science", "Programming", "Data Structures", "Algorithms",
+                    "Operating Systems", "Databases", "Computer Networks", "Machine Learning", "Compilers"},
+            {"ECE", "B.Tech ECE", "Electronics", "Circuits", "Signals and Systems", "Digital Design",
+                    "Communication Systems", "Embedded Systems", "VLSI Design"},
+            {"MTH", "B.Sc Mathematics", "Mathematics", "Linear Algebra", "Probability", "Real Analysis",
+                    "Discrete Mathematics", "Numerical Methods", "Optimization"},
+            {"PHY", "B.Sc Physics", "Physics", "Mechanics", "Electromagnetism", "Quantum Physics", "Thermodynamics"},
+            {"DES", "B.Des", "Design", "Visual Design", "Interaction Design", "Design Research", "Typography"},
+            {"HSS", "B.A. Economics", "Humanities", "Microeconomics", "Sociology", "Philosophy", "Psychology"},
+    };
+    private static final int[] DEPARTMENT_WEIGHTS = {35, 25, 15, 10, 8, 7};
+    private static final String[] LEVEL_PREFIX = {"Introduction to ", "", "Advanced ", "Topics in "};
+    private static final int[] CREDITS = {2, 3, 4};
+    private static final int[] CREDIT_WEIGHTS = {15, 15, 70};
+    private static final int[] CAPACITIES = {30, 40, 60, 80, 120, 200};
+    private static final int[] CAPACITY_WEIGHTS = {20, 30, 25, 15, 7, 3};
+
+    /** Grading components in course order; the current term has only the first EARLY_COMPONENTS marked. */
+    static final String[] COMPONENTS = {"Quiz", "Assignment", "Midterm", "Project", "Endsem"};
+    private static final int EARLY_COMPONENTS = 3;
+    private static final int ENDSEM = 4;
+
+    private static final int FIRST_YEAR = 2022;
+    private static final int TERMS = 8; // Spring, Fall of FIRST_YEAR .. FIRST_YEAR + 3; the last is current
+    private static final int ENROLLMENTS_PER_SECTION = 35;
+    private static final double MISSING_MARK_RATE = 0.015;
+
+    private final int enrollments;
+    private final long seed;
+    private final int perStudent;
+    private final int batchRows;
+    private final String prefix;
+    private final int bcryptRounds;
+
+    private final Random rnd;
+    private final Map<String, long[]> loaded = new LinkedHashMap<>(); // table -> {rows, nanos}
+
+    // ---- plan (indexes are 0-based positions, not database ids) ----
+    private int studentCount, instructorCount, courseCount, sectionCount;
+    private int[] studentDept, studentYear, instructorDept;
+    private double[] studentAbility;
+    private String[] courseCode, courseTitle;
+    private int[] courseCredits;
+    private int[] sectionCourse, sectionInstructor, sectionTerm, sectionCapacity, sectionSeats;
+    private double[] sectionDifficulty;
+    private int[][] sectionComponents, sectionWeights;
+    private int[] enrollmentStudent, enrollmentSection;
+
+    DatasetGenerator(Map<String, String> opts) {
+        this.enrollments = Integer.parseInt(opts.getOrDefault("enrollments", "10000"));
+        this.seed = Long.parseLong(opts.getOrDefault("seed", "42"));
+        this.perStudent = Integer.parseInt(opts.getOrDefault("perStudent", "5"));
+        this.batchRows = Integer.parseInt(opts.getOrDefault("batchRows", "1000"));
+        this.prefix = opts.getOrDefault("prefix", "gen");
+        this.bcryptRounds = Integer.parseInt(opts.getOrDefault("bcryptRounds", "10"));
+        if (enrollments < 1) throw new IllegalArgumentException("--enrollments must be positive");
+        if (perStudent < 1) throw new IllegalArgumentException("--perStudent must be positive");
+        if (batchRows < 1) throw new IllegalArgumentException("--batchRows must be positive");
+        this.rnd = new Random(seed);
+    }
+
+    public static void main(String[] args) throws Exception {
+        DatasetGenerator gen = new DatasetGenerator(RegistrationLoadTest.parseArgs(args));
+        gen.plan();
+        System.out.println(gen.describePlan());
+        long t0 = System.nanoTime();
+        gen.load();
+        System.out.println(gen.report(System.nanoTime() - t0));
+        System.exit(0);
+    }
+
+    /* ---------------- Plan ---------------- */
+
+    void plan() {
+        studentCount = Math.max(1, Math.round(enrollments / (float) perStudent));
+        sectionCount = Math.max((enrollments + ENROLLMENTS_PER_SECTION - 1) / ENROLLMENTS_PER_SECTION, 2 * perStudent + 2);
+        courseCount = Math.max(1, (sectionCount + 2) / 3);
+        instructorCount = Math.max(1, (sectionCount + 3) / 4);
+
+        instructorDept = new int[instructorCount];
+        for (int i = 0; i < instructorCount; i++) instructorDept[i] = weighted(DEPARTMENT_WEIGHTS);
+
+        planCourses();
+        planSections();
+
+        studentDept = new int[studentCount];
+        studentYear = new int[studentCount];
+        studentAbility = new double[studentCount];
+        for (int s = 0; s < studentCount; s++) {
+            studentDept[s] = weighted(DEPARTMENT_WEIGHTS);
+            studentYear[s] = 1 + rnd.nextInt(4);
+            studentAbility[s] = clamp(74 + rnd.nextGaussian() * 10, 30, 99);
+        }
+        planEnrollments();
+    }
+
+    private void planCourses() {
+        courseCode = new String[courseCount];
+        courseTitle = new String[courseCount];
+        courseCredits = new int[courseCount];
+        int[][] numbered = new int[DEPARTMENTS.length][4];
+        for (int c = 0; c < courseCount; c++) {
+            int d = weighted(DEPARTMENT_WEIGHTS);
+            int level = rnd.nextInt(4);
+            int n = ++numbered[d][level];
+            String[] dept = DEPARTMENTS[d];
+            int topics = dept.length - 3;
+            String topic = dept[3 + (n - 1) % topics];
+            courseCode[c] = String.format("%s%d%02d", dept[0], level + 1, n);
+            courseTitle[c] = LEVEL_PREFIX[level] + topic + (n > topics ? " " + ((n - 1) / topics + 1) : "");
+            courseCredits[c] = CREDITS[weighted(CREDIT_WEIGHTS)];
+        }
+    }
+
+    private void planSections() {
+        sectionCourse = new int[sectionCount];
+        sectionInstructor = new int[sectionCount];
+        sectionTerm = new int[sectionCount];
+        sectionCapacity = new int[sectionCount];
+        sectionSeats = new int[sectionCount];
+        sectionDifficulty = new double[sectionCount];
+        sectionComponents = new int[sectionCount][];
+        sectionWeights = new int[sectionCount][];
+        for (int s = 0; s < sectionCount; s++) {
+            // every course and instructor gets at least one section
+            sectionCourse[s] = s < courseCount ? s : rnd.nextInt(courseCount);
+            sectionInstructor[s] = s < instructorCount ? s : rnd.nextInt(instructorCount);
+            sectionTerm[s] = rnd.nextInt(TERMS);
+            sectionCapacity[s] = CAPACITIES[weighted(CAPACITY_WEIGHTS)];
+            sectionDifficulty[s] = rnd.nextGaussian() * 5;
+            planWeights(s);
+        }
+    }
+
+    /** 3-5 components including Endsem, each at least 5%, in steps of 5 adding up to 100. */
+    private void planWeights(int s) {
+        int m = 3 + rnd.nextInt(3);
+        boolean[] used = new boolean[COMPONENTS.length];
+        used[ENDSEM] = true;
+        for (int picked = 1; picked < m; ) {
+            int j = rnd.nextInt(ENDSEM);
+            if (!used[j]) { used[j] = true; picked++; }
+        }
+        int[] components = new int[m];
+        int[] units = new int[m];
+        for (int j = 0, k = 0; j < COMPONENTS.length; j++) {
+            if (used[j]) { components[k] = j; units[k++] = 1; }
+        }
+        for (int u = m; u < 20; u++) units[rnd.nextInt(m)]++;
+        for (int k = 0; k < m; k++) units[k] *= 5;
+        sectionComponents[s] = components;
+        sectionWeights[s] = units;
+    }
+
+    private void planEnrollments() {
+        int maxPerStudent = Math.min(sectionCount, 2 * perStudent + 2);
+        int[] perStudentCount = new int[studentCount];
+        long total = 0;
+        for (int s = 0; s < studentCount; s++) {
+            int k = (int) Math.round(perStudent + rnd.nextGaussian() * 1.5);
+            perStudentCount[s] = Math.max(1, Math.min(maxPerStudent, k));
+            total += perStudentCount[s];
+        }
+        // nudge random students until the total is exactly --enrollments
+        while (total != enrollments) {
+            int s = rnd.nextInt(studentCount);
+            if (total < enrollments && perStudentCount[s] < maxPerStudent) { perStudentCount[s]++; total++; }
+            else if (total > enrollments && perStudentCount[s] > 1) { perStudentCount[s]--; total--; }
+        }
+
+        enrollmentStudent = new int[enrollments];
+        enrollmentSection = new int[enrollments];
+        int e = 0;
+        int[] mine = new int[maxPerStudent];
+        for (int s = 0; s < studentCount; s++) {
+            for (int j = 0; j < perStudentCount[s]; j++) {
+                int sec = pickSection(mine, j);
+                mine[j] = sec;
+                sectionSeats[sec]++;
+                enrollmentStudent[e] = s;
+                enrollmentSection[e++] = sec;
+            }
+        }
+    }
+
+    /** Skewed towards the first sections; a full section or one the student already has is drawn again. */
+    private int pickSection(int[] mine, int taken) {
+        for (int attempt = 0; attempt < 8; attempt++) {
+            double r = rnd.nextDouble();
+            int sec = (int) (r * r * sectionCount);
+            if (canTake(sec, mine, taken)) return sec;
+        }
+        int start = rnd.nextInt(sectionCount);
+        for (int i = 0; i < sectionCount; i++) {
+            int sec = (start + i) % sectionCount;
+            if (canTake(sec, mine, taken)) return sec;
+        }
+        throw new IllegalStateException("Not enough free seats for " + enrollments + " enrollments");
+    }
+
+    private boolean canTake(int sec, int[] mine, int taken) {
+        if (sectionSeats[sec] >= sectionCapacity[sec]) return false;
+        for (int i = 0; i < taken; i++) if (mine[i] == sec) return false;
+        return true;
+    }
+
+    String describePlan() {
+        return String.format("Dataset (seed %d): %d students, %d instructors, %d courses, %d sections, %d enrollments, "
+                        + "%d rows per INSERT", seed, studentCount, instructorCount, courseCount, sectionCount,
+                enrollments, batchRows);
+    }
+
+    /* ---------------- Load ---------------- */
+
+    void load() {
+        AccessChecker.checkWritableOrThrow();
+        String first = studentUsername(0);
+        if (!new UserDao().findExistingUsernames(List.of(first)).isEmpty()) {
+            throw new IllegalStateException("User " + first + " already exists; use another --prefix or a fresh database");
+        }
+        DataSource auth = DataSourceProvider.authDataSource();
+        DataSource erp = DataSourceProvider.erpDataSource();
+        try {
+            int[] instructorIds = new int[instructorCount];
+            int[] studentIds = new int[studentCount];
+            loadUsers(auth, instructorIds, studentIds);
+            try (Connection c = erp.getConnection()) {
+                loadPeople(c, instructorIds, studentIds);
+                int[] courseIds = loadCourses(c);
+                int[] sectionIds = loadSections(c, courseIds, instructorIds);
+                int[] componentIds = ensureComponents();
+                loadWeights(c, sectionIds, componentIds);
+                int[] enrollmentIds = loadEnrollments(c, sectionIds, studentIds);
+                loadMarksAndGrades(c, enrollmentIds, componentIds);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void loadUsers(DataSource auth, int[] instructorIds, int[] studentIds) throws SQLException {
+        String hash = BCrypt.hashpw(PASSWORD, BCrypt.gensalt(bcryptRounds));
+        long t0 = System.nanoTime();
+        int[] next = {0};
+        try (Connection c = auth.getConnection();
+             MultiRowInsert users = new MultiRowInsert(c, "users", new String[]{"username", "password_hash", "role"},
+                     batchRows, id -> {
+                         int k = next[0]++;
+                         if (k < instructorCount) instructorIds[k] = id;
+                         else studentIds[k - instructorCount] = id;
+                     })) {
+            for (int i = 0; i < instructorCount; i++) users.add(instructorUsername(i), hash, "INSTRUCTOR");
+            for (int s = 0; s < studentCount; s++) users.add(studentUsername(s), hash, "STUDENT");
+        }
+        record("users", instructorCount + studentCount, t0);
+    }
+
+    private void loadPeople(Connection c, int[] instructorIds, int[] studentIds) throws SQLException {
+        long t0 = System.nanoTime();
+        try (MultiRowInsert ins = new MultiRowInsert(c, "instructors", new String[]{"user_id", "department"}, batchRows)) {
+            for (int i = 0; i < instructorCount; i++) ins.add(instructorIds[i], DEPARTMENTS[instructorDept[i]][2]);
+        }
+        record("instructors", instructorCount, t0);
+
+        t0 = System.nanoTime();
+        int lastYear = FIRST_YEAR + TERMS / 2 - 1;
+        try (MultiRowInsert ins = new MultiRowInsert(c, "students",
+                new String[]{"user_id", "roll_no", "program", "year"}, batchRows)) {
+            for (int s = 0; s < studentCount; s++) {
+                String[] dept = DEPARTMENTS[studentDept[s]];
+                int admitted = lastYear - studentYear[s] + 1;
+                String rollNo = String.format("%d%s%06d", admitted, dept[0], s + 1);
+                ins.add(studentIds[s], rollNo, dept[1], studentYear[s]);
+            }
+        }
+        record("students", studentCount, t0);
+    }
+
+    private int[] loadCourses(Connection c) throws SQLException {
+        long t0 = System.nanoTime();
+        int[] ids = new int[courseCount];
+        int[] next = {0};
+        try (MultiRowInsert ins = new MultiRowInsert(c, "courses", new String[]{"code", "title", "credits"},
+                batchRows, id -> ids[next[0]++] = id)) {
+            for (int k = 0; k < courseCount; k++) ins.add(courseCode[k], courseTitle[k], courseCredits[k]);
+        }
+        record("courses", courseCount, t0);
+        return ids;
+    }
+
+    private int[] loadSections(Connection c, int[] courseIds, int[] instructorIds) throws SQLException {
+        long t0 = System.nanoTime();
+        int[] ids = new int[sectionCount];
+        int[] next = {0};
+        try (MultiRowInsert ins = new MultiRowInsert(c, "sections",
+                new String[]{"course_id", "instructor_id", "semester", "year", "capacity", "enrolled_count"},
+                batchRows, id -> ids[next[0]++] = id)) {
+            for (int s = 0; s < sectionCount; s++) {
+                // enrolled_count is known from the plan, so the seat counters need no reconcile afterwards
+                ins.add(courseIds[sectionCourse[s]], instructorIds[sectionInstructor[s]], semesterOf(sectionTerm[s]),
+                        yearOf(sectionTerm[s]), sectionCapacity[s], sectionSeats[s]);
+            }
+        }
+        record("sections", sectionCount, t0);
+        return ids;
+    }
+
+    /** Ids of COMPONENTS, reusing components that already exist by name. */
+    private int[] ensureComponents() {
+        long t0 = System.nanoTime();
+        GradingComponentDao dao = new GradingComponentDao();
+        Map<String, Integer> byName = componentsByName(dao);
+        int created = 0;
+        for (String name : COMPONENTS) {
+            if (!byName.containsKey(name.toLowerCase(Locale.ROOT))) {
+                dao.insert(name);
+                created++;
+            }
+        }
+        if (created > 0) byName = componentsByName(dao);
+        int[] ids = new int[COMPONENTS.length];
+        for (int j = 0; j < COMPONENTS.length; j++) ids[j] = byName.get(COMPONENTS[j].toLowerCase(Locale.ROOT));
+        record("grading_components", created, t0);
+        return ids;
+    }
+
+    private static Map<String, Integer> componentsByName(GradingComponentDao dao) {
+        Map<String, Integer> out = new HashMap<>();
+        for (GradingComponent gc : dao.listAll()) out.putIfAbsent(gc.getName().trim().toLowerCase(Locale.ROOT), gc.getComponentId());
+        return out;
+    }
+
+    private void loadWeights(Connection c, int[] sectionIds, int[] componentIds) throws SQLException {
+        long t0 = System.nanoTime();
+        long rows = 0;
+        try (MultiRowInsert ins = new MultiRowInsert(c, "section_grade_weights",
+                new String[]{"section_id", "component_id", "weight"}, batchRows)) {
+            for (int s = 0; s < sectionCount; s++) {
+                for (int k = 0; k < sectionComponents[s].length; k++) {
+                    ins.add(sectionIds[s], componentIds[sectionComponents[s][k]], sectionWeights[s][k]);
+                    rows++;
+                }
+            }
+        }
+        record("section_grade_weights", rows, t0);
+    }
+
+    private int[] loadEnrollments(Connection c, int[] sectionIds, int[] studentIds) throws SQLException {
+        long t0 = System.nanoTime();
+        int[] ids = new int[enrollments];
+        int[] next = {0};
+        try (MultiRowInsert ins = new MultiRowInsert(c, "enrollments",
+                new String[]{"student_id", "section_id", "enrollment_date"}, batchRows, id -> ids[next[0]++] = id)) {
+            for (int e = 0; e < enrollments; e++) {
+                int sec = enrollmentSection[e];
+                LocalDate date = termStart(sectionTerm[sec]).minusDays(rnd.nextInt(21));
+                ins.add(studentIds[enrollmentStudent[e]], sectionIds[sec], java.sql.Date.valueOf(date));
+            }
+        }
+        record("enrollments", enrollments, t0);
+        return ids;
+    }
+
+    /** Marks per weighted component; past terms also get the letter grade of their weighted total. */
+    private void loadMarksAndGrades(Connection c, int[] enrollmentIds, int[] componentIds) throws SQLException {
+        long t0 = System.nanoTime();
+        long markRows = 0, gradeRows = 0;
+        try (MultiRowInsert marks = new MultiRowInsert(c, "component_marks",
+                new String[]{"enrollment_id", "component_id", "marks"}, batchRows);
+             MultiRowInsert grades = new MultiRowInsert(c, "grades", new String[]{"enrollment_id", "grade"}, batchRows)) {
+            for (int e = 0; e < enrollments; e++) {
+                int sec = enrollmentSection[e];
+                boolean current = sectionTerm[sec] == TERMS - 1;
+                double ability = studentAbility[enrollmentStudent[e]] - sectionDifficulty[sec];
+                long total = 0; // sum of mark (in hundredths) * weight%
+                int[] components = sectionComponents[sec];
+                for (int k = 0; k < components.length; k++) {
+                    int j = components[k];
+                    if (current && j >= EARLY_COMPONENTS) continue;
+                    if (rnd.nextDouble() < MISSING_MARK_RATE) continue;
+                    long hundredths = Math.round(clamp(ability + rnd.nextGaussian() * 10, 0, 100) * 100);
+                    marks.add(enrollmentIds[e], componentIds[j], BigDecimal.valueOf(hundredths, 2));
+                    markRows++;
+                    total += hundredths * sectionWeights[sec][k];
+                }
+                if (!current) {
+                    // same arithmetic as GradeService.computeSection: missing marks count as 0
+                    grades.add(enrollmentIds[e], GradeScale.letterForPercent(Math.round(total / 100.0) / 100.0));
+                    gradeRows++;
+                }
+            }
+        }
+        long nanos = System.nanoTime() - t0;
+        // both tables are written interleaved; the elapsed time is split by row count
+        long all = Math.max(1, markRows + gradeRows);
+        loaded.put("component_marks", new long[]{markRows, nanos * markRows / all});
+        loaded.put("grades", new long[]{gradeRows, nanos * gradeRows / all});
+    }
+
+    /* ---------------- Helpers ---------------- */
+
+    private int weighted(int[] weights) {
+        int sum = 0;
+        for (int w : weights) sum += w;
+        int r = rnd.nextInt(sum);
+        for (int i = 0; i < weights.length; i++) {
+            r -= weights[i];
+            if (r < 0) return i;
+        }
+        return weights.length - 1;
+    }
+
+    private static double clamp(double v, double lo, double hi) {
+        return Math.max(lo, Math.min(hi, v));
+    }
+
+    private static String semesterOf(int term) {
+        return term % 2 == 0 ? "Spring" : "Fall";
+    }
+
+    private static int yearOf(int term) {
+        return FIRST_YEAR + term / 2;
+    }
+
+    private static LocalDate termStart(int term) {
+        return term % 2 == 0 ? LocalDate.of(yearOf(term), 1, 8) : LocalDate.of(yearOf(term), 8, 1);
+    }
+
+    private String studentUsername(int s) {
+        return String.format("%s-s%07d", prefix, s + 1);
+    }
+
+    private String instructorUsername(int i) {
+        return String.format("%s-i%05d", prefix, i + 1);
+    }
+
+    private void record(String table, long rows, long t0) {
+        loaded.put(table, new long[]{rows, System.nanoTime() - t0});
+    }
+
+    /* ---------------- Report ---------------- */
+
+    String report(long elapsedNanos) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%nLoaded in %.2fs%n", elapsedNanos / 1e9));
+        sb.append(String.format("%-22s %10s %9s %11s%n", "table", "rows", "seconds", "rows/s"));
+        long total = 0;
+        for (Map.Entry<String, long[]> e : loaded.entrySet()) {
+            long rows = e.getValue()[0];
+            double seconds = e.getValue()[1] / 1e9;
+            total += rows;
+            sb.append(String.format("%-22s %10d %9.2f %11.0f%n", e.getKey(), rows, seconds,
+                    seconds > 0 ? rows / seconds : 0));
+        }
+        sb.append(String.format("%-22s %10d %9.2f %11.0f%n", "total", total, elapsedNanos / 1e9, total / (elapsedNanos / 1e9)));
+        sb.append(String.format("Users log in with password \"%s\" (e.g. %s, %s)%n", PASSWORD,
+                studentUsername(0), instructorUsername(0)));
+        return sb.toString();
+    }
+}
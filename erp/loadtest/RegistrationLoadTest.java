@@ -0,0 +1,369 @@
+package edu.univ.erp.loadtest;
+
+import edu.univ.erp.auth.AuthService;
+import edu.univ.erp.auth.Session;
+import edu.univ.erp.data.CourseDao;
+import edu.univ.erp.data.DataSourceProvider;
+import edu.univ.erp.data.DbMetrics;
+import edu.univ.erp.data.EnrollmentDao;
+import edu.univ.erp.data.SectionDao;
+import edu.univ.erp.data.StudentDao;
+import edu.univ.erp.data.UserDao;
+import edu.univ.erp.data.WaitlistDao;
+import edu.univ.erp.domain.Course;
+import edu.univ.erp.domain.Section;
+import edu.univ.erp.domain.Student;
+import edu.univ.erp.domain.User;
+import edu.univ.erp.service.AvailableSectionsQuery;
+import edu.univ.erp.service.EnrollmentException;
+import edu.univ.erp.service.ErpService;
+import edu.univ.erp.service.SectionWaitlist;
+import edu.univ.erp.service.StudentDashboardQuery;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RegistrationLoadTest - headless registration-day stampede against the configured databases.
+ *
+ * N synthetic students are released together; each logs in through AuthService, browses (available
+ * sections + own enrollments), enrolls in a few sections through ErpService (joining the waitlist when
+ * a section is full), counts a section's enrollments and sometimes drops one. Section choice is skewed
+ * so a few sections are hot. Reports throughput and latency percentiles per operation, error counts,
+ * connection pool wait times and peak waiters (from DbMetrics), and checks that no section is overbooked.
+ *
+ * Fixtures are idempotent: students lt-student-NNNNN (password "loadtest") and the sections of course
+ * LT-101 are created when missing, and the sections' enrollments and waitlists are cleared before a run.
+ * Point it at a scratch database with -Dconfig.file; an H2 URL in MySQL mode
+ * (jdbc:h2:mem:erp;MODE=MySQL;NON_KEYWORDS=YEAR,VALUE) works with the embedded-db Maven profile.
+ *
+ * Usage: RegistrationLoadTest [--students 500] [--threads 500] [--sections 20] [--capacity 40]
+ *        [--enrollments 3] [--dropRate 0.1] [--thinkMillis 0] [--bcryptRounds 10]
+ */
+public class RegistrationLoadTest {
+    static final String COURSE_CODE = "LT-101";
+    static final String USER_PREFIX = "lt-student-";
+    static final String PASSWORD = "loadtest";
+
+    static final String[] OPS = {"login", "browse", "enroll", "waitlist", "count", "drop"};
+
+    private final int students;
+    private final int threads;
+    private final int sectionCount;
+    private final int capacity;
+    private final int enrollmentsPerStudent;
+    private final double dropRate;
+    private final long thinkMillis;
+    private final int bcryptRounds;
+
+    private final AuthService authService = new AuthService();
+    private final ErpService erpService = new ErpService();
+    private final AvailableSectionsQuery availableSectionsQuery = new AvailableSectionsQuery();
+    private final StudentDashboardQuery dashboardQuery = new StudentDashboardQuery();
+    private final EnrollmentDao enrollmentDao = new EnrollmentDao();
+    private final SectionDao sectionDao = new SectionDao();
+
+    private final Map<String, DbMetrics.LatencyHistogram> latency = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+    private final AtomicInteger enrolled = new AtomicInteger();
+    private final AtomicInteger full = new AtomicInteger();
+    private final AtomicInteger duplicates = new AtomicInteger();
+    private final AtomicInteger waitlisted = new AtomicInteger();
+    private final AtomicInteger dropped = new AtomicInteger();
+    private final AtomicInteger peakPoolWaiting = new AtomicInteger();
+    private final AtomicInteger peakPoolActive = new AtomicInteger();
+
+    private int[] sectionIds;
+
+    RegistrationLoadTest(Map<String, String> opts) {
+        this.students = Integer.parseInt(opts.getOrDefault("students", "500"));
+        this.threads = Integer.parseInt(opts.getOrDefault("threads", String.valueOf(students)));
+        this.sectionCount = Integer.parseInt(opts.getOrDefault("sections", "20"));
+        this.capacity = Integer.parseInt(opts.getOrDefault("capacity", "40"));
+        this.enrollmentsPerStudent = Integer.parseInt(opts.getOrDefault("enrollments", "3"));
+        this.dropRate = Double.parseDouble(opts.getOrDefault("dropRate", "0.1"));
+        this.thinkMillis = Long.parseLong(opts.getOrDefault("thinkMillis", "0"));
+        this.bcryptRounds = Integer.parseInt(opts.getOrDefault("bcryptRounds", "10"));
+        for (String op : OPS) latency.put(op, new DbMetrics.LatencyHistogram());
+    }
+
+    public static void main(String[] args) throws Exception {
+        RegistrationLoadTest test = new RegistrationLoadTest(parseArgs(args));
+        test.setUp();
+        long elapsedNanos = test.run();
+        System.out.println(test.report(elapsedNanos));
+        System.exit(0);
+    }
+
+    static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> out = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            if (!a.startsWith("--")) throw new IllegalArgumentException("Unexpected argument: " + a);
+            int eq = a.indexOf('=');
+            if (eq > 0) out.put(a.substring(2, eq), a.substring(eq + 1));
+            else if (i + 1 < args.length) out.put(a.substring(2), args[++i]);
+            else throw new IllegalArgumentException("Missing value for " + a);
+        }
+        return out;
+    }
+
+    /* ---------------- Fixtures ---------------- */
+
+    void setUp() {
+        long t0 = System.nanoTime();
+        int created = ensureStudents();
+        sectionIds = ensureSections();
+        for (int id : sectionIds) {
+            new WaitlistDao().deleteBySectionId(id);
+            enrollmentDao.deleteBySectionId(id);
+        }
+        sectionDao.reconcileSeatCounts();
+        AvailableSectionsQuery.invalidate();
+        SectionWaitlist.invalidate();
+        System.out.printf("Setup: %d students (%d new), %d sections x %d seats, in %.1fs%n",
+                students, created, sectionIds.length, capacity, (System.nanoTime() - t0) / 1e9);
+    }
+
+    private int ensureStudents() {
+        UserDao userDao = new UserDao();
+        List<String> names = new ArrayList<>(students);
+        for (int i = 1; i <= students; i++) names.add(username(i));
+        Set<String> existing = userDao.findExistingUsernames(names);
+        // one hash for everyone: login still pays the full BCrypt check, setup does not pay it N times
+        String hash = BCrypt.hashpw(PASSWORD, BCrypt.gensalt(bcryptRounds));
+        List<User> users = new ArrayList<>();
+        List<Integer> numbers = new ArrayList<>();
+        for (int i = 1; i <= students; i++) {
+            if (existing.contains(username(i))) continue;
+            users.add(new User(null, username(i), hash, "STUDENT"));
+            numbers.add(i);
+        }
+        if (users.isEmpty()) return 0;
+        int[] ids = userDao.insertAll(users);
+        List<Student> profiles = new ArrayList<>(ids.length);
+        for (int k = 0; k < ids.length; k++) {
+            profiles.add(new Student(ids[k], "LT" + numbers.get(k), "Load Test", 1 + numbers.get(k) % 4));
+        }
+        new StudentDao().insertAll(profiles);
+        return ids.length;
+    }
+
+    private int[] ensureSections() {
+        CourseDao courseDao = new CourseDao();
+        int courseId = -1;
+        for (Course c : courseDao.findAll()) {
+            if (COURSE_CODE.equals(c.getCode())) { courseId = c.getCourseId(); break; }
+        }
+        if (courseId < 0) courseId = courseDao.insert(COURSE_CODE, "Registration Load Test", 3);
+        List<Section> sections = sectionDao.findByCourseId(courseId);
+        int[] ids = new int[sectionCount];
+        for (int i = 0; i < sectionCount; i++) {
+            if (i < sections.size()) {
+                Section s = sections.get(i);
+                if (s.getCapacity() != capacity) {
+                    sectionDao.update(s.getSectionId(), courseId, s.getInstructorId(), s.getSemester(), s.getYear(), capacity);
+                }
+                ids[i] = s.getSectionId();
+            } else {
+                ids[i] = sectionDao.insert(courseId, 0, "LOADTEST", 2025, capacity);
+            }
+        }
+        return ids;
+    }
+
+    static String username(int i) {
+        return String.format("%s%05d", USER_PREFIX, i);
+    }
+
+    /* ---------------- Run ---------------- */
+
+    long run() throws InterruptedException {
+        DbMetrics.reset();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "lt-student");
+            t.setDaemon(true);
+            return t;
+        });
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(students);
+        for (int i = 1; i <= students; i++) {
+            String name = username(i);
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    simulateStudent(name);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        Thread sampler = new Thread(this::samplePool, "lt-pool-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+
+        long t0 = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - t0;
+        sampler.interrupt();
+        pool.shutdownNow();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+        return elapsed;
+    }
+
+    private void simulateStudent(String username) throws InterruptedException {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        Session session = timed("login", () -> authService.login(username, PASSWORD));
+        if (session == null) {
+            errors.computeIfAbsent("login: rejected", k -> new AtomicLong()).incrementAndGet();
+            return;
+        }
+        int studentId = session.getUserId();
+        think();
+        timed("browse", () -> {
+            availableSectionsQuery.listAvailable();
+            return dashboardQuery.findEnrollments(studentId);
+        });
+
+        List<Integer> mine = new ArrayList<>();
+        for (int k = 0; k < enrollmentsPerStudent; k++) {
+            think();
+            int sectionId = pickSection(rnd);
+            EnrollmentException.Reason[] refused = new EnrollmentException.Reason[1];
+            Integer id = timed("enroll", () -> {
+                try {
+                    return erpService.enrollStudentInSection(studentId, sectionId);
+                } catch (EnrollmentException e) {
+                    refused[0] = e.getReason();
+                    return 0;
+                }
+            });
+            if (id == null) continue; // counted as an error
+            if (refused[0] == null) {
+                enrolled.incrementAndGet();
+                mine.add(id);
+            } else if (refused[0] == EnrollmentException.Reason.SECTION_FULL) {
+                full.incrementAndGet();
+                Integer pos = timed("waitlist", () -> {
+                    try {
+                        return erpService.joinWaitlist(studentId, sectionId);
+                    } catch (EnrollmentException e) {
+                        return -1; // already waiting or enrolled meanwhile
+                    }
+                });
+                if (pos != null && pos > 0) waitlisted.incrementAndGet();
+                else if (pos != null && pos == 0) enrolled.incrementAndGet();
+            } else {
+                duplicates.incrementAndGet();
+            }
+            timed("count", () -> enrollmentDao.countBySectionId(sectionId));
+        }
+
+        if (!mine.isEmpty() && rnd.nextDouble() < dropRate) {
+            think();
+            int enrollmentId = mine.get(rnd.nextInt(mine.size()));
+            if (timed("drop", () -> { erpService.dropEnrollment(enrollmentId); return Boolean.TRUE; }) != null) {
+                dropped.incrementAndGet();
+            }
+        }
+    }
+
+    /** Skewed towards the first sections: the popular ones everybody wants. */
+    private int pickSection(ThreadLocalRandom rnd) {
+        double r = rnd.nextDouble();
+        return sectionIds[(int) (r * r * sectionIds.length)];
+    }
+
+    private void think() throws InterruptedException {
+        if (thinkMillis > 0) Thread.sleep(ThreadLocalRandom.current().nextLong(thinkMillis + 1));
+    }
+
+    private interface Op<T> {
+        T call() throws Exception;
+    }
+
+    /** Run and time one operation; failures are counted per operation and exception type, and return null. */
+    private <T> T timed(String op, Op<T> work) {
+        long t0 = System.nanoTime();
+        try {
+            return work.call();
+        } catch (Exception e) {
+            errors.computeIfAbsent(op + ": " + e.getClass().getSimpleName(), k -> new AtomicLong()).incrementAndGet();
+            return null;
+        } finally {
+            latency.get(op).record(System.nanoTime() - t0);
+        }
+    }
+
+    private void samplePool() {
+        while (!Thread.currentThread().isInterrupted()) {
+            for (DbMetrics.PoolSnapshot p : DbMetrics.pools()) {
+                peakPoolWaiting.accumulateAndGet(p.getWaiting(), Math::max);
+                peakPoolActive.accumulateAndGet(p.getActive(), Math::max);
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /* ---------------- Report ---------------- */
+
+    String report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%nRegistration load test: %d students on %d threads, %d sections x %d seats, %.2fs%n",
+                students, threads, sectionIds.length, capacity, seconds));
+        sb.append(String.format("%-10s %8s %9s %9s %9s %9s %9s%n", "op", "count", "ops/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        long total = 0;
+        for (Map.Entry<String, DbMetrics.LatencyHistogram> e : latency.entrySet()) {
+            DbMetrics.LatencyHistogram h = e.getValue();
+            total += h.getCount();
+            sb.append(String.format("%-10s %8d %9.1f %9.2f %9.2f %9.2f %9.2f%n", e.getKey(), h.getCount(),
+                    h.getCount() / seconds, h.percentileMillis(0.50), h.percentileMillis(0.95),
+                    h.percentileMillis(0.99), h.getMaxMillis()));
+        }
+        sb.append(String.format("total      %8d %9.1f%n", total, total / seconds));
+        sb.append(String.format("%nOutcomes: enrolled=%d full=%d duplicate=%d waitlisted=%d dropped=%d%n",
+                enrolled.get(), full.get(), duplicates.get(), waitlisted.get(), dropped.get()));
+
+        long errorCount = errors.values().stream().mapToLong(AtomicLong::get).sum();
+        sb.append("Errors: ").append(errorCount).append('\n');
+        errors.forEach((k, v) -> sb.append("  ").append(k).append(" = ").append(v.get()).append('\n'));
+
+        sb.append(String.format("%nConnection pools (db.pool.maxPoolSize=%s, peak active=%d, peak waiting=%d)%n",
+                DataSourceProvider.getProperty("db.pool.maxPoolSize", "10 (Hikari default)"),
+                peakPoolActive.get(), peakPoolWaiting.get()));
+        for (DbMetrics.PoolSnapshot p : DbMetrics.pools()) {
+            sb.append(String.format("  %s: max=%d acquisitions=%d wait p50=%.2fms p95=%.2fms p99=%.2fms timeouts=%d%n",
+                    p.getPoolName(), p.getMax(), p.getAcquisitions(), p.getWaitP50Millis(),
+                    p.getWaitP95Millis(), p.getWaitP99Millis(), p.getTimeouts()));
+        }
+
+        int overbooked = 0;
+        for (int id : sectionIds) {
+            if (enrollmentDao.countBySectionId(id) > capacity) overbooked++;
+        }
+        sb.append(String.format("%nOverbooked sections: %d of %d%n", overbooked, sectionIds.length));
+        sb.append('\n').append(DbMetrics.report(8));
+        return sb.toString();
+    }
+}
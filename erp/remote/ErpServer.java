@@ -0,0 +1,613 @@
+package edu.univ.erp.remote;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import edu.univ.erp.auth.AuthService;
+import edu.univ.erp.auth.Session;
+import edu.univ.erp.data.DataSourceProvider;
+import edu.univ.erp.data.EnrollmentDao;
+import edu.univ.erp.data.SectionDao;
+import edu.univ.erp.domain.ComponentMark;
+import edu.univ.erp.domain.Enrollment;
+import edu.univ.erp.domain.Section;
+import edu.univ.erp.service.AvailableSectionsQuery;
+import edu.univ.erp.service.EnrollmentException;
+import edu.univ.erp.service.ErpService;
+import edu.univ.erp.service.GradeService;
+import edu.univ.erp.service.MaintenanceModeException;
+import edu.univ.erp.service.MarksImportService;
+import edu.univ.erp.service.ReportService;
+import edu.univ.erp.service.StudentDashboardQuery;
+import edu.univ.erp.service.SystemService;
+import edu.univ.erp.service.UserProvisioningService;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ErpServer - headless process that owns the connection pools, the section/maintenance caches and the
+ * services, and serves them to desktop clients (server.url, see Services) over HTTP/JSON on localhost.
+ * With one server, every client shares one pool per database and one catalogue cache, instead of each
+ * Swing process opening its own.
+ *
+ * API (all bodies are JSON; errors are {"error": message} plus "reason"/"sectionId" for enrollment errors):
+ *  - GET  /api/health                 status, open sessions and the maintenance flag
+ *  - POST /api/login                  {"username","password"} -> {"token", "session"}; 401 on bad credentials
+ *  - POST /api/logout                 ends the caller's session
+ *  - POST /api/call/{service.method}  JSON array of arguments -> {"result": value}
+ *  - GET  /api/export/{report}        CSV stream (enrollments, studentsPerSection, gradeDistribution)
+ * Every call except login, health and system.isMaintenanceMode needs "Authorization: Bearer token".
+ * Each route lists the roles allowed to call it; students may only pass their own user id and enrollments,
+ * instructors only their own sections. Sessions expire after server.sessionIdleMinutes without a request,
+ * and all sessions of a user end when an admin updates or deletes that user (the role is fixed at login).
+ *
+ * Security: passwords and tokens travel in the clear over HTTP, so the server only binds to a loopback
+ * address unless TLS is configured (server.tls.keyStore); to serve other machines, set both
+ * server.bindAddress and server.tls.*, and point the clients at https:// (they trust the JVM's default
+ * trust store, or javax.net.ssl.trustStore). Login bodies are capped at 8 KB and other requests at
+ * server.maxRequestBytes (413 beyond that). After server.login.maxFailures failed logins for one username,
+ * or server.login.maxFailuresPerAddress from one client address, within server.login.lockoutSeconds,
+ * further logins for it are refused with 429 until that window ends.
+ *
+ * Requests run on virtual threads when the JVM has them (Java 21+), otherwise on a pool of server.threads
+ * platform threads; either way the DB pool (db.pool.maxPoolSize) bounds concurrent queries.
+ *
+ * Config: server.bindAddress (127.0.0.1), server.port (8765), server.threads (64),
+ * server.sessionIdleMinutes (480), server.maxRequestBytes (33554432), server.login.maxFailures (5),
+ * server.login.maxFailuresPerAddress (20), server.login.lockoutSeconds (300), server.tls.keyStore (unset),
+ * server.tls.keyStorePassword, server.tls.keyStoreType (PKCS12), plus the usual db.* properties.
+ */
+public class ErpServer {
+    private static final Set<String> ADMIN = Set.of("ADMIN");
+    private static final Set<String> STAFF = Set.of("ADMIN", "INSTRUCTOR");
+    private static final Set<String> STUDENTS = Set.of("ADMIN", "STUDENT");
+    private static final Set<String> ALL = Set.of("ADMIN", "INSTRUCTOR", "STUDENT");
+    private static final int LOGIN_MAX_BYTES = 8 * 1024;
+
+    private final ErpService erp = new ErpService();
+    private final GradeService grades = new GradeService();
+    private final MarksImportService marksImport = new MarksImportService();
+    private final UserProvisioningService provisioning = new UserProvisioningService();
+    private final ReportService reports = new ReportService();
+    private final AuthService auth = new AuthService();
+    private final SystemService system = new SystemService();
+    private final AvailableSectionsQuery availableSections = new AvailableSectionsQuery();
+    private final StudentDashboardQuery dashboard = new StudentDashboardQuery();
+    private final EnrollmentDao enrollmentDao = new EnrollmentDao();
+    private final SectionDao sectionDao = new SectionDao();
+
+    private final Map<String, Route> routes = new HashMap<>();
+    private final ConcurrentHashMap<String, Client> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final int maxRequestBytes = Integer.parseInt(DataSourceProvider.getProperty("server.maxRequestBytes", "33554432"));
+    private final long lockoutMillis = TimeUnit.SECONDS.toMillis(
+            Long.parseLong(DataSourceProvider.getProperty("server.login.lockoutSeconds", "300")));
+    private final LoginThrottle failedByUser = new LoginThrottle(
+            Integer.parseInt(DataSourceProvider.getProperty("server.login.maxFailures", "5")), lockoutMillis);
+    private final LoginThrottle failedByAddress = new LoginThrottle(
+            Integer.parseInt(DataSourceProvider.getProperty("server.login.maxFailuresPerAddress", "20")), lockoutMillis);
+
+    private final String bindAddress;
+    private final int port;
+    private final int threads;
+    private final long idleMillis;
+
+    private HttpServer http;
+    private ExecutorService executor;
+    private ScheduledExecutorService sweeper;
+
+    public ErpServer(String bindAddress, int port, int threads, long sessionIdleMinutes) {
+        this.bindAddress = bindAddress;
+        this.port = port;
+        this.threads = threads;
+        this.idleMillis = TimeUnit.MINUTES.toMillis(sessionIdleMinutes);
+        registerRoutes();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (DataSourceProvider.isRemoteClient()) {
+            throw new IllegalStateException("server.url is set: this configuration is for a client, not for the server");
+        }
+        ErpServer server = new ErpServer(
+                DataSourceProvider.getProperty("server.bindAddress", "127.0.0.1"),
+                Integer.parseInt(DataSourceProvider.getProperty("server.port", "8765")),
+                Integer.parseInt(DataSourceProvider.getProperty("server.threads", "64")),
+                Long.parseLong(DataSourceProvider.getProperty("server.sessionIdleMinutes", "480")));
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "erp-server-shutdown"));
+        server.start();
+    }
+
+    /** Open both pools (running migrations), then start listening; plain HTTP only on a loopback address. */
+    public synchronized void start() throws IOException {
+        if (http != null) return;
+        SSLContext tls = tlsContext();
+        if (tls == null && !InetAddress.getByName(bindAddress).isLoopbackAddress()) {
+            throw new IllegalStateException("server.bindAddress " + bindAddress + " is not a loopback address: "
+                    + "set server.tls.keyStore so passwords and tokens are not sent in the clear");
+        }
+        DataSourceProvider.erpDataSource();
+        DataSourceProvider.authDataSource();
+        if (tls == null) {
+            http = HttpServer.create(new InetSocketAddress(bindAddress, port), 0);
+        } else {
+            HttpsServer https = HttpsServer.create(new InetSocketAddress(bindAddress, port), 0);
+            https.setHttpsConfigurator(new HttpsConfigurator(tls));
+            http = https;
+        }
+        executor = newExecutor();
+        http.setExecutor(executor);
+        http.createContext("/api/", this::handle);
+        http.start();
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "erp-server-sessions");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(this::expireSessions, 1, 1, TimeUnit.MINUTES);
+        System.out.println("[ErpServer] listening on " + (tls == null ? "http" : "https") + "://" + bindAddress + ":" + getPort() + "/api/");
+    }
+
+    public synchronized void stop() {
+        if (http == null) return;
+        http.stop(1);
+        executor.shutdown();
+        sweeper.shutdownNow();
+        http = null;
+        System.out.println("[ErpServer] stopped");
+    }
+
+    /** The bound port (useful with server.port=0). */
+    public synchronized int getPort() {
+        return http == null ? port : http.getAddress().getPort();
+    }
+
+    /** TLS from server.tls.keyStore, or null when it is not set. */
+    private static SSLContext tlsContext() throws IOException {
+        String file = DataSourceProvider.getProperty("server.tls.keyStore", null);
+        if (file == null || file.isBlank()) return null;
+        char[] password = DataSourceProvider.getProperty("server.tls.keyStorePassword", "").toCharArray();
+        try (InputStream in = Files.newInputStream(Path.of(file))) {
+            KeyStore keys = KeyStore.getInstance(DataSourceProvider.getProperty("server.tls.keyStoreType", "PKCS12"));
+            keys.load(in, password);
+            KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            kmf.init(keys, password);
+            SSLContext ctx = SSLContext.getInstance("TLS");
+            ctx.init(kmf.getKeyManagers(), null, null);
+            return ctx;
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Cannot load server.tls.keyStore " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /** Virtual thread per request on Java 21+, otherwise a fixed pool of platform threads. */
+    private ExecutorService newExecutor() {
+        try {
+            ExecutorService vt = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            System.out.println("[ErpServer] serving requests on virtual threads");
+            return vt;
+        } catch (ReflectiveOperationException notAvailable) {
+            AtomicInteger n = new AtomicInteger();
+            System.out.println("[ErpServer] virtual threads unavailable, serving requests on " + threads + " threads");
+            return Executors.newFixedThreadPool(threads, r -> {
+                Thread t = new Thread(r, "erp-server-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    /* ---------------- ROUTES ---------------- */
+
+    /** One callable service method. */
+    @FunctionalInterface
+    private interface Handler {
+        Object call(Call c) throws Exception;
+    }
+
+    private static final class Route {
+        final Set<String> roles; // null = no session needed
+        final Handler handler;
+
+        Route(Set<String> roles, Handler handler) {
+            this.roles = roles;
+            this.handler = handler;
+        }
+    }
+
+    private void route(String name, Set<String> roles, Handler h) {
+        routes.put(name, new Route(roles, h));
+    }
+
+    private void registerRoutes() {
+        // users (hashes never leave the server; updateUser with a null hash keeps the password)
+        route("erp.listUsers", ADMIN, c -> erp.listUsers());
+        route("erp.listInstructors", ADMIN, c -> erp.listInstructors());
+        route("erp.addUser", ADMIN, c -> erp.addUser(c.str(0), c.str(1), c.str(2)));
+        route("erp.updateUser", ADMIN, c -> { erp.updateUser(c.i(0), c.str(1), c.str(2), c.str(3)); revokeSessions(c.i(0)); return null; });
+        route("erp.deleteUser", ADMIN, c -> { erp.deleteUser(c.i(0)); revokeSessions(c.i(0)); return null; });
+        route("erp.getUserById", ADMIN, c -> erp.getUserById(c.i(0)));
+        route("provisioning.provisionCsv", ADMIN, c -> provisioning.provisionCsv(new StringReader(c.str(0)), null));
+
+        // courses and sections
+        route("erp.listCourses", ALL, c -> erp.listCourses());
+        route("erp.getCourseById", ALL, c -> erp.getCourseById(c.i(0)));
+        route("erp.addCourse", ADMIN, c -> erp.addCourse(c.str(0), c.str(1), c.i(2)));
+        route("erp.updateCourse", ADMIN, c -> { erp.updateCourse(c.i(0), c.str(1), c.str(2), c.i(3)); return null; });
+        route("erp.deleteCourse", ADMIN, c -> { erp.deleteCourse(c.i(0)); return null; });
+        route("erp.listSectionsForCourse", ALL, c -> erp.listSectionsForCourse(c.i(0)));
+        route("erp.listSections", ALL, c -> erp.listSections());
+        route("erp.getSectionById", ALL, c -> erp.getSectionById(c.i(0)));
+        route("erp.addSection", ADMIN, c -> c.args.size() > 4
+                ? erp.addSection(c.i(0), c.i(1), c.str(2), c.i(3), c.i(4))
+                : erp.addSection(c.i(0), c.i(1), c.str(2), c.i(3)));
+        route("erp.updateSection", ADMIN, c -> {
+            if (c.args.size() > 5) erp.updateSection(c.i(0), c.i(1), c.i(2), c.str(3), c.i(4), c.i(5));
+            else erp.updateSection(c.i(0), c.i(1), c.i(2), c.str(3), c.i(4));
+            return null;
+        });
+        route("erp.deleteSection", ADMIN, c -> { erp.deleteSection(c.i(0)); return null; });
+
+        // enrollment and waitlist
+        route("erp.getEnrollmentsForStudent", ALL, c -> erp.getEnrollmentsForStudent(c.student(0)));
+        route("erp.getEnrollmentsForSection", STAFF, c -> erp.getEnrollmentsForSection(c.section(0)));
+        route("erp.enrollStudentInSection", STUDENTS, c -> erp.enrollStudentInSection(c.student(0), c.i(1)));
+        route("erp.dropEnrollment", STUDENTS, c -> { erp.dropEnrollment(c.enrollment(0)); return null; });
+        route("erp.joinWaitlist", STUDENTS, c -> erp.joinWaitlist(c.student(0), c.i(1)));
+        route("erp.leaveWaitlist", STUDENTS, c -> erp.leaveWaitlist(c.student(0), c.i(1)));
+        route("erp.getWaitlistPosition", STUDENTS, c -> erp.getWaitlistPosition(c.student(0), c.i(1)));
+        route("erp.getWaitlistForStudent", STUDENTS, c -> erp.getWaitlistForStudent(c.student(0)));
+        route("erp.getStudentByUserId", ALL, c -> erp.getStudentByUserId(c.student(0)));
+
+        // grades
+        route("erp.getGradeForEnrollment", ALL, c -> erp.getGradeForEnrollment(c.enrollment(0)));
+        route("erp.setGradeForEnrollment", STAFF, c -> erp.setGradeForEnrollment(c.enrollment(0), c.str(1)));
+        route("erp.clearGradeForEnrollment", STAFF, c -> { erp.clearGradeForEnrollment(c.enrollment(0)); return null; });
+        route("erp.upsertGradeForEnrollment", STAFF, c -> erp.upsertGradeForEnrollment(c.enrollment(0), c.str(1), c.str(2)));
+        route("erp.getSectionsForInstructor", STAFF, c -> erp.getSectionsForInstructor(c.instructor(0)));
+        route("grades.listComponents", ALL, c -> grades.listComponents());
+        route("grades.getWeightsForSection", ALL, c -> grades.getWeightsForSection(c.i(0)));
+        route("grades.saveWeight", STAFF, c -> { grades.saveWeight(c.section(0), c.i(1), c.dec(2)); return null; });
+        route("grades.getMarksForEnrollment", ALL, c -> grades.getMarksForEnrollment(c.enrollment(0)));
+        route("grades.saveMark", STAFF, c -> { grades.saveMark(c.enrollment(0), c.i(1), c.dec(2)); return null; });
+        route("grades.saveMarks", STAFF, c -> {
+            List<ComponentMark> marks = Wire.list(c.arg(0), Wire::componentMark);
+            for (ComponentMark m : marks) c.checkEnrollment(m.getEnrollmentId());
+            return grades.saveMarks(marks);
+        });
+        route("grades.gradebookRows", STAFF, c -> {
+            List<Object[]> rows = new ArrayList<>();
+            grades.forEachGradebookRow(c.section(0), (enrollmentId, studentId, componentId, marks, grade) ->
+                    rows.add(new Object[]{enrollmentId, studentId, componentId, marks, grade}));
+            return rows;
+        });
+        route("marks.importCsv", STAFF, c -> {
+            int sectionId = c.section(0);
+            String csv = c.str(1);
+            return marksImport.importCsv(new StringReader(csv), csv.length(), sectionId, null);
+        });
+        route("grades.publishFinalGrades", STAFF, c -> grades.publishFinalGrades(c.section(0)));
+        route("grades.computeSection", STAFF, c -> grades.computeSection(c.section(0)));
+        route("grades.computeWeightedTotal", ALL, c -> {
+            Enrollment en = c.checkEnrollment(c.i(0));
+            if (en.getSectionId() != c.i(1)) throw new IllegalArgumentException("Enrollment " + en.getEnrollmentId() + " is not in section " + c.i(1));
+            return grades.computeWeightedTotal(en.getEnrollmentId(), en.getSectionId());
+        });
+
+        // catalogue and dashboard (served from this process's caches)
+        route("sections.listAvailable", ALL, c -> availableSections.listAvailable());
+        route("sections.reload", ADMIN, c -> availableSections.reload());
+        route("dashboard.findEnrollments", ALL, c -> dashboard.findEnrollments(c.student(0)));
+
+        // reports
+        route("reports.studentsPerCourse", ADMIN, c -> reports.studentsPerCourse());
+        route("reports.studentsPerSection", ADMIN, c -> reports.studentsPerSection());
+        route("reports.gradeDistribution", ADMIN, c -> reports.gradeDistribution());
+        route("reports.instructorLoad", ADMIN, c -> reports.instructorLoad());
+        route("reports.summary", ADMIN, c -> reports.summary());
+
+        // auth and system (credentials are only checked by /api/login)
+        route("auth.getUserIdByUsername", ADMIN, c -> auth.getUserIdByUsername(c.str(0)));
+        route("system.isMaintenanceMode", null, c -> system.isMaintenanceMode());
+        route("system.setMaintenanceMode", ADMIN, c -> system.setMaintenanceMode(c.bool(0)));
+    }
+
+    /** Arguments of one call plus the caller, with the ownership checks the routes use. */
+    private final class Call {
+        final Session session;
+        final List<Object> args;
+
+        Call(Session session, List<Object> args) {
+            this.session = session;
+            this.args = args;
+        }
+
+        Object arg(int n) {
+            if (n >= args.size()) throw new IllegalArgumentException("Missing argument " + (n + 1));
+            return args.get(n);
+        }
+
+        int i(int n) { return Wire.i(arg(n)); }
+        String str(int n) { return Wire.str(arg(n)); }
+        boolean bool(int n) { return Wire.bool(arg(n)); }
+        java.math.BigDecimal dec(int n) { return Wire.dec(arg(n)); }
+
+        /** A student user id: students may only name themselves. */
+        int student(int n) {
+            int id = i(n);
+            if (session.hasRole("STUDENT") && id != session.getUserId()) throw new SecurityException("Not your student record");
+            return id;
+        }
+
+        /** An instructor user id: instructors may only name themselves. */
+        int instructor(int n) {
+            int id = i(n);
+            if (session.hasRole("INSTRUCTOR") && id != session.getUserId()) throw new SecurityException("Not your instructor record");
+            return id;
+        }
+
+        /** A section id: instructors may only touch sections they teach. */
+        int section(int n) {
+            int id = i(n);
+            if (session.hasRole("INSTRUCTOR")) {
+                Section s = sectionDao.findById(id).orElseThrow(() -> new IllegalArgumentException("No section " + id));
+                if (s.getInstructorId() != session.getUserId()) throw new SecurityException("Not your section");
+            }
+            return id;
+        }
+
+        int enrollment(int n) {
+            return checkEnrollment(i(n)).getEnrollmentId();
+        }
+
+        /** Students may only touch their own enrollments, instructors those in their sections. */
+        Enrollment checkEnrollment(int enrollmentId) {
+            Enrollment en = enrollmentDao.findById(enrollmentId)
+                    .orElseThrow(() -> new IllegalArgumentException("No enrollment " + enrollmentId));
+            if (session.hasRole("STUDENT") && en.getStudentId() != session.getUserId()) {
+                throw new SecurityException("Not your enrollment");
+            }
+            if (session.hasRole("INSTRUCTOR")) {
+                Section s = sectionDao.findById(en.getSectionId()).orElse(null);
+                if (s == null || s.getInstructorId() != session.getUserId()) throw new SecurityException("Not your section");
+            }
+            return en;
+        }
+    }
+
+    /* ---------------- SESSIONS ---------------- */
+
+    private static final class Client {
+        final Session session;
+        volatile long lastSeenMillis = System.currentTimeMillis();
+
+        Client(Session session) {
+            this.session = session;
+        }
+    }
+
+    private String newToken() {
+        byte[] b = new byte[32];
+        random.nextBytes(b);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(b);
+    }
+
+    /** The caller's session, or null if the token is missing, unknown or expired. */
+    private Session sessionOf(HttpExchange ex) {
+        String header = ex.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) return null;
+        Client client = sessions.get(header.substring(7).trim());
+        if (client == null) return null;
+        long now = System.currentTimeMillis();
+        if (now - client.lastSeenMillis > idleMillis) return null;
+        client.lastSeenMillis = now;
+        return client.session;
+    }
+
+    private void expireSessions() {
+        long cutoff = System.currentTimeMillis() - idleMillis;
+        sessions.values().removeIf(c -> c.lastSeenMillis < cutoff);
+        failedByUser.expire();
+        failedByAddress.expire();
+    }
+
+    /** End every session of the user, so a changed role or password, or a deleted account, needs a new login. */
+    private void revokeSessions(int userId) {
+        sessions.values().removeIf(c -> c.session.getUserId() == userId);
+    }
+
+    /* ---------------- HTTP ---------------- */
+
+    private void handle(HttpExchange ex) throws IOException {
+        try {
+            String path = ex.getRequestURI().getPath();
+            String method = ex.getRequestMethod();
+            if (path.equals("/api/health")) {
+                reply(ex, 200, Map.of("status", "UP", "sessions", sessions.size(), "maintenance", system.isMaintenanceMode()));
+            } else if (path.equals("/api/login") && method.equals("POST")) {
+                login(ex);
+            } else if (path.equals("/api/logout") && method.equals("POST")) {
+                String header = ex.getRequestHeaders().getFirst("Authorization");
+                if (header != null && header.startsWith("Bearer ")) sessions.remove(header.substring(7).trim());
+                reply(ex, 200, result(true));
+            } else if (path.startsWith("/api/call/") && method.equals("POST")) {
+                call(ex, path.substring("/api/call/".length()));
+            } else if (path.startsWith("/api/export/") && method.equals("GET")) {
+                export(ex, path.substring("/api/export/".length()));
+            } else {
+                reply(ex, 404, error("No such endpoint: " + method + " " + path));
+            }
+        } catch (Exception e) {
+            failed(ex, e);
+        } finally {
+            ex.close();
+        }
+    }
+
+    private void login(HttpExchange ex) throws IOException {
+        Map<String, Object> body = Wire.obj(Json.parse(readBody(ex, LOGIN_MAX_BYTES)));
+        String username = Wire.str(body.get("username"));
+        String userKey = username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+        String address = ex.getRemoteAddress().getAddress().getHostAddress();
+        long wait = Math.max(failedByUser.blockedForSeconds(userKey), failedByAddress.blockedForSeconds(address));
+        if (wait > 0) {
+            ex.getResponseHeaders().set("Retry-After", String.valueOf(wait));
+            reply(ex, 429, error("Too many failed logins; try again in " + wait + " s"));
+            return;
+        }
+        Session s = auth.login(username, Wire.str(body.get("password")));
+        if (s == null) {
+            failedByUser.failed(userKey);
+            failedByAddress.failed(address);
+            reply(ex, 401, error("Invalid username or password"));
+            return;
+        }
+        failedByUser.succeeded(userKey);
+        String token = newToken();
+        sessions.put(token, new Client(s));
+        Map<String, Object> out = new HashMap<>();
+        out.put("token", token);
+        out.put("session", Wire.encode(s));
+        reply(ex, 200, out);
+    }
+
+    private void call(HttpExchange ex, String name) throws Exception {
+        Route route = routes.get(name);
+        if (route == null) {
+            reply(ex, 404, error("No such call: " + name));
+            return;
+        }
+        Session session = sessionOf(ex);
+        if (route.roles != null) {
+            if (session == null) {
+                reply(ex, 401, error("Not logged in or session expired"));
+                return;
+            }
+            if (!route.roles.contains(session.getRole())) {
+                reply(ex, 403, error(session.getRole() + " may not call " + name));
+                return;
+            }
+        }
+        String body = readBody(ex, maxRequestBytes);
+        List<Object> args = body.isBlank() ? List.of() : Wire.arr(Json.parse(body));
+        Object value = route.handler.call(new Call(session, args));
+        reply(ex, 200, result(Wire.encode(value)));
+    }
+
+    private void export(HttpExchange ex, String report) throws IOException {
+        Session session = sessionOf(ex);
+        if (session == null) {
+            reply(ex, 401, error("Not logged in or session expired"));
+            return;
+        }
+        if (!session.hasRole("ADMIN")) {
+            reply(ex, 403, error(session.getRole() + " may not export reports"));
+            return;
+        }
+        if (!Set.of("enrollments", "studentsPerSection", "gradeDistribution").contains(report)) {
+            reply(ex, 404, error("No such report: " + report));
+            return;
+        }
+        ex.getResponseHeaders().set("Content-Type", "text/csv; charset=UTF-8");
+        ex.sendResponseHeaders(200, 0); // chunked: rows go out as the cursor reads them
+        try (OutputStream out = ex.getResponseBody()) {
+            switch (report) {
+                case "enrollments": reports.exportAllEnrollmentsCsv(out); break;
+                case "studentsPerSection": reports.exportStudentsPerSectionCsv(out); break;
+                default: reports.exportGradeDistributionCsv(out); break;
+            }
+        }
+    }
+
+    /** Map a failure to a status; once a streamed body has started there is nothing left to send. */
+    private void failed(HttpExchange ex, Exception e) throws IOException {
+        if (ex.getResponseCode() != -1) {
+            System.err.println("[ErpServer] " + ex.getRequestURI().getPath() + " failed mid-response: " + e);
+            return;
+        }
+        Throwable t = e instanceof java.lang.reflect.InvocationTargetException ? e.getCause() : e;
+        Map<String, Object> body = error(t.getMessage() == null ? t.toString() : t.getMessage());
+        int status;
+        if (t instanceof EnrollmentException) {
+            EnrollmentException ee = (EnrollmentException) t;
+            body.put("reason", ee.getReason().name());
+            body.put("sectionId", ee.getSectionId());
+            status = 409;
+        } else if (t instanceof RequestTooLargeException) {
+            status = 413;
+        } else if (t instanceof MaintenanceModeException) {
+            status = 503;
+        } else if (t instanceof SecurityException) {
+            status = 403;
+        } else if (t instanceof IllegalArgumentException || t instanceof ClassCastException) {
+            status = 400;
+        } else {
+            System.err.println("[ErpServer] " + ex.getRequestURI().getPath() + " failed: " + t);
+            t.printStackTrace();
+            status = 500;
+        }
+        body.put("type", t.getClass().getSimpleName());
+        reply(ex, status, body);
+    }
+
+    /** Thrown when a request body is longer than its endpoint allows. */
+    private static final class RequestTooLargeException extends IOException {
+        RequestTooLargeException(int limit) {
+            super("Request body is larger than " + limit + " bytes");
+        }
+    }
+
+    /** The body as text; reads at most limit + 1 bytes, so an oversized body is refused without buffering it. */
+    private static String readBody(HttpExchange ex, int limit) throws IOException {
+        byte[] bytes = ex.getRequestBody().readNBytes(limit + 1);
+        if (bytes.length > limit) throw new RequestTooLargeException(limit);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, Object> result(Object value) {
+        Map<String, Object> out = new HashMap<>();
+        out.put("result", value);
+        return out;
+    }
+
+    private static Map<String, Object> error(String message) {
+        Map<String, Object> out = new HashMap<>();
+        out.put("error", message);
+        return out;
+    }
+
+    private static void reply(HttpExchange ex, int status, Map<String, ?> body) throws IOException {
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package edu.univ.erp.remote;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Json - the small JSON reader/writer behind the ErpServer API (the app has no JSON library).
+ * parse() returns LinkedHashMap for objects, ArrayList for arrays, Long for integers, BigDecimal for other
+ * numbers, String, Boolean or null. write() accepts the same plus any Collection, Object[] and Number.
+ * Malformed input is reported as IllegalArgumentException.
+ */
+final class Json {
+
+    private Json() {}
+
+    static String write(Object value) {
+        StringBuilder sb = new StringBuilder();
+        write(sb, value);
+        return sb.toString();
+    }
+
+    static void write(StringBuilder sb, Object v) {
+        if (v == null) {
+            sb.append("null");
+        } else if (v instanceof String) {
+            writeString(sb, (String) v);
+        } else if (v instanceof Boolean) {
+            sb.append(v);
+        } else if (v instanceof BigDecimal) {
+            sb.append(((BigDecimal) v).toPlainString());
+        } else if (v instanceof Double || v instanceof Float) {
+            double d = ((Number) v).doubleValue();
+            if (Double.isNaN(d) || Double.isInfinite(d)) sb.append("null");
+            else sb.append(v);
+        } else if (v instanceof Number) {
+            sb.append(((Number) v).longValue());
+        } else if (v instanceof Map) {
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) v).entrySet()) {
+                if (!first) sb.append(',');
+                first = false;
+                writeString(sb, String.valueOf(e.getKey()));
+                sb.append(':');
+                write(sb, e.getValue());
+            }
+            sb.append('}');
+        } else if (v instanceof Collection) {
+            sb.append('[');
+            boolean first = true;
+            for (Object o : (Collection<?>) v) {
+                if (!first) sb.append(',');
+                first = false;
+                write(sb, o);
+            }
+            sb.append(']');
+        } else if (v instanceof Object[]) {
+            sb.append('[');
+            Object[] a = (Object[]) v;
+            for (int i = 0; i < a.length; i++) {
+                if (i > 0) sb.append(',');
+                write(sb, a[i]);
+            }
+            sb.append(']');
+        } else {
+            throw new IllegalArgumentException("Not a JSON value: " + v.getClass().getName());
+        }
+    }
+
+    private static void writeString(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            switch (ch) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                case '\b': sb.append("\\b"); break;
+                case '\f': sb.append("\\f"); break;
+                default:
+                    if (ch < 0x20) sb.append(String.format("\\u%04x", (int) ch));
+                    else sb.append(ch);
+            }
+        }
+        sb.append('"');
+    }
+
+    static Object parse(String text) {
+        Parser p = new Parser(text);
+        Object v = p.value();
+        p.skipWhitespace();
+        if (p.pos != text.length()) throw p.error("unexpected trailing characters");
+        return v;
+    }
+
+    private static final class Parser {
+        private final String s;
+        private int pos;
+
+        Parser(String s) {
+            this.s = s;
+        }
+
+        Object value() {
+            skipWhitespace();
+            if (pos >= s.length()) throw error("unexpected end of input");
+            char ch = s.charAt(pos);
+            switch (ch) {
+                case '{': return object();
+                case '[': return array();
+                case '"': return string();
+                case 't': return literal("true", Boolean.TRUE);
+                case 'f': return literal("false", Boolean.FALSE);
+                case 'n': return literal("null", null);
+                default:
+                    if (ch == '-' || (ch >= '0' && ch <= '9')) return number();
+                    throw error("unexpected character '" + ch + "'");
+            }
+        }
+
+        private Map<String, Object> object() {
+            Map<String, Object> out = new LinkedHashMap<>();
+            pos++; // {
+            skipWhitespace();
+            if (peek() == '}') { pos++; return out; }
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') throw error("expected a field name");
+                String key = string();
+                skipWhitespace();
+                expect(':');
+                out.put(key, value());
+                skipWhitespace();
+                char ch = next();
+                if (ch == '}') return out;
+                if (ch != ',') throw error("expected ',' or '}'");
+            }
+        }
+
+        private List<Object> array() {
+            List<Object> out = new ArrayList<>();
+            pos++; // [
+            skipWhitespace();
+            if (peek() == ']') { pos++; return out; }
+            while (true) {
+                out.add(value());
+                skipWhitespace();
+                char ch = next();
+                if (ch == ']') return out;
+                if (ch != ',') throw error("expected ',' or ']'");
+            }
+        }
+
+        private String string() {
+            pos++; // opening quote
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char ch = next();
+                if (ch == '"') return sb.toString();
+                if (ch != '\\') { sb.append(ch); continue; }
+                char esc = next();
+                switch (esc) {
+                    case '"': case '\\': case '/': sb.append(esc); break;
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > s.length()) throw error("truncated \\u escape");
+                        try {
+                            sb.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("bad \\u escape");
+                        }
+                        pos += 4;
+                        break;
+                    default: throw error("bad escape '\\" + esc + "'");
+                }
+            }
+        }
+
+        private Object number() {
+            int start = pos;
+            boolean integral = true;
+            while (pos < s.length()) {
+                char ch = s.charAt(pos);
+                if ((ch >= '0' && ch <= '9') || ch == '-' || ch == '+') { pos++; continue; }
+                if (ch == '.' || ch == 'e' || ch == 'E') { integral = false; pos++; continue; }
+                break;
+            }
+            String token = s.substring(start, pos);
+            try {
+                if (integral && token.length() < 19) return Long.parseLong(token);
+                return new BigDecimal(token);
+            } catch (NumberFormatException e) {
+                throw error("bad number '" + token + "'");
+            }
+        }
+
+        private Object literal(String word, Object value) {
+            if (!s.startsWith(word, pos)) throw error("unexpected token");
+            pos += word.length();
+            return value;
+        }
+
+        void skipWhitespace() {
+            while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) pos++;
+        }
+
+        private char peek() {
+            return pos < s.length() ? s.charAt(pos) : '\0';
+        }
+
+        private char next() {
+            if (pos >= s.length()) throw error("unexpected end of input");
+            return s.charAt(pos++);
+        }
+
+        private void expect(char ch) {
+            if (next() != ch) throw error("expected '" + ch + "'");
+        }
+
+        IllegalArgumentException error(String what) {
+            return new IllegalArgumentException("Malformed JSON at " + pos + ": " + what);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package edu.univ.erp.remote;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LoginThrottle - counts failed logins per key (a username or a client address) in a fixed window. Once a
+ * key reaches its limit, further attempts are refused without checking the password until the window
+ * ends, so /api/login cannot be used to run BCrypt checks or guess passwords at full speed.
+ */
+final class LoginThrottle {
+    private final int maxFailures;
+    private final long windowMillis;
+    private final ConcurrentHashMap<String, Window> failures = new ConcurrentHashMap<>();
+
+    private static final class Window {
+        final long startMillis;
+        final int count;
+
+        Window(long startMillis, int count) {
+            this.startMillis = startMillis;
+            this.count = count;
+        }
+    }
+
+    LoginThrottle(int maxFailures, long windowMillis) {
+        this.maxFailures = maxFailures;
+        this.windowMillis = windowMillis;
+    }
+
+    /** Seconds until the key may try again, or 0 if it is not blocked. */
+    long blockedForSeconds(String key) {
+        Window w = failures.get(key);
+        if (w == null || w.count < maxFailures) return 0;
+        long left = w.startMillis + windowMillis - System.currentTimeMillis();
+        return left <= 0 ? 0 : (left + 999) / 1000;
+    }
+
+    void failed(String key) {
+        long now = System.currentTimeMillis();
+        failures.compute(key, (k, w) -> w == null || now - w.startMillis >= windowMillis
+                ? new Window(now, 1) : new Window(w.startMillis, w.count + 1));
+    }
+
+    void succeeded(String key) {
+        failures.remove(key);
+    }
+
+    /** Drop windows that have ended. */
+    void expire() {
+        long cutoff = System.currentTimeMillis() - windowMillis;
+        failures.values().removeIf(w -> w.startMillis < cutoff);
+    }
+}
@@ -0,0 +1,29 @@
+package edu.univ.erp.remote;
+
+import edu.univ.erp.auth.AuthService;
+import edu.univ.erp.auth.Session;
+
+/**
+ * AuthService for a desktop client: login opens a server session whose token RemoteClient keeps.
+ * The server has no credential check outside /api/login, so authenticate logs in as well.
+ */
+final class RemoteAuthService extends AuthService {
+    private final RemoteClient server = RemoteClient.get();
+
+    @Override
+    public Session login(String username, String plainPassword) {
+        return server.login(username, plainPassword);
+    }
+
+    /** Role on success, else null; on success the client's session becomes this user's. */
+    @Override
+    public String authenticate(String username, String plainPassword) {
+        Session s = server.login(username, plainPassword);
+        return s == null ? null : s.getRole();
+    }
+
+    @Override
+    public Integer getUserIdByUsername(String username) {
+        return Wire.integer(server.call("auth.getUserIdByUsername", username));
+    }
+}
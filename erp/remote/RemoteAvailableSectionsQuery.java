@@ -0,0 +1,20 @@
+package edu.univ.erp.remote;
+
+import edu.univ.erp.service.AvailableSectionsQuery;
+
+import java.util.List;
+
+/** The section catalogue as cached by the server, shared by every client. */
+final class RemoteAvailableSectionsQuery extends AvailableSectionsQuery {
+    private final RemoteClient server = RemoteClient.get();
+
+    @Override
+    public List<Row> listAvailable() {
+        return Wire.list(server.call("sections.listAvailable"), Wire::sectionRow);
+    }
+
+    @Override
+    public List<Row> reload() {
+        return Wire.list(server.call("sections.reload"), Wire::sectionRow);
+    }
+}
@@ -0,0 +1,194 @@
+package edu.univ.erp.remote;
+
+import edu.univ.erp.auth.Session;
+import edu.univ.erp.data.DataSourceProvider;
+import edu.univ.erp.service.EnrollmentException;
+import edu.univ.erp.service.MaintenanceModeException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * RemoteClient - the desktop side of ErpServer: one HttpClient (kept-alive connections) and the bearer
+ * token of the logged-in user. Server errors come back as the exceptions the local services throw
+ * (EnrollmentException, MaintenanceModeException, SecurityException, IllegalArgumentException) so the
+ * frames handle them the same way; anything else is a RemoteCallException.
+ * A server on another machine must be reached over https:// (see ErpServer), since the password and the
+ * token would otherwise cross the network in the clear.
+ */
+public final class RemoteClient {
+    private static volatile RemoteClient instance;
+
+    private final String baseUrl;
+    private final HttpClient http;
+    private final Duration timeout;
+    private final Duration longTimeout;
+    private volatile String token;
+
+    RemoteClient(String serverUrl) {
+        this.baseUrl = serverUrl.endsWith("/") ? serverUrl.substring(0, serverUrl.length() - 1) : serverUrl;
+        URI uri = URI.create(baseUrl);
+        if (!"https".equalsIgnoreCase(uri.getScheme()) && !isLoopback(uri.getHost())) {
+            throw new IllegalStateException("server.url " + serverUrl + " is not on this machine: use https://");
+        }
+        this.timeout = Duration.ofMillis(Long.parseLong(DataSourceProvider.getProperty("server.timeoutMillis", "30000")));
+        this.longTimeout = Duration.ofMillis(Long.parseLong(DataSourceProvider.getProperty("server.longTimeoutMillis", "600000")));
+        this.http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    }
+
+    /** The client for server.url; only valid when DataSourceProvider.isRemoteClient(). */
+    public static RemoteClient get() {
+        RemoteClient c = instance;
+        if (c == null) {
+            synchronized (RemoteClient.class) {
+                c = instance;
+                if (c == null) {
+                    String url = DataSourceProvider.serverUrl();
+                    if (url == null) throw new IllegalStateException("server.url is not set");
+                    instance = c = new RemoteClient(url);
+                }
+            }
+        }
+        return c;
+    }
+
+    /** Thrown for transport failures and server errors without a local equivalent. */
+    public static class RemoteCallException extends RuntimeException {
+        private final int status;
+
+        public RemoteCallException(int status, String message, Throwable cause) {
+            super(message, cause);
+            this.status = status;
+        }
+
+        /** HTTP status, or 0 if the server could not be reached. */
+        public int getStatus() { return status; }
+    }
+
+    private static boolean isLoopback(String host) {
+        try {
+            return host != null && InetAddress.getByName(host).isLoopbackAddress();
+        } catch (IOException unknownHost) {
+            return false;
+        }
+    }
+
+    /** Log in and keep the token for later calls; null on bad credentials, like AuthService.login. */
+    public Session login(String username, String password) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("username", username);
+        body.put("password", password);
+        HttpResponse<String> res = send(request("/api/login").POST(json(body)).build());
+        if (res.statusCode() == 401) return null;
+        Map<String, Object> out = Wire.obj(decode(res));
+        token = Wire.str(out.get("token"));
+        return Wire.session(out.get("session"));
+    }
+
+    public void logout() {
+        String t = token;
+        if (t == null) return;
+        token = null;
+        try {
+            send(request("/api/logout").header("Authorization", "Bearer " + t).POST(json(null)).build());
+        } catch (RuntimeException e) {
+            System.err.println("[WARN] logout failed: " + e.getMessage()); // the server expires the session anyway
+        }
+    }
+
+    /** Call service.method with the given arguments (encoded by Wire); returns the decoded JSON result. */
+    public Object call(String name, Object... args) {
+        HttpResponse<String> res = send(authorized(request("/api/call/" + name)).POST(json(Wire.encode(args))).build());
+        return Wire.obj(decode(res)).get("result");
+    }
+
+    /** As {@link #call}, with server.longTimeoutMillis for bulk work (imports, provisioning). */
+    public Object callLong(String name, Object... args) {
+        HttpResponse<String> res = send(authorized(request("/api/call/" + name)).timeout(longTimeout)
+                .POST(json(Wire.encode(args))).build());
+        return Wire.obj(decode(res)).get("result");
+    }
+
+    /** Stream /api/export/{report} into out; returns the number of bytes copied. */
+    public long download(String report, OutputStream out) throws IOException {
+        HttpRequest req = authorized(request("/api/export/" + report)).GET().build();
+        HttpResponse<InputStream> res;
+        try {
+            res = http.send(req, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while exporting " + report, e);
+        }
+        try (InputStream in = res.body()) {
+            if (res.statusCode() != 200) {
+                String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                throw failure(res.statusCode(), text);
+            }
+            return in.transferTo(out);
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout)
+                .header("Content-Type", "application/json; charset=UTF-8");
+    }
+
+    private HttpRequest.Builder authorized(HttpRequest.Builder b) {
+        String t = token;
+        return t == null ? b : b.header("Authorization", "Bearer " + t);
+    }
+
+    private static HttpRequest.BodyPublisher json(Object value) {
+        return HttpRequest.BodyPublishers.ofString(value == null ? "" : Json.write(value), StandardCharsets.UTF_8);
+    }
+
+    private HttpResponse<String> send(HttpRequest req) {
+        try {
+            return http.send(req, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RemoteCallException(0, "ERP server " + baseUrl + " is not reachable: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RemoteCallException(0, "Interrupted while calling the ERP server", e);
+        }
+    }
+
+    private static Object decode(HttpResponse<String> res) {
+        if (res.statusCode() != 200) throw failure(res.statusCode(), res.body());
+        return Json.parse(res.body());
+    }
+
+    /** Rebuild the exception the server reported. */
+    private static RuntimeException failure(int status, String body) {
+        Map<String, Object> err;
+        try {
+            err = Wire.obj(Json.parse(body));
+        } catch (IllegalArgumentException notJson) {
+            return new RemoteCallException(status, "ERP server error " + status, null);
+        }
+        String message = String.valueOf(err.get("error"));
+        switch (status) {
+            case 409:
+                return new EnrollmentException(EnrollmentException.Reason.valueOf(Wire.str(err.get("reason"))),
+                        Wire.i(err.get("sectionId")), message);
+            case 503:
+                return new MaintenanceModeException(message);
+            case 403:
+                return new SecurityException(message);
+            case 400:
+                return new IllegalArgumentException(message);
+            default:
+                return new RemoteCallException(status, message, null);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package edu.univ.erp.remote;
+
+import edu.univ.erp.domain.Course;
+import edu.univ.erp.domain.Enrollment;
+import edu.univ.erp.domain.Grade;
+import edu.univ.erp.domain.Section;
+import edu.univ.erp.domain.Student;
+import edu.univ.erp.domain.User;
+import edu.univ.erp.domain.WaitlistEntry;
+import edu.univ.erp.service.ErpService;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * ErpService for a desktop client: every call goes to the ErpServer. isMaintenanceMode is inherited and
+ * reads MaintenanceState, which Services points at the server.
+ */
+final class RemoteErpService extends ErpService {
+    private final RemoteClient server = RemoteClient.get();
+
+    /* ---------------- USERS ---------------- */
+
+    @Override
+    public List<User> listUsers() {
+        return Wire.list(server.call("erp.listUsers"), Wire::user);
+    }
+
+    @Override
+    public List<User> listInstructors() {
+        return Wire.list(server.call("erp.listInstructors"), Wire::user);
+    }
+
+    @Override
+    public int addUser(String username, String passwordHash, String role) {
+        return Wire.i(server.call("erp.addUser", username, passwordHash, role));
+    }
+
+    @Override
+    public void updateUser(int userId, String username, String passwordHash, String role) {
+        server.call("erp.updateUser", userId, username, passwordHash, role);
+    }
+
+    @Override
+    public void deleteUser(int userId) {
+        server.call("erp.deleteUser", userId);
+    }
+
+    @Override
+    public Optional<User> getUserById(int userId) {
+        return Wire.optional(server.call("erp.getUserById", userId), Wire::user);
+    }
+
+    /* ---------------- COURSES ---------------- */
+
+    @Override
+    public List<Course> listCourses() {
+        return Wire.list(server.call("erp.listCourses"), Wire::course);
+    }
+
+    @Override
+    public Optional<Course> getCourseById(int id) {
+        return Wire.optional(server.call("erp.getCourseById", id), Wire::course);
+    }
+
+    @Override
+    public int addCourse(String code, String title, int credits) {
+        return Wire.i(server.call("erp.addCourse", code, title, credits));
+    }
+
+    @Override
+    public void updateCourse(int courseId, String code, String title, int credits) {
+        server.call("erp.updateCourse", courseId, code, title, credits);
+    }
+
+    @Override
+    public void deleteCourse(int courseId) {
+        server.call("erp.deleteCourse", courseId);
+    }
+
+    /* ---------------- SECTIONS ---------------- */
+
+    @Override
+    public List<Section> listSectionsForCourse(int courseId) {
+        return Wire.list(server.call("erp.listSectionsForCourse", courseId), Wire::section);
+    }
+
+    @Override
+    public List<Section> listSections() {
+        return Wire.list(server.call("erp.listSections"), Wire::section);
+    }
+
+    @Override
+    public Optional<Section> getSectionById(int sectionId) {
+        return Wire.optional(server.call("erp.getSectionById", sectionId), Wire::section);
+    }
+
+    @Override
+    public int addSection(int courseId, int instructorId, String semester, int year) {
+        return Wire.i(server.call("erp.addSection", courseId, instructorId, semester, year));
+    }
+
+    @Override
+    public int addSection(int courseId, int instructorId, String semester, int year, int capacity) {
+        return Wire.i(server.call("erp.addSection", courseId, instructorId, semester, year, capacity));
+    }
+
+    @Override
+    public void updateSection(int sectionId, int courseId, int instructorId, String semester, int year) {
+        server.call("erp.updateSection", sectionId, courseId, instructorId, semester, year);
+    }
+
+    @Override
+    public void updateSection(int sectionId, int courseId, int instructorId, String semester, int year, int capacity) {
+        server.call("erp.updateSection", sectionId, courseId, instructorId, semester, year, capacity);
+    }
+
+    @Override
+    public void deleteSection(int sectionId) {
+        server.call("erp.deleteSection", sectionId);
+    }
+
+    /* ---------------- ENROLLMENTS / WAITLIST ---------------- */
+
+    @Override
+    public List<Enrollment> getEnrollmentsForStudent(int studentUserId) {
+        return Wire.list(server.call("erp.getEnrollmentsForStudent", studentUserId), Wire::enrollment);
+    }
+
+    @Override
+    public List<Enrollment> getEnrollmentsForSection(int sectionId) {
+        return Wire.list(server.call("erp.getEnrollmentsForSection", sectionId), Wire::enrollment);
+    }
+
+    @Override
+    public int enrollStudentInSection(int studentUserId, int sectionId) {
+        return Wire.i(server.call("erp.enrollStudentInSection", studentUserId, sectionId));
+    }
+
+    @Override
+    public void dropEnrollment(int enrollmentId) {
+        server.call("erp.dropEnrollment", enrollmentId);
+    }
+
+    @Override
+    public int joinWaitlist(int studentUserId, int sectionId) {
+        return Wire.i(server.call("erp.joinWaitlist", studentUserId, sectionId));
+    }
+
+    @Override
+    public boolean leaveWaitlist(int studentUserId, int sectionId) {
+        return Wire.bool(server.call("erp.leaveWaitlist", studentUserId, sectionId));
+    }
+
+    @Override
+    public int getWaitlistPosition(int studentUserId, int sectionId) {
+        return Wire.i(server.call("erp.getWaitlistPosition", studentUserId, sectionId));
+    }
+
+    @Override
+    public List<WaitlistEntry> getWaitlistForStudent(int studentUserId) {
+        return Wire.list(server.call("erp.getWaitlistForStudent", studentUserId), Wire::waitlistEntry);
+    }
+
+    @Override
+    public Optional<Student> getStudentByUserId(int userId) {
+        return Wire.optional(server.call("erp.getStudentByUserId", userId), Wire::student);
+    }
+
+    /* ---------------- GRADES / INSTRUCTOR ---------------- */
+
+    @Override
+    public Optional<Grade> getGradeForEnrollment(int enrollmentId) {
+        return Wire.optional(server.call("erp.getGradeForEnrollment", enrollmentId), Wire::grade);
+    }
+
+    @Override
+    public boolean setGradeForEnrollment(int enrollmentId, String grade) {
+        return Wire.bool(server.call("erp.setGradeForEnrollment", enrollmentId, grade));
+    }
+
+    @Override
+    public void clearGradeForEnrollment(int enrollmentId) {
+        server.call("erp.clearGradeForEnrollment", enrollmentId);
+    }
+
+    @Override
+    public boolean upsertGradeForEnrollment(Integer enrollmentId, String componentName, String marks) {
+        return Wire.bool(server.call("erp.upsertGradeForEnrollment", enrollmentId, componentName, marks));
+    }
+
+    @Override
+    public List<Section> getSectionsForInstructor(int instructorUserId) {
+        return Wire.list(server.call("erp.getSectionsForInstructor", instructorUserId), Wire::section);
+    }
+
+    /* ---------------- MAINTENANCE ---------------- */
+
+    @Override
+    public void setMaintenanceMode(boolean on) {
+        Services.system().setMaintenanceMode(on);
+    }
+}
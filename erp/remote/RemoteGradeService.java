@@ -0,0 +1,75 @@
+package edu.univ.erp.remote;
+
+import edu.univ.erp.data.ComponentMarksDao;
+import edu.univ.erp.domain.ComponentMark;
+import edu.univ.erp.domain.GradingComponent;
+import edu.univ.erp.domain.SectionGradeWeight;
+import edu.univ.erp.service.GradeService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** GradeService for a desktop client; numericToLetter is pure and stays local. */
+final class RemoteGradeService extends GradeService {
+    private final RemoteClient server = RemoteClient.get();
+
+    @Override
+    public List<GradingComponent> listComponents() {
+        return Wire.list(server.call("grades.listComponents"), Wire::gradingComponent);
+    }
+
+    @Override
+    public List<SectionGradeWeight> getWeightsForSection(int sectionId) {
+        return Wire.list(server.call("grades.getWeightsForSection", sectionId), Wire::sectionGradeWeight);
+    }
+
+    @Override
+    public void saveWeight(int sectionId, int componentId, BigDecimal weight) {
+        server.call("grades.saveWeight", sectionId, componentId, weight);
+    }
+
+    @Override
+    public void forEachGradebookRow(int sectionId, ComponentMarksDao.GradebookRowHandler handler) {
+        for (Object o : Wire.arr(server.call("grades.gradebookRows", sectionId))) {
+            List<Object> r = Wire.arr(o);
+            handler.row(Wire.i(r.get(0)), Wire.i(r.get(1)), Wire.i(r.get(2)), Wire.nan(r.get(3)), Wire.str(r.get(4)));
+        }
+    }
+
+    @Override
+    public Map<Integer, BigDecimal> getMarksForEnrollment(int enrollmentId) {
+        Map<Integer, BigDecimal> out = new LinkedHashMap<>();
+        Wire.obj(server.call("grades.getMarksForEnrollment", enrollmentId))
+                .forEach((componentId, marks) -> out.put(Integer.valueOf(componentId), Wire.dec(marks)));
+        return out;
+    }
+
+    @Override
+    public void saveMark(int enrollmentId, int componentId, BigDecimal marks) {
+        server.call("grades.saveMark", enrollmentId, componentId, marks);
+    }
+
+    @Override
+    public int saveMarks(Collection<ComponentMark> marks) {
+        return Wire.i(server.call("grades.saveMarks", new ArrayList<>(marks)));
+    }
+
+    @Override
+    public SectionTotals publishFinalGrades(int sectionId) {
+        return Wire.sectionTotals(server.call("grades.publishFinalGrades", sectionId));
+    }
+
+    @Override
+    public BigDecimal computeWeightedTotal(int enrollmentId, int sectionId) {
+        return Wire.dec(server.call("grades.computeWeightedTotal", enrollmentId, sectionId));
+    }
+
+    @Override
+    public SectionTotals computeSection(int sectionId) {
+        return Wire.sectionTotals(server.call("grades.computeSection", sectionId));
+    }
+}
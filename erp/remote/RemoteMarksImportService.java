@@ -0,0 +1,27 @@
+package edu.univ.erp.remote;
+
+import edu.univ.erp.service.MarksImportService;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.util.concurrent.CancellationException;
+
+/**
+ * MarksImportService for a desktop client. The CSV is read locally and sent to the server in one call,
+ * where it is validated and written in one transaction; it can only be cancelled before it is sent.
+ */
+final class RemoteMarksImportService extends MarksImportService {
+    private final RemoteClient server = RemoteClient.get();
+
+    @Override
+    public Result importCsv(Reader in, long totalChars, int sectionId, Progress progress) throws IOException {
+        StringWriter csv = new StringWriter();
+        in.transferTo(csv);
+        if (progress != null) progress.update(Stage.READING, totalChars, totalChars);
+        if (Thread.currentThread().isInterrupted()) throw new CancellationException("Import cancelled");
+        Result r = Wire.marksImportResult(server.callLong("marks.importCsv", sectionId, csv.toString()));
+        if (progress != null) progress.update(Stage.WRITING, r.getMarksWritten(), r.getMarksWritten());
+        return r;
+    }
+}
@@ -0,0 +1,89 @@
+package edu.univ.erp.remote;
+
+import edu.univ.erp.service.ReportService;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * ReportService for a desktop client. CSV exports are streamed by the server and copied straight into
+ * the caller's stream; the row count the local methods return is taken from the copied CSV.
+ */
+final class RemoteReportService extends ReportService {
+    private final RemoteClient server = RemoteClient.get();
+
+    @Override
+    public int exportAllEnrollmentsCsv(OutputStream out) throws IOException {
+        return download("enrollments", out);
+    }
+
+    @Override
+    public int exportStudentsPerSectionCsv(OutputStream out) throws IOException {
+        return download("studentsPerSection", out);
+    }
+
+    @Override
+    public int exportGradeDistributionCsv(OutputStream out) throws IOException {
+        return download("gradeDistribution", out);
+    }
+
+    @Override
+    public List<String[]> studentsPerCourse() {
+        return Wire.list(server.call("reports.studentsPerCourse"), Wire::stringRow);
+    }
+
+    @Override
+    public List<String[]> studentsPerSection() {
+        return Wire.list(server.call("reports.studentsPerSection"), Wire::stringRow);
+    }
+
+    @Override
+    public List<String[]> gradeDistribution() {
+        return Wire.list(server.call("reports.gradeDistribution"), Wire::stringRow);
+    }
+
+    @Override
+    public List<String[]> instructorLoad() {
+        return Wire.list(server.call("reports.instructorLoad"), Wire::stringRow);
+    }
+
+    @Override
+    public List<String[]> summary() {
+        return Wire.list(server.call("reports.summary"), Wire::stringRow);
+    }
+
+    /** Data rows written: records (line ends outside quotes) minus the header. */
+    private int download(String report, OutputStream out) throws IOException {
+        RecordCounter counter = new RecordCounter(out);
+        server.download(report, counter);
+        counter.flush();
+        return Math.max(0, counter.records - 1);
+    }
+
+    private static final class RecordCounter extends FilterOutputStream {
+        int records;
+        private boolean quoted;
+
+        RecordCounter(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (b == '"') quoted = !quoted;
+            else if (b == '\n' && !quoted) records++;
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '"') quoted = !quoted;
+                else if (b[i] == '\n' && !quoted) records++;
+            }
+            out.write(b, off, len);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package edu.univ.erp.remote;
+
+import edu.univ.erp.service.StudentDashboardQuery;
+
+import java.util.List;
+
+/** The student's enrollment table, loaded by the server's joined query. */
+final class RemoteStudentDashboardQuery extends StudentDashboardQuery {
+    private final RemoteClient server = RemoteClient.get();
+
+    @Override
+    public List<Row> findEnrollments(int studentUserId) {
+        return Wire.list(server.call("dashboard.findEnrollments", studentUserId), Wire::dashboardRow);
+    }
+}
@@ -0,0 +1,19 @@
+package edu.univ.erp.remote;
+
+import edu.univ.erp.service.MaintenanceState;
+import edu.univ.erp.service.SystemService;
+
+/**
+ * SystemService for a desktop client. Reads are inherited: MaintenanceState caches the flag and polls
+ * the server for it (see Services). A change is published locally as soon as the server confirms it.
+ */
+final class RemoteSystemService extends SystemService {
+    private final RemoteClient server = RemoteClient.get();
+
+    @Override
+    public boolean setMaintenanceMode(boolean on) {
+        boolean actual = Wire.bool(server.call("system.setMaintenanceMode", on));
+        MaintenanceState.publish(actual);
+        return actual;
+    }
+}
@@ -0,0 +1,26 @@
+package edu.univ.erp.remote;
+
+import edu.univ.erp.service.UserProvisioningService;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.util.concurrent.CancellationException;
+
+/**
+ * UserProvisioningService for a desktop client. The CSV goes to the server in one call, so hashing and
+ * inserts run next to the databases; progress is only reported once the server has finished.
+ */
+final class RemoteUserProvisioningService extends UserProvisioningService {
+    private final RemoteClient server = RemoteClient.get();
+
+    @Override
+    public Result provisionCsv(Reader in, Progress progress) throws IOException {
+        StringWriter csv = new StringWriter();
+        in.transferTo(csv);
+        if (Thread.currentThread().isInterrupted()) throw new CancellationException("Provisioning cancelled");
+        Result r = Wire.provisioningResult(server.callLong("provisioning.provisionCsv", csv.toString()));
+        if (progress != null) progress.update(r.getCreated(), r.getCreated());
+        return r;
+    }
+}
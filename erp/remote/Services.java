@@ -0,0 +1,73 @@
+package edu.univ.erp.remote;
+
+import edu.univ.erp.auth.AuthService;
+import edu.univ.erp.data.DataSourceProvider;
+import edu.univ.erp.service.AvailableSectionsQuery;
+import edu.univ.erp.service.ErpService;
+import edu.univ.erp.service.GradeService;
+import edu.univ.erp.service.MaintenanceState;
+import edu.univ.erp.service.MarksImportService;
+import edu.univ.erp.service.ReportService;
+import edu.univ.erp.service.StudentDashboardQuery;
+import edu.univ.erp.service.SystemService;
+import edu.univ.erp.service.UserProvisioningService;
+
+/**
+ * Services - where the UI gets its services. Without server.url they are the local, database-backed
+ * classes (as before); with server.url they are Remote* subclasses that call the ErpServer, and the
+ * maintenance flag is polled from the server instead of the settings table.
+ */
+public final class Services {
+    private static final boolean REMOTE = DataSourceProvider.isRemoteClient();
+
+    static {
+        if (REMOTE) {
+            MaintenanceState.setSource(() -> Wire.bool(RemoteClient.get().call("system.isMaintenanceMode")));
+        }
+    }
+
+    private Services() {}
+
+    public static boolean isRemote() { return REMOTE; }
+
+    public static ErpService erp() {
+        return REMOTE ? new RemoteErpService() : new ErpService();
+    }
+
+    public static GradeService grades() {
+        return REMOTE ? new RemoteGradeService() : new GradeService();
+    }
+
+    public static MarksImportService marksImport() {
+        return REMOTE ? new RemoteMarksImportService() : new MarksImportService();
+    }
+
+    public static UserProvisioningService provisioning() {
+        return REMOTE ? new RemoteUserProvisioningService() : new UserProvisioningService();
+    }
+
+    public static ReportService reports() {
+        return REMOTE ? new RemoteReportService() : new ReportService();
+    }
+
+    public static AuthService auth() {
+        return REMOTE ? new RemoteAuthService() : new AuthService();
+    }
+
+    public static SystemService system() {
+        return REMOTE ? new RemoteSystemService() : new SystemService();
+    }
+
+    public static AvailableSectionsQuery availableSections() {
+        return REMOTE ? new RemoteAvailableSectionsQuery() : new AvailableSectionsQuery();
+    }
+
+    public static StudentDashboardQuery dashboard() {
+        return REMOTE ? new RemoteStudentDashboardQuery() : new StudentDashboardQuery();
+    }
+
+    /** End the server session, if any (local sessions hold nothing to release). */
+    public static void logout() {
+        if (REMOTE) RemoteClient.get().logout();
+    }
+}
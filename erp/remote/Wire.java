@@ -0,0 +1,381 @@
+package edu.univ.erp.remote;
+
+import edu.univ.erp.auth.Session;
+import edu.univ.erp.domain.ComponentMark;
+import edu.univ.erp.domain.Course;
+import edu.univ.erp.domain.Enrollment;
+import edu.univ.erp.domain.Grade;
+import edu.univ.erp.domain.GradingComponent;
+import edu.univ.erp.domain.Instructor;
+import edu.univ.erp.domain.Section;
+import edu.univ.erp.domain.SectionGradeWeight;
+import edu.univ.erp.domain.Student;
+import edu.univ.erp.domain.User;
+import edu.univ.erp.domain.WaitlistEntry;
+import edu.univ.erp.service.AvailableSectionsQuery;
+import edu.univ.erp.service.GradeService;
+import edu.univ.erp.service.MarksImportService;
+import edu.univ.erp.service.StudentDashboardQuery;
+import edu.univ.erp.service.UserProvisioningService;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Wire - maps the service argument/result types to and from the JSON values handled by Json.
+ * Domain objects become JSON objects named after their getters; Optional becomes the value or null;
+ * dates travel as their SQL string form. Password hashes are never encoded.
+ * The decoders are lenient about number types (any Number is accepted) and strict about shape.
+ */
+final class Wire {
+
+    private Wire() {}
+
+    /* ---------------- ENCODE ---------------- */
+
+    static Object encode(Object o) {
+        if (o == null || o instanceof String || o instanceof Boolean || o instanceof Number) return o;
+        if (o instanceof Enum) return ((Enum<?>) o).name();
+        if (o instanceof Date || o instanceof Timestamp) return o.toString();
+        if (o instanceof Optional) return encode(((Optional<?>) o).orElse(null));
+        if (o instanceof Collection) {
+            List<Object> out = new ArrayList<>(((Collection<?>) o).size());
+            for (Object e : (Collection<?>) o) out.add(encode(e));
+            return out;
+        }
+        if (o instanceof Object[]) {
+            List<Object> out = new ArrayList<>();
+            for (Object e : (Object[]) o) out.add(encode(e));
+            return out;
+        }
+        if (o instanceof Map) {
+            Map<String, Object> out = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) o).entrySet()) out.put(String.valueOf(e.getKey()), encode(e.getValue()));
+            return out;
+        }
+        if (o instanceof Course) {
+            Course c = (Course) o;
+            return fields("courseId", c.getCourseId(), "code", c.getCode(), "title", c.getTitle(), "credits", c.getCredits());
+        }
+        if (o instanceof Section) {
+            Section s = (Section) o;
+            return fields("sectionId", s.getSectionId(), "courseId", s.getCourseId(), "instructorId", s.getInstructorId(),
+                    "semester", s.getSemester(), "year", s.getYear(), "capacity", s.getCapacity());
+        }
+        if (o instanceof Enrollment) {
+            Enrollment e = (Enrollment) o;
+            return fields("enrollmentId", e.getEnrollmentId(), "studentId", e.getStudentId(), "sectionId", e.getSectionId(),
+                    "enrollmentDate", encode(e.getEnrollmentDate()));
+        }
+        if (o instanceof Grade) {
+            Grade g = (Grade) o;
+            return fields("gradeId", g.getGradeId(), "enrollmentId", g.getEnrollmentId(), "grade", g.getGrade());
+        }
+        if (o instanceof Student) {
+            Student s = (Student) o;
+            return fields("userId", s.getUserId(), "rollNo", s.getRollNo(), "program", s.getProgram(), "year", s.getYear());
+        }
+        if (o instanceof Instructor) {
+            Instructor i = (Instructor) o;
+            return fields("userId", i.getUserId(), "department", i.getDepartment());
+        }
+        if (o instanceof User) {
+            User u = (User) o;
+            return fields("userId", u.getUserId(), "username", u.getUsername(), "role", u.getRole());
+        }
+        if (o instanceof GradingComponent) {
+            GradingComponent g = (GradingComponent) o;
+            return fields("componentId", g.getComponentId(), "name", g.getName());
+        }
+        if (o instanceof SectionGradeWeight) {
+            SectionGradeWeight w = (SectionGradeWeight) o;
+            return fields("id", w.getId(), "sectionId", w.getSectionId(), "componentId", w.getComponentId(), "weight", w.getWeight());
+        }
+        if (o instanceof ComponentMark) {
+            ComponentMark m = (ComponentMark) o;
+            return fields("id", m.getId(), "enrollmentId", m.getEnrollmentId(), "componentId", m.getComponentId(), "marks", m.getMarks());
+        }
+        if (o instanceof WaitlistEntry) {
+            WaitlistEntry w = (WaitlistEntry) o;
+            return fields("waitlistId", w.getWaitlistId(), "studentId", w.getStudentId(), "sectionId", w.getSectionId(),
+                    "priority", w.getPriority(), "requestedAt", encode(w.getRequestedAt()));
+        }
+        if (o instanceof AvailableSectionsQuery.Row) {
+            AvailableSectionsQuery.Row r = (AvailableSectionsQuery.Row) o;
+            return fields("sectionId", r.getSectionId(), "courseId", r.getCourseId(), "courseCode", r.getCourseCode(),
+                    "courseTitle", r.getCourseTitle(), "instructorId", r.getInstructorId(), "semester", r.getSemester(),
+                    "year", r.getYear(), "enrolled", r.getEnrolled(), "capacity", r.getCapacity());
+        }
+        if (o instanceof StudentDashboardQuery.Row) {
+            StudentDashboardQuery.Row r = (StudentDashboardQuery.Row) o;
+            return fields("enrollmentId", r.getEnrollmentId(), "sectionId", r.getSectionId(), "courseCode", r.getCourseCode(),
+                    "courseTitle", r.getCourseTitle(), "instructorId", r.getInstructorId(), "semester", r.getSemester(),
+                    "year", r.getYear(), "enrollmentDate", encode(r.getEnrollmentDate()), "grade", r.getGrade());
+        }
+        if (o instanceof GradeService.SectionTotals) {
+            GradeService.SectionTotals t = (GradeService.SectionTotals) o;
+            int n = t.size();
+            int[] componentIds = t.getComponentIds();
+            int k = componentIds.length;
+            List<Object> enrollmentIds = new ArrayList<>(n), totals = new ArrayList<>(n), marks = new ArrayList<>(n * k);
+            List<Object> components = new ArrayList<>(k), weights = new ArrayList<>(k);
+            for (int j = 0; j < k; j++) {
+                components.add(componentIds[j]);
+                weights.add(t.weightAt(j));
+            }
+            for (int i = 0; i < n; i++) {
+                enrollmentIds.add(t.enrollmentIdAt(i));
+                totals.add(t.totalAt(i));
+                for (int j = 0; j < k; j++) marks.add(t.markAt(i, j));
+            }
+            return fields("sectionId", t.getSectionId(), "enrollmentIds", enrollmentIds, "componentIds", components,
+                    "weights", weights, "marks", marks, "totals", totals);
+        }
+        if (o instanceof MarksImportService.Result) {
+            MarksImportService.Result r = (MarksImportService.Result) o;
+            List<Object> rejections = new ArrayList<>(r.getRejections().size());
+            for (MarksImportService.Rejection x : r.getRejections()) {
+                rejections.add(fields("line", x.getLine(), "enrollmentId", x.getEnrollmentId(), "column", x.getColumn(),
+                        "value", x.getValue(), "reason", x.getReason()));
+            }
+            return fields("rowsRead", r.getRowsRead(), "marksWritten", r.getMarksWritten(), "marksUnchanged", r.getMarksUnchanged(),
+                    "ignoredColumns", encode(r.getIgnoredColumns()), "rejections", rejections);
+        }
+        if (o instanceof UserProvisioningService.Result) {
+            UserProvisioningService.Result r = (UserProvisioningService.Result) o;
+            List<Object> failures = new ArrayList<>(r.getFailures().size());
+            for (UserProvisioningService.Failure f : r.getFailures()) {
+                failures.add(fields("line", f.getLine(), "username", f.getUsername(), "reason", f.getReason()));
+            }
+            return fields("requested", r.getRequested(), "created", r.getCreated(), "failures", failures,
+                    "elapsedMillis", r.getElapsedMillis(), "threads", r.getThreads());
+        }
+        if (o instanceof Session) {
+            Session s = (Session) o;
+            return fields("userId", s.getUserId(), "username", s.getUsername(), "role", s.getRole(),
+                    "student", encode(s.getStudent()), "instructor", encode(s.getInstructor()));
+        }
+        throw new IllegalArgumentException("No wire mapping for " + o.getClass().getName());
+    }
+
+    private static Map<String, Object> fields(Object... kv) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        for (int i = 0; i < kv.length; i += 2) out.put((String) kv[i], kv[i + 1]);
+        return out;
+    }
+
+    /* ---------------- DECODE: scalars ---------------- */
+
+    static int i(Object o) {
+        if (!(o instanceof Number)) throw new IllegalArgumentException("Expected a number, got " + describe(o));
+        return ((Number) o).intValue();
+    }
+
+    static Integer integer(Object o) {
+        return o == null ? null : i(o);
+    }
+
+    static double d(Object o) {
+        if (!(o instanceof Number)) throw new IllegalArgumentException("Expected a number, got " + describe(o));
+        return ((Number) o).doubleValue();
+    }
+
+    /** A double that may have travelled as null (JSON has no NaN). */
+    static double nan(Object o) {
+        return o == null ? Double.NaN : d(o);
+    }
+
+    static long l(Object o) {
+        if (!(o instanceof Number)) throw new IllegalArgumentException("Expected a number, got " + describe(o));
+        return ((Number) o).longValue();
+    }
+
+    static boolean bool(Object o) {
+        if (!(o instanceof Boolean)) throw new IllegalArgumentException("Expected true/false, got " + describe(o));
+        return (Boolean) o;
+    }
+
+    static String str(Object o) {
+        if (o != null && !(o instanceof String)) throw new IllegalArgumentException("Expected a string, got " + describe(o));
+        return (String) o;
+    }
+
+    static BigDecimal dec(Object o) {
+        if (o == null || o instanceof BigDecimal) return (BigDecimal) o;
+        if (o instanceof Number) return new BigDecimal(o.toString());
+        throw new IllegalArgumentException("Expected a number, got " + describe(o));
+    }
+
+    static Date date(Object o) {
+        return o == null ? null : Date.valueOf(str(o));
+    }
+
+    static Timestamp timestamp(Object o) {
+        return o == null ? null : Timestamp.valueOf(str(o));
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> obj(Object o) {
+        if (!(o instanceof Map)) throw new IllegalArgumentException("Expected an object, got " + describe(o));
+        return (Map<String, Object>) o;
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<Object> arr(Object o) {
+        if (!(o instanceof List)) throw new IllegalArgumentException("Expected an array, got " + describe(o));
+        return (List<Object>) o;
+    }
+
+    static <T> List<T> list(Object o, Function<Object, T> element) {
+        List<Object> in = arr(o);
+        List<T> out = new ArrayList<>(in.size());
+        for (Object e : in) out.add(element.apply(e));
+        return out;
+    }
+
+    static <T> Optional<T> optional(Object o, Function<Object, T> value) {
+        return o == null ? Optional.empty() : Optional.of(value.apply(o));
+    }
+
+    private static String describe(Object o) {
+        return o == null ? "null" : o.getClass().getSimpleName();
+    }
+
+    /* ---------------- DECODE: domain ---------------- */
+
+    static Course course(Object o) {
+        Map<String, Object> m = obj(o);
+        return new Course(i(m.get("courseId")), str(m.get("code")), str(m.get("title")), i(m.get("credits")));
+    }
+
+    static Section section(Object o) {
+        Map<String, Object> m = obj(o);
+        return new Section(i(m.get("sectionId")), i(m.get("courseId")), i(m.get("instructorId")),
+                str(m.get("semester")), i(m.get("year")), i(m.get("capacity")));
+    }
+
+    static Enrollment enrollment(Object o) {
+        Map<String, Object> m = obj(o);
+        return new Enrollment(i(m.get("enrollmentId")), i(m.get("studentId")), i(m.get("sectionId")),
+                date(m.get("enrollmentDate")));
+    }
+
+    static Grade grade(Object o) {
+        Map<String, Object> m = obj(o);
+        return new Grade(i(m.get("gradeId")), i(m.get("enrollmentId")), str(m.get("grade")));
+    }
+
+    static Student student(Object o) {
+        Map<String, Object> m = obj(o);
+        return new Student(i(m.get("userId")), str(m.get("rollNo")), str(m.get("program")), i(m.get("year")));
+    }
+
+    static Instructor instructor(Object o) {
+        Map<String, Object> m = obj(o);
+        return new Instructor(i(m.get("userId")), str(m.get("department")));
+    }
+
+    static User user(Object o) {
+        Map<String, Object> m = obj(o);
+        return new User(integer(m.get("userId")), str(m.get("username")), null, str(m.get("role")));
+    }
+
+    static GradingComponent gradingComponent(Object o) {
+        Map<String, Object> m = obj(o);
+        return new GradingComponent(i(m.get("componentId")), str(m.get("name")));
+    }
+
+    static SectionGradeWeight sectionGradeWeight(Object o) {
+        Map<String, Object> m = obj(o);
+        return new SectionGradeWeight(i(m.get("id")), i(m.get("sectionId")), i(m.get("componentId")), dec(m.get("weight")));
+    }
+
+    static ComponentMark componentMark(Object o) {
+        Map<String, Object> m = obj(o);
+        return new ComponentMark(i(m.get("id")), i(m.get("enrollmentId")), i(m.get("componentId")), dec(m.get("marks")));
+    }
+
+    static WaitlistEntry waitlistEntry(Object o) {
+        Map<String, Object> m = obj(o);
+        return new WaitlistEntry(i(m.get("waitlistId")), i(m.get("studentId")), i(m.get("sectionId")),
+                i(m.get("priority")), timestamp(m.get("requestedAt")));
+    }
+
+    static AvailableSectionsQuery.Row sectionRow(Object o) {
+        Map<String, Object> m = obj(o);
+        return new AvailableSectionsQuery.Row(i(m.get("sectionId")), i(m.get("courseId")), str(m.get("courseCode")),
+                str(m.get("courseTitle")), i(m.get("instructorId")), str(m.get("semester")), i(m.get("year")),
+                i(m.get("enrolled")), i(m.get("capacity")));
+    }
+
+    static StudentDashboardQuery.Row dashboardRow(Object o) {
+        Map<String, Object> m = obj(o);
+        return new StudentDashboardQuery.Row(i(m.get("enrollmentId")), i(m.get("sectionId")), str(m.get("courseCode")),
+                str(m.get("courseTitle")), integer(m.get("instructorId")), str(m.get("semester")), integer(m.get("year")),
+                date(m.get("enrollmentDate")), str(m.get("grade")));
+    }
+
+    static GradeService.SectionTotals sectionTotals(Object o) {
+        Map<String, Object> m = obj(o);
+        List<Object> enrollmentIds = arr(m.get("enrollmentIds")), componentIds = arr(m.get("componentIds"));
+        List<Object> weights = arr(m.get("weights")), marks = arr(m.get("marks")), totals = arr(m.get("totals"));
+        int[] e = new int[enrollmentIds.size()];
+        double[] t = new double[e.length];
+        for (int x = 0; x < e.length; x++) {
+            e[x] = i(enrollmentIds.get(x));
+            t[x] = nan(totals.get(x));
+        }
+        int[] c = new int[componentIds.size()];
+        double[] w = new double[c.length];
+        for (int x = 0; x < c.length; x++) {
+            c[x] = i(componentIds.get(x));
+            w[x] = d(weights.get(x));
+        }
+        double[] mk = new double[marks.size()];
+        for (int x = 0; x < mk.length; x++) mk[x] = nan(marks.get(x));
+        return new GradeService.SectionTotals(i(m.get("sectionId")), e, c, w, mk, t);
+    }
+
+    static MarksImportService.Result marksImportResult(Object o) {
+        Map<String, Object> m = obj(o);
+        List<MarksImportService.Rejection> rejections = list(m.get("rejections"), x -> {
+            Map<String, Object> r = obj(x);
+            return new MarksImportService.Rejection(l(r.get("line")), str(r.get("enrollmentId")), str(r.get("column")),
+                    str(r.get("value")), str(r.get("reason")));
+        });
+        return new MarksImportService.Result(i(m.get("rowsRead")), i(m.get("marksWritten")), i(m.get("marksUnchanged")),
+                list(m.get("ignoredColumns"), Wire::str), rejections);
+    }
+
+    static UserProvisioningService.Result provisioningResult(Object o) {
+        Map<String, Object> m = obj(o);
+        List<UserProvisioningService.Failure> failures = list(m.get("failures"), x -> {
+            Map<String, Object> f = obj(x);
+            return new UserProvisioningService.Failure(l(f.get("line")), str(f.get("username")), str(f.get("reason")));
+        });
+        return new UserProvisioningService.Result(i(m.get("requested")), i(m.get("created")), failures,
+                l(m.get("elapsedMillis")), i(m.get("threads")));
+    }
+
+    static Session session(Object o) {
+        Map<String, Object> m = obj(o);
+        Object student = m.get("student"), instructor = m.get("instructor");
+        return new Session(i(m.get("userId")), str(m.get("username")), str(m.get("role")),
+                student == null ? null : student(student), instructor == null ? null : instructor(instructor));
+    }
+
+    static String[] stringRow(Object o) {
+        List<Object> in = arr(o);
+        String[] out = new String[in.size()];
+        for (int x = 0; x < out.length; x++) out[x] = in.get(x) == null ? null : in.get(x).toString();
+        return out;
+    }
+}
@@ -1,7 +1,9 @@
 package edu.univ.erp.service;
 
 import edu.univ.erp.data.CourseDao;
+import edu.univ.erp.data.ReferenceDataCache;
 import edu.univ.erp.data.SectionDao;
+import edu.univ.erp.data.UnitOfWork;
 import edu.univ.erp.domain.Course;
 import edu.univ.erp.domain.Section;
 import edu.univ.erp.util.AccessChecker;
@@ -12,6 +14,7 @@ import java.util.Optional;
 public class AdminErpService {
     private final CourseDao courseDao = new CourseDao();
     private final SectionDao sectionDao = new SectionDao();
+    private final SectionWaitlist waitlist = new SectionWaitlist();
 
     // Courses
     public List<Course> listCourses() { return courseDao.findAll(); }
@@ -20,22 +23,49 @@ public class AdminErpService {
         // insert directly via SQL in CourseDao - we will add a simple method via reflection here:
         return courseDao.insert(code, title, credits);
     }
-    public void updateCourse(int id, String code, String title, int credits) { courseDao.update(id, code, title, credits); }
-    public void deleteCourse(int id) { courseDao.delete(id); }
+    public void updateCourse(int id, String code, String title, int credits) {
+        courseDao.update(id, code, title, credits);
+        AvailableSectionsQuery.invalidate();
+    }
+    public void deleteCourse(int id) {
+        courseDao.delete(id);
+        // cached sections may still point at the deleted course
+        ReferenceDataCache.invalidateSections();
+        AvailableSectionsQuery.invalidate();
+    }
 
     // Sections
     public List<Section> getSectionsForInstructor(int instructorId) { return sectionDao.findByInstructorId(instructorId); }
     public List<Section> listSections() { return sectionDao.findAll(); }
     public int createSection(int courseId, int instructorId, String semester, int year) {
         AccessChecker.checkWritableOrThrow();
-        return sectionDao.insert(courseId, instructorId, semester, year);
+        int id = sectionDao.insert(courseId, instructorId, semester, year);
+        AvailableSectionsQuery.invalidate();
+        return id;
     }
     public void updateSection(int sectionId, int courseId, int instructorId, String semester, int year) {
         AccessChecker.checkWritableOrThrow();
         sectionDao.update(sectionId, courseId, instructorId, semester, year);
+        AvailableSectionsQuery.invalidate();
+    }
+    public int createSection(int courseId, int instructorId, String semester, int year, int capacity) {
+        AccessChecker.checkWritableOrThrow();
+        int id = sectionDao.insert(courseId, instructorId, semester, year, Math.max(0, capacity));
+        AvailableSectionsQuery.invalidate();
+        return id;
+    }
+    public void updateSection(int sectionId, int courseId, int instructorId, String semester, int year, int capacity) {
+        AccessChecker.checkWritableOrThrow();
+        sectionDao.update(sectionId, courseId, instructorId, semester, year, Math.max(0, capacity));
+        AvailableSectionsQuery.invalidate();
+        waitlist.promoteNow(sectionId);
     }
     public void deleteSection(int sectionId) {
         AccessChecker.checkWritableOrThrow();
-        sectionDao.delete(sectionId);
+        UnitOfWork.inTransaction(() -> {
+            waitlist.removeSection(sectionId);
+            sectionDao.delete(sectionId);
+        });
+        AvailableSectionsQuery.invalidate();
     }
 }
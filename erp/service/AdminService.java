@@ -11,7 +11,7 @@ import java.util.Optional;
 public class AdminService {
     private final UserDao userDao = new UserDao();
 
-    public List<User> listUsers() { return userDao.findAll(); }
+    public List<User> listUsers() { return userDao.listSummaries(); }
 
     public Optional<User> getUser(int id) { return userDao.findById(id); }
 
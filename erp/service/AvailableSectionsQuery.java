@@ -0,0 +1,179 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.data.DataSourceProvider;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AvailableSectionsQuery - the section catalogue (section + course + capacity + seats taken) loaded with
+ * one join on the sections.enrolled_count seat counter, plus a shared seat-count cache.
+ *
+ * The catalogue is reused until it is older than sections.cacheMillis (default 30s) or invalidated by a
+ * section/course write. Seat counts are adjusted in place by ErpService.enrollStudentInSection and
+ * dropEnrollment, so refreshing the list during registration does not go back to MySQL.
+ *
+ * A reload builds a new seat-count map and swaps it in. Adjustments and invalidations are stamped, so a
+ * reload whose query may predate them does not overwrite them: a section adjusted while the query ran
+ * keeps its cached count, and a reload overtaken by invalidate() (or by an adjustment to a section that
+ * was not cached) is installed already expired, so the next listAvailable() runs the query again.
+ */
+public class AvailableSectionsQuery {
+    private static final long CACHE_MILLIS =
+            Long.parseLong(DataSourceProvider.getProperty("sections.cacheMillis", "30000"));
+
+    private static volatile ConcurrentHashMap<Integer, Integer> seatCounts = new ConcurrentHashMap<>();
+    private static volatile List<Row> catalogue;
+    private static volatile long loadedAtMillis;
+    // guarded by AvailableSectionsQuery.class: bumped by every adjustment/invalidation, and the stamp of each
+    // section's last adjustment
+    private static long stamp;
+    private static long invalidatedAt;
+    private static final Map<Integer, Long> adjustedAt = new HashMap<>();
+
+    private final DataSource ds = DataSourceProvider.erpDataSource();
+
+    /** One row of the available sections table. Course fields are null if the course no longer exists. */
+    public static final class Row {
+        private final int sectionId;
+        private final int courseId;
+        private final String courseCode;
+        private final String courseTitle;
+        private final int instructorId;
+        private final String semester;
+        private final int year;
+        private final int enrolled;
+        private final int capacity;
+
+        public Row(int sectionId, int courseId, String courseCode, String courseTitle, int instructorId,
+            String semester, int year, int enrolled, int capacity) {
+            this.sectionId = sectionId;
+            this.courseId = courseId;
+            this.courseCode = courseCode;
+            this.courseTitle = courseTitle;
+            this.instructorId = instructorId;
+            this.semester = semester;
+            this.year = year;
+            this.enrolled = enrolled;
+            this.capacity = capacity;
+        }
+
+        public int getSectionId() { return sectionId; }
+        public int getCourseId() { return courseId; }
+        public String getCourseCode() { return courseCode; }
+        public String getCourseTitle() { return courseTitle; }
+        public int getInstructorId() { return instructorId; }
+        public String getSemester() { return semester; }
+        public int getYear() { return year; }
+        public int getEnrolled() { return enrolled; }
+        /** Seats, 0 = unlimited. */
+        public int getCapacity() { return capacity; }
+        public boolean isFull() { return capacity > 0 && enrolled >= capacity; }
+
+        /** "enrolled / capacity", or just the enrolled count when unlimited. */
+        public String getSeatsLabel() {
+            return capacity > 0 ? enrolled + " / " + capacity : String.valueOf(enrolled);
+        }
+
+        /** "CODE - Title", or "Section n" when the course is unknown. */
+        public String getCourseLabel() {
+            return courseCode == null ? ("Section " + sectionId) : (courseCode + " - " + courseTitle);
+        }
+
+        Row withEnrolled(int n) {
+            return n == enrolled ? this : new Row(sectionId, courseId, courseCode, courseTitle, instructorId, semester, year, n, capacity);
+        }
+    }
+
+    /** All sections with their current enrolled count, ordered by section id. */
+    public List<Row> listAvailable() {
+        List<Row> rows = catalogue;
+        if (rows == null || System.currentTimeMillis() - loadedAtMillis > CACHE_MILLIS) {
+            rows = reload();
+        }
+        Map<Integer, Integer> counts = seatCounts;
+        List<Row> out = new ArrayList<>(rows.size());
+        for (Row r : rows) out.add(r.withEnrolled(counts.getOrDefault(r.getSectionId(), r.getEnrolled())));
+        return out;
+    }
+
+    /** Re-run the catalogue query and reseed the seat counts (without losing changes made meanwhile). */
+    public List<Row> reload() {
+        long started;
+        synchronized (AvailableSectionsQuery.class) {
+            started = stamp;
+        }
+        String sql = "SELECT s.section_id, s.course_id, s.instructor_id, s.semester, s.year, c.code, c.title, " +
+                "s.enrolled_count AS enrolled, s.capacity " +
+                "FROM sections s " +
+                "LEFT JOIN courses c ON c.course_id = s.course_id " +
+                "ORDER BY s.section_id";
+        List<Row> rows = new ArrayList<>();
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                rows.add(new Row(
+                        rs.getInt("section_id"),
+                        rs.getInt("course_id"),
+                        rs.getString("code"),
+                        rs.getString("title"),
+                        rs.getInt("instructor_id"),
+                        rs.getString("semester"),
+                        rs.getInt("year"),
+                        rs.getInt("enrolled"),
+                        rs.getInt("capacity")
+                ));
+            }
+        } catch (SQLException e) { throw new RuntimeException(e); }
+
+        synchronized (AvailableSectionsQuery.class) {
+            boolean expired = invalidatedAt > started;
+            ConcurrentHashMap<Integer, Integer> counts = new ConcurrentHashMap<>(rows.size() * 2);
+            for (Row r : rows) {
+                int n = r.getEnrolled();
+                Long at = adjustedAt.get(r.getSectionId());
+                if (at != null && at > started) {
+                    // the query may or may not include this change; the adjusted cached count does
+                    Integer cached = seatCounts.get(r.getSectionId());
+                    if (cached != null) n = cached;
+                    else expired = true;
+                }
+                counts.put(r.getSectionId(), n);
+            }
+            adjustedAt.values().removeIf(at -> at <= started);
+            seatCounts = counts;
+            List<Row> out = Collections.unmodifiableList(rows);
+            catalogue = out;
+            loadedAtMillis = expired ? 0 : System.currentTimeMillis();
+            return out;
+        }
+    }
+
+    /** Cached enrolled count for a section, or -1 if the catalogue has not been loaded. */
+    public static int enrolledCount(int sectionId) {
+        Integer n = seatCounts.get(sectionId);
+        return n == null ? -1 : n;
+    }
+
+    /** Adjust the cached count after an enrollment (+1) or drop (-1). No-op for sections not cached. */
+    public static synchronized void adjustEnrolled(int sectionId, int delta) {
+        seatCounts.computeIfPresent(sectionId, (id, n) -> Math.max(0, n + delta));
+        adjustedAt.put(sectionId, ++stamp);
+    }
+
+    /** Drop the catalogue so the next listAvailable() reloads it (after section/course changes). */
+    public static void invalidate() {
+        synchronized (AvailableSectionsQuery.class) {
+            catalogue = null;
+            seatCounts = new ConcurrentHashMap<>();
+            invalidatedAt = ++stamp;
+        }
+    }
+}
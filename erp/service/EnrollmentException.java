@@ -0,0 +1,21 @@
+package edu.univ.erp.service;
+
+/**
+ * Thrown when an enrollment or waitlist request is refused; nothing has been written when it is thrown.
+ */
+public class EnrollmentException extends RuntimeException {
+
+    public enum Reason { SECTION_FULL, ALREADY_ENROLLED, ALREADY_WAITLISTED, NO_SUCH_SECTION }
+
+    private final Reason reason;
+    private final int sectionId;
+
+    public EnrollmentException(Reason reason, int sectionId, String message) {
+        super(message);
+        this.reason = reason;
+        this.sectionId = sectionId;
+    }
+
+    public Reason getReason() { return reason; }
+    public int getSectionId() { return sectionId; }
+}
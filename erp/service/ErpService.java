@@ -3,10 +3,10 @@ package edu.univ.erp.service;
 import edu.univ.erp.data.*;
 import edu.univ.erp.domain.*;
 
-import java.lang.reflect.Method;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
 
 import edu.univ.erp.service.MaintenanceModeException;
 import edu.univ.erp.util.AccessChecker;
@@ -25,18 +25,18 @@ public class ErpService {
     private final EnrollmentDao enrollmentDao = new EnrollmentDao();
     private final GradeDao gradeDao = new GradeDao();
     private final StudentDao studentDao = new StudentDao();
+    private final SectionWaitlist waitlist = new SectionWaitlist();
     private final SystemService systemService = new SystemService(); // reuse or create if necessary
 
     /* ---------------- USERS ---------------- */
 
+    /** All users, without password hashes. */
     public List<User> listUsers() {
-        return userDao.findAll();
+        return userDao.listSummaries();
     }
 
     public List<User> listInstructors() {
-        return userDao.findAll().stream()
-                .filter(u -> "INSTRUCTOR".equalsIgnoreCase(u.getRole()))
-                .toList();
+        return userDao.findByRole("INSTRUCTOR");
     }
 
     /**
@@ -50,7 +50,8 @@ public class ErpService {
     }
 
     /**
-     * Update user: construct User with id and call userDao.update(User)
+     * Update user: construct User with id and call userDao.update(User).
+     * A null passwordHash leaves the password unchanged.
      */
     public void updateUser(int userId, String username, String passwordHash, String role) {
 
@@ -91,21 +92,22 @@ public class ErpService {
         AccessChecker.checkWritableOrThrow();
 
         courseDao.update(courseId, code, title, credits);
+        AvailableSectionsQuery.invalidate();
     }
 
     public void deleteCourse(int courseId) {
         AccessChecker.checkWritableOrThrow();
 
         courseDao.delete(courseId);
+        // cached sections may still point at the deleted course
+        ReferenceDataCache.invalidateSections();
+        AvailableSectionsQuery.invalidate();
     }
 
     /* ---------------- SECTIONS ---------------- */
 
     public List<Section> listSectionsForCourse(int courseId) {
-        // Your SectionDao has no findByCourseId; filter the list
-        return sectionDao.findAll().stream()
-                .filter(s -> s.getCourseId() == courseId)
-                .toList();
+        return sectionDao.findByCourseId(courseId);
     }
 
     public List<Section> listSections() {
@@ -121,19 +123,40 @@ public class ErpService {
      * and update expects (int sectionId, int courseId, int instructorId, String semester, int year)
      */
     public int addSection(int courseId, int instructorId, String semester, int year) {
+        return addSection(courseId, instructorId, semester, year, 0);
+    }
+
+    /** capacity is the number of seats, 0 for unlimited. */
+    public int addSection(int courseId, int instructorId, String semester, int year, int capacity) {
         AccessChecker.checkWritableOrThrow();
-        return sectionDao.insert(courseId, instructorId, semester, year);
+        int id = sectionDao.insert(courseId, instructorId, semester, year, Math.max(0, capacity));
+        AvailableSectionsQuery.invalidate();
+        return id;
     }
 
     public void updateSection(int sectionId, int courseId, int instructorId, String semester, int year) {
         AccessChecker.checkWritableOrThrow();
         sectionDao.update(sectionId, courseId, instructorId, semester, year);
+        AvailableSectionsQuery.invalidate();
     }
 
-    public void deleteSection(int sectionId) {
+    /** capacity is the number of seats, 0 for unlimited; lowering it below the seats taken blocks new enrollments only. */
+    public void updateSection(int sectionId, int courseId, int instructorId, String semester, int year, int capacity) {
         AccessChecker.checkWritableOrThrow();
+        sectionDao.update(sectionId, courseId, instructorId, semester, year, Math.max(0, capacity));
+        AvailableSectionsQuery.invalidate();
+        // a larger capacity frees seats for whoever is waiting
+        waitlist.promoteNow(sectionId);
+    }
 
-        sectionDao.delete(sectionId);
+    /** Delete a section together with its waitlist rows, in one transaction. */
+    public void deleteSection(int sectionId) {
+        AccessChecker.checkWritableOrThrow();
+        UnitOfWork.inTransaction(() -> {
+            waitlist.removeSection(sectionId);
+            sectionDao.delete(sectionId);
+        });
+        AvailableSectionsQuery.invalidate();
     }
 
     /* ---------------- ENROLLMENTS / STUDENT INFO ---------------- */
@@ -148,18 +171,74 @@ public class ErpService {
         return enrollmentDao.findBySectionId(sectionId);
     }
 
+    /**
+     * Enroll a student, taking a seat atomically: the seat counter is bumped with a conditional UPDATE and
+     * the enrollment inserted against the unique (student, section) index, in one transaction. A full
+     * section or an existing enrollment throws EnrollmentException and rolls the seat back.
+     */
     public int enrollStudentInSection(int studentUserId, int sectionId) {
         AccessChecker.checkWritableOrThrow();
-        // your EnrollmentDao.insert signature previously accepted (studentId, sectionId, date)
-        return enrollmentDao.insert(studentUserId, sectionId, LocalDate.now());
+        int id = UnitOfWork.inTransaction(() -> {
+            if (!sectionDao.reserveSeat(sectionId)) {
+                if (sectionDao.findById(sectionId).isEmpty()) {
+                    throw new EnrollmentException(EnrollmentException.Reason.NO_SUCH_SECTION, sectionId,
+                            "Section " + sectionId + " does not exist");
+                }
+                throw new EnrollmentException(EnrollmentException.Reason.SECTION_FULL, sectionId,
+                        "Section " + sectionId + " is full");
+            }
+            OptionalInt inserted = enrollmentDao.insertIfAbsent(studentUserId, sectionId, LocalDate.now());
+            if (inserted.isEmpty()) {
+                throw new EnrollmentException(EnrollmentException.Reason.ALREADY_ENROLLED, sectionId,
+                        "Already enrolled in section " + sectionId);
+            }
+            return inserted.getAsInt();
+        });
+        UnitOfWork.afterCommit(() -> AvailableSectionsQuery.adjustEnrolled(sectionId, 1));
+        return id;
     }
 
+    /**
+     * Drop an enrollment. The freed seat goes to the head of the section's waitlist in the same
+     * transaction, so it is refilled immediately rather than by whoever retries first.
+     */
     public void dropEnrollment(int enrollmentId) {
         AccessChecker.checkWritableOrThrow();
-        // Some DAO variants use delete(int) and some use deleteById(int).
-        // Use reflection to try both to remain compatible with whichever you have.
-        callDeleteIfExists(enrollmentDao, "delete", int.class, enrollmentId);
-        callDeleteIfExists(enrollmentDao, "deleteById", int.class, enrollmentId);
+        List<WaitlistEntry> promoted = new java.util.ArrayList<>();
+        // lookup, delete, seat release and promotion run on one connection and commit once
+        Optional<Enrollment> existing = UnitOfWork.inTransaction(() -> {
+            Optional<Enrollment> found = enrollmentDao.findById(enrollmentId);
+            enrollmentDao.deleteById(enrollmentId);
+            found.ifPresent(en -> {
+                sectionDao.releaseSeat(en.getSectionId());
+                promoted.addAll(waitlist.promote(en.getSectionId()));
+            });
+            return found;
+        });
+        UnitOfWork.afterCommit(() -> {
+            existing.ifPresent(en -> AvailableSectionsQuery.adjustEnrolled(en.getSectionId(), -1));
+            waitlist.promoted(promoted);
+        });
+    }
+
+    /* ---------------- WAITLIST ---------------- */
+
+    /** Queue for a full section; returns the 1-based position, or 0 if a seat was free and the student got it. */
+    public int joinWaitlist(int studentUserId, int sectionId) {
+        return waitlist.join(studentUserId, sectionId);
+    }
+
+    public boolean leaveWaitlist(int studentUserId, int sectionId) {
+        return waitlist.leave(studentUserId, sectionId);
+    }
+
+    /** 1-based waitlist position, 0 if not waiting. */
+    public int getWaitlistPosition(int studentUserId, int sectionId) {
+        return waitlist.positionOf(studentUserId, sectionId);
+    }
+
+    public List<WaitlistEntry> getWaitlistForStudent(int studentUserId) {
+        return waitlist.entriesForStudent(studentUserId);
     }
 
     public Optional<Student> getStudentByUserId(int userId) {
@@ -176,39 +255,22 @@ public class ErpService {
         return gradeDao.upsertByEnrollmentId(enrollmentId, grade);
     }
 
-    /* ----------------- Helpers ----------------- */
-
-    /**
-     * Try to invoke a delete-style method on daoObject if present.
-     * This avoids hard compile-time coupling to a single method name when DAOs differ.
-     */
-    private void callDeleteIfExists(Object daoObject, String methodName, Class<?> paramType, int value) {
-        try {
-            Method m = daoObject.getClass().getMethod(methodName, paramType);
-            m.invoke(daoObject, value);
-        } catch (NoSuchMethodException nsme) {
-            // method not present -> that's fine, caller will try other names or ignore
-        } catch (Exception ex) {
-            // wrap into runtime to surface errors during runtime operations
-            throw new RuntimeException("Failed invoking " + methodName + " on " + daoObject.getClass().getSimpleName() + ": " + ex.getMessage(), ex);
-        }
+    /** Remove the enrollment's letter grade (e.g. undoing the first grade given). */
+    public void clearGradeForEnrollment(int enrollmentId) {
+        edu.univ.erp.util.AccessChecker.checkWritableOrThrow();
+        gradeDao.deleteByEnrollmentId(enrollmentId);
     }
+
     /* ---------------- INSTRUCTOR SECTIONS ---------------- */
     public List<Section> getSectionsForInstructor(int instructorUserId) {
-        return sectionDao.findAll().stream()
-                .filter(s -> s.getInstructorId() == instructorUserId)
-                .toList();
+        return sectionDao.findByInstructorId(instructorUserId);
     }
 
     /* ---------------- SETTINGS / MAINTENANCE ---------------- */
 
     public boolean isMaintenanceMode() {
         try {
-            SettingsDao settingsDao = new SettingsDao();
-            // findByKey returns String or null -> wrap into Optional
-            return Optional.ofNullable(settingsDao.findByKey("maintenance"))
-                    .map(v -> "ON".equalsIgnoreCase(v))
-                    .orElse(false);
+            return MaintenanceState.isOn();
         } catch (Exception ex) {
             System.err.println("SettingsDao not found or failed: " + ex.getMessage());
             return false;
@@ -217,13 +279,7 @@ public class ErpService {
 
     public void setMaintenanceMode(boolean on) {
         try {
-            SettingsDao settingsDao = new SettingsDao();
-            // check null instead of isPresent()
-            if (settingsDao.findByKey("maintenance") != null) {
-                settingsDao.updateValue("maintenance", on ? "ON" : "OFF");
-            } else {
-                settingsDao.insert("maintenance", on ? "ON" : "OFF");
-            }
+            systemService.setMaintenanceMode(on);
         } catch (Exception ex) {
             System.err.println("SettingsDao not found or failed: " + ex.getMessage());
         }
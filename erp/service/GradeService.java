@@ -1,12 +1,15 @@
 package edu.univ.erp.service;
 
 import edu.univ.erp.data.ComponentMarksDao;
+import edu.univ.erp.data.GradeDao;
 import edu.univ.erp.data.GradingComponentDao;
 import edu.univ.erp.data.SectionWeightDao;
+import edu.univ.erp.data.UnitOfWork;
 import edu.univ.erp.domain.ComponentMark;
 import edu.univ.erp.domain.GradingComponent;
 import edu.univ.erp.domain.SectionGradeWeight;
 import edu.univ.erp.util.AccessChecker;
+import edu.univ.erp.util.GradeScale;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -19,6 +22,7 @@ public class GradeService {
     private final GradingComponentDao componentDao = new GradingComponentDao();
     private final SectionWeightDao weightDao = new SectionWeightDao();
     private final ComponentMarksDao marksDao = new ComponentMarksDao();
+    private final GradeDao gradeDao = new GradeDao();
 
     public List<GradingComponent> listComponents() { return componentDao.listAll(); }
 
@@ -26,6 +30,11 @@ public class GradeService {
 
     public void saveWeight(int sectionId, int componentId, BigDecimal weight) { weightDao.upsert(sectionId, componentId, weight); }
 
+    /** The section's roster, marks and published grades in one query (see ComponentMarksDao.forEachGradebookRow). */
+    public void forEachGradebookRow(int sectionId, ComponentMarksDao.GradebookRowHandler handler) {
+        marksDao.forEachGradebookRow(sectionId, handler);
+    }
+
     public Map<Integer, BigDecimal> getMarksForEnrollment(int enrollmentId) {
         AccessChecker.checkWritableOrThrow();
         Map<Integer, BigDecimal> out = new HashMap<>();
@@ -39,15 +48,47 @@ public class GradeService {
         marksDao.upsert(enrollmentId, componentId, marks);
     }
 
+    /**
+     * Save many marks in one batched transaction (see ComponentMarksDao.upsertAll).
+     */
+    public int saveMarks(Collection<ComponentMark> marks) {
+        AccessChecker.checkWritableOrThrow();
+        return marksDao.upsertAll(marks);
+    }
+
+    /**
+     * Compute every final in the section with computeSection and write the letter grades in one batch.
+     */
+    public SectionTotals publishFinalGrades(int sectionId) {
+        AccessChecker.checkWritableOrThrow();
+        // the reads and the grade batch share one connection; grades are written from the marks just read
+        return UnitOfWork.inTransaction(() -> {
+            SectionTotals totals = computeSection(sectionId);
+            if (!totals.hasWeights()) throw new IllegalArgumentException("No weights defined for section " + sectionId);
+            gradeDao.upsertGrades(totals.toLetterGrades());
+            return totals;
+        });
+    }
+
     /**
      * Compute weighted numeric total in 0..100 scale for a given enrollment.
      * If weight for a component exists but marks are null -> treat as 0 (instructor may want null handling).
      */
     public BigDecimal computeWeightedTotal(int enrollmentId, int sectionId) {
         AccessChecker.checkWritableOrThrow();
+        // weights and marks are read on one connection, without a transaction
+        return UnitOfWork.sharingConnection(() -> weightedTotal(enrollmentId, sectionId));
+    }
+
+    private BigDecimal weightedTotal(int enrollmentId, int sectionId) {
         List<SectionGradeWeight> weights = weightDao.findBySection(sectionId);
         if (weights.isEmpty()) return BigDecimal.ZERO;
-        Map<Integer, BigDecimal> marks = getMarksForEnrollment(enrollmentId);
+        return weightedTotal(weights, getMarksForEnrollment(enrollmentId));
+    }
+
+    /** The arithmetic of computeWeightedTotal: component marks (componentId -> mark) against the section weights. */
+    public static BigDecimal weightedTotal(List<SectionGradeWeight> weights, Map<Integer, BigDecimal> marks) {
+        if (weights.isEmpty()) return BigDecimal.ZERO;
         BigDecimal total = BigDecimal.ZERO;
         for (SectionGradeWeight w : weights) {
             BigDecimal weightPct = w.getWeight() == null ? BigDecimal.ZERO : w.getWeight();
@@ -59,16 +100,132 @@ public class GradeService {
         return total.setScale(2, RoundingMode.HALF_UP);
     }
 
+    /**
+     * Compute weighted totals for every enrollment in a section.
+     * Loads the section weights and all component marks with two queries (instead of two per enrollment)
+     * and does the arithmetic on primitive arrays. Marks and weights are taken in hundredths (the scale they
+     * are stored with), so each total is an exact long rounded HALF_UP to 2 decimals, the same value
+     * computeWeightedTotal returns for the enrollment.
+     */
+    public SectionTotals computeSection(int sectionId) {
+        List<SectionGradeWeight> weightRows = weightDao.findBySection(sectionId); // ordered by component_id
+        List<ComponentMark> markRows = marksDao.findBySection(sectionId);         // ordered by enrollment_id
+
+        int k = weightRows.size();
+        int[] componentIds = new int[k];
+        double[] weights = new double[k];
+        long[] weightHundredths = new long[k];
+        for (int j = 0; j < k; j++) {
+            SectionGradeWeight w = weightRows.get(j);
+            componentIds[j] = w.getComponentId();
+            weights[j] = w.getWeight() == null ? 0.0 : w.getWeight().doubleValue();
+            weightHundredths[j] = GradeScale.hundredths(w.getWeight());
+        }
+
+        // count distinct enrollments (rows arrive grouped by enrollment)
+        int n = 0;
+        int prev = Integer.MIN_VALUE;
+        for (ComponentMark m : markRows) {
+            if (m.getEnrollmentId() != prev) { n++; prev = m.getEnrollmentId(); }
+        }
+
+        int[] enrollmentIds = new int[n];
+        double[] marks = new double[n * k]; // row-major: enrollment i, component j -> i * k + j
+        long[] markHundredths = new long[n * k];
+        int i = -1;
+        prev = Integer.MIN_VALUE;
+        for (ComponentMark m : markRows) {
+            if (m.getEnrollmentId() != prev) {
+                i++;
+                prev = m.getEnrollmentId();
+                enrollmentIds[i] = prev;
+            }
+            if (m.getMarks() == null || k == 0) continue;
+            int j = Arrays.binarySearch(componentIds, m.getComponentId());
+            if (j >= 0) {
+                marks[i * k + j] = m.getMarks().doubleValue();
+                markHundredths[i * k + j] = GradeScale.hundredths(m.getMarks());
+            }
+        }
+
+        double[] totals = new double[n];
+        for (int r = 0; r < n; r++) {
+            long t = 0;
+            int base = r * k;
+            for (int j = 0; j < k; j++) t += markHundredths[base + j] * weightHundredths[j];
+            totals[r] = GradeScale.totalHundredths(t) / 100.0;
+        }
+        return new SectionTotals(sectionId, enrollmentIds, componentIds, weights, marks, totals);
+    }
+
     /**
      * Map numeric to letter grade using a simple scale (adjust as needed).
      */
     public String numericToLetter(BigDecimal num) {
         if (num == null) return "N/A";
-        double v = num.doubleValue();
-        if (v >= 90) return "A";
-        if (v >= 80) return "B";
-        if (v >= 70) return "C";
-        if (v >= 60) return "D";
-        return "F";
+        return numericToLetter(num.doubleValue());
+    }
+
+    public String numericToLetter(double v) {
+        return letterFor(v);
+    }
+
+    private static String letterFor(double v) {
+        return GradeScale.letterForPercent(v);
+    }
+
+    /**
+     * Result of computeSection: one slot per enrollment, ordered by enrollment id.
+     * Marks are stored as a dense enrollment x component matrix (missing marks are 0).
+     */
+    public static final class SectionTotals {
+        private final int sectionId;
+        private final int[] enrollmentIds;
+        private final int[] componentIds;
+        private final double[] weights;
+        private final double[] marks;
+        private final double[] totals;
+
+        /** Built by computeSection, or by the remote client from the server's response. */
+        public SectionTotals(int sectionId, int[] enrollmentIds, int[] componentIds, double[] weights, double[] marks, double[] totals) {
+            this.sectionId = sectionId;
+            this.enrollmentIds = enrollmentIds;
+            this.componentIds = componentIds;
+            this.weights = weights;
+            this.marks = marks;
+            this.totals = totals;
+        }
+
+        public int getSectionId() { return sectionId; }
+        public int size() { return enrollmentIds.length; }
+        public boolean hasWeights() { return componentIds.length > 0; }
+
+        public int enrollmentIdAt(int i) { return enrollmentIds[i]; }
+        public double totalAt(int i) { return totals[i]; }
+        public String letterAt(int i) { return letterFor(totals[i]); }
+
+        public int[] getComponentIds() { return componentIds.clone(); }
+        public double weightAt(int j) { return weights[j]; }
+        public double markAt(int i, int j) { return marks[i * componentIds.length + j]; }
+
+        /** Index of the enrollment in this result, or -1 if it is not part of the section. */
+        public int indexOf(int enrollmentId) {
+            int i = Arrays.binarySearch(enrollmentIds, enrollmentId);
+            return i >= 0 ? i : -1;
+        }
+
+        /** Total for an enrollment as BigDecimal (scale 2), matching computeWeightedTotal; ZERO if unknown. */
+        public BigDecimal totalFor(int enrollmentId) {
+            int i = indexOf(enrollmentId);
+            if (i < 0 || !hasWeights()) return BigDecimal.ZERO;
+            return BigDecimal.valueOf(totals[i]).setScale(2, RoundingMode.HALF_UP);
+        }
+
+        /** enrollmentId -> letter grade for every enrollment, in enrollment order (input for the final-grade writer). */
+        public Map<Integer, String> toLetterGrades() {
+            Map<Integer, String> out = new LinkedHashMap<>();
+            for (int i = 0; i < enrollmentIds.length; i++) out.put(enrollmentIds[i], letterAt(i));
+            return out;
+        }
     }
 }
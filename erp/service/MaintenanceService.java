@@ -5,16 +5,20 @@ import edu.univ.erp.data.SettingsDao;
 public class MaintenanceService {
     private final SettingsDao settingsDao = new SettingsDao();
 
+    /** Served from MaintenanceState (memory read), not from the DB. */
     public boolean isMaintenanceOn() {
-        return settingsDao.isMaintenanceOn();
+        return MaintenanceState.isOn();
     }
 
     public void setMaintenance(boolean on) {
         try {
-            settingsDao.setSetting("maintenance_mode", on ? "ON" : "OFF");
+            // write both keys so the admin toggle and legacy readers agree
+            settingsDao.setSetting(MaintenanceState.KEY, on ? "ON" : "OFF");
+            settingsDao.setSetting(MaintenanceState.LEGACY_KEY, on ? "ON" : "OFF");
         } catch (Exception ex) {
             throw new RuntimeException("Failed to set maintenance flag: " + ex.getMessage(), ex);
         }
+        MaintenanceState.publish(on);
     }
 
     // ============================================================
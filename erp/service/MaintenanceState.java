@@ -0,0 +1,141 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.data.DataSourceProvider;
+import edu.univ.erp.data.SettingsDao;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+/**
+ * In-memory maintenance flag shared by AccessChecker, MaintenanceService and SystemService.
+ *
+ * - isOn() is a volatile read; no DB access on the write path.
+ * - A daemon poller re-reads the settings every "maintenance.refreshMillis" ms (default 5000) and swaps
+ *   in a new snapshot (with a bumped version) only when the stored value changed.
+ * - publish() is called right after this client changes the flag, so the admin sees it immediately.
+ * - If the poller falls behind (snapshot older than 2 intervals) one caller refreshes synchronously,
+ *   so a stale read is never older than that bound while the source is reachable. Other callers keep the
+ *   last known value meanwhile, and after a failed read (DB or server down) nobody retries for one
+ *   interval, so callers never queue up behind connection timeouts.
+ *
+ * Both keys are honoured: "maintenance" (admin toggle) and the legacy "maintenance_mode".
+ * A remote client replaces the settings read with a call to the ERP server (see setSource).
+ */
+public final class MaintenanceState {
+
+    static final String KEY = "maintenance";
+    static final String LEGACY_KEY = "maintenance_mode";
+    private static final List<String> KEYS = List.of(KEY, LEGACY_KEY);
+
+    /** Immutable view of the flag at a point in time. */
+    public static final class Snapshot {
+        private final boolean on;
+        private final long version;
+        private final long checkedAtMillis;
+
+        Snapshot(boolean on, long version, long checkedAtMillis) {
+            this.on = on;
+            this.version = version;
+            this.checkedAtMillis = checkedAtMillis;
+        }
+
+        public boolean isOn() { return on; }
+        public long getVersion() { return version; }
+        public long getCheckedAtMillis() { return checkedAtMillis; }
+    }
+
+    private static final long refreshMillis = Long.parseLong(
+            DataSourceProvider.getProperty("maintenance.refreshMillis", "5000"));
+
+    private static final SettingsDao settingsDao = new SettingsDao();
+    private static volatile Snapshot snapshot;
+    private static volatile BooleanSupplier source = MaintenanceState::readFromDb;
+    private static ScheduledExecutorService poller;
+    private static final AtomicBoolean refreshing = new AtomicBoolean();
+    private static volatile long failedAtMillis;
+
+    private MaintenanceState() {}
+
+    /** Current flag; a memory read unless the snapshot is missing or older than the staleness bound. */
+    public static boolean isOn() {
+        Snapshot s = snapshot;
+        if (s == null) return init().on;
+        long now = System.currentTimeMillis();
+        if (now - s.checkedAtMillis > 2 * refreshMillis && now - failedAtMillis > refreshMillis
+                && refreshing.compareAndSet(false, true)) {
+            try {
+                s = refreshNow();
+            } catch (RuntimeException ex) {
+                failedAtMillis = System.currentTimeMillis();
+                System.err.println("[WARN] MaintenanceState refresh failed, using last known value: " + ex.getMessage());
+            } finally {
+                refreshing.set(false);
+            }
+        }
+        return s.on;
+    }
+
+    public static Snapshot current() {
+        Snapshot s = snapshot;
+        return s == null ? init() : s;
+    }
+
+    /** Push a value this client just wrote so it takes effect without waiting for the poller. */
+    public static synchronized void publish(boolean on) {
+        swap(on);
+    }
+
+    /** Re-read the flag from the DB and swap it in if it changed. */
+    public static synchronized Snapshot refreshNow() {
+        return swap(source.getAsBoolean());
+    }
+
+    /** Read the flag from somewhere other than the settings table; the next refresh uses it. */
+    public static synchronized void setSource(BooleanSupplier reader) {
+        source = reader;
+        snapshot = null;
+    }
+
+    private static synchronized Snapshot init() {
+        if (snapshot == null) {
+            snapshot = new Snapshot(source.getAsBoolean(), 1, System.currentTimeMillis());
+            startPoller();
+        }
+        return snapshot;
+    }
+
+    private static Snapshot swap(boolean on) {
+        Snapshot old = snapshot;
+        long version = old == null ? 1 : (old.on == on ? old.version : old.version + 1);
+        Snapshot next = new Snapshot(on, version, System.currentTimeMillis());
+        snapshot = next;
+        return next;
+    }
+
+    private static boolean readFromDb() {
+        Map<String, String> values = settingsDao.findByKeys(KEYS);
+        return "ON".equalsIgnoreCase(values.get(KEY)) || "ON".equalsIgnoreCase(values.get(LEGACY_KEY));
+    }
+
+    private static void startPoller() {
+        if (poller != null) return;
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "maintenance-poller");
+            t.setDaemon(true);
+            return t;
+        });
+        poller.scheduleWithFixedDelay(() -> {
+            try {
+                refreshNow();
+            } catch (RuntimeException ex) {
+                failedAtMillis = System.currentTimeMillis();
+                System.err.println("[WARN] MaintenanceState poll failed: " + ex.getMessage());
+            }
+        }, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+    }
+}
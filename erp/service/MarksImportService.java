@@ -0,0 +1,301 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.data.ComponentMarksDao;
+import edu.univ.erp.data.GradingComponentDao;
+import edu.univ.erp.data.UnitOfWork;
+import edu.univ.erp.domain.ComponentMark;
+import edu.univ.erp.domain.GradingComponent;
+import edu.univ.erp.util.AccessChecker;
+import edu.univ.erp.util.ExportUtil;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+/**
+ * MarksImportService - streaming import of a section's component marks from CSV
+ * (the format written by the grade frame's component export: EnrollmentID, StudentID, RollNo, one column
+ * per grading component).
+ *
+ * Stages:
+ *  1. parse   - records are streamed with commons-csv; columns are matched to components by header name
+ *  2. validate - against the section roster, loaded once with the existing marks (one query); marks must
+ *                fit the column (0 to 9999.99, at most 2 decimals)
+ *  3. diff    - cells equal to the stored mark are skipped
+ *  4. write   - changed marks are upserted in batches inside one transaction (all or nothing)
+ * Rows and cells that fail validation are collected in the Result as rejections instead of stopping the import.
+ * Runs on the caller's thread; an interrupt cancels it before anything is committed.
+ */
+public class MarksImportService {
+    private static final int PROGRESS_EVERY = 500;
+    private static final int WRITE_CHUNK = 2000;
+    // component_marks.marks is DECIMAL(6,2): larger values fail the write, extra decimals are rounded away
+    private static final BigDecimal MAX_MARK = new BigDecimal("9999.99");
+    private static final int MARK_SCALE = 2;
+
+    private static final String COL_ENROLLMENT = "enrollmentid";
+    private static final String COL_STUDENT = "studentid";
+    private static final String COL_ROLL = "rollno";
+
+    public static final String[] REJECTED_HEADER = {"Line", "EnrollmentID", "Column", "Value", "Reason"};
+
+    private final ComponentMarksDao marksDao = new ComponentMarksDao();
+    private final GradingComponentDao componentDao = new GradingComponentDao();
+
+    public enum Stage { READING, WRITING }
+
+    /** Progress callback; total is -1 when unknown. Called on the importing thread. */
+    @FunctionalInterface
+    public interface Progress {
+        void update(Stage stage, long done, long total);
+    }
+
+    /** A rejected row (column null) or cell. */
+    public static final class Rejection {
+        private final long line;
+        private final String enrollmentId;
+        private final String column;
+        private final String value;
+        private final String reason;
+
+        public Rejection(long line, String enrollmentId, String column, String value, String reason) {
+            this.line = line;
+            this.enrollmentId = enrollmentId;
+            this.column = column;
+            this.value = value;
+            this.reason = reason;
+        }
+
+        public long getLine() { return line; }
+        public String getEnrollmentId() { return enrollmentId; }
+        public String getColumn() { return column; }
+        public String getValue() { return value; }
+        public String getReason() { return reason; }
+
+        @Override
+        public String toString() {
+            return "Line " + line + (column == null ? "" : ", " + column) + ": " + reason;
+        }
+    }
+
+    public static final class Result {
+        private final int rowsRead;
+        private final int marksWritten;
+        private final int marksUnchanged;
+        private final List<String> ignoredColumns;
+        private final List<Rejection> rejections;
+
+        public Result(int rowsRead, int marksWritten, int marksUnchanged, List<String> ignoredColumns, List<Rejection> rejections) {
+            this.rowsRead = rowsRead;
+            this.marksWritten = marksWritten;
+            this.marksUnchanged = marksUnchanged;
+            this.ignoredColumns = Collections.unmodifiableList(ignoredColumns);
+            this.rejections = Collections.unmodifiableList(rejections);
+        }
+
+        public int getRowsRead() { return rowsRead; }
+        public int getMarksWritten() { return marksWritten; }
+        public int getMarksUnchanged() { return marksUnchanged; }
+        /** Header columns that match no grading component. */
+        public List<String> getIgnoredColumns() { return ignoredColumns; }
+        public List<Rejection> getRejections() { return rejections; }
+
+        /** Write the rejections as CSV (see REJECTED_HEADER). */
+        public int writeRejectedReport(OutputStream out) throws IOException {
+            return ExportUtil.writeCsv(out, REJECTED_HEADER, rejections.stream().map(r -> new Object[]{
+                    r.getLine(), r.getEnrollmentId(), r.getColumn(), r.getValue(), r.getReason()}));
+        }
+
+        public String summary() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Rows read: ").append(rowsRead).append('\n');
+            sb.append("Marks written: ").append(marksWritten).append('\n');
+            sb.append("Marks unchanged: ").append(marksUnchanged).append('\n');
+            sb.append("Rejected: ").append(rejections.size()).append('\n');
+            if (!ignoredColumns.isEmpty()) sb.append("Ignored columns: ").append(String.join(", ", ignoredColumns)).append('\n');
+            return sb.toString();
+        }
+    }
+
+    /** Import a CSV file into the section's marks. */
+    public Result importFile(File csv, int sectionId, Progress progress) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(csv.toPath(), StandardCharsets.UTF_8)) {
+            return importCsv(in, csv.length(), sectionId, progress);
+        }
+    }
+
+    /**
+     * Import CSV from a reader; totalChars (or -1) is only used for progress.
+     * Overridden by the remote client, which hands the whole CSV to the server.
+     */
+    public Result importCsv(Reader in, long totalChars, int sectionId, Progress progress) throws IOException {
+        AccessChecker.checkWritableOrThrow();
+        Roster roster = new Roster();
+        marksDao.forEachGradebookRow(sectionId, roster);
+
+        Map<String, Integer> componentByName = new HashMap<>();
+        for (GradingComponent gc : componentDao.listAll()) {
+            componentByName.put(gc.getName().trim().toLowerCase(Locale.ROOT), gc.getComponentId());
+        }
+
+        List<Rejection> rejected = new ArrayList<>();
+        List<String> ignored = new ArrayList<>();
+        List<ComponentMark> changed = new ArrayList<>();
+        Map<Long, Long> seenAt = new HashMap<>(); // (enrollment, component) -> first line
+        int rows = 0, unchanged = 0;
+
+        CSVFormat format = CSVFormat.DEFAULT.builder().setIgnoreSurroundingSpaces(true).setIgnoreEmptyLines(true).build();
+        try (CSVParser parser = format.parse(in)) {
+            // ---- header ----
+            Iterator<CSVRecord> it = parser.iterator();
+            if (!it.hasNext()) throw new IllegalArgumentException("CSV is empty");
+            CSVRecord header = it.next();
+            int enrollmentCol = 0, studentCol = -1;
+            int[] componentCols = new int[header.size()];
+            int nComponents = 0;
+            int[] componentIdOf = new int[header.size()];
+            for (int i = 0; i < header.size(); i++) {
+                String name = header.get(i).trim();
+                String key = name.toLowerCase(Locale.ROOT).replace(" ", "");
+                if (key.equals(COL_ENROLLMENT)) { enrollmentCol = i; continue; }
+                if (key.equals(COL_STUDENT)) { studentCol = i; continue; }
+                if (key.equals(COL_ROLL) || i == 0) continue;
+                Integer cid = componentByName.get(name.toLowerCase(Locale.ROOT));
+                if (cid == null) { ignored.add(name); continue; }
+                componentCols[nComponents] = i;
+                componentIdOf[nComponents++] = cid;
+            }
+            String[] names = header.values();
+
+            // ---- rows: parse, validate, diff ----
+            while (it.hasNext()) {
+                CSVRecord rec = it.next();
+                long line = rec.getRecordNumber();
+                rows++;
+                if (rows % PROGRESS_EVERY == 0) {
+                    if (Thread.currentThread().isInterrupted()) throw new CancellationException("Import cancelled");
+                    if (progress != null) progress.update(Stage.READING, rec.getCharacterPosition(), totalChars);
+                }
+
+                String enrollText = valueAt(rec, enrollmentCol);
+                int enrollmentId;
+                try {
+                    enrollmentId = Integer.parseInt(enrollText);
+                } catch (NumberFormatException nfe) {
+                    rejected.add(new Rejection(line, enrollText, null, enrollText, "invalid EnrollmentID"));
+                    continue;
+                }
+                int r = roster.indexOf(enrollmentId);
+                if (r < 0) {
+                    rejected.add(new Rejection(line, enrollText, null, null, "enrollment is not in section " + sectionId));
+                    continue;
+                }
+                if (studentCol >= 0) {
+                    String studentText = valueAt(rec, studentCol);
+                    if (!studentText.isEmpty() && !studentText.equals(String.valueOf(roster.studentIds[r]))) {
+                        rejected.add(new Rejection(line, enrollText, names[studentCol], studentText,
+                                "StudentID does not match enrollment (expected " + roster.studentIds[r] + ")"));
+                        continue;
+                    }
+                }
+
+                for (int k = 0; k < nComponents; k++) {
+                    int col = componentCols[k];
+                    String text = valueAt(rec, col);
+                    if (text.isEmpty()) continue; // blank cells leave the stored mark alone
+                    BigDecimal mark;
+                    try {
+                        mark = new BigDecimal(text);
+                    } catch (NumberFormatException nfe) {
+                        rejected.add(new Rejection(line, enrollText, names[col], text, "not a number"));
+                        continue;
+                    }
+                    if (mark.signum() < 0) {
+                        rejected.add(new Rejection(line, enrollText, names[col], text, "negative mark"));
+                        continue;
+                    }
+                    if (mark.compareTo(MAX_MARK) > 0) {
+                        rejected.add(new Rejection(line, enrollText, names[col], text, "mark above " + MAX_MARK));
+                        continue;
+                    }
+                    if (mark.stripTrailingZeros().scale() > MARK_SCALE) {
+                        rejected.add(new Rejection(line, enrollText, names[col], text, "more than " + MARK_SCALE + " decimals"));
+                        continue;
+                    }
+                    long cell = ((long) enrollmentId << 32) | (componentIdOf[k] & 0xffffffffL);
+                    Long first = seenAt.putIfAbsent(cell, line);
+                    if (first != null) {
+                        rejected.add(new Rejection(line, enrollText, names[col], text, "duplicate of line " + first));
+                        continue;
+                    }
+                    Double existing = roster.marks.get(cell);
+                    if (existing != null && existing == mark.doubleValue()) {
+                        unchanged++;
+                        continue;
+                    }
+                    changed.add(new ComponentMark(0, enrollmentId, componentIdOf[k], mark));
+                }
+            }
+        }
+        if (progress != null) progress.update(Stage.READING, totalChars, totalChars);
+
+        // ---- write: one transaction, flushed in chunks ----
+        int total = changed.size();
+        UnitOfWork.inTransaction(() -> {
+            for (int from = 0; from < total; from += WRITE_CHUNK) {
+                if (Thread.currentThread().isInterrupted()) throw new CancellationException("Import cancelled");
+                int to = Math.min(from + WRITE_CHUNK, total);
+                marksDao.upsertAll(changed.subList(from, to));
+                if (progress != null) progress.update(Stage.WRITING, to, total);
+            }
+        });
+        return new Result(rows, total, unchanged, ignored, rejected);
+    }
+
+    private static String valueAt(CSVRecord rec, int col) {
+        return col < rec.size() ? rec.get(col).trim() : "";
+    }
+
+    /** Section roster and stored marks, filled from ComponentMarksDao.forEachGradebookRow. */
+    private static final class Roster implements ComponentMarksDao.GradebookRowHandler {
+        private final Map<Integer, Integer> indexOfEnrollment = new HashMap<>();
+        private int[] studentIds = new int[64];
+        private final Map<Long, Double> marks = new HashMap<>();
+
+        @Override
+        public void row(int enrollmentId, int studentId, int componentId, double value, String grade) {
+            Integer r = indexOfEnrollment.get(enrollmentId);
+            if (r == null) {
+                r = indexOfEnrollment.size();
+                indexOfEnrollment.put(enrollmentId, r);
+                if (r == studentIds.length) studentIds = Arrays.copyOf(studentIds, r * 2);
+                studentIds[r] = studentId;
+            }
+            if (componentId != 0 && !Double.isNaN(value)) {
+                marks.put(((long) enrollmentId << 32) | (componentId & 0xffffffffL), value);
+            }
+        }
+
+        int indexOf(int enrollmentId) {
+            Integer r = indexOfEnrollment.get(enrollmentId);
+            return r == null ? -1 : r;
+        }
+    }
+}
@@ -1,19 +1,72 @@
 package edu.univ.erp.service;
 
 import edu.univ.erp.data.DataSourceProvider;
+import edu.univ.erp.util.ExportUtil;
 
 import javax.sql.DataSource;
+import java.io.*;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * ReportService - small helper to run reporting queries and return rows as String[].
- * Each returned List has header row as first element.
+ * Each returned List has header row as first element; the export*Csv methods stream the same
+ * data to an OutputStream through ExportUtil without building the list.
  */
 public class ReportService {
+    private static final int EXPORT_FETCH_SIZE =
+            Integer.parseInt(DataSourceProvider.getProperty("export.fetchSize", "1000"));
+
     private final DataSource ds = DataSourceProvider.erpDataSource();
 
+    public static final String[] ENROLLMENT_EXPORT_HEADER = {
+            "Enroll ID", "Student ID", "Student Roll", "Course Code", "Course Title",
+            "Section ID", "Instructor ID", "Enrolled", "Grade"};
+
+    /**
+     * Export every enrollment (same columns as ExportUtil.buildEnrollmentRows) as CSV.
+     * Uses one joined query streamed and printed row by row, so memory stays constant.
+     * @return number of data rows written
+     */
+    public int exportAllEnrollmentsCsv(OutputStream out) throws IOException {
+        String sql = "SELECT e.enrollment_id, e.student_id, st.roll_no, c.code, c.title, " +
+                "e.section_id, s.instructor_id, e.enrollment_date, g.grade " +
+                "FROM enrollments e " +
+                "LEFT JOIN students st ON st.user_id = e.student_id " +
+                "LEFT JOIN sections s ON s.section_id = e.section_id " +
+                "LEFT JOIN courses c ON c.course_id = s.course_id " +
+                "LEFT JOIN grades g ON g.enrollment_id = e.enrollment_id " +
+                "ORDER BY e.section_id, e.enrollment_id";
+        return streamCsv(out, ENROLLMENT_EXPORT_HEADER, sql);
+    }
+
+    public int exportStudentsPerSectionCsv(OutputStream out) throws IOException {
+        return streamCsv(out, STUDENTS_PER_SECTION_HEADER, STUDENTS_PER_SECTION_SQL);
+    }
+
+    public int exportGradeDistributionCsv(OutputStream out) throws IOException {
+        return streamCsv(out, GRADE_DISTRIBUTION_HEADER, GRADE_DISTRIBUTION_SQL);
+    }
+
+    /**
+     * Run a read-only query and pipe it into ExportUtil's streaming CSV writer. On MySQL the statement is
+     * forward-only/read-only with fetch size Integer.MIN_VALUE, which makes Connector/J stream rows instead
+     * of buffering the result (no useCursorFetch, so ordinary statements stay client-side prepared);
+     * other drivers get export.fetchSize.
+     */
+    private int streamCsv(OutputStream out, String[] header, String sql) throws IOException {
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            String url = c.getMetaData().getURL();
+            boolean mysql = url != null && url.startsWith("jdbc:mysql:");
+            ps.setFetchSize(mysql ? Integer.MIN_VALUE : EXPORT_FETCH_SIZE);
+            try (ResultSet rs = ps.executeQuery()) {
+                return ExportUtil.writeCsv(out, header, rs);
+            }
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
     public List<String[]> studentsPerCourse() {
         String sql = "SELECT c.course_id, c.code, c.title, COALESCE(COUNT(e.enrollment_id),0) AS student_count " +
                 "FROM courses c " +
@@ -38,17 +91,21 @@ public class ReportService {
         return out;
     }
 
-    public List<String[]> studentsPerSection() {
-        String sql = "SELECT s.section_id, c.code, c.title, s.semester, s.year, COALESCE(COUNT(e.enrollment_id),0) AS student_count " +
+    private static final String STUDENTS_PER_SECTION_SQL =
+            "SELECT s.section_id, c.code, c.title, s.semester, s.year, COALESCE(COUNT(e.enrollment_id),0) AS student_count " +
                 "FROM sections s " +
                 "LEFT JOIN courses c ON c.course_id = s.course_id " +
                 "LEFT JOIN enrollments e ON e.section_id = s.section_id " +
                 "GROUP BY s.section_id, c.code, c.title, s.semester, s.year " +
                 "ORDER BY student_count DESC, s.section_id";
+    private static final String[] STUDENTS_PER_SECTION_HEADER =
+            {"Section ID", "Course Code", "Course Title", "Semester", "Year", "Students Enrolled"};
+
+    public List<String[]> studentsPerSection() {
         List<String[]> out = new ArrayList<>();
-        out.add(new String[]{"Section ID", "Course Code", "Course Title", "Semester", "Year", "Students Enrolled"});
+        out.add(STUDENTS_PER_SECTION_HEADER.clone());
         try (Connection c = ds.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql);
+             PreparedStatement ps = c.prepareStatement(STUDENTS_PER_SECTION_SQL);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
                 out.add(new String[]{
@@ -64,18 +121,22 @@ public class ReportService {
         return out;
     }
 
-    public List<String[]> gradeDistribution() {
-        String sql = "SELECT c.course_id, c.code, c.title, g.grade, COUNT(*) AS cnt " +
+    private static final String GRADE_DISTRIBUTION_SQL =
+            "SELECT c.course_id, c.code, c.title, g.grade, COUNT(*) AS cnt " +
                 "FROM grades g " +
                 "JOIN enrollments e ON e.enrollment_id = g.enrollment_id " +
                 "JOIN sections s ON e.section_id = s.section_id " +
                 "JOIN courses c ON s.course_id = c.course_id " +
                 "GROUP BY c.course_id, g.grade " +
                 "ORDER BY c.course_id, g.grade";
+    private static final String[] GRADE_DISTRIBUTION_HEADER =
+            {"Course ID", "Course Code", "Course Title", "Grade", "Count"};
+
+    public List<String[]> gradeDistribution() {
         List<String[]> out = new ArrayList<>();
-        out.add(new String[]{"Course ID", "Course Code", "Course Title", "Grade", "Count"});
+        out.add(GRADE_DISTRIBUTION_HEADER.clone());
         try (Connection c = ds.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql);
+             PreparedStatement ps = c.prepareStatement(GRADE_DISTRIBUTION_SQL);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
                 out.add(new String[]{
@@ -0,0 +1,208 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.data.DataSourceProvider;
+import edu.univ.erp.data.EnrollmentDao;
+import edu.univ.erp.data.SectionDao;
+import edu.univ.erp.data.StudentDao;
+import edu.univ.erp.data.UnitOfWork;
+import edu.univ.erp.data.WaitlistDao;
+import edu.univ.erp.domain.Student;
+import edu.univ.erp.domain.WaitlistEntry;
+import edu.univ.erp.util.AccessChecker;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SectionWaitlist - per-section waitlists for full sections.
+ *
+ * The waitlist table is the source of truth; promotion reads (and locks) the head of a section's queue from
+ * it inside the caller's transaction (after the seat is reserved, so concurrent promotions on one section are
+ * serialized by the seat counter's row lock). In front of the table sits an in-memory PriorityQueue per
+ * section, in the same (priority, arrival) order, which answers position and length lookups without a
+ * query; it is updated by this client's writes and reloaded when older than waitlist.cacheMillis (default
+ * 30s) to pick up other clients' changes.
+ *
+ * Order is set by waitlist.policy: "fifo" (default, by arrival) or "seniority" (higher year of study first,
+ * then arrival).
+ */
+public class SectionWaitlist {
+    private static final long CACHE_MILLIS =
+            Long.parseLong(DataSourceProvider.getProperty("waitlist.cacheMillis", "30000"));
+    private static final String POLICY =
+            DataSourceProvider.getProperty("waitlist.policy", "fifo").trim().toLowerCase(Locale.ROOT);
+
+    static final Comparator<WaitlistEntry> ORDER =
+            Comparator.comparingInt(WaitlistEntry::getPriority).thenComparingInt(WaitlistEntry::getWaitlistId);
+
+    private static final ConcurrentHashMap<Integer, Queue> queues = new ConcurrentHashMap<>();
+
+    private final WaitlistDao waitlistDao = new WaitlistDao();
+    private final SectionDao sectionDao = new SectionDao();
+    private final EnrollmentDao enrollmentDao = new EnrollmentDao();
+    private final StudentDao studentDao = new StudentDao();
+
+    /** A section's queue as last loaded, plus this client's changes since. */
+    private static final class Queue {
+        final PriorityQueue<WaitlistEntry> entries = new PriorityQueue<>(ORDER);
+        final long loadedAtMillis = System.currentTimeMillis();
+
+        synchronized int positionOf(int studentId) {
+            WaitlistEntry mine = null;
+            for (WaitlistEntry e : entries) if (e.getStudentId() == studentId) { mine = e; break; }
+            if (mine == null) return 0;
+            int ahead = 0;
+            for (WaitlistEntry e : entries) if (ORDER.compare(e, mine) < 0) ahead++;
+            return ahead + 1;
+        }
+
+        synchronized int size() { return entries.size(); }
+        synchronized void add(WaitlistEntry e) {
+            // a queue loaded after the insert already has it
+            for (WaitlistEntry x : entries) if (x.getWaitlistId() == e.getWaitlistId()) return;
+            entries.add(e);
+        }
+        synchronized void removeStudent(int studentId) { entries.removeIf(e -> e.getStudentId() == studentId); }
+    }
+
+    /**
+     * Put a student on a full section's waitlist. Any free seat is handed out straight away, so the result
+     * is the student's 1-based position, or 0 if they were enrolled immediately.
+     */
+    public int join(int studentId, int sectionId) {
+        AccessChecker.checkWritableOrThrow();
+        if (sectionDao.findById(sectionId).isEmpty()) {
+            throw new EnrollmentException(EnrollmentException.Reason.NO_SUCH_SECTION, sectionId,
+                    "Section " + sectionId + " does not exist");
+        }
+        if (enrollmentDao.findByStudentAndSection(studentId, sectionId).isPresent()) {
+            throw new EnrollmentException(EnrollmentException.Reason.ALREADY_ENROLLED, sectionId,
+                    "Already enrolled in section " + sectionId);
+        }
+        int priority = priorityOf(studentId);
+        int id = waitlistDao.insertIfAbsent(studentId, sectionId, priority).orElseThrow(() ->
+                new EnrollmentException(EnrollmentException.Reason.ALREADY_WAITLISTED, sectionId,
+                        "Already on the waitlist for section " + sectionId));
+        queue(sectionId).add(new WaitlistEntry(id, studentId, sectionId, priority, new java.sql.Timestamp(System.currentTimeMillis())));
+        promoteNow(sectionId);
+        return positionOf(studentId, sectionId);
+    }
+
+    /** Take a student off a section's waitlist; false if they were not on it. */
+    public boolean leave(int studentId, int sectionId) {
+        AccessChecker.checkWritableOrThrow();
+        boolean removed = waitlistDao.delete(studentId, sectionId);
+        queue(sectionId).removeStudent(studentId);
+        return removed;
+    }
+
+    /** 1-based position of the student in the section's queue, 0 if not waiting. Served from memory. */
+    public int positionOf(int studentId, int sectionId) {
+        return queue(sectionId).positionOf(studentId);
+    }
+
+    /** Number of students waiting for the section. Served from memory. */
+    public int size(int sectionId) {
+        return queue(sectionId).size();
+    }
+
+    /** The student's waitlist entries (from the DB), in service order per section. */
+    public List<WaitlistEntry> entriesForStudent(int studentId) {
+        return waitlistDao.findByStudentId(studentId);
+    }
+
+    /**
+     * Fill the section's free seats from the head of its waitlist. Runs in the caller's UnitOfWork (or its
+     * own): each promotion reserves a seat, removes the waitlist row and inserts the enrollment. Entries of
+     * students who are already enrolled are dropped. The caller must pass the result to {@link #promoted}
+     * once the transaction has committed.
+     */
+    public List<WaitlistEntry> promote(int sectionId) {
+        return UnitOfWork.inTransaction(() -> {
+            List<WaitlistEntry> out = new ArrayList<>();
+            while (sectionDao.reserveSeat(sectionId)) {
+                WaitlistEntry next = claimNext(sectionId);
+                if (next == null) {
+                    sectionDao.releaseSeat(sectionId);
+                    break;
+                }
+                out.add(next);
+            }
+            return out;
+        });
+    }
+
+    /** After commit: drop promoted students from the in-memory queues and the seat-count cache. */
+    public void promoted(List<WaitlistEntry> entries) {
+        for (WaitlistEntry e : entries) {
+            Queue q = queues.get(e.getSectionId());
+            if (q != null) q.removeStudent(e.getStudentId());
+            AvailableSectionsQuery.adjustEnrolled(e.getSectionId(), 1);
+        }
+    }
+
+    /** promote + promoted in a transaction of its own (after a capacity increase or a join). */
+    public List<WaitlistEntry> promoteNow(int sectionId) {
+        List<WaitlistEntry> out = promote(sectionId);
+        UnitOfWork.afterCommit(() -> promoted(out));
+        return out;
+    }
+
+    /**
+     * Delete a section's whole waitlist, for a section that is being deleted. Runs in the caller's
+     * UnitOfWork (or its own); the in-memory queue is dropped once that commits. Returns the rows deleted.
+     */
+    public int removeSection(int sectionId) {
+        int n = waitlistDao.deleteBySectionId(sectionId);
+        UnitOfWork.afterCommit(() -> queues.remove(sectionId));
+        return n;
+    }
+
+    /** Forget all in-memory queues; they are reloaded on next use. */
+    public static void invalidate() {
+        queues.clear();
+    }
+
+    private WaitlistEntry claimNext(int sectionId) {
+        Set<Integer> tried = new HashSet<>();
+        while (true) {
+            Optional<WaitlistEntry> head = waitlistDao.findNext(sectionId);
+            if (head.isEmpty()) return null;
+            WaitlistEntry e = head.get();
+            // findNext locks the head, so it cannot come back; if it does anyway, stop rather than spin
+            if (!tried.add(e.getWaitlistId())) return null;
+            if (!waitlistDao.deleteById(e.getWaitlistId())) continue; // left the queue meanwhile
+            if (enrollmentDao.insertIfAbsent(e.getStudentId(), sectionId, LocalDate.now()).isPresent()) return e;
+            // already enrolled some other way: the stale entry is gone, try the next one
+            queues.computeIfPresent(sectionId, (id, q) -> { q.removeStudent(e.getStudentId()); return q; });
+        }
+    }
+
+    private Queue queue(int sectionId) {
+        Queue q = queues.get(sectionId);
+        if (q != null && System.currentTimeMillis() - q.loadedAtMillis <= CACHE_MILLIS) return q;
+        // query outside the map, so no ConcurrentHashMap bin stays locked for a database round trip
+        Queue fresh = new Queue();
+        for (WaitlistEntry e : waitlistDao.findBySectionId(sectionId)) fresh.entries.add(e);
+        if (q == null) {
+            Queue raced = queues.putIfAbsent(sectionId, fresh);
+            return raced != null ? raced : fresh;
+        }
+        // another thread may have reloaded (or invalidated) it meanwhile; keep theirs
+        return queues.replace(sectionId, q, fresh) ? fresh : queues.getOrDefault(sectionId, fresh);
+    }
+
+    /** Priority under waitlist.policy; lower is served first. */
+    private int priorityOf(int studentId) {
+        if (!"seniority".equals(POLICY)) return 0;
+        return -studentDao.findByUserId(studentId).map(Student::getYear).orElse(0);
+    }
+}
@@ -0,0 +1,90 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.data.DataSourceProvider;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * StudentDashboardQuery - loads everything the student "My Enrollments" table shows
+ * (section, course, instructor, enrollment date, grade) with a single joined query.
+ */
+public class StudentDashboardQuery {
+    private final DataSource ds = DataSourceProvider.erpDataSource();
+
+    /** One row of the student's enrollment table. Course/section fields are null if the section no longer exists. */
+    public static final class Row {
+        private final int enrollmentId;
+        private final int sectionId;
+        private final String courseCode;
+        private final String courseTitle;
+        private final Integer instructorId;
+        private final String semester;
+        private final Integer year;
+        private final Date enrollmentDate;
+        private final String grade;
+
+        public Row(int enrollmentId, int sectionId, String courseCode, String courseTitle, Integer instructorId,
+            String semester, Integer year, Date enrollmentDate, String grade) {
+            this.enrollmentId = enrollmentId;
+            this.sectionId = sectionId;
+            this.courseCode = courseCode;
+            this.courseTitle = courseTitle;
+            this.instructorId = instructorId;
+            this.semester = semester;
+            this.year = year;
+            this.enrollmentDate = enrollmentDate;
+            this.grade = grade;
+        }
+
+        public int getEnrollmentId() { return enrollmentId; }
+        public int getSectionId() { return sectionId; }
+        public String getCourseCode() { return courseCode; }
+        public String getCourseTitle() { return courseTitle; }
+        public Integer getInstructorId() { return instructorId; }
+        public String getSemester() { return semester; }
+        public Integer getYear() { return year; }
+        public Date getEnrollmentDate() { return enrollmentDate; }
+        public String getGrade() { return grade; }
+
+        /** "CODE - Title", or "Section n" when the course is unknown. */
+        public String getCourseLabel() {
+            return courseCode == null ? ("Section " + sectionId) : (courseCode + " - " + courseTitle);
+        }
+    }
+
+    /** All enrollments of a student in one round trip, ordered by enrollment id. */
+    public List<Row> findEnrollments(int studentUserId) {
+        String sql = "SELECT e.enrollment_id, e.section_id, e.enrollment_date, " +
+                "s.instructor_id, s.semester, s.year, c.code, c.title, g.grade " +
+                "FROM enrollments e " +
+                "LEFT JOIN sections s ON s.section_id = e.section_id " +
+                "LEFT JOIN courses c ON c.course_id = s.course_id " +
+                "LEFT JOIN grades g ON g.enrollment_id = e.enrollment_id " +
+                "WHERE e.student_id = ? " +
+                "ORDER BY e.enrollment_id";
+        List<Row> out = new ArrayList<>();
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, studentUserId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    out.add(new Row(
+                            rs.getInt("enrollment_id"),
+                            rs.getInt("section_id"),
+                            rs.getString("code"),
+                            rs.getString("title"),
+                            rs.getObject("instructor_id", Integer.class),
+                            rs.getString("semester"),
+                            rs.getObject("year", Integer.class),
+                            rs.getDate("enrollment_date"),
+                            rs.getString("grade")
+                    ));
+                }
+            }
+        } catch (SQLException e) { throw new RuntimeException(e); }
+        return out;
+    }
+}
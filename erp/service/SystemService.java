@@ -1,19 +1,12 @@
 package edu.univ.erp.service;
 
-import edu.univ.erp.data.SettingsDao;
-
-import java.util.Optional;
-
 public class SystemService {
 
-    private final SettingsDao settingsDao = new SettingsDao();
+    private final MaintenanceService maintenanceService = new MaintenanceService();
 
     public boolean isMaintenanceMode() {
         try {
-            return Optional.ofNullable(settingsDao.findByKey("maintenance"))
-                    .map(v -> "ON".equalsIgnoreCase(v))
-                    .orElse(false);
-
+            return MaintenanceState.isOn();
         } catch (Exception ex) {
             ex.printStackTrace();
             // If DB reading fails, be conservative and allow only admin — but return true so login will be blocked for non-admins.
@@ -23,15 +16,11 @@ public class SystemService {
 
     public boolean setMaintenanceMode(boolean on) {
         try {
-            if (settingsDao.findByKey("maintenance") != null) {
-                settingsDao.updateValue("maintenance", on ? "ON" : "OFF");
-            } else {
-                settingsDao.insert("maintenance", on ? "ON" : "OFF");
-            }
+            // writes the flag and pushes it into MaintenanceState for this client
+            maintenanceService.setMaintenance(on);
 
             // verify by re-reading
-            String val = settingsDao.findByKey("maintenance");
-            boolean actual = "ON".equalsIgnoreCase(val);
+            boolean actual = MaintenanceState.refreshNow().isOn();
 
             System.out.println("[SystemService] requested -> " + (on ? "ON" : "OFF")
                     + " ; actual DB -> " + (actual ? "ON" : "OFF"));
@@ -0,0 +1,311 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.data.DataSourceProvider;
+import edu.univ.erp.data.StudentDao;
+import edu.univ.erp.data.UserDao;
+import edu.univ.erp.domain.Student;
+import edu.univ.erp.domain.User;
+import edu.univ.erp.util.AccessChecker;
+import edu.univ.erp.util.ExportUtil;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * UserProvisioningService - bulk creation of users (auth DB) and their student profiles (erp DB).
+ *
+ * BCrypt hashing runs on a bounded pool (provision.hashThreads, default one thread per core) at the same
+ * cost as AdminService.createUser (provision.bcryptRounds, default 12). Hashed users are written in chunks of
+ * provision.chunkSize (default 500): one batched transaction into users, then one into students. If the
+ * students batch fails, the chunk's users are deleted again and every row of the chunk is reported as failed.
+ * Invalid rows (blank fields, unknown role, duplicate or existing username) are reported, not inserted.
+ */
+public class UserProvisioningService {
+    private static final int HASH_THREADS = Integer.parseInt(DataSourceProvider.getProperty("provision.hashThreads",
+            String.valueOf(Runtime.getRuntime().availableProcessors())));
+    private static final int BCRYPT_ROUNDS =
+            Integer.parseInt(DataSourceProvider.getProperty("provision.bcryptRounds", "12"));
+    private static final int CHUNK_SIZE =
+            Integer.parseInt(DataSourceProvider.getProperty("provision.chunkSize", "500"));
+
+    private static final Set<String> ROLES = Set.of("ADMIN", "INSTRUCTOR", "STUDENT");
+
+    /** Columns of the provisioning CSV; roll_no/program/year are only used for students. */
+    public static final String[] CSV_HEADER = {"username", "password", "role", "roll_no", "program", "year"};
+    public static final String[] FAILURE_HEADER = {"Line", "Username", "Reason"};
+
+    private final UserDao userDao = new UserDao();
+    private final StudentDao studentDao = new StudentDao();
+
+    /** One account to create; line is the CSV line (0 when not from a file). */
+    public static final class NewUser {
+        private final long line;
+        private final String username;
+        private final String password;
+        private final String role;
+        private final String rollNo;
+        private final String program;
+        private final int year;
+
+        public NewUser(String username, String password, String role, String rollNo, String program, int year) {
+            this(0, username, password, role, rollNo, program, year);
+        }
+
+        NewUser(long line, String username, String password, String role, String rollNo, String program, int year) {
+            this.line = line;
+            this.username = username == null ? "" : username.trim();
+            this.password = password == null ? "" : password;
+            this.role = role == null ? "" : role.trim().toUpperCase(Locale.ROOT);
+            this.rollNo = rollNo;
+            this.program = program;
+            this.year = year;
+        }
+
+        public long getLine() { return line; }
+        public String getUsername() { return username; }
+        public String getRole() { return role; }
+        public String getRollNo() { return rollNo; }
+        public String getProgram() { return program; }
+        public int getYear() { return year; }
+    }
+
+    public static final class Failure {
+        private final long line;
+        private final String username;
+        private final String reason;
+
+        public Failure(long line, String username, String reason) {
+            this.line = line;
+            this.username = username;
+            this.reason = reason;
+        }
+
+        public long getLine() { return line; }
+        public String getUsername() { return username; }
+        public String getReason() { return reason; }
+
+        @Override
+        public String toString() {
+            return (line > 0 ? "Line " + line + ", " : "") + username + ": " + reason;
+        }
+    }
+
+    public static final class Result {
+        private final int requested;
+        private final int created;
+        private final List<Failure> failures;
+        private final long elapsedMillis;
+        private final int threads;
+
+        public Result(int requested, int created, List<Failure> failures, long elapsedMillis, int threads) {
+            this.requested = requested;
+            this.created = created;
+            this.failures = Collections.unmodifiableList(failures);
+            this.elapsedMillis = elapsedMillis;
+            this.threads = threads;
+        }
+
+        public int getRequested() { return requested; }
+        public int getCreated() { return created; }
+        public List<Failure> getFailures() { return failures; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public int getThreads() { return threads; }
+
+        /** Users created per second of wall-clock time. */
+        public double getUsersPerSecond() {
+            return elapsedMillis == 0 ? created : created * 1000.0 / elapsedMillis;
+        }
+
+        public int writeFailureReport(OutputStream out) throws IOException {
+            return ExportUtil.writeCsv(out, FAILURE_HEADER, failures.stream().map(f -> new Object[]{
+                    f.getLine(), f.getUsername(), f.getReason()}));
+        }
+
+        public String summary() {
+            return String.format("Requested: %d%nCreated: %d%nFailed: %d%nElapsed: %.1f s (%.1f users/s, %d hashing threads)%n",
+                    requested, created, failures.size(), elapsedMillis / 1000.0, getUsersPerSecond(), threads);
+        }
+    }
+
+    /** Progress callback (users written so far); called on the provisioning thread. */
+    @FunctionalInterface
+    public interface Progress {
+        void update(int done, int total);
+    }
+
+    /** Parse a provisioning CSV (see CSV_HEADER) and create its users. Unparseable rows are reported as failures. */
+    public Result provisionCsv(File csv, Progress progress) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(csv.toPath(), StandardCharsets.UTF_8)) {
+            return provisionCsv(in, progress);
+        }
+    }
+
+    /** As {@link #provisionCsv(File, Progress)}; overridden by the remote client, which hands the CSV to the server. */
+    public Result provisionCsv(Reader in, Progress progress) throws IOException {
+        List<Failure> failures = new ArrayList<>();
+        List<NewUser> users = parseCsv(in, failures);
+        Result r = provision(users, progress);
+        if (failures.isEmpty()) return r;
+        int unparsed = failures.size();
+        failures.addAll(r.getFailures());
+        return new Result(r.getRequested() + unparsed, r.getCreated(), failures, r.getElapsedMillis(), r.threads);
+    }
+
+    /** Read rows by header name (case-insensitive); rows with a bad year go to failures. */
+    public static List<NewUser> parseCsv(Reader in, List<Failure> failures) throws IOException {
+        List<NewUser> out = new ArrayList<>();
+        CSVFormat format = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true)
+                .setIgnoreHeaderCase(true).setIgnoreSurroundingSpaces(true).setIgnoreEmptyLines(true).build();
+        try (CSVParser parser = format.parse(in)) {
+            for (CSVRecord rec : parser) {
+                String username = field(rec, "username");
+                String yearText = field(rec, "year");
+                int year = 0;
+                if (!yearText.isEmpty()) {
+                    try {
+                        year = Integer.parseInt(yearText);
+                    } catch (NumberFormatException nfe) {
+                        failures.add(new Failure(rec.getRecordNumber() + 1, username, "invalid year '" + yearText + "'"));
+                        continue;
+                    }
+                }
+                out.add(new NewUser(rec.getRecordNumber() + 1, username, field(rec, "password"), field(rec, "role"),
+                        field(rec, "roll_no"), field(rec, "program"), year));
+            }
+        }
+        return out;
+    }
+
+    private static String field(CSVRecord rec, String name) {
+        return rec.isMapped(name) && rec.isSet(name) ? rec.get(name).trim() : "";
+    }
+
+    /** Validate, hash in parallel and insert in batched chunks. */
+    public Result provision(List<NewUser> users, Progress progress) {
+        AccessChecker.checkWritableOrThrow();
+        long start = System.nanoTime();
+        List<Failure> failures = new ArrayList<>();
+        List<NewUser> valid = validate(users, failures);
+
+        int created = 0;
+        ExecutorService pool = newHashPool();
+        try {
+            // all hashes are queued up front so the pool stays busy while earlier chunks are inserted
+            List<Future<String>> hashes = new ArrayList<>(valid.size());
+            for (NewUser u : valid) hashes.add(pool.submit(() -> BCrypt.hashpw(u.password, BCrypt.gensalt(BCRYPT_ROUNDS))));
+
+            for (int from = 0; from < valid.size(); from += CHUNK_SIZE) {
+                int to = Math.min(from + CHUNK_SIZE, valid.size());
+                List<NewUser> chunk = valid.subList(from, to);
+                List<User> rows = new ArrayList<>(chunk.size());
+                for (int i = from; i < to; i++) {
+                    NewUser u = valid.get(i);
+                    rows.add(new User(null, u.username, await(hashes.get(i)), u.role));
+                }
+                created += insertChunk(chunk, rows, failures);
+                if (progress != null) progress.update(to, valid.size());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        long elapsed = (System.nanoTime() - start) / 1_000_000L;
+        return new Result(users.size(), created, failures, elapsed, HASH_THREADS);
+    }
+
+    private List<NewUser> validate(List<NewUser> users, List<Failure> failures) {
+        List<NewUser> candidates = new ArrayList<>(users.size());
+        Set<String> seen = new HashSet<>();
+        for (NewUser u : users) {
+            String problem = null;
+            if (u.username.isEmpty()) problem = "username is required";
+            else if (u.password.isEmpty()) problem = "password is required";
+            else if (!ROLES.contains(u.role)) problem = "unknown role '" + u.role + "'";
+            else if ("STUDENT".equals(u.role) && (u.rollNo == null || u.rollNo.isEmpty())) problem = "roll_no is required for students";
+            else if (!seen.add(u.username.toLowerCase(Locale.ROOT))) problem = "duplicate username in input";
+            if (problem != null) failures.add(new Failure(u.line, u.username, problem));
+            else candidates.add(u);
+        }
+        Set<String> existing = new HashSet<>();
+        for (String name : userDao.findExistingUsernames(seen)) existing.add(name.toLowerCase(Locale.ROOT));
+        if (existing.isEmpty()) return candidates;
+        List<NewUser> valid = new ArrayList<>(candidates.size());
+        for (NewUser u : candidates) {
+            if (existing.contains(u.username.toLowerCase(Locale.ROOT))) failures.add(new Failure(u.line, u.username, "username already exists"));
+            else valid.add(u);
+        }
+        return valid;
+    }
+
+    /** Insert one chunk; returns the number of users created (0 if the chunk failed). */
+    private int insertChunk(List<NewUser> chunk, List<User> rows, List<Failure> failures) {
+        int[] ids;
+        try {
+            ids = userDao.insertAll(rows);
+        } catch (RuntimeException e) {
+            for (NewUser u : chunk) failures.add(new Failure(u.line, u.username, "user batch failed: " + rootMessage(e)));
+            return 0;
+        }
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            NewUser u = chunk.get(i);
+            if ("STUDENT".equals(u.role)) students.add(new Student(ids[i], u.rollNo, u.program, u.year));
+        }
+        try {
+            studentDao.insertAll(students);
+        } catch (RuntimeException e) {
+            // users and students live in different databases, so undo the users by hand
+            userDao.deleteAll(ids);
+            for (NewUser u : chunk) failures.add(new Failure(u.line, u.username, "student batch failed: " + rootMessage(e)));
+            return 0;
+        }
+        return chunk.size();
+    }
+
+    private static String await(Future<String> f) {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Provisioning cancelled");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static String rootMessage(Throwable e) {
+        while (e.getCause() != null) e = e.getCause();
+        return e.getMessage();
+    }
+
+    private static ExecutorService newHashPool() {
+        AtomicInteger n = new AtomicInteger();
+        return new ThreadPoolExecutor(HASH_THREADS, HASH_THREADS, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "bcrypt-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
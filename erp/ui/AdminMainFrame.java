@@ -1,12 +1,16 @@
 package edu.univ.erp.ui;
 
+import edu.univ.erp.auth.Session;
 import edu.univ.erp.domain.Course;
 import edu.univ.erp.domain.Section;
 import edu.univ.erp.domain.User;
 import edu.univ.erp.service.ErpService;
 import edu.univ.erp.service.MaintenanceService;
+import edu.univ.erp.service.ReportService;
 import edu.univ.erp.service.SystemService;
+import edu.univ.erp.service.UserProvisioningService;
 import edu.univ.erp.util.ExportUtil;
+import edu.univ.erp.remote.Services;
 import net.miginfocom.swing.MigLayout;
 
 import javax.swing.*;
@@ -30,8 +34,13 @@ public class AdminMainFrame extends BaseMainFrame {
     // --- Add to AdminMainFrame.java (class fields) ---
     private javax.swing.JToolBar toolbar = new javax.swing.JToolBar();
 
-    private final ErpService erp = new ErpService();
-    private final SystemService systemService = new SystemService();
+    private final ErpService erp = Services.erp();
+    private final SystemService systemService = Services.system();
+    private final ReportService reportService = Services.reports();
+    private final AsyncLoader.Slot usersLoad = newLoadSlot();
+    private final AsyncLoader.Slot coursesLoad = newLoadSlot();
+    private final AsyncLoader.Slot sectionsLoad = newLoadSlot();
+    private final AsyncLoader.Slot provisionJob = newLoadSlot();
 
     // Top-level maintenance UI
     private final JToggleButton maintenanceToggle = new JToggleButton("Maintenance");
@@ -46,13 +55,13 @@ public class AdminMainFrame extends BaseMainFrame {
     private final JList<Course> coursesList = new JList<>(coursesModel);
 
     private final DefaultTableModel sectionsModel = new DefaultTableModel(
-            new String[]{"Section ID", "Course ID", "Instructor ID", "Instructor", "Semester", "Year"}, 0) {
+            new String[]{"Section ID", "Course ID", "Instructor ID", "Instructor", "Semester", "Year", "Capacity"}, 0) {
         @Override public boolean isCellEditable(int row, int col) { return false; }
     };
     private final JTable sectionsTable = new JTable(sectionsModel);
 
-    public AdminMainFrame(String username) {
-        super(username, "ADMIN");
+    public AdminMainFrame(Session session) {
+        super(session);
         initUI();
         loadAllUsers();
         loadAllCourses();
@@ -89,10 +98,13 @@ public class AdminMainFrame extends BaseMainFrame {
         JButton addUserBtn = UIUtil.createRoundedButton("Add User");
         JButton editUserBtn = UIUtil.createRoundedButton("Edit User");
         JButton deleteUserBtn = UIUtil.createRoundedButton("Delete User");
+        JButton bulkImportBtn = UIUtil.createGhostButton("Bulk Import...");
+        bulkImportBtn.setToolTipText("Create users from a CSV: " + String.join(",", UserProvisioningService.CSV_HEADER));
         usersTop.add(refreshUsersBtn);
         usersTop.add(addUserBtn);
         usersTop.add(editUserBtn);
         usersTop.add(deleteUserBtn);
+        usersTop.add(bulkImportBtn);
         usersPanel.add(usersTop, BorderLayout.NORTH);
 
         usersList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -103,6 +115,7 @@ public class AdminMainFrame extends BaseMainFrame {
         addUserBtn.addActionListener(e -> doAddUser());
         editUserBtn.addActionListener(e -> doEditUser());
         deleteUserBtn.addActionListener(e -> doDeleteUser());
+        bulkImportBtn.addActionListener(e -> doBulkImportUsers());
 
         // ---- Courses Tab ----
         JPanel coursesPanel = new JPanel(new BorderLayout(8,8));
@@ -147,7 +160,7 @@ public class AdminMainFrame extends BaseMainFrame {
             if (!e.getValueIsAdjusting()) {
                 Course selected = coursesList.getSelectedValue();
                 if (selected != null) loadSectionsForCourse(selected.getCourseId());
-                else sectionsModel.setRowCount(0);
+                else { sectionsLoad.cancel(); sectionsModel.setRowCount(0); }
             }
         });
 
@@ -199,18 +212,18 @@ public class AdminMainFrame extends BaseMainFrame {
             sb.append("Users: ").append(erp.listUsers().size()).append("\n");
             sb.append("Courses: ").append(erp.listCourses().size()).append("\n");
             sb.append("Sections: ").append(erp.listSections().size()).append("\n");
+            sb.append("\n").append(edu.univ.erp.data.ReferenceDataCache.report());
+            sb.append("\n").append(edu.univ.erp.data.DbMetrics.report(15));
             reportOutput.setText(sb.toString());
         });
 
         exportUsersBtn.addActionListener(e -> {
             try {
                 java.util.List<User> users = erp.listUsers();
-                java.util.List<String[]> rows = new java.util.ArrayList<>();
-                rows.add(new String[] {"UserId", "Username", "Role"});
-                for (User u : users) rows.add(new String[] { String.valueOf(u.getUserId()), u.getUsername(), u.getRole()});
                 java.io.File f = new java.io.File("users_report.csv");
                 try (java.io.OutputStream os = new java.io.FileOutputStream(f)) {
-                    ExportUtil.writeCsv(os, rows);
+                    ExportUtil.writeCsv(os, new String[] {"UserId", "Username", "Role"},
+                            users.stream().map(u -> new Object[] { u.getUserId(), u.getUsername(), u.getRole()}));
                 }
                 JOptionPane.showMessageDialog(this, "Exported users to " + f.getAbsolutePath());
             } catch (Exception ex) {
@@ -220,22 +233,12 @@ public class AdminMainFrame extends BaseMainFrame {
 
         exportEnrollmentsBtn.addActionListener(e -> {
             try {
-                java.util.List<edu.univ.erp.domain.Enrollment> allRows = new java.util.ArrayList<>();
-                for (Section s : erp.listSections()) {
-                    allRows.addAll(erp.getEnrollmentsForSection(s.getSectionId()));
-                }
-                java.util.List<String[]> rows = ExportUtil.buildEnrollmentRows(
-                        allRows,
-                        id -> erp.getCourseById(id),
-                        id -> erp.getSectionById(id),
-                        id -> erp.getStudentByUserId(id),
-                        id -> erp.getGradeForEnrollment(id)
-                );
                 java.io.File f = new java.io.File("all_enrollments_report.csv");
+                int written;
                 try (java.io.OutputStream os = new java.io.FileOutputStream(f)) {
-                    ExportUtil.writeCsv(os, rows);
+                    written = reportService.exportAllEnrollmentsCsv(os);
                 }
-                JOptionPane.showMessageDialog(this, "Exported enrollments to " + f.getAbsolutePath());
+                JOptionPane.showMessageDialog(this, "Exported " + written + " enrollments to " + f.getAbsolutePath());
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(this, "Failed export: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             }
@@ -287,10 +290,11 @@ public class AdminMainFrame extends BaseMainFrame {
     /* ------------------- Users actions ------------------- */
 
     private void loadAllUsers() {
-        usersModel.clear();
-        List<User> users = erp.listUsers();
-        for (User u : users) usersModel.addElement(u);
-        if (!usersModel.isEmpty()) usersList.setSelectedIndex(0);
+        usersLoad.submit("users", erp::listUsers, users -> {
+            usersModel.clear();
+            for (User u : users) usersModel.addElement(u);
+            if (!usersModel.isEmpty()) usersList.setSelectedIndex(0);
+        });
     }
 
     private void doAddUser() {
@@ -316,27 +320,77 @@ public class AdminMainFrame extends BaseMainFrame {
         loadAllUsers();
     }
 
+    /**
+     * Create users from a CSV in the background (see UserProvisioningService), with a progress monitor;
+     * shows throughput and failures afterwards and offers to save the failed rows.
+     */
+    private void doBulkImportUsers() {
+        JFileChooser fc = new JFileChooser();
+        if (fc.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        java.io.File csv = fc.getSelectedFile();
+        ProgressMonitor monitor = new ProgressMonitor(this, "Creating users from " + csv.getName(), "Hashing passwords...", 0, 100);
+        monitor.setMillisToDecideToPopup(200);
+        UserProvisioningService provisioning = Services.provisioning();
+        provisionJob.submit("users CSV", () -> {
+            try {
+                return provisioning.provisionCsv(csv, (done, total) -> SwingUtilities.invokeLater(() -> {
+                    if (monitor.isCanceled()) {
+                        provisionJob.cancel();
+                        return;
+                    }
+                    monitor.setNote("Created " + done + " of " + total + " users...");
+                    monitor.setProgress(total == 0 ? 100 : done * 100 / total);
+                }));
+            } finally {
+                SwingUtilities.invokeLater(monitor::close);
+            }
+        }, result -> {
+            loadAllUsers();
+            if (result.getFailures().isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Bulk import completed.\n" + result.summary());
+                return;
+            }
+            int rc = JOptionPane.showConfirmDialog(this, "Bulk import completed with failures.\n" + result.summary()
+                    + "\nSave the failed rows report?", "Bulk Import", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+            if (rc != JOptionPane.YES_OPTION) return;
+            JFileChooser out = new JFileChooser();
+            out.setSelectedFile(new java.io.File(csv.getName().replaceFirst("\\.csv$", "") + "_failed.csv"));
+            if (out.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+            try (java.io.OutputStream os = new java.io.FileOutputStream(out.getSelectedFile())) {
+                result.writeFailureReport(os);
+            } catch (java.io.IOException ex) {
+                JOptionPane.showMessageDialog(this, "Failed to save report: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+    }
+
     /* ------------------- Courses / Sections actions ------------------- */
 
     private void loadAllCourses() {
-        coursesModel.clear();
-        List<Course> courses = erp.listCourses();
-        for (Course c : courses) coursesModel.addElement(c);
-        if (!coursesModel.isEmpty()) coursesList.setSelectedIndex(0);
+        coursesLoad.submit("courses", erp::listCourses, courses -> {
+            coursesModel.clear();
+            for (Course c : courses) coursesModel.addElement(c);
+            if (!coursesModel.isEmpty()) coursesList.setSelectedIndex(0);
+        });
     }
 
     private void loadSectionsForCourse(int courseId) {
-        sectionsModel.setRowCount(0);
-        List<Section> secs = erp.listSectionsForCourse(courseId);
-        for (Section s : secs) {
-            String instrName = "ID:" + s.getInstructorId();
-            Optional<User> ui = erp.getUserById(s.getInstructorId());
-            if (ui.isPresent()) instrName = ui.get().getUsername();
-            sectionsModel.addRow(new Object[]{
-                    s.getSectionId(), s.getCourseId(), s.getInstructorId(), instrName,
-                    s.getSemester(), s.getYear()
-            });
-        }
+        sectionsLoad.submit("sections", () -> {
+            List<Object[]> rows = new java.util.ArrayList<>();
+            for (Section s : erp.listSectionsForCourse(courseId)) {
+                String instrName = "ID:" + s.getInstructorId();
+                Optional<User> ui = erp.getUserById(s.getInstructorId());
+                if (ui.isPresent()) instrName = ui.get().getUsername();
+                rows.add(new Object[]{
+                        s.getSectionId(), s.getCourseId(), s.getInstructorId(), instrName,
+                        s.getSemester(), s.getYear(), s.hasCapacityLimit() ? String.valueOf(s.getCapacity()) : "Unlimited"
+                });
+            }
+            return rows;
+        }, rows -> {
+            sectionsModel.setRowCount(0);
+            for (Object[] row : rows) sectionsModel.addRow(row);
+        });
     }
 
     private void doAddCourse() {
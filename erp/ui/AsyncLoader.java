@@ -0,0 +1,122 @@
+package edu.univ.erp.ui;
+
+import edu.univ.erp.data.DataSourceProvider;
+
+import javax.swing.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * AsyncLoader — runs UI data loads off the Event Dispatch Thread.
+ * <p>
+ * - All frames share one bounded pool of daemon threads (ui.loaderThreads, default 4)
+ * - Each logical load (e.g. "students of the selected section") gets its own slot; starting a new
+ *   load in a slot cancels the previous one and its result is dropped, so switching sections quickly
+ *   never shows stale rows
+ * - Results and errors are delivered on the EDT
+ */
+public final class AsyncLoader {
+
+    private static final ExecutorService pool = newPool();
+
+    private final Listener listener;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /** Notified on the EDT when loads start/finish, e.g. to drive a status bar indicator. */
+    public interface Listener {
+        void loadingChanged(int inFlight, String label);
+        void loadFailed(String label, Throwable error);
+    }
+
+    public AsyncLoader(Listener listener) {
+        this.listener = listener;
+    }
+
+    private static ExecutorService newPool() {
+        int threads = Integer.parseInt(DataSourceProvider.getProperty("ui.loaderThreads", "4"));
+        AtomicInteger n = new AtomicInteger();
+        ThreadPoolExecutor ex = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "ui-loader-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        ex.allowCoreThreadTimeOut(true);
+        return ex;
+    }
+
+    /** One logical load; a newer submit() supersedes the older one. Use from the EDT only. */
+    public final class Slot {
+        private long generation;
+        private Future<?> current;
+        private boolean loading;
+
+        private Slot() {}
+
+        /**
+         * Load in the background and hand the result to apply() on the EDT, unless another load was
+         * started in this slot meanwhile.
+         */
+        public <T> void submit(String label, Callable<T> task, Consumer<T> apply) {
+            long gen = ++generation;
+            if (current != null) current.cancel(true);
+            if (!loading) {
+                loading = true;
+                started(label);
+            }
+            current = pool.submit(() -> {
+                T result = null;
+                Throwable error = null;
+                try {
+                    result = task.call();
+                } catch (Throwable t) {
+                    error = t;
+                }
+                T r = result;
+                Throwable err = error;
+                SwingUtilities.invokeLater(() -> {
+                    if (gen != generation) return; // superseded or cancelled, drop
+                    current = null;
+                    loading = false;
+                    try {
+                        if (err != null) listener.loadFailed(label, err);
+                        else apply.accept(r);
+                    } catch (RuntimeException ex) {
+                        listener.loadFailed(label, ex);
+                    } finally {
+                        finished(label);
+                    }
+                });
+            });
+        }
+
+        /** Drop any pending result of this slot. */
+        public void cancel() {
+            generation++;
+            if (current != null) current.cancel(true);
+            current = null;
+            if (loading) {
+                loading = false;
+                finished(null);
+            }
+        }
+    }
+
+    public Slot newSlot() {
+        return new Slot();
+    }
+
+    private void started(String label) {
+        listener.loadingChanged(inFlight.incrementAndGet(), label);
+    }
+
+    private void finished(String label) {
+        listener.loadingChanged(inFlight.decrementAndGet(), label);
+    }
+}
@@ -1,6 +1,8 @@
 package edu.univ.erp.ui;
 
 import edu.univ.erp.LoginFrame;
+import edu.univ.erp.auth.Session;
+import edu.univ.erp.remote.Services;
 
 import javax.swing.*;
 import java.awt.*;
@@ -13,8 +15,12 @@ import java.awt.event.WindowEvent;
  * - Provides common window chrome (title, menu, theme toggle)
  * - Provides a central area where subclasses call setCenterPanel(component)
  * - Adds a small status bar and consistent padding
+ * - Runs data loads off the EDT through {@link #newLoadSlot()}; the status bar shows a busy
+ *   indicator while any load of this frame is in flight
+ * - Holds the login {@link Session}; subclasses read the user's id and profile from it
  */
 public class BaseMainFrame extends JFrame {
+    protected final Session session;
     protected final String username;
     protected final String role;
 
@@ -23,15 +29,33 @@ public class BaseMainFrame extends JFrame {
 
     // Simple status label at the bottom
     private final JLabel statusLabel = new JLabel("Ready");
+    private final JProgressBar loadingBar = new JProgressBar();
+
+    // background loads for this frame; results are applied on the EDT
+    private final AsyncLoader loader = new AsyncLoader(new AsyncLoader.Listener() {
+        @Override
+        public void loadingChanged(int inFlight, String label) {
+            loadingBar.setVisible(inFlight > 0);
+            if (inFlight > 0 && label != null) setStatus("Loading " + label + "...");
+            else if (inFlight == 0) setStatus("Ready");
+        }
+
+        @Override
+        public void loadFailed(String label, Throwable error) {
+            setStatus("Failed to load " + label + ": " + error.getMessage());
+            error.printStackTrace();
+        }
+    });
 
     private final JLabel maintenanceLabel = new JLabel();
     private final JPanel maintenanceBanner = new JPanel(new BorderLayout());
 
 
-    public BaseMainFrame(String username, String role) {
+    public BaseMainFrame(Session session) {
         super();
-        this.username = username;
-        this.role = role;
+        this.session = session;
+        this.username = session.getUsername();
+        this.role = session.getRole();
 
         // Window title
         setTitle(buildTitle());
@@ -66,6 +90,10 @@ public class BaseMainFrame extends JFrame {
         JPanel statusBar = new JPanel(new BorderLayout());
         statusBar.setBorder(BorderFactory.createEmptyBorder(6, 6, 6, 6));
         statusBar.add(statusLabel, BorderLayout.WEST);
+        loadingBar.setIndeterminate(true);
+        loadingBar.setPreferredSize(new Dimension(120, 12));
+        loadingBar.setVisible(false);
+        statusBar.add(loadingBar, BorderLayout.EAST);
         getContentPane().add(statusBar, BorderLayout.SOUTH);
 
         // When window closes, update UI or perform cleanup if needed
@@ -105,6 +133,14 @@ public class BaseMainFrame extends JFrame {
         centerContainer.repaint();
     }
 
+    /**
+     * A load slot for one kind of data shown by this frame (e.g. the students of the selected section).
+     * Submitting again supersedes the previous load, so only the latest result is applied.
+     */
+    protected AsyncLoader.Slot newLoadSlot() {
+        return loader.newSlot();
+    }
+
     /**
      * Update text shown in the status bar.
      */
@@ -180,6 +216,7 @@ public class BaseMainFrame extends JFrame {
     private void doLogout() {
         int ok = JOptionPane.showConfirmDialog(this, "Logout and return to login screen?", "Logout", JOptionPane.YES_NO_OPTION);
         if (ok != JOptionPane.YES_OPTION) return;
+        Services.logout();
         dispose();
         // show login frame
         SwingUtilities.invokeLater(() -> {
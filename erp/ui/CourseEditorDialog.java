@@ -2,6 +2,7 @@ package edu.univ.erp.ui;
 
 import edu.univ.erp.domain.Course;
 import edu.univ.erp.service.ErpService;
+import edu.univ.erp.remote.Services;
 import net.miginfocom.swing.MigLayout;
 
 import javax.swing.*;
@@ -11,7 +12,7 @@ import java.awt.*;
  * Dialog to add or edit a course (code, title, credits)
  */
 public class CourseEditorDialog extends JDialog {
-    private final ErpService erp = new ErpService();
+    private final ErpService erp = Services.erp();
     private final JTextField codeField = new JTextField(12);
     private final JTextField titleField = new JTextField(24);
     private final JSpinner creditsSpinner = new JSpinner(new SpinnerNumberModel(3, 0, 10, 1));
@@ -2,10 +2,9 @@ package edu.univ.erp.ui;
 
 import edu.univ.erp.domain.GradingComponent;
 import edu.univ.erp.domain.Section;
-import edu.univ.erp.service.InstructorService;
 import edu.univ.erp.service.ErpService;
-import edu.univ.erp.service.InstructorService.SectionGradeRow;
-import edu.univ.erp.data.ComponentMarksDao;
+import edu.univ.erp.service.GradeService;
+import edu.univ.erp.util.GradeScale;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -20,8 +19,9 @@ import java.io.FileWriter;
 import java.io.PrintWriter;
 import java.util.*;
 import java.util.List;
-import edu.univ.erp.data.ComponentMarksDao;
 import edu.univ.erp.domain.Grade;
+import edu.univ.erp.domain.SectionGradeWeight;
+import edu.univ.erp.remote.Services;
 import java.math.BigDecimal;
 
 
@@ -31,13 +31,31 @@ import java.math.BigDecimal;
 public class GradesFrame extends JFrame {
     private final int instructorId;
     private Integer selectedSectionId = null;
-    private final InstructorService service = new InstructorService();
-    private final ErpService erpService = new ErpService();
+    private final ErpService erpService = Services.erp();
+    private final GradeService gradeService = Services.grades();
 
     private JTable table;
     private JComboBox<Section> sectionDropdown;
     // dynamic components list
     private List<GradingComponent> components = new ArrayList<>();
+    private SectionGradebook gradebook;
+
+    // gradebook loads run off the EDT; switching sections drops the result of the previous load
+    private final AsyncLoader loader = new AsyncLoader(new AsyncLoader.Listener() {
+        @Override
+        public void loadingChanged(int inFlight, String label) {
+            setCursor(Cursor.getPredefinedCursor(inFlight > 0 ? Cursor.WAIT_CURSOR : Cursor.DEFAULT_CURSOR));
+        }
+
+        @Override
+        public void loadFailed(String label, Throwable error) {
+            // show a clear message and log the stack — this prevents silent failures
+            JOptionPane.showMessageDialog(GradesFrame.this, "Failed to " + label + ": " + error.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            error.printStackTrace();
+        }
+    });
+    private final AsyncLoader.Slot gradebookLoad = loader.newSlot();
+    private final AsyncLoader.Slot importJob = loader.newSlot();
 
     // colors (blue theme)
     private final Color BLUE = new Color(10, 90, 200);
@@ -170,15 +188,7 @@ public class GradesFrame extends JFrame {
             JFileChooser fc = new JFileChooser();
             int rc = fc.showOpenDialog(this);
             if (rc != JFileChooser.APPROVE_OPTION) return;
-            java.io.File f = fc.getSelectedFile();
-            try {
-                importComponentMarksCsv(f, selectedSectionId);
-                JOptionPane.showMessageDialog(this, "Import completed successfully.");
-                loadTable(); // refresh view to show updated marks / computed finals
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this, "Import failed: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-                ex.printStackTrace();
-            }
+            importComponentMarksCsv(fc.getSelectedFile(), selectedSectionId);
         });
 
         loadSections();
@@ -253,188 +263,62 @@ public class GradesFrame extends JFrame {
 
     /** Build table model with dynamic component columns (EnrollmentID, StudentID, <components...>, Final CGPA, Final Grade) */
     private void loadComponentsListAndBuildTableModel() {
-        components = service.listAllComponents();
-        // build column names
-        List<String> cols = new ArrayList<>();
-        cols.add("EnrollmentID");
-        cols.add("StudentID");
-        for (GradingComponent c : components) cols.add(c.getName());
-        cols.add("Final CGPA");
-        cols.add("Final Grade");
-
-        DefaultTableModel model = new DefaultTableModel(cols.toArray(), 0) {
-            @Override public boolean isCellEditable(int row, int col) {
-                // allow editing for component columns (indexes 2 .. 2+components.size()-1)
-                return (col >= 2 && col < 2 + components.size());
-            }
-
-            @Override public Class<?> getColumnClass(int columnIndex) {
-                if (columnIndex == 0 || columnIndex == 1) return Integer.class;
-                return Object.class;
-            }
-        };
-
-        table.setModel(model);
+        components = gradeService.listComponents();
+        gradebook = new SectionGradebook(components, gradeService);
+        table.setModel(gradebook);
         styleTable(table);
     }
 
     private String numericPercentToLetter(double percent) {
-        if (percent >= 90.0) return "A";
-        if (percent >= 80.0) return "B";
-        if (percent >= 70.0) return "C";
-        if (percent >= 60.0) return "D";
-        return "F";
+        return GradeScale.letterForPercent(percent);
     }
 
     private void loadTable() {
-        DefaultTableModel m = (DefaultTableModel) table.getModel();
-        m.setRowCount(0);
         if (selectedSectionId == null) return;
 
-        try {
-            // ensure components list is current (optional)
-            // components = service.listAllComponents(); // uncomment if components may change
-
-            // Get weights and marks dao once
-            Map<Integer, Integer> weights = service.getSectionWeightsMap(selectedSectionId);
-            ComponentMarksDao marksDao = new ComponentMarksDao();
-
-            // Use the service to build rows (enrollmentId + studentId + component map)
-            List<SectionGradeRow> rows = service.sectionGrades(selectedSectionId);
-
-            for (SectionGradeRow r : rows) {
-                try {
-                    // Build object row with the same order as the model: EnrollmentID, StudentID, <components...>, Final CGPA, Final Grade
-                    Object[] row = new Object[2 + components.size() + 2];
-                    row[0] = r.enrollmentId;
-                    row[1] = r.studentId;
-
-                    // Fill component cells: use marks from r.componentMarks if present, otherwise query marksDao
-                    int idx = 2;
-                    for (GradingComponent comp : components) {
-                        Double v = null;
-                        if (r.componentMarks != null && r.componentMarks.containsKey(comp.getComponentId())) {
-                            v = r.componentMarks.get(comp.getComponentId());
-                        } else {
-                            // fallback: ask dao
-                            try {
-                                BigDecimal bd = marksDao.findByEnrollmentAsMap(r.enrollmentId).get(comp.getComponentId());
-                                if (bd != null) v = bd.doubleValue();
-                            } catch (Exception ignore) {}
-                        }
-                        row[idx++] = (v == null ? "" : v);
-                    }
-
-                    // Compute numeric percent (0..100) using marksDao + weights
-                    Double numericPercent = null;
-                    try {
-                        numericPercent = computeNumericPercentForEnrollment(r.enrollmentId, weights, marksDao);
-                    } catch (Exception ex) {
-                        // continue with null numericPercent
-                        ex.printStackTrace();
-                    }
-
-                    // final CGPA display (convert percent -> 0..10 scale and round)
-                    if (numericPercent == null) {
-                        row[idx++] = ""; // Final CGPA empty
-                    } else {
-                        double cgpa = numericPercent / 10.0;
-                        // round to 2 decimals
-                        double cgpaRounded = Math.round(cgpa * 100.0) / 100.0;
-                        row[idx++] = cgpaRounded;
-                    }
-
-                    // final grade: prefer DB value if present else compute locally
-                    String gradeStr = "";
-                    try {
-                        java.util.Optional<edu.univ.erp.domain.Grade> g = erpService.getGradeForEnrollment(r.enrollmentId);
-                        if (g.isPresent() && g.get().getGrade() != null && !g.get().getGrade().trim().isEmpty()) {
-                            gradeStr = g.get().getGrade();
-                        } else if (numericPercent != null) {
-                            gradeStr = numericPercentToLetter(numericPercent);
-                        } else {
-                            gradeStr = "";
-                        }
-                    } catch (Exception ex) {
-                        // fallback compute
-                        if (numericPercent != null) gradeStr = numericPercentToLetter(numericPercent);
-                    }
-                    row[idx] = gradeStr;
-
-                    m.addRow(row);
-
-                } catch (Exception rowEx) {
-                    // Don't abort whole loading on one bad row — log and continue
-                    rowEx.printStackTrace();
-                }
-            }
-
+        int sectionId = selectedSectionId;
+        SectionGradebook target = gradebook;
+        gradebookLoad.submit("load table", () -> {
+            // one query for roster + marks + grades; weights only drive the Final CGPA / Grade columns
+            Map<Integer, Integer> weights = sectionWeights(sectionId);
+            return target.fetch(sectionId, weights);
+        }, loaded -> {
+            if (target != gradebook) return; // components were reloaded meanwhile
+            // commit an open cell edit first; apply() carries unsaved edits over to the new rows
+            if (table.isEditing()) table.getCellEditor().stopCellEditing();
+            gradebook.apply(loaded);
             // ensure table styling/renderers are applied
             styleTable(table);
-
-        } catch (Exception ex) {
-            // show a clear message and log the stack — this prevents silent failures
-            JOptionPane.showMessageDialog(this, "Failed to load table: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            ex.printStackTrace();
-        }
+        });
     }
 
-// ------------------------- helper computeNumericPercentForEnrollment -------------------------
-    /**
-     * Compute numeric percent (0..100) for enrollment using weights and marks DAO.
-     * Uses auto-scaling heuristic (0..10 -> *10, 0..1 -> *100).
-     */
-    private Double computeNumericPercentForEnrollment(int enrollmentId, Map<Integer, Integer> weights, ComponentMarksDao marksDao) {
+    private void saveComponentScores() {
         try {
-            if (weights == null || weights.isEmpty()) {
-                return null;
-            }
-            Map<Integer, BigDecimal> marksMap = marksDao.findByEnrollmentAsMap(enrollmentId);
-            if (marksMap == null) marksMap = new HashMap<>();
-
-            BigDecimal total = BigDecimal.ZERO;
-            for (Map.Entry<Integer, Integer> we : weights.entrySet()) {
-                Integer compId = we.getKey();
-                int wt = (we.getValue() == null) ? 0 : we.getValue();
-                BigDecimal mark = marksMap.getOrDefault(compId, BigDecimal.ZERO);
-                total = total.add(mark.multiply(BigDecimal.valueOf(wt)).divide(BigDecimal.valueOf(100)));
-            }
-
-            double numeric = total.doubleValue();
-
-            // Auto-scale: if result looks like 0..10 treat as 0..10 scale -> *10, if <=1 treat as fraction -> *100
-            if (numeric <= 1.0) numeric = numeric * 100.0;
-            else if (numeric <= 10.0) numeric = numeric * 10.0;
-
-            if (numeric < 0) numeric = 0;
-            if (numeric > 100) numeric = 100;
-
-            return numeric;
+            if (table.isEditing()) table.getCellEditor().stopCellEditing();
+            // only the cells edited since the last load/save, in one batched transaction
+            List<edu.univ.erp.domain.ComponentMark> batch = gradebook.dirtyMarks();
+            if (batch.isEmpty()) { JOptionPane.showMessageDialog(this, "No changes to save."); return; }
+            gradeService.saveMarks(batch);
+            gradebook.clearDirty();
+            JOptionPane.showMessageDialog(this, "Saved " + batch.size() + " component marks.");
         } catch (Exception ex) {
+            JOptionPane.showMessageDialog(this, "Save failed: " + ex.getMessage());
             ex.printStackTrace();
-            return null;
         }
     }
 
+    /** Saved weights of the section as componentId -> whole percent. */
+    private Map<Integer, Integer> sectionWeights(int sectionId) {
+        Map<Integer, Integer> out = new LinkedHashMap<>();
+        for (SectionGradeWeight w : gradeService.getWeightsForSection(sectionId)) {
+            if (w.getWeight() != null) out.put(w.getComponentId(), w.getWeight().intValue());
+        }
+        return out;
+    }
 
-    private void saveComponentScores() {
-        try {
-            DefaultTableModel m = (DefaultTableModel) table.getModel();
-            // for each row, collect component values into map and call service.saveComponentScoresGeneric
-            for (int r = 0; r < m.getRowCount(); r++) {
-                int enrollId = Integer.parseInt(m.getValueAt(r, 0).toString());
-                Map<Integer, Double> compMap = new LinkedHashMap<>();
-                for (int c = 0; c < components.size(); c++) {
-                    Object val = m.getValueAt(r, 2 + c);
-                    Double d = parse(val);
-                    compMap.put(components.get(c).getComponentId(), d);
-                }
-                service.saveComponentScoresGeneric(enrollId, compMap);
-            }
-            JOptionPane.showMessageDialog(this, "Saved component marks.");
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Save failed: " + ex.getMessage());
-            ex.printStackTrace();
+    private void saveSectionWeights(int sectionId, Map<Integer, Integer> weights) {
+        for (Map.Entry<Integer, Integer> e : weights.entrySet()) {
+            gradeService.saveWeight(sectionId, e.getKey(), BigDecimal.valueOf(e.getValue() == null ? 0 : e.getValue()));
         }
     }
 
@@ -450,14 +334,14 @@ public class GradesFrame extends JFrame {
             JOptionPane.showMessageDialog(this, "Select a section first.");
             return;
         }
-        Map<Integer, Integer> existing = service.getSectionWeightsMap(selectedSectionId);
+        Map<Integer, Integer> existing = sectionWeights(selectedSectionId);
         WeightsDialog dlg = new WeightsDialog(this, components, existing);
         dlg.setVisible(true);
         if (!dlg.saved) return;
         Map<Integer, Integer> weights = dlg.getWeightsMap();
         try {
-            service.saveSectionWeightsMap(selectedSectionId, weights); // persist
-            service.computeAndSaveFinalForSectionGeneric(selectedSectionId, weights);
+            saveSectionWeights(selectedSectionId, weights); // persist
+            gradeService.publishFinalGrades(selectedSectionId);
             JOptionPane.showMessageDialog(this, "Finals computed.");
             loadTable();
         } catch (Exception ex) {
@@ -472,25 +356,17 @@ public class GradesFrame extends JFrame {
             JOptionPane.showMessageDialog(this, "Select a section first.");
             return;
         }
-        Map<Integer, Integer> existing = service.getSectionWeightsMap(selectedSectionId);
+        Map<Integer, Integer> existing = sectionWeights(selectedSectionId);
         WeightsDialog dlg = new WeightsDialog(this, components, existing);
         dlg.setVisible(true);
         if (dlg.saved) {
-            service.saveSectionWeightsMap(selectedSectionId, dlg.getWeightsMap());
+            saveSectionWeights(selectedSectionId, dlg.getWeightsMap());
             JOptionPane.showMessageDialog(this, "Weights saved.");
         }
     }
 
     private String computeLetter(double cg) {
-        if (cg >= 9.5) return "A+";
-        if (cg >= 9) return "A";
-        if (cg >= 8) return "B";
-        if (cg >= 7) return "B-";
-        if (cg >= 6) return "C";
-        if (cg >= 5) return "C-";
-        if (cg >= 4) return "D+";
-        if (cg >= 3) return "D";
-        return "F";
+        return GradeScale.letterForCgpa(cg);
     }
 
     private void exportCsvFromTable(ActionEvent e) {
@@ -589,8 +465,7 @@ public class GradesFrame extends JFrame {
      */
     private void exportComponentMarksCsv(java.io.File outFile, int sectionId) throws Exception {
         // load all grading components (master list)
-        edu.univ.erp.data.GradingComponentDao compDao = new edu.univ.erp.data.GradingComponentDao();
-        java.util.List<edu.univ.erp.domain.GradingComponent> components = compDao.listAll();
+        java.util.List<edu.univ.erp.domain.GradingComponent> components = gradeService.listComponents();
 
         // header
         try (java.io.PrintWriter pw = new java.io.PrintWriter(new java.io.FileWriter(outFile))) {
@@ -602,25 +477,26 @@ public class GradesFrame extends JFrame {
             }
             pw.println(hdr.toString());
 
-            // For each enrollment in section, fetch component marks
-            edu.univ.erp.service.InstructorService svc = new edu.univ.erp.service.InstructorService();
-            java.util.List<edu.univ.erp.service.InstructorService.SectionGradeRow> rows = svc.sectionGrades(sectionId);
-            // sectionGrades should return one row per enrollment with enrollmentId + studentId + component fields (if present).
-            // If your SectionGradeRow doesn't include dynamic components, we'll fall back to using ComponentMarksDao.
-
-            // Fallback approach: use ComponentMarksDao to get marks map per enrollment
-            edu.univ.erp.data.ComponentMarksDao marksDao = new edu.univ.erp.data.ComponentMarksDao();
-            for (edu.univ.erp.service.InstructorService.SectionGradeRow r : rows) {
-                int enrollId = r.enrollmentId;
-                int studentId = r.studentId;
+            // roster and marks in one call: one row per (enrollment, component mark), grouped per enrollment
+            java.util.Map<Integer, Integer> studentOf = new java.util.LinkedHashMap<>();
+            java.util.Map<Integer, java.util.Map<Integer, java.math.BigDecimal>> marksOf = new java.util.HashMap<>();
+            gradeService.forEachGradebookRow(sectionId, (enrollmentId, studentId, componentId, marks, grade) -> {
+                studentOf.putIfAbsent(enrollmentId, studentId);
+                java.util.Map<Integer, java.math.BigDecimal> m = marksOf.computeIfAbsent(enrollmentId, k -> new java.util.HashMap<>());
+                if (componentId != 0 && !Double.isNaN(marks)) m.put(componentId, java.math.BigDecimal.valueOf(marks));
+            });
+
+            for (java.util.Map.Entry<Integer, Integer> r : studentOf.entrySet()) {
+                int enrollId = r.getKey();
+                int studentId = r.getValue();
                 // attempt roll no via ErpService
                 String roll = "";
                 try {
-                    java.util.Optional<edu.univ.erp.domain.Student> st = new edu.univ.erp.service.ErpService().getStudentByUserId(studentId);
+                    java.util.Optional<edu.univ.erp.domain.Student> st = erpService.getStudentByUserId(studentId);
                     if (st.isPresent()) roll = st.get().getRollNo();
                 } catch (Exception ignore) {}
 
-                java.util.Map<Integer, java.math.BigDecimal> marksMap = marksDao.findByEnrollmentAsMap(enrollId);
+                java.util.Map<Integer, java.math.BigDecimal> marksMap = marksOf.get(enrollId);
                 StringBuilder row = new StringBuilder();
                 row.append(enrollId).append(",").append(studentId).append(",").append(escapeCsv(roll));
                 for (edu.univ.erp.domain.GradingComponent c : components) {
@@ -634,100 +510,48 @@ public class GradesFrame extends JFrame {
     }
 
     /**
-     * Import component-level marks CSV.
-     * Requirement: first column EnrollmentID (numeric). Columns after first three map to component names.
-     * Any non-numeric mark will be ignored for that cell.
+     * Import component-level marks CSV in the background (see MarksImportService) with a progress
+     * monitor; shows a summary afterwards and offers to save the rejected rows.
+     * Cancelling rolls the import back.
      */
-    private void importComponentMarksCsv(java.io.File csvFile, int sectionId) throws Exception {
-        // load components and map name->id
-        edu.univ.erp.data.GradingComponentDao compDao = new edu.univ.erp.data.GradingComponentDao();
-        java.util.List<edu.univ.erp.domain.GradingComponent> comps = compDao.listAll();
-        java.util.Map<String, Integer> compNameToId = new java.util.HashMap<>();
-        for (edu.univ.erp.domain.GradingComponent c : comps) compNameToId.put(c.getName().trim().toLowerCase(), c.getComponentId());
-
-        edu.univ.erp.data.ComponentMarksDao marksDao = new edu.univ.erp.data.ComponentMarksDao();
-
-        try (java.io.BufferedReader br = new java.io.BufferedReader(new java.io.FileReader(csvFile))) {
-            String header = br.readLine();
-            if (header == null) throw new RuntimeException("CSV is empty");
-            String[] cols = splitCsvLine(header);
-
-            // Identify component columns and their component_id
-            // We expect first three columns to be EnrollmentID, StudentID, RollNo (StudentID/RollNo optional)
-            int colCount = cols.length;
-            java.util.List<Integer> compColumnToId = new java.util.ArrayList<>();
-            for (int i = 0; i < colCount; i++) {
-                if (i <= 2) { compColumnToId.add(null); continue; } // placeholders
-                String cname = cols[i].trim().toLowerCase();
-                Integer cid = compNameToId.get(cname);
-                compColumnToId.add(cid); // will be null if component name not found
-            }
-
-            String line;
-            int lineNo = 1;
-            java.util.List<String> errors = new java.util.ArrayList<>();
-            while ((line = br.readLine()) != null) {
-                lineNo++;
-                if (line.trim().isEmpty()) continue;
-                String[] values = splitCsvLine(line);
-                if (values.length == 0) continue;
-                // parse enrollment id
-                String enrollStr = values[0].trim();
-                int enrollmentId;
-                try {
-                    enrollmentId = Integer.parseInt(enrollStr);
-                } catch (NumberFormatException nfe) {
-                    errors.add("Line " + lineNo + ": invalid EnrollmentID '" + enrollStr + "'");
-                    continue;
-                }
-
-                // optional: verify this enrollment belongs to the sectionId
-                try {
-                    boolean belongs = false;
-                    java.util.List<edu.univ.erp.domain.Enrollment> enrollments = new edu.univ.erp.service.ErpService().getEnrollmentsForSection(sectionId);
-                    for (edu.univ.erp.domain.Enrollment e : enrollments) {
-                        if (e.getEnrollmentId() == enrollmentId) { belongs = true; break; }
-                    }
-                    if (!belongs) {
-                        errors.add("Line " + lineNo + ": Enrollment " + enrollmentId + " does not belong to section " + sectionId);
-                        continue;
-                    }
-                } catch (Exception ex) {
-                    // if ErpService check fails, skip the check (still attempt import)
-                }
-
-                // iterate component columns
-                for (int ci = 3; ci < compColumnToId.size() && ci < values.length; ci++) {
-                    Integer compId = compColumnToId.get(ci);
-                    if (compId == null) continue; // unknown component name — skip
-                    String val = values[ci].trim();
-                    if (val.isEmpty()) continue; // skip blank
-                    try {
-                        java.math.BigDecimal marks = new java.math.BigDecimal(val);
-                        // upsert marks
-                        marksDao.upsert(enrollmentId, compId, marks);
-                    } catch (NumberFormatException nfe) {
-                        errors.add("Line " + lineNo + ", col " + (ci+1) + ": invalid numeric '" + val + "'");
+    private void importComponentMarksCsv(java.io.File csvFile, int sectionId) {
+        ProgressMonitor monitor = new ProgressMonitor(this, "Importing " + csvFile.getName(), "Reading...", 0, 1000);
+        monitor.setMillisToDecideToPopup(200);
+        edu.univ.erp.service.MarksImportService importer = Services.marksImport();
+        importJob.submit("import marks", () -> {
+            try {
+                return importer.importFile(csvFile, sectionId, (stage, done, total) -> SwingUtilities.invokeLater(() -> {
+                    if (monitor.isCanceled()) {
+                        importJob.cancel();
+                        return;
                     }
-                }
+                    boolean reading = stage == edu.univ.erp.service.MarksImportService.Stage.READING;
+                    monitor.setNote(reading ? "Reading..." : "Saving " + done + "/" + total + " marks...");
+                    // first half of the bar is reading, second half writing
+                    int pct = total > 0 ? (int) (500L * Math.min(done, total) / total) : 0;
+                    monitor.setProgress(reading ? pct : 500 + pct);
+                }));
+            } finally {
+                SwingUtilities.invokeLater(monitor::close);
             }
-
-            if (!errors.isEmpty()) {
-                // show aggregated errors to the user in a dialog
-                StringBuilder sb = new StringBuilder();
-                sb.append("Import completed with warnings/errors:\n");
-                for (String err : errors) {
-                    sb.append(err).append("\n");
-                }
-                JOptionPane.showMessageDialog(this, sb.toString(), "Import Warnings", JOptionPane.WARNING_MESSAGE);
+        }, result -> {
+            loadTable(); // refresh view to show updated marks / computed finals
+            if (result.getRejections().isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Import completed.\n" + result.summary());
+                return;
             }
-        }
-    }
-
-    /** small CSV helpers (simple, handles commas, no quotes heavy parsing) */
-    private String[] splitCsvLine(String line) {
-        // naive splitting that preserves empty columns
-        return line.split(",", -1);
+            int rc = JOptionPane.showConfirmDialog(this, "Import completed with rejected rows.\n" + result.summary()
+                    + "\nSave the rejected rows report?", "Import Warnings", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+            if (rc != JOptionPane.YES_OPTION) return;
+            JFileChooser fc = new JFileChooser();
+            fc.setSelectedFile(new java.io.File(csvFile.getName().replaceFirst("\\.csv$", "") + "_rejected.csv"));
+            if (fc.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+            try (java.io.OutputStream os = new java.io.FileOutputStream(fc.getSelectedFile())) {
+                result.writeRejectedReport(os);
+            } catch (java.io.IOException ex) {
+                JOptionPane.showMessageDialog(this, "Failed to save report: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }
 
     private String escapeCsv(String s) {
@@ -743,7 +567,7 @@ public class GradesFrame extends JFrame {
      */
     /**
      * Compute finals for the currently selected section.
-     * Uses saved section weights (service.getSectionWeightsMap). If no weights are found,
+     * Uses saved section weights (sectionWeights). If no weights are found,
      * prompts the user to open the weights dialog (openWeightsAndCompute()).
      */
     private void computeFinals() {
@@ -754,7 +578,7 @@ public class GradesFrame extends JFrame {
 
         try {
             // 1) load current weights for the section (componentId -> percent)
-            Map<Integer, Integer> weights = service.getSectionWeightsMap(selectedSectionId);
+            Map<Integer, Integer> weights = sectionWeights(selectedSectionId);
 
             // 2) if no weights found, prompt user to set them (open weights dialog)
             if (weights == null || weights.isEmpty()) {
@@ -768,7 +592,7 @@ public class GradesFrame extends JFrame {
                 }
                 // save weights from dialog
                 weights = dlg.getWeightsMap();
-                service.saveSectionWeightsMap(selectedSectionId, weights);
+                saveSectionWeights(selectedSectionId, weights);
             }
 
             // 3) validate sum of weights (service expects sum==100)
@@ -784,8 +608,8 @@ public class GradesFrame extends JFrame {
                 // If the service enforces sum==100 and throws, you may want to normalize or prevent calling it.
             }
 
-            // 4) call the existing InstructorService compute method you have:
-            service.computeAndSaveFinalForSectionGeneric(selectedSectionId, weights);
+            // 4) compute all finals for the section and write the letter grades in one batch
+            gradeService.publishFinalGrades(selectedSectionId);
 
             // 5) reload UI from DB (sectionGrades returns component marks; gradeDao stores letter grade)
             loadTable();
@@ -1,10 +1,12 @@
 package edu.univ.erp.ui;
 
+import edu.univ.erp.domain.ComponentMark;
 import edu.univ.erp.domain.Enrollment;
 import edu.univ.erp.domain.GradingComponent;
 import edu.univ.erp.domain.SectionGradeWeight;
 import edu.univ.erp.service.ErpService;
 import edu.univ.erp.service.GradeService;
+import edu.univ.erp.remote.Services;
 import net.miginfocom.swing.MigLayout;
 
 import javax.swing.*;
@@ -20,8 +22,8 @@ import java.util.Vector;
  * Updated to avoid calling Enrollment.getStudent() (not present in user's Enrollment class).
  */
 public class InstructorGradeEditorDialog extends JDialog {
-    private final GradeService gradeService = new GradeService();
-    private final ErpService erpService = new ErpService(); // to fetch enrollments
+    private final GradeService gradeService = Services.grades();
+    private final ErpService erpService = Services.erp(); // to fetch enrollments
     private final int sectionId;
     private final String sectionLabel; // display
 
@@ -102,6 +104,7 @@ public class InstructorGradeEditorDialog extends JDialog {
         saveMarksBtn.addActionListener(e -> {
             try {
                 // marksModel columns: EnrollmentId, Student (label), compId...
+                List<ComponentMark> batch = new java.util.ArrayList<>();
                 for (int r=0;r<marksModel.getRowCount();r++) {
                     Integer enrollId = (Integer) marksModel.getValueAt(r,0);
                     for (int c=2;c<marksModel.getColumnCount();c++) {
@@ -110,9 +113,10 @@ public class InstructorGradeEditorDialog extends JDialog {
                         Object val = marksModel.getValueAt(r,c);
                         BigDecimal mark = null;
                         if (val != null && !val.toString().trim().isEmpty()) mark = new BigDecimal(val.toString());
-                        gradeService.saveMark(enrollId, compId, mark);
+                        batch.add(new ComponentMark(0, enrollId, compId, mark));
                     }
                 }
+                gradeService.saveMarks(batch); // one batched transaction instead of one statement per cell
                 JOptionPane.showMessageDialog(this, "Marks saved", "Saved", JOptionPane.INFORMATION_MESSAGE);
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(this, "Failed to save marks: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
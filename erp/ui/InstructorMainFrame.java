@@ -1,7 +1,6 @@
 package edu.univ.erp.ui;
 
-import edu.univ.erp.auth.AuthService;
-import edu.univ.erp.data.GradeDao;
+import edu.univ.erp.auth.Session;
 import edu.univ.erp.domain.Enrollment;
 import edu.univ.erp.domain.Grade;
 import edu.univ.erp.domain.Section;
@@ -11,6 +10,7 @@ import edu.univ.erp.service.MaintenanceModeException;
 import edu.univ.erp.service.MaintenanceService;
 import edu.univ.erp.ui.UIUtil;
 import edu.univ.erp.service.ErpService;
+import edu.univ.erp.remote.Services;
 
 
 import javax.swing.*;
@@ -30,9 +30,7 @@ import java.util.Optional;
  */
 public class InstructorMainFrame extends BaseMainFrame {
 
-    private final ErpService erpService = new ErpService();
-    private final AuthService authService = new AuthService();
-    private final GradeDao gradeDao = new GradeDao();
+    private final ErpService erpService = Services.erp();
 
     // Section list model
     private final DefaultListModel<Section> sectionListModel = new DefaultListModel<>();
@@ -76,11 +74,13 @@ public class InstructorMainFrame extends BaseMainFrame {
     private JButton enterGradeBtn;
     private JButton refreshBtn;
 
-    public InstructorMainFrame(String username) {
-        super(username, "INSTRUCTOR");
+    private final AsyncLoader.Slot sectionsLoad = newLoadSlot();
+    private final AsyncLoader.Slot studentsLoad = newLoadSlot();
+
+    public InstructorMainFrame(Session session) {
+        super(session);
         initUI();
-        loadSectionsForUser(username);
-        getContentPane().add(getStatusBar(), BorderLayout.SOUTH);
+        loadSections();
         applyMaintenanceStateSafe();
     }
 
@@ -200,7 +200,7 @@ public class InstructorMainFrame extends BaseMainFrame {
                     Integer enrollmentId = (Integer) studentsTableModel.getValueAt(row, 0);
                     String newGradeRaw = String.valueOf(studentsTableModel.getValueAt(row, col));
                     String newGrade = "N/A".equals(newGradeRaw) ? "" : newGradeRaw;
-                    Optional<Grade> existing = gradeDao.findByEnrollmentId(enrollmentId);
+                    Optional<Grade> existing = erpService.getGradeForEnrollment(enrollmentId);
                     String oldGrade = existing.map(Grade::getGrade).orElse("");
 
                     boolean changed = erpService.upsertGradeForEnrollment(enrollmentId, newGrade, InstructorMainFrame.this.role);
@@ -232,9 +232,9 @@ public class InstructorMainFrame extends BaseMainFrame {
             GradeChange last = undoStack.pop();
             try {
                 if (last.oldGrade == null || last.oldGrade.isEmpty()) {
-                    gradeDao.deleteByEnrollmentId(last.enrollmentId);
+                    erpService.clearGradeForEnrollment(last.enrollmentId);
                 } else {
-                    gradeDao.upsertByEnrollmentId(last.enrollmentId, last.oldGrade);
+                    erpService.setGradeForEnrollment(last.enrollmentId, last.oldGrade);
                 }
                 for (int r = 0; r < studentsTableModel.getRowCount(); r++) {
                     Integer eid = (Integer) studentsTableModel.getValueAt(r, 0);
@@ -256,9 +256,7 @@ public class InstructorMainFrame extends BaseMainFrame {
         // ⭐⭐⭐ ENTER COMPONENT MARKS BUTTON — corrected version ⭐⭐⭐
         JButton openCompEditor = UIUtil.createRoundedButton("Enter Component Marks");
         openCompEditor.addActionListener(evt -> {
-            Integer uid = authService.getUserIdByUsername(this.username);
-            int instrId = uid == null ? -1 : uid;
-            GradesFrame gf = new GradesFrame(instrId);
+            GradesFrame gf = new GradesFrame(session.getUserId());
             gf.setVisible(true);
         });
         btnRow.add(openCompEditor);
@@ -278,16 +276,13 @@ public class InstructorMainFrame extends BaseMainFrame {
         getContentPane().add(c, BorderLayout.CENTER);
     }
 
-    private void loadSectionsForUser(String username) {
-        Integer userId = authService.getUserIdByUsername(username);
-        if (userId == null) {
-            JOptionPane.showMessageDialog(this, "Unable to determine instructor id for " + username, "Error", JOptionPane.ERROR_MESSAGE);
-            return;
-        }
-        List<Section> sections = erpService.getSectionsForInstructor(userId);
-        sectionListModel.clear();
-        for (Section s : sections) sectionListModel.addElement(s);
-        if (!sections.isEmpty()) sectionList.setSelectedIndex(0);
+    private void loadSections() {
+        int instructorId = session.getUserId();
+        sectionsLoad.submit("sections", () -> erpService.getSectionsForInstructor(instructorId), sections -> {
+            sectionListModel.clear();
+            for (Section s : sections) sectionListModel.addElement(s);
+            if (!sections.isEmpty()) sectionList.setSelectedIndex(0);
+        });
     }
 
     /** Return section_id of currently selected section or -1 if none. */
@@ -298,17 +293,24 @@ public class InstructorMainFrame extends BaseMainFrame {
 
 
     private void loadStudentsForSection(int sectionId) {
-        studentsTableModel.setRowCount(0);
-        List<Enrollment> enrollments = erpService.getEnrollmentsForSection(sectionId);
-        for (Enrollment en : enrollments) {
-            int enrollmentId = en.getEnrollmentId();
-            Optional<Student> st = erpService.getStudentByUserId(en.getStudentId());
-            String roll = st.map(Student::getRollNo).orElse("N/A");
-            String prog = st.map(Student::getProgram).orElse("N/A");
-            String date = en.getEnrollmentDate() == null ? "N/A" : en.getEnrollmentDate().toString();
-            String grade = erpService.getGradeForEnrollment(enrollmentId).map(Grade::getGrade).orElse("N/A");
-            studentsTableModel.addRow(new Object[]{enrollmentId, en.getStudentId(), roll, prog, date, grade});
-        }
+        // a newer section selection supersedes this load, so rows of a previous section never show up
+        studentsLoad.submit("students", () -> {
+            List<Object[]> rows = new ArrayList<>();
+            for (Enrollment en : erpService.getEnrollmentsForSection(sectionId)) {
+                int enrollmentId = en.getEnrollmentId();
+                Optional<Student> st = erpService.getStudentByUserId(en.getStudentId());
+                String roll = st.map(Student::getRollNo).orElse("N/A");
+                String prog = st.map(Student::getProgram).orElse("N/A");
+                String date = en.getEnrollmentDate() == null ? "N/A" : en.getEnrollmentDate().toString();
+                String grade = erpService.getGradeForEnrollment(enrollmentId).map(Grade::getGrade).orElse("N/A");
+                rows.add(new Object[]{enrollmentId, en.getStudentId(), roll, prog, date, grade});
+            }
+            return rows;
+        }, rows -> {
+            if (studentsTable.isEditing()) studentsTable.getCellEditor().cancelCellEditing();
+            studentsTableModel.setRowCount(0);
+            for (Object[] row : rows) studentsTableModel.addRow(row);
+        });
     }
 
     protected void applyMaintenanceState(boolean maintenanceOn, boolean writableForThisUser) {
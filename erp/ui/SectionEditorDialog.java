@@ -3,6 +3,7 @@ package edu.univ.erp.ui;
 import edu.univ.erp.domain.Section;
 import edu.univ.erp.domain.User;
 import edu.univ.erp.service.ErpService;
+import edu.univ.erp.remote.Services;
 import net.miginfocom.swing.MigLayout;
 
 import javax.swing.*;
@@ -11,11 +12,13 @@ import java.util.List;
 
 public class SectionEditorDialog extends JDialog {
 
-    private final ErpService erp = new ErpService();
+    private final ErpService erp = Services.erp();
     private final JComboBox<User> instructorCombo;
     private final JTextField semesterField = new JTextField(10);
     private final JSpinner yearSpinner =
             new JSpinner(new SpinnerNumberModel(2023, 2000, 2100, 1));
+    private final JSpinner capacitySpinner =
+            new JSpinner(new SpinnerNumberModel(0, 0, 10000, 1));
 
     private boolean saved = false;
     private final Section existing;
@@ -43,9 +46,14 @@ public class SectionEditorDialog extends JDialog {
         add(new JLabel("Year:"));
         add(yearSpinner, "growx");
 
+        add(new JLabel("Capacity:"));
+        capacitySpinner.setToolTipText("Number of seats; 0 = unlimited");
+        add(capacitySpinner, "growx");
+
         if (existing != null) {
             semesterField.setText(existing.getSemester());
             yearSpinner.setValue(existing.getYear());
+            capacitySpinner.setValue(existing.getCapacity());
 
             // pre-select instructor
             for (int i = 0; i < instructorCombo.getItemCount(); i++) {
@@ -75,6 +83,7 @@ public class SectionEditorDialog extends JDialog {
         }
         String sem = semesterField.getText().trim();
         int year = (int) yearSpinner.getValue();
+        int capacity = (int) capacitySpinner.getValue();
 
         if (sem.isEmpty()) {
             JOptionPane.showMessageDialog(this, "Enter semester");
@@ -83,10 +92,10 @@ public class SectionEditorDialog extends JDialog {
 
         try {
             if (existing == null) {
-                erp.addSection(courseId, sel.getUserId(), sem, year);
+                erp.addSection(courseId, sel.getUserId(), sem, year, capacity);
             } else {
                 erp.updateSection(existing.getSectionId(),
-                        courseId, sel.getUserId(), sem, year);
+                        courseId, sel.getUserId(), sem, year, capacity);
             }
             saved = true;
             dispose();
@@ -0,0 +1,249 @@
+package edu.univ.erp.ui;
+
+import edu.univ.erp.data.ComponentMarksDao;
+import edu.univ.erp.domain.ComponentMark;
+import edu.univ.erp.domain.GradingComponent;
+import edu.univ.erp.service.GradeService;
+import edu.univ.erp.util.GradeScale;
+
+import javax.swing.table.AbstractTableModel;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SectionGradebook — table model for one section's gradebook.
+ * Columns: EnrollmentID, StudentID, one per grading component, Final CGPA, Final Grade.
+ *
+ * Marks live in a dense row-major double[] (NaN = no mark), loaded with a single query through
+ * GradeService.forEachGradebookRow (served by the ErpServer in remote mode). Edited cells are tracked in a BitSet so only those are saved;
+ * a reload keeps them until they are saved.
+ */
+public class SectionGradebook extends AbstractTableModel {
+    private static final int FIXED_LEFT = 2;   // EnrollmentID, StudentID
+    private static final int FIXED_RIGHT = 2;  // Final CGPA, Final Grade
+
+    private final GradeService gradeService;
+    private final List<GradingComponent> components;
+    private final Map<Integer, Integer> columnOfComponent = new HashMap<>();
+    private final int cols;
+
+    private int rows;
+    private int[] enrollmentIds = new int[0];
+    private int[] studentIds = new int[0];
+    private double[] marks = new double[0];
+    private double[] percent = new double[0];   // NaN when no weights
+    private String[] grades = new String[0];    // published grade, null if none
+    private long[] weights;                     // per component column in hundredths, null when the section has no weights
+    private final BitSet dirty = new BitSet();
+
+    public SectionGradebook(List<GradingComponent> components, GradeService gradeService) {
+        this.gradeService = gradeService;
+        this.components = new ArrayList<>(components);
+        this.cols = this.components.size();
+        for (int c = 0; c < cols; c++) columnOfComponent.put(this.components.get(c).getComponentId(), c);
+    }
+
+    /** Replace the contents with the given section's roster, marks and grades (EDT only). */
+    public void load(int sectionId, Map<Integer, Integer> sectionWeights) {
+        apply(fetch(sectionId, sectionWeights));
+    }
+
+    /**
+     * Run the gradebook query without touching the model; safe to call off the EDT.
+     * Pass the result to {@link #apply(Loaded)} on the EDT.
+     */
+    public Loaded fetch(int sectionId, Map<Integer, Integer> sectionWeights) {
+        Loaded loaded = new Loaded();
+        if (sectionWeights != null && !sectionWeights.isEmpty()) {
+            loaded.weights = new long[cols];
+            for (Map.Entry<Integer, Integer> e : sectionWeights.entrySet()) {
+                Integer c = columnOfComponent.get(e.getKey());
+                if (c != null && e.getValue() != null) loaded.weights[c] = e.getValue() * 100L;
+            }
+        }
+        gradeService.forEachGradebookRow(sectionId, loaded);
+        return loaded;
+    }
+
+    /**
+     * Install fetched data and refresh the table. Unsaved edits are kept: each dirty cell is re-applied
+     * to its enrollment's row in the new data (and stays dirty); edits for enrollments no longer on the
+     * roster are dropped.
+     */
+    public void apply(Loaded loaded) {
+        int pending = dirty.cardinality();
+        int[] editEnrollment = new int[pending];
+        int[] editColumn = new int[pending];
+        double[] editMark = new double[pending];
+        int e = 0;
+        for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1), e++) {
+            editEnrollment[e] = enrollmentIds[i / cols];
+            editColumn[e] = i % cols;
+            editMark[e] = marks[i];
+        }
+
+        weights = loaded.weights;
+        rows = loaded.n;
+        enrollmentIds = Arrays.copyOf(loaded.enr, rows);
+        studentIds = Arrays.copyOf(loaded.stu, rows);
+        grades = Arrays.copyOf(loaded.gr, rows);
+        marks = Arrays.copyOf(loaded.mk, rows * cols);
+        dirty.clear();
+
+        if (pending > 0) {
+            Map<Integer, Integer> rowOfEnrollment = new HashMap<>(rows * 2);
+            for (int r = 0; r < rows; r++) rowOfEnrollment.put(enrollmentIds[r], r);
+            for (e = 0; e < pending; e++) {
+                Integer r = rowOfEnrollment.get(editEnrollment[e]);
+                if (r == null) continue;
+                int i = r * cols + editColumn[e];
+                marks[i] = editMark[e];
+                dirty.set(i);
+            }
+        }
+        percent = new double[rows];
+        for (int r = 0; r < rows; r++) percent[r] = computePercent(r);
+        fireTableStructureChanged();
+    }
+
+    /** Result of {@link #fetch}: the (enrollment, component) rows of the join pivoted into growable dense arrays. */
+    public final class Loaded implements ComponentMarksDao.GradebookRowHandler {
+        private long[] weights;
+        private int n;
+        private int[] enr = new int[16];
+        private int[] stu = new int[16];
+        private String[] gr = new String[16];
+        private double[] mk;
+
+        private Loaded() {
+            this.mk = filledNaN(16 * cols);
+        }
+
+        @Override
+        public void row(int enrollmentId, int studentId, int componentId, double value, String grade) {
+            int r = n - 1;
+            if (r < 0 || enr[r] != enrollmentId) {
+                r = n++;
+                if (r == enr.length) {
+                    int cap = enr.length * 2;
+                    enr = Arrays.copyOf(enr, cap);
+                    stu = Arrays.copyOf(stu, cap);
+                    gr = Arrays.copyOf(gr, cap);
+                    double[] m = filledNaN(cap * cols);
+                    System.arraycopy(mk, 0, m, 0, r * cols);
+                    mk = m;
+                }
+                enr[r] = enrollmentId;
+                stu[r] = studentId;
+                gr[r] = grade;
+            }
+            Integer c = columnOfComponent.get(componentId);
+            if (c != null) mk[r * cols + c] = value;
+        }
+    }
+
+    private static double[] filledNaN(int size) {
+        double[] a = new double[size];
+        Arrays.fill(a, Double.NaN);
+        return a;
+    }
+
+    /**
+     * Weighted total for a row, computed as GradeService.computeSection does (marks at their stored
+     * 2-decimal precision, missing marks as 0, no rescaling), so the previewed letter is the published one.
+     */
+    private double computePercent(int r) {
+        if (weights == null) return Double.NaN;
+        long total = 0;
+        int base = r * cols;
+        for (int c = 0; c < cols; c++) total += GradeScale.hundredths(marks[base + c]) * weights[c];
+        return GradeScale.totalHundredths(total) / 100.0;
+    }
+
+    /* ---------------- gradebook API ---------------- */
+
+    public int getEnrollmentId(int row) { return enrollmentIds[row]; }
+    public int getComponentCount() { return cols; }
+
+    /** Mark for (row, component column), NaN if none. */
+    public double markAt(int row, int componentCol) { return marks[row * cols + componentCol]; }
+
+    public boolean isDirty() { return !dirty.isEmpty(); }
+
+    /** Edited cells as ComponentMark rows (null marks for cleared cells), ready for GradeService.saveMarks. */
+    public List<ComponentMark> dirtyMarks() {
+        List<ComponentMark> out = new ArrayList<>(dirty.cardinality());
+        for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+            int r = i / cols, c = i % cols;
+            double m = marks[i];
+            out.add(new ComponentMark(0, enrollmentIds[r], components.get(c).getComponentId(),
+                    Double.isNaN(m) ? null : BigDecimal.valueOf(m)));
+        }
+        return out;
+    }
+
+    /** Call after dirty marks were saved. */
+    public void clearDirty() { dirty.clear(); }
+
+    /* ---------------- TableModel ---------------- */
+
+    @Override public int getRowCount() { return rows; }
+    @Override public int getColumnCount() { return FIXED_LEFT + cols + FIXED_RIGHT; }
+
+    @Override
+    public String getColumnName(int col) {
+        if (col == 0) return "EnrollmentID";
+        if (col == 1) return "StudentID";
+        if (col < FIXED_LEFT + cols) return components.get(col - FIXED_LEFT).getName();
+        return col == FIXED_LEFT + cols ? "Final CGPA" : "Final Grade";
+    }
+
+    @Override
+    public Class<?> getColumnClass(int col) {
+        return col < FIXED_LEFT ? Integer.class : Object.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int col) {
+        return col >= FIXED_LEFT && col < FIXED_LEFT + cols;
+    }
+
+    @Override
+    public Object getValueAt(int row, int col) {
+        if (col == 0) return enrollmentIds[row];
+        if (col == 1) return studentIds[row];
+        if (col < FIXED_LEFT + cols) {
+            double m = marks[row * cols + col - FIXED_LEFT];
+            return Double.isNaN(m) ? "" : m;
+        }
+        double p = percent[row];
+        if (col == FIXED_LEFT + cols) return Double.isNaN(p) ? "" : Math.round(p * 10.0) / 100.0;
+        String g = grades[row];
+        if (g != null && !g.trim().isEmpty()) return g;
+        return Double.isNaN(p) ? "" : GradeScale.letterForPercent(p);
+    }
+
+    @Override
+    public void setValueAt(Object value, int row, int col) {
+        if (!isCellEditable(row, col)) return;
+        double m;
+        String s = value == null ? "" : value.toString().trim();
+        if (s.isEmpty()) {
+            m = Double.NaN;
+        } else {
+            try { m = Double.parseDouble(s); }
+            catch (NumberFormatException e) { return; }
+        }
+        int i = row * cols + col - FIXED_LEFT;
+        if (Double.compare(marks[i], m) == 0) return;
+        marks[i] = m;
+        dirty.set(i);
+        percent[row] = computePercent(row);
+        fireTableRowsUpdated(row, row);
+    }
+}
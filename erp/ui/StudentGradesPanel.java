@@ -3,6 +3,7 @@ package edu.univ.erp.ui;
 import edu.univ.erp.domain.Enrollment;
 import edu.univ.erp.service.ErpService;
 import edu.univ.erp.service.GradeService;
+import edu.univ.erp.remote.Services;
 import net.miginfocom.swing.MigLayout;
 
 import javax.swing.*;
@@ -16,8 +17,8 @@ import java.util.Map;
  * Usage: new StudentGradesPanel(loggedInUserId)
  */
 public class StudentGradesPanel extends JPanel {
-    private final ErpService erpService = new ErpService();
-    private final GradeService gradeService = new GradeService();
+    private final ErpService erpService = Services.erp();
+    private final GradeService gradeService = Services.grades();
     private final int userId;
     private final DefaultTableModel model;
     private final JTable table;
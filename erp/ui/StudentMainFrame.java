@@ -1,16 +1,19 @@
 package edu.univ.erp.ui;
 
-import edu.univ.erp.auth.AuthService;
-import edu.univ.erp.data.EnrollmentDao;
+import edu.univ.erp.auth.Session;
 import edu.univ.erp.domain.Course;
 import edu.univ.erp.domain.Enrollment;
 import edu.univ.erp.domain.Section;
 import edu.univ.erp.domain.Student;
-import edu.univ.erp.domain.Grade;
+import edu.univ.erp.domain.WaitlistEntry;
+import edu.univ.erp.service.AvailableSectionsQuery;
+import edu.univ.erp.service.EnrollmentException;
 import edu.univ.erp.service.ErpService;
 import edu.univ.erp.service.MaintenanceService;
+import edu.univ.erp.service.StudentDashboardQuery;
 import edu.univ.erp.util.ExportUtil;
 import edu.univ.erp.ui.UIUtil;
+import edu.univ.erp.remote.Services;
 import net.miginfocom.swing.MigLayout;
 
 import javax.swing.*;
@@ -20,16 +23,19 @@ import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.io.FileOutputStream;
 import java.io.OutputStream;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 /**
  * StudentMainFrame with Export CSV / PDF buttons and "My Grades" tab.
  */
 public class StudentMainFrame extends BaseMainFrame {
-    private final ErpService erpService = new ErpService();
-    private final AuthService authService = new AuthService();
-    private final EnrollmentDao enrollmentDao = new EnrollmentDao();
+    private final ErpService erpService = Services.erp();
+    private final AvailableSectionsQuery availableSectionsQuery = Services.availableSections();
+    private final AsyncLoader.Slot enrollmentsLoad = newLoadSlot();
+    private final AsyncLoader.Slot sectionsLoad = newLoadSlot();
+    private final StudentDashboardQuery dashboardQuery = Services.dashboard();
 
     private final DefaultTableModel enrollTableModel = new DefaultTableModel(
             new String[]{"Enroll ID", "Section ID", "Course", "Instructor ID", "Enrolled", "Grade"}, 0) {
@@ -38,23 +44,18 @@ public class StudentMainFrame extends BaseMainFrame {
     private final JTable enrollTable = new JTable(enrollTableModel);
 
     private final DefaultTableModel availTableModel = new DefaultTableModel(
-            new String[]{"Section ID", "Course", "Instructor ID", "Semester", "Year", "Enrolled"}, 0) {
+            new String[]{"Section ID", "Course", "Instructor ID", "Semester", "Year", "Seats", "Waitlist"}, 0) {
         @Override public boolean isCellEditable(int row, int col) { return false; }
     };
     private final JTable availTable = new JTable(availTableModel);
 
-    private int loggedInUserId;
+    private final int loggedInUserId;
     private StudentGradesPanel gradesPanel; // the new grades panel
 
-    public StudentMainFrame(String username) {
-        super(username, "STUDENT");
+    public StudentMainFrame(Session session) {
+        super(session);
+        this.loggedInUserId = session.getUserId();
         initUI();
-        Integer uid = authService.getUserIdByUsername(username);
-        if (uid == null) {
-            JOptionPane.showMessageDialog(this, "Cannot determine user id for " + username, "Error", JOptionPane.ERROR_MESSAGE);
-            return;
-        }
-        this.loggedInUserId = uid;
         loadEnrollmentData();
         loadAvailableSections();
         if (gradesPanel != null) gradesPanel.refresh();
@@ -98,7 +99,9 @@ public class StudentMainFrame extends BaseMainFrame {
         UIUtil.decorateTable(availTable);
         bottom.add(new JScrollPane(availTable), BorderLayout.CENTER);
         JPanel bottomButtons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton leaveWaitlistBtn = UIUtil.createGhostButton("Leave Waitlist");
         JButton enrollBtn = UIUtil.createRoundedButton("Enroll");
+        bottomButtons.add(leaveWaitlistBtn);
         bottomButtons.add(enrollBtn);
         bottom.add(bottomButtons, BorderLayout.SOUTH);
 
@@ -109,6 +112,7 @@ public class StudentMainFrame extends BaseMainFrame {
         // wire actions
         enrollBtn.addActionListener(e -> doEnrollSelectedSection());
         dropBtn.addActionListener(e -> doDropSelectedEnrollment());
+        leaveWaitlistBtn.addActionListener(e -> doLeaveWaitlist());
         exportCsvBtn.addActionListener(e -> doExportCsv());
         exportPdfBtn.addActionListener(e -> doExportPdf());
 
@@ -131,41 +135,48 @@ public class StudentMainFrame extends BaseMainFrame {
     }
 
     private void loadEnrollmentData() {
-        enrollTableModel.setRowCount(0);
-        List<Enrollment> enrollments = erpService.getEnrollmentsForStudent(loggedInUserId);
-        for (Enrollment en : enrollments) {
-            Section s = erpService.getSectionById(en.getSectionId()).orElse(null);
-            Course c = s == null ? null : erpService.getCourseById(s.getCourseId()).orElse(null);
-            String courseLabel = c == null ? ("Section " + en.getSectionId()) : (c.getCode() + " - " + c.getTitle());
-            String enrolledDate = en.getEnrollmentDate() == null ? "N/A" : en.getEnrollmentDate().toString();
-            String grade = erpService.getGradeForEnrollment(en.getEnrollmentId()).map(Grade::getGrade).orElse("N/A");
-            enrollTableModel.addRow(new Object[]{
-                    en.getEnrollmentId(),
-                    en.getSectionId(),
-                    courseLabel,
-                    s == null ? "N/A" : s.getInstructorId(),
-                    enrolledDate,
-                    grade
-            });
-        }
+        int studentId = loggedInUserId;
+        enrollmentsLoad.submit("enrollments", () -> dashboardQuery.findEnrollments(studentId), rows -> {
+            enrollTableModel.setRowCount(0);
+            for (StudentDashboardQuery.Row row : rows) {
+                enrollTableModel.addRow(new Object[]{
+                        row.getEnrollmentId(),
+                        row.getSectionId(),
+                        row.getCourseLabel(),
+                        row.getInstructorId() == null ? "N/A" : row.getInstructorId(),
+                        row.getEnrollmentDate() == null ? "N/A" : row.getEnrollmentDate().toString(),
+                        row.getGrade() == null ? "N/A" : row.getGrade()
+                });
+            }
+        });
     }
 
     private void loadAvailableSections() {
-        availTableModel.setRowCount(0);
-        List<Section> sections = erpService.listSections(); // all sections
-        for (Section s : sections) {
-            Optional<Course> oc = erpService.getCourseById(s.getCourseId());
-            String courseLabel = oc.map(c -> c.getCode() + " - " + c.getTitle()).orElse("Section " + s.getSectionId());
-            int enrolled = enrollmentDao.countBySectionId(s.getSectionId());
-            availTableModel.addRow(new Object[]{
-                    s.getSectionId(),
-                    courseLabel,
-                    s.getInstructorId(),
-                    s.getSemester(),
-                    s.getYear(),
-                    enrolled
-            });
-        }
+        int studentId = loggedInUserId;
+        sectionsLoad.submit("available sections", () -> {
+            // waitlist positions come from the in-memory queues; only the student's own entries are queried
+            Map<Integer, Integer> positions = new HashMap<>();
+            for (WaitlistEntry w : erpService.getWaitlistForStudent(studentId)) {
+                positions.put(w.getSectionId(), erpService.getWaitlistPosition(studentId, w.getSectionId()));
+            }
+            List<Object[]> out = new java.util.ArrayList<>();
+            for (AvailableSectionsQuery.Row s : availableSectionsQuery.listAvailable()) {
+                Integer pos = positions.get(s.getSectionId());
+                out.add(new Object[]{
+                        s.getSectionId(),
+                        s.getCourseLabel(),
+                        s.getInstructorId(),
+                        s.getSemester(),
+                        s.getYear(),
+                        s.getSeatsLabel(),
+                        pos == null || pos == 0 ? "" : "#" + pos
+                });
+            }
+            return out;
+        }, rows -> {
+            availTableModel.setRowCount(0);
+            for (Object[] row : rows) availTableModel.addRow(row);
+        });
     }
 
     private void doEnrollSelectedSection() {
@@ -180,11 +191,53 @@ public class StudentMainFrame extends BaseMainFrame {
             loadEnrollmentData();
             loadAvailableSections();
             if (gradesPanel != null) gradesPanel.refresh();
+        } catch (EnrollmentException ex) {
+            if (ex.getReason() == EnrollmentException.Reason.SECTION_FULL) {
+                int join = JOptionPane.showConfirmDialog(this, ex.getMessage() + ".\nJoin the waitlist? You will be enrolled "
+                        + "automatically when a seat frees up.", "Section Full", JOptionPane.YES_NO_OPTION);
+                if (join == JOptionPane.YES_OPTION) doJoinWaitlist(sectionId);
+            } else {
+                JOptionPane.showMessageDialog(this, ex.getMessage(), "Cannot Enroll", JOptionPane.WARNING_MESSAGE);
+            }
+            loadAvailableSections();
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(this, "Error enrolling: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
+    private void doJoinWaitlist(int sectionId) {
+        try {
+            int position = erpService.joinWaitlist(loggedInUserId, sectionId);
+            if (position == 0) {
+                JOptionPane.showMessageDialog(this, "A seat was free - you are now enrolled in section " + sectionId, "Enrolled", JOptionPane.INFORMATION_MESSAGE);
+                loadEnrollmentData();
+                if (gradesPanel != null) gradesPanel.refresh();
+            } else {
+                JOptionPane.showMessageDialog(this, "You are #" + position + " on the waitlist for section " + sectionId, "Waitlisted", JOptionPane.INFORMATION_MESSAGE);
+            }
+        } catch (EnrollmentException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Cannot Join Waitlist", JOptionPane.WARNING_MESSAGE);
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(this, "Error joining waitlist: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void doLeaveWaitlist() {
+        int r = availTable.getSelectedRow();
+        if (r < 0) { JOptionPane.showMessageDialog(this, "Select a section you are waitlisted for", "Info", JOptionPane.INFORMATION_MESSAGE); return; }
+        int sectionId = (Integer) availTableModel.getValueAt(r, 0);
+        try {
+            if (erpService.leaveWaitlist(loggedInUserId, sectionId)) {
+                JOptionPane.showMessageDialog(this, "Removed from the waitlist for section " + sectionId, "Waitlist", JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, "You are not on the waitlist for section " + sectionId, "Waitlist", JOptionPane.INFORMATION_MESSAGE);
+            }
+            loadAvailableSections();
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(this, "Error leaving waitlist: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     private void doDropSelectedEnrollment() {
         int r = enrollTable.getSelectedRow();
         if (r < 0) { JOptionPane.showMessageDialog(this, "Select an enrollment to drop", "Info", JOptionPane.INFORMATION_MESSAGE); return; }
@@ -230,7 +283,7 @@ public class StudentMainFrame extends BaseMainFrame {
                     id -> erpService.getStudentByUserId(id),
                     id -> erpService.getGradeForEnrollment(id)
             );
-            ExportUtil.writeCsv(os, rows);
+            ExportUtil.writeCsv(os, rows.get(0), rows.subList(1, rows.size()).iterator());
             JOptionPane.showMessageDialog(this, "CSV exported: " + fname, "Exported", JOptionPane.INFORMATION_MESSAGE);
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(this, "Error exporting CSV: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
@@ -2,6 +2,7 @@ package edu.univ.erp.ui;
 
 import edu.univ.erp.domain.User;
 import edu.univ.erp.service.ErpService;
+import edu.univ.erp.remote.Services;
 import net.miginfocom.swing.MigLayout;
 import org.mindrot.jbcrypt.BCrypt;
 
@@ -12,7 +13,7 @@ import java.awt.*;
  * Simple dialog to add/edit a user. Uses BCrypt to hash password when provided.
  */
 public class UserEditorDialog extends JDialog {
-    private final ErpService erp = new ErpService();
+    private final ErpService erp = Services.erp();
     private final JTextField usernameField = new JTextField(24);
     private final JPasswordField passwordField = new JPasswordField(24);
     private final JComboBox<String> roleCombo =
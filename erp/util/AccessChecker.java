@@ -12,7 +12,7 @@ import edu.univ.erp.service.MaintenanceService;
  */
 public final class AccessChecker {
 
-    // re-use your existing service; ok for simple single-node desktop app
+    // re-use your existing service; isMaintenanceOn() is a memory read backed by MaintenanceState
     private static final MaintenanceService maintenanceService = new MaintenanceService();
 
     /**
@@ -1,10 +1,11 @@
 package edu.univ.erp.util;
 
 import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
 import com.lowagie.text.Element;
 import com.lowagie.text.Font;
 import com.lowagie.text.Paragraph;
-import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.Phrase;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
 import org.apache.commons.csv.CSVFormat;
@@ -18,17 +19,36 @@ import edu.univ.erp.domain.Student;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Export utilities for CSV and PDF. Uses commons-csv and OpenPDF (librepdf).
  */
 public final class ExportUtil {
+    private static final int CSV_BUFFER_SIZE = 64 * 1024;
+
     private ExportUtil() {}
 
+    /** Receives one row at a time from a {@link RowSource}. */
+    @FunctionalInterface
+    public interface RowWriter {
+        void write(Object... values) throws IOException;
+    }
+
+    /** Pushes rows into a RowWriter, e.g. while walking a DB cursor. */
+    @FunctionalInterface
+    public interface RowSource {
+        void forEachRow(RowWriter out) throws IOException, SQLException;
+    }
+
     /* --------------------- CSV --------------------- */
 
     /**
@@ -58,41 +78,129 @@ public final class ExportUtil {
         }
     }
 
-    /* --------------------- PDF --------------------- */
-
-    public static void writePdf(OutputStream out, String title, String[] header, List<String[]> rows) throws Exception {
-        Document doc = new Document();
-        PdfWriter.getInstance(doc, out);
-        doc.open();
-
-        Font titleFont = new Font(Font.HELVETICA, 14f, Font.BOLD);
-        Paragraph p = new Paragraph(title, titleFont);
-        p.setAlignment(Element.ALIGN_CENTER);
-        p.setSpacingAfter(12f);
-        doc.add(p);
-
-        PdfPTable table = new PdfPTable(header.length);
-        table.setWidthPercentage(100f);
-        table.setSpacingBefore(6f);
-        table.setSpacingAfter(6f);
-
-        Font hdrFont = new Font(Font.HELVETICA, 10f, Font.BOLD);
-        for (String h : header) {
-            PdfPCell cell = new PdfPCell(new Paragraph(h == null ? "" : h, hdrFont));
-            cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-            table.addCell(cell);
+    /**
+     * Streaming CSV export: writes the given header, then every row the source produces, through a
+     * 64 KB buffer. Nothing is held in memory beyond the current row. The stream is flushed, not closed.
+     * @return number of data rows written (header excluded)
+     */
+    public static int writeCsv(OutputStream out, String[] header, RowSource source) throws IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), CSV_BUFFER_SIZE);
+        CSVPrinter printer = new CSVPrinter(w, CSVFormat.DEFAULT);
+        if (header != null) printer.printRecord((Object[]) header);
+        int[] count = {0};
+        try {
+            source.forEachRow(values -> {
+                printer.printRecord(values);
+                count[0]++;
+            });
+        } catch (SQLException e) {
+            throw new IOException("Failed reading rows for CSV export", e);
         }
+        printer.flush();
+        return count[0];
+    }
+
+    /** Streaming CSV export from an iterator of rows. */
+    public static int writeCsv(OutputStream out, String[] header, Iterator<? extends Object[]> rows) throws IOException {
+        return writeCsv(out, header, w -> {
+            while (rows.hasNext()) w.write(rows.next());
+        });
+    }
+
+    /** Streaming CSV export from a stream of rows (the stream is consumed, not closed). */
+    public static int writeCsv(OutputStream out, String[] header, Stream<? extends Object[]> rows) throws IOException {
+        return writeCsv(out, header, rows.iterator());
+    }
 
-        Font cellFont = new Font(Font.HELVETICA, 10f, Font.NORMAL);
-        for (String[] row : rows) {
-            for (String col : row) {
-                PdfPCell cell = new PdfPCell(new Paragraph(col == null ? "" : col, cellFont));
-                table.addCell(cell);
+    /**
+     * Streaming CSV export straight from an open cursor. Every column is written with getString(),
+     * SQL NULL as an empty field. When header is null the column labels are used.
+     */
+    public static int writeCsv(OutputStream out, String[] header, ResultSet rs) throws IOException {
+        try {
+            ResultSetMetaData md = rs.getMetaData();
+            int cols = md.getColumnCount();
+            if (header == null) {
+                header = new String[cols];
+                for (int i = 0; i < cols; i++) header[i] = md.getColumnLabel(i + 1);
             }
+            return writeCsv(out, header, w -> {
+                Object[] row = new Object[cols];
+                while (rs.next()) {
+                    for (int i = 0; i < cols; i++) {
+                        String v = rs.getString(i + 1);
+                        row[i] = v == null ? "" : v;
+                    }
+                    w.write(row);
+                }
+            });
+        } catch (SQLException e) {
+            throw new IOException("Failed reading rows for CSV export", e);
         }
+    }
+
+    /* --------------------- PDF --------------------- */
+
+    private static final int PDF_CHUNK_ROWS = 500;
+    private static final Font PDF_TITLE_FONT = new Font(Font.HELVETICA, 14f, Font.BOLD);
+    private static final Font PDF_HEADER_FONT = new Font(Font.HELVETICA, 10f, Font.BOLD);
+    private static final Font PDF_CELL_FONT = new Font(Font.HELVETICA, 10f, Font.NORMAL);
+
 
-        doc.add(table);
-        doc.close();
+    public static void writePdf(OutputStream out, String title, String[] header, List<String[]> rows) throws Exception {
+        writePdf(out, title, header, w -> {
+            for (String[] row : rows) w.write((Object[]) row);
+        });
+    }
+
+    /**
+     * Incremental PDF export. Rows are pulled from the source and the table is handed to the document
+     * every PDF_CHUNK_ROWS rows (OpenPDF large-table mode), so only one chunk of cells is in memory at a
+     * time. The header row repeats on every page; cells are copied from one template per table.
+     * @return number of data rows written
+     */
+    public static int writePdf(OutputStream out, String title, String[] header, RowSource source) throws IOException {
+        Document doc = new Document();
+        try {
+            PdfWriter.getInstance(doc, out);
+            doc.open();
+
+            Paragraph p = new Paragraph(title, PDF_TITLE_FONT);
+            p.setAlignment(Element.ALIGN_CENTER);
+            p.setSpacingAfter(12f);
+            doc.add(p);
+
+            int cols = header.length;
+            PdfPTable table = new PdfPTable(cols);
+            table.setWidthPercentage(100f);
+            table.setSpacingBefore(6f);
+            table.setSpacingAfter(6f);
+            table.setHeaderRows(1);
+            table.setComplete(false);
+
+            table.getDefaultCell().setHorizontalAlignment(Element.ALIGN_CENTER);
+            for (String h : header) table.addCell(new Phrase(h == null ? "" : h, PDF_HEADER_FONT));
+            table.getDefaultCell().setHorizontalAlignment(Element.ALIGN_LEFT);
+
+            int[] count = {0};
+            source.forEachRow(values -> {
+                for (int i = 0; i < cols; i++) {
+                    Object v = i < values.length ? values[i] : null;
+                    table.addCell(new Phrase(v == null ? "" : v.toString(), PDF_CELL_FONT));
+                }
+                if (++count[0] % PDF_CHUNK_ROWS == 0) doc.add(table);
+            });
+
+            table.setComplete(true);
+            doc.add(table);
+            return count[0];
+        } catch (DocumentException e) {
+            throw new IOException("Failed writing PDF", e);
+        } catch (SQLException e) {
+            throw new IOException("Failed reading rows for PDF export", e);
+        } finally {
+            if (doc.isOpen()) doc.close();
+        }
     }
 
     /* --------------------- Helpers to build rows for enrollments --------------------- */
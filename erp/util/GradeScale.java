@@ -0,0 +1,55 @@
+package edu.univ.erp.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * GradeScale - the letter-grade cut-offs shared by GradeService and the grade frame, and the weighted-total
+ * arithmetic shared by GradeService.computeSection and the gradebook preview, so a previewed letter is the
+ * one publishFinalGrades writes.
+ * Percentages are on the 0..100 scale used by the weighted totals; CGPA values are on 0..10.
+ */
+public final class GradeScale {
+
+    private GradeScale() {}
+
+    /** Letter for a 0..100 weighted total (A at 90, then one letter per 10 points down to D at 60). */
+    public static String letterForPercent(double percent) {
+        if (percent >= 90.0) return "A";
+        if (percent >= 80.0) return "B";
+        if (percent >= 70.0) return "C";
+        if (percent >= 60.0) return "D";
+        return "F";
+    }
+
+    /** Value in hundredths, HALF_UP: the precision marks are stored with (DECIMAL(6,2)); weights are whole percents. */
+    public static long hundredths(BigDecimal v) {
+        return v == null ? 0L : v.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /** As hundredths(BigDecimal); NaN (no mark) is 0. */
+    public static long hundredths(double v) {
+        return Double.isNaN(v) ? 0L : hundredths(BigDecimal.valueOf(v));
+    }
+
+    /**
+     * Weighted total in hundredths from the sum of markHundredths * weightHundredths over the components
+     * (mark * weight% / 100, in millionths), rounded HALF_UP: the value GradeService.weightedTotal returns.
+     */
+    public static long totalHundredths(long markTimesWeight) {
+        return markTimesWeight >= 0 ? (markTimesWeight + 5_000) / 10_000 : -((-markTimesWeight + 5_000) / 10_000);
+    }
+
+    /** Letter for a 0..10 CGPA value. */
+    public static String letterForCgpa(double cg) {
+        if (cg >= 9.5) return "A+";
+        if (cg >= 9) return "A";
+        if (cg >= 8) return "B";
+        if (cg >= 7) return "B-";
+        if (cg >= 6) return "C";
+        if (cg >= 5) return "C-";
+        if (cg >= 4) return "D+";
+        if (cg >= 3) return "D";
+        return "F";
+    }
+}
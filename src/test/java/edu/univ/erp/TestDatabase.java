@@ -0,0 +1,36 @@
+package edu.univ.erp;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * TestDatabase - points DataSourceProvider at an in-memory H2 database (MySQL mode) for the tests.
+ * configure() must run before the first DAO or service is created, since DataSourceProvider reads its
+ * config once; the schema comes from SchemaMigrator as usual. It never falls back to a working-dir
+ * application.properties, so a test run cannot touch a real database.
+ */
+public final class TestDatabase {
+
+    private TestDatabase() {}
+
+    public static synchronized void configure() {
+        if (System.getProperty("config.file") != null) return;
+        Properties p = new Properties();
+        p.setProperty("db.erp.url", "jdbc:h2:mem:erp_test;DB_CLOSE_DELAY=-1;MODE=MySQL;NON_KEYWORDS=YEAR,VALUE;LOCK_TIMEOUT=10000");
+        p.setProperty("db.auth.url", "jdbc:h2:mem:auth_test;DB_CLOSE_DELAY=-1;MODE=MySQL;NON_KEYWORDS=YEAR,VALUE");
+        p.setProperty("db.pool.maxPoolSize", "16");
+        try {
+            Path file = Files.createTempFile("erp-test", ".properties");
+            file.toFile().deleteOnExit();
+            try (OutputStream out = Files.newOutputStream(file)) {
+                p.store(out, "generated by TestDatabase");
+            }
+            System.setProperty("config.file", file.toString());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
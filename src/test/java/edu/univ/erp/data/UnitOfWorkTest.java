@@ -0,0 +1,56 @@
+package edu.univ.erp.data;
+
+import edu.univ.erp.TestDatabase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UnitOfWorkTest {
+
+    @BeforeAll
+    static void database() {
+        TestDatabase.configure();
+    }
+
+    /** afterCommit actions wait for the commit, run at once outside a transaction and are dropped on rollback. */
+    @Test
+    void afterCommitRunsOnlyOnceCommitted() {
+        List<String> ran = new ArrayList<>();
+
+        UnitOfWork.inTransaction(() -> {
+            UnitOfWork.afterCommit(() -> ran.add("committed"));
+            assertTrue(ran.isEmpty(), "deferred while the transaction is open");
+        });
+        assertEquals(List.of("committed"), ran);
+
+        assertThrows(IllegalStateException.class, () -> UnitOfWork.inTransaction(() -> {
+            UnitOfWork.afterCommit(() -> ran.add("rolled back"));
+            throw new IllegalStateException("rollback");
+        }));
+        assertEquals(List.of("committed"), ran);
+
+        UnitOfWork.afterCommit(() -> ran.add("no transaction"));
+        assertEquals(List.of("committed", "no transaction"), ran);
+    }
+
+    /** A cache cleared by a DAO write inside a transaction is not cleared until the commit. */
+    @Test
+    void daoInvalidationWaitsForCommit() {
+        CourseDao courses = new CourseDao();
+        int courseId = courses.insert("UOW-101", "Before", 3);
+        courses.findById(courseId);
+
+        UnitOfWork.inTransaction(() -> {
+            courses.update(courseId, "UOW-101", "After", 3);
+            assertEquals("Before", ReferenceDataCache.courseById.get(courseId, k -> null).getTitle(),
+                    "still cached until commit");
+        });
+        assertEquals("After", courses.findById(courseId).orElseThrow().getTitle());
+    }
+}
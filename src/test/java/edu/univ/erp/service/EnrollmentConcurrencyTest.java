@@ -0,0 +1,116 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.TestDatabase;
+import edu.univ.erp.data.CourseDao;
+import edu.univ.erp.data.EnrollmentDao;
+import edu.univ.erp.data.SectionDao;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EnrollmentConcurrencyTest {
+    private static final int THREADS = 16;
+
+    @BeforeAll
+    static void database() {
+        TestDatabase.configure();
+    }
+
+    /** N students racing for C seats: exactly C get in, everyone else is told the section is full. */
+    @Test
+    void seatsAreNeverOversold() throws Exception {
+        ErpService erp = new ErpService();
+        int capacity = 10;
+        int students = 48;
+        int sectionId = erp.addSection(new CourseDao().insert("CC-101", "Concurrency", 4), 1, "Fall", 2025, capacity);
+
+        Map<EnrollmentException.Reason, AtomicInteger> rejected = new ConcurrentHashMap<>();
+        AtomicInteger enrolled = new AtomicInteger();
+        race(students, i -> {
+            try {
+                erp.enrollStudentInSection(70_000 + i, sectionId);
+                enrolled.incrementAndGet();
+            } catch (EnrollmentException e) {
+                rejected.computeIfAbsent(e.getReason(), r -> new AtomicInteger()).incrementAndGet();
+            }
+        });
+
+        assertEquals(capacity, enrolled.get());
+        assertEquals(students - capacity, rejected.get(EnrollmentException.Reason.SECTION_FULL).get());
+        assertEquals(1, rejected.size());
+        assertEquals(capacity, new EnrollmentDao().findBySectionId(sectionId).size());
+        assertEquals(0, freeSeats(sectionId));
+    }
+
+    /** The same student submitting many times at once gets one enrollment and one seat. */
+    @Test
+    void duplicateEnrollmentsAreRejected() throws Exception {
+        ErpService erp = new ErpService();
+        int sectionId = erp.addSection(new CourseDao().insert("CC-102", "Concurrency", 4), 1, "Fall", 2025, 5);
+        int student = 71_000;
+
+        AtomicInteger enrolled = new AtomicInteger();
+        AtomicInteger duplicates = new AtomicInteger();
+        race(THREADS * 2, i -> {
+            try {
+                erp.enrollStudentInSection(student, sectionId);
+                enrolled.incrementAndGet();
+            } catch (EnrollmentException e) {
+                assertEquals(EnrollmentException.Reason.ALREADY_ENROLLED, e.getReason());
+                duplicates.incrementAndGet();
+            }
+        });
+
+        assertEquals(1, enrolled.get());
+        assertEquals(THREADS * 2 - 1, duplicates.get());
+        assertEquals(1, new EnrollmentDao().findBySectionId(sectionId).size());
+        assertEquals(4, freeSeats(sectionId));
+    }
+
+    /** Seats the counter still hands out (takes them all, so call it last). */
+    private static int freeSeats(int sectionId) {
+        SectionDao sections = new SectionDao();
+        int n = 0;
+        while (sections.reserveSeat(sectionId)) n++;
+        return n;
+    }
+
+    interface Attempt {
+        void run(int i) throws Exception;
+    }
+
+    /** Run attempts 0..n-1 on THREADS threads, all released at once; rethrows the first failure. */
+    private static void race(int n, Attempt attempt) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                int k = i;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    attempt.run(k);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) f.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+}
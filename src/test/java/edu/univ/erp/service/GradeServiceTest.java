@@ -0,0 +1,73 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.TestDatabase;
+import edu.univ.erp.data.ComponentMarksDao;
+import edu.univ.erp.data.CourseDao;
+import edu.univ.erp.data.EnrollmentDao;
+import edu.univ.erp.data.GradingComponentDao;
+import edu.univ.erp.data.SectionDao;
+import edu.univ.erp.data.SectionWeightDao;
+import edu.univ.erp.domain.ComponentMark;
+import edu.univ.erp.domain.GradingComponent;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GradeServiceTest {
+
+    @BeforeAll
+    static void database() {
+        TestDatabase.configure();
+    }
+
+    /** computeSection (section-wide) and computeWeightedTotal (one enrollment) must give the same total. */
+    @Test
+    void sectionTotalsMatchPerEnrollmentTotals() {
+        int courseId = new CourseDao().insert("GS-101", "Grading", 4);
+        int sectionId = new SectionDao().insert(courseId, 1, "Fall", 2025);
+        GradingComponentDao componentDao = new GradingComponentDao();
+        for (String name : new String[]{"GS Quiz", "GS Midterm", "GS Endsem"}) componentDao.insert(name);
+        List<GradingComponent> components = new ArrayList<>();
+        for (GradingComponent gc : componentDao.listAll()) {
+            if (gc.getName().startsWith("GS ")) components.add(gc);
+        }
+        // weights that do not divide evenly, so most totals land on .xx5 before rounding
+        int[] weights = {33, 33, 34};
+        SectionWeightDao weightDao = new SectionWeightDao();
+        for (int j = 0; j < components.size(); j++) {
+            weightDao.upsert(sectionId, components.get(j).getComponentId(), BigDecimal.valueOf(weights[j]));
+        }
+
+        // rows whose exact total ends in 5 at the third decimal but sums to just below it in double arithmetic
+        // (52.08*33 + 80.00*33 + 10.29*34 = 4708.50 -> 47.09), followed by random marks
+        int[][] boundary = {{5208, 8000, 1029}, {8097, 9189, 4768}, {2139, 1325, 6657}, {6543, 9091, 4492}, {4675, 9185, 1455}};
+        EnrollmentDao enrollmentDao = new EnrollmentDao();
+        List<ComponentMark> marks = new ArrayList<>();
+        List<Integer> enrollmentIds = new ArrayList<>();
+        Random rnd = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            int enrollmentId = enrollmentDao.insert(50_000 + i, sectionId, LocalDate.of(2025, 8, 1));
+            enrollmentIds.add(enrollmentId);
+            for (int j = 0; j < components.size(); j++) {
+                int hundredths = i < boundary.length ? boundary[i][j] : rnd.nextInt(10_001);
+                marks.add(new ComponentMark(0, enrollmentId, components.get(j).getComponentId(), BigDecimal.valueOf(hundredths, 2)));
+            }
+        }
+        new ComponentMarksDao().upsertAll(marks);
+
+        GradeService grades = new GradeService();
+        GradeService.SectionTotals totals = grades.computeSection(sectionId);
+        assertEquals(enrollmentIds.size(), totals.size());
+        for (int enrollmentId : enrollmentIds) {
+            assertEquals(grades.computeWeightedTotal(enrollmentId, sectionId), totals.totalFor(enrollmentId),
+                    "total for enrollment " + enrollmentId);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.TestDatabase;
+import edu.univ.erp.data.CourseDao;
+import edu.univ.erp.data.EnrollmentDao;
+import edu.univ.erp.data.GradingComponentDao;
+import edu.univ.erp.data.SectionDao;
+import edu.univ.erp.domain.GradingComponent;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MarksImportServiceTest {
+
+    @BeforeAll
+    static void database() {
+        TestDatabase.configure();
+    }
+
+    /** Marks that do not fit DECIMAL(6,2) are rejected per cell instead of failing or being rounded by the write. */
+    @Test
+    void marksOutsideTheColumnAreRejected() throws Exception {
+        int sectionId = new SectionDao().insert(new CourseDao().insert("MI-101", "Imports", 4), 1, "Fall", 2025);
+        EnrollmentDao enrollments = new EnrollmentDao();
+        int e1 = enrollments.insert(80_001, sectionId, LocalDate.now());
+        int e2 = enrollments.insert(80_002, sectionId, LocalDate.now());
+        int e3 = enrollments.insert(80_003, sectionId, LocalDate.now());
+        GradingComponentDao componentDao = new GradingComponentDao();
+        componentDao.insert("MI Quiz");
+        int quiz = componentDao.listAll().stream().filter(c -> c.getName().equals("MI Quiz"))
+                .mapToInt(GradingComponent::getComponentId).findFirst().orElseThrow();
+
+        String csv = "EnrollmentID,StudentID,RollNo,MI Quiz\n"
+                + e1 + ",80001,,10000\n"
+                + e2 + ",80002,,7.125\n"
+                + e3 + ",80003,,7.250\n";
+        MarksImportService.Result r = new MarksImportService().importCsv(new StringReader(csv), csv.length(), sectionId, null);
+
+        assertEquals(3, r.getRowsRead());
+        assertEquals(1, r.getMarksWritten());
+        assertEquals(2, r.getRejections().size());
+        assertEquals("mark above 9999.99", r.getRejections().get(0).getReason());
+        assertEquals("more than 2 decimals", r.getRejections().get(1).getReason());
+        GradeService grades = new GradeService();
+        assertEquals(0, new BigDecimal("7.25").compareTo(grades.getMarksForEnrollment(e3).get(quiz)));
+        assertEquals(null, grades.getMarksForEnrollment(e1).get(quiz));
+
+        // the same file again: the accepted mark is unchanged, not rewritten
+        MarksImportService.Result again = new MarksImportService().importCsv(new StringReader(csv), csv.length(), sectionId, null);
+        assertEquals(0, again.getMarksWritten());
+        assertEquals(1, again.getMarksUnchanged());
+    }
+}
@@ -0,0 +1,96 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.TestDatabase;
+import edu.univ.erp.data.CourseDao;
+import edu.univ.erp.data.EnrollmentDao;
+import edu.univ.erp.data.WaitlistDao;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SectionWaitlistTest {
+
+    @BeforeAll
+    static void database() {
+        TestDatabase.configure();
+    }
+
+    /** A dropped seat goes to the head of the waitlist, and the rest of the queue moves up. */
+    @Test
+    void dropPromotesHeadOfWaitlist() {
+        ErpService erp = new ErpService();
+        int courseId = new CourseDao().insert("WL-101", "Waitlists", 4);
+        int sectionId = erp.addSection(courseId, 1, "Fall", 2025, 1);
+        int first = 60_001, second = 60_002, third = 60_003;
+
+        int enrollmentId = erp.enrollStudentInSection(first, sectionId);
+        assertEquals(1, erp.joinWaitlist(second, sectionId));
+        assertEquals(2, erp.joinWaitlist(third, sectionId));
+
+        erp.dropEnrollment(enrollmentId);
+
+        EnrollmentDao enrollments = new EnrollmentDao();
+        assertTrue(enrollments.findByStudentAndSection(second, sectionId).isPresent(), "head of the queue enrolled");
+        assertTrue(enrollments.findByStudentAndSection(third, sectionId).isEmpty(), "only one seat was freed");
+        assertEquals(0, erp.getWaitlistPosition(second, sectionId));
+        assertEquals(1, erp.getWaitlistPosition(third, sectionId));
+        assertEquals(1, enrollments.findBySectionId(sectionId).size());
+    }
+
+    /** Deleting a section also empties its waitlist. */
+    @Test
+    void deleteSectionRemovesWaitlist() {
+        ErpService erp = new ErpService();
+        int courseId = new CourseDao().insert("WL-102", "Waitlists", 4);
+        int sectionId = erp.addSection(courseId, 1, "Fall", 2025, 1);
+        int seat = erp.enrollStudentInSection(61_001, sectionId);
+        erp.joinWaitlist(61_002, sectionId);
+        erp.joinWaitlist(61_003, sectionId);
+
+        erp.dropEnrollment(seat);
+        erp.deleteSection(sectionId);
+
+        assertTrue(new WaitlistDao().findBySectionId(sectionId).isEmpty());
+        assertEquals(0, erp.getWaitlistPosition(61_003, sectionId));
+    }
+
+    /** Two seats freed at once go to the first two in line, each exactly once. */
+    @Test
+    void concurrentDropsPromoteInOrder() throws Exception {
+        ErpService erp = new ErpService();
+        int courseId = new CourseDao().insert("WL-103", "Waitlists", 4);
+        int sectionId = erp.addSection(courseId, 1, "Fall", 2025, 2);
+        int a = erp.enrollStudentInSection(62_001, sectionId);
+        int b = erp.enrollStudentInSection(62_002, sectionId);
+        erp.joinWaitlist(62_003, sectionId);
+        erp.joinWaitlist(62_004, sectionId);
+        erp.joinWaitlist(62_005, sectionId);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<?> dropA = pool.submit(() -> { start.await(); erp.dropEnrollment(a); return null; });
+            Future<?> dropB = pool.submit(() -> { start.await(); erp.dropEnrollment(b); return null; });
+            start.countDown();
+            dropA.get(30, TimeUnit.SECONDS); // a promotion that spins never returns
+            dropB.get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        EnrollmentDao enrollments = new EnrollmentDao();
+        assertTrue(enrollments.findByStudentAndSection(62_003, sectionId).isPresent());
+        assertTrue(enrollments.findByStudentAndSection(62_004, sectionId).isPresent());
+        assertTrue(enrollments.findByStudentAndSection(62_005, sectionId).isEmpty());
+        assertEquals(2, enrollments.findBySectionId(sectionId).size());
+        assertEquals(1, new WaitlistDao().findBySectionId(sectionId).size());
+    }
+}